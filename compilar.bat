@@ -1,23 +1,34 @@
 @echo off
+rem DECISAO: Cada tarefa e compilada junto com src\comum (classes compartilhadas,
+rem como ProtocoloGarfos e Benchmark), que ficam no mesmo pacote padrao
 echo Compilando Tarefa 1...
 cd src\tarefa1
-javac *.java
+javac *.java ..\comum\*.java
 cd ..\..
 
 echo Compilando Tarefa 2...
 cd src\tarefa2
-javac *.java
+javac *.java ..\comum\*.java
 cd ..\..
 
 echo Compilando Tarefa 3...
 cd src\tarefa3
-javac *.java
+javac *.java ..\comum\*.java
 cd ..\..
 
 echo Compilando Tarefa 4...
 cd src\tarefa4
-javac *.java
+javac *.java ..\comum\*.java
 cd ..\..
 
-echo Compilacao concluida!
+echo Compilando Tarefa 5...
+cd src\tarefa5
+javac *.java ..\comum\*.java
+cd ..\..
 
+echo Compilando Tarefa 6...
+cd src\tarefa6
+javac *.java ..\comum\*.java
+cd ..\..
+
+echo Compilacao concluida!
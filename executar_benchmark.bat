@@ -0,0 +1,23 @@
+@echo off
+rem Benchmark comparativo das estrategias. Parametros extras sao repassados,
+rem ex.: executar_benchmark.bat --filosofos=5,64 --threads=1,2,4,N --comer=10us
+cd src\tarefa1
+java Benchmark --protocolo=ProtocoloEsquerdoDireito %*
+java Benchmark --protocolo=ProtocoloEsquerdoDireitoAtomico %*
+cd ..\tarefa2
+java Benchmark --protocolo=ProtocoloAssimetrico %*
+java Benchmark --protocolo=ProtocoloAssimetricoAtomico %*
+cd ..\tarefa3
+java Benchmark --protocolo=ProtocoloSemaforo %*
+cd ..\tarefa4
+java Benchmark --protocolo=Mesa %*
+java Benchmark --protocolo=MesaParticionada %*
+java Benchmark --protocolo=MesaArrendada %*
+java Benchmark --protocolo=MesaAtomica %*
+java Benchmark --protocolo=MesaGrafo %*
+java Benchmark --protocolo=MesaCompacta %*
+cd ..\tarefa5
+java Benchmark --protocolo=ProtocoloHigienico %*
+cd ..\tarefa6
+java Benchmark --protocolo=ProtocoloBackoff %*
+cd ..\..
@@ -0,0 +1,24 @@
+@echo off
+rem Estresse de todas as estrategias: sem pensar nem comer, verificando as
+rem invariantes a cada refeicao. Parametros extras sao repassados,
+rem ex.: executar_estresse.bat --filosofos=5,64 --duracao=10000
+cd src\tarefa1
+java BenchmarkEstresse --protocolo=ProtocoloEsquerdoDireito %*
+java BenchmarkEstresse --protocolo=ProtocoloEsquerdoDireitoAtomico %*
+cd ..\tarefa2
+java BenchmarkEstresse --protocolo=ProtocoloAssimetrico %*
+java BenchmarkEstresse --protocolo=ProtocoloAssimetricoAtomico %*
+cd ..\tarefa3
+java BenchmarkEstresse --protocolo=ProtocoloSemaforo %*
+cd ..\tarefa4
+java BenchmarkEstresse --protocolo=Mesa %*
+java BenchmarkEstresse --protocolo=MesaParticionada %*
+java BenchmarkEstresse --protocolo=MesaArrendada %*
+java BenchmarkEstresse --protocolo=MesaAtomica %*
+java BenchmarkEstresse --protocolo=MesaGrafo %*
+java BenchmarkEstresse --protocolo=MesaCompacta %*
+cd ..\tarefa5
+java BenchmarkEstresse --protocolo=ProtocoloHigienico %*
+cd ..\tarefa6
+java BenchmarkEstresse --protocolo=ProtocoloBackoff %*
+cd ..\..
@@ -0,0 +1,8 @@
+@echo off
+rem Experimento de uma estrategia (tarefa1 a tarefa6) com saida em texto, CSV ou JSON.
+rem O primeiro parametro e a estrategia; os demais sao repassados, ex.:
+rem executar_experimento.bat tarefa2 --filosofos=5 --duracao=10000 --formato=json --saida=resultado.json
+rem (um --saida relativo fica em src\<estrategia>)
+cd src\%1
+java Experimento --estrategia=%*
+cd ..\..
@@ -0,0 +1,4 @@
+@echo off
+cd src\tarefa5
+java Main
+
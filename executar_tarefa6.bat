@@ -0,0 +1,3 @@
+@echo off
+cd src\tarefa6
+java Main
@@ -0,0 +1,471 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Análise offline de um trace binário (ver TraceBinario).
+ *
+ * O QUE É RECONSTRUÍDO:
+ * - ocupação de cada garfo: aquisições, fração do tempo ocupado, posse média
+ *   e máxima, espera média e máxima de quem o pediu
+ * - refeições por filósofo e índice de justiça de Jain
+ * - cadeias de espera (A espera um garfo de B, que espera um de C, ...): a
+ *   maior observada e cada ciclo fechado, que é um ponto de deadlock
+ * - estado final: quem terminou esperando e quais garfos ficaram ocupados
+ *
+ * DECISÃO DE DESIGN: Leitura em fluxo. Cada segmento é mapeado somente para
+ * leitura e percorrido uma vez; o sistema operacional traz as páginas sob
+ * demanda, e a memória usada é a do estado da mesa (alguns arrays de N)
+ * mais a janela de reordenação, independente do tamanho do trace.
+ *
+ * DECISÃO: Janela de reordenação. O drenador grava lotes na ordem em que os
+ * drena, então um evento pode chegar ao arquivo depois de outros alguns
+ * milissegundos mais novos. Os eventos passam por um heap e só são
+ * processados quando o maior instante lido está janelaMs à frente deles.
+ * Eventos que chegam ainda mais atrasados são processados assim mesmo e
+ * contados como "fora da janela".
+ *
+ * DECISÃO: Garfos do filósofo p são p (esquerdo) e (p + 1) % N (direito) em
+ * todas as tarefas; isso resolve os eventos que não trazem o garfo
+ * (PEGOU_GARFOS e SOLTOU_GARFOS). Na Tarefa 4 a espera é pelos dois garfos de
+ * uma vez e não forma cadeia.
+ *
+ * USO (a partir do diretório onde o trace foi gravado):
+ *   java AnaliseTrace --trace=trace --janela=50 --garfos=20
+ *
+ * PARÂMETROS:
+ *   --trace      prefixo dos arquivos (padrão trace)
+ *   --janela     janela de reordenação em ms (padrão 50)
+ *   --garfos     quantos garfos listar, os de maior espera total (padrão 20)
+ *   --filosofos  tamanho da mesa, se o cabeçalho não o tiver
+ */
+public class AnaliseTrace {
+    private static final int LIVRE = -1;
+    private static final int NENHUM = -1;
+    // DECISÃO: Marca de quem espera os dois garfos juntos (Tarefa 4)
+    private static final int DOIS_GARFOS = -2;
+    private static final int MAX_TRAVAMENTOS_LISTADOS = 20;
+    private static final int MAX_MEMBROS_LISTADOS = 12;
+
+    private final int numFilosofos;
+    private final long janelaNs;
+
+    // DECISÃO: Estado da mesa em arrays de primitivos, um índice por garfo/filósofo
+    private final int[] dono;
+    private final long[] inicioPosse;
+    private final long[] tempoOcupado;
+    private final long[] posseMaxima;
+    private final long[] aquisicoes;
+    private final long[] esperaTotal;
+    private final long[] esperaMaxima;
+    private final int[] aguardando;
+    private final long[] inicioEspera;
+    private final int[] refeicoes;
+    private final Histograma esperas;
+
+    // DECISÃO: Janela de reordenação; a ordem de leitura desempata e preserva
+    // a ordem dos eventos de cada filósofo
+    private final HeapEventos janela;
+    private long maiorLido;
+    private boolean leuAlgum;
+    private long ultimoProcessado;
+
+    private final long origem;
+    private long primeiro;
+    private long ultimo;
+    private long eventos;
+    private long foraDaJanela;
+    private long posseSobreposta;
+    private int maiorCadeia;
+    private long instanteMaiorCadeia;
+    private long travamentos;
+    private final List<String> descricaoTravamentos;
+
+    AnaliseTrace(int numFilosofos, long janelaNs, long origem) {
+        this.numFilosofos = numFilosofos;
+        this.janelaNs = janelaNs;
+        this.origem = origem;
+        this.dono = new int[numFilosofos];
+        this.inicioPosse = new long[numFilosofos];
+        this.tempoOcupado = new long[numFilosofos];
+        this.posseMaxima = new long[numFilosofos];
+        this.aquisicoes = new long[numFilosofos];
+        this.esperaTotal = new long[numFilosofos];
+        this.esperaMaxima = new long[numFilosofos];
+        this.aguardando = new int[numFilosofos];
+        this.inicioEspera = new long[numFilosofos];
+        this.refeicoes = new int[numFilosofos];
+        this.esperas = new Histograma();
+        this.janela = new HeapEventos(1024);
+        this.descricaoTravamentos = new ArrayList<>();
+        Arrays.fill(dono, LIVRE);
+        Arrays.fill(aguardando, NENHUM);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Argumentos argumentos = new Argumentos(args);
+        String prefixo = argumentos.getString("trace", "trace");
+        long janelaNs = TimeUnit.MILLISECONDS.toNanos(argumentos.getLong("janela", 50));
+        int garfosListados = argumentos.getInt("garfos", 20);
+
+        List<Path> segmentos = listarSegmentos(prefixo);
+        if (segmentos.isEmpty()) {
+            System.err.println("Nenhum segmento " + prefixo + "-*.bin encontrado");
+            System.exit(1);
+        }
+        AnaliseTrace analise = null;
+        for (Path segmento : segmentos) {
+            try (FileChannel canal = FileChannel.open(segmento)) {
+                MappedByteBuffer dados = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+                dados.order(ByteOrder.LITTLE_ENDIAN);
+                if (dados.remaining() < TraceBinario.TAMANHO_CABECALHO || dados.getLong() != TraceBinario.MAGICO
+                        || dados.getInt() != TraceBinario.VERSAO) {
+                    System.err.println("Arquivo nao e um trace valido: " + segmento);
+                    System.exit(1);
+                }
+                int numFilosofos = dados.getInt();
+                dados.getInt(); // número do segmento
+                dados.getInt();
+                long origemNanos = dados.getLong();
+                if (analise == null) {
+                    numFilosofos = numFilosofos > 0 ? numFilosofos : argumentos.getInt("filosofos", 0);
+                    if (numFilosofos <= 0) {
+                        System.err.println("Tamanho da mesa ausente no trace; informe --filosofos=N");
+                        System.exit(1);
+                    }
+                    analise = new AnaliseTrace(numFilosofos, janelaNs, origemNanos);
+                }
+                dados.position(TraceBinario.TAMANHO_CABECALHO);
+                while (dados.remaining() >= TraceBinario.TAMANHO_REGISTRO) {
+                    long palavra = dados.getLong();
+                    long instante = dados.getLong();
+                    if (palavra == 0) {
+                        break; // fim dos registros gravados
+                    }
+                    analise.ler(palavra, instante);
+                }
+            }
+        }
+        analise.finalizar();
+        analise.imprimir(prefixo, segmentos, garfosListados);
+    }
+
+    /**
+     * Segmentos do trace em ordem; com rotação os primeiros podem ter sido apagados.
+     */
+    static List<Path> listarSegmentos(String prefixo) throws IOException {
+        Path base = Paths.get(prefixo).toAbsolutePath();
+        Path diretorio = base.getParent();
+        String nome = base.getFileName().toString();
+        List<Path> segmentos = new ArrayList<>();
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, nome + "-*.bin")) {
+            for (Path arquivo : arquivos) {
+                if (arquivo.getFileName().toString().matches(Pattern.quote(nome) + "-\\d{5}\\.bin")) {
+                    segmentos.add(arquivo);
+                }
+            }
+        }
+        Collections.sort(segmentos);
+        return segmentos;
+    }
+
+    /**
+     * Recebe um evento na ordem do arquivo e processa os que saíram da janela.
+     */
+    void ler(long palavra, long instante) {
+        if (!leuAlgum || instante - maiorLido > 0) {
+            maiorLido = instante;
+            leuAlgum = true;
+        }
+        janela.inserir(instante, palavra);
+        while (!janela.vazio() && maiorLido - janela.instanteTopo() > janelaNs) {
+            processarTopo();
+        }
+    }
+
+    void finalizar() {
+        while (!janela.vazio()) {
+            processarTopo();
+        }
+        // DECISÃO: Posses em aberto contam até o último evento do trace, mas o
+        // dono continua registrado para o estado final
+        for (int g = 0; g < numFilosofos; g++) {
+            if (dono[g] != LIVRE) {
+                long posse = ultimo - inicioPosse[g];
+                tempoOcupado[g] += posse;
+                posseMaxima[g] = Math.max(posseMaxima[g], posse);
+            }
+        }
+    }
+
+    private void processarTopo() {
+        long instante = janela.instanteTopo();
+        long palavra = janela.dadoTopo();
+        janela.remover();
+        if (eventos > 0 && instante - ultimoProcessado < 0) {
+            foraDaJanela++;
+        } else {
+            ultimoProcessado = instante;
+        }
+        processar(palavra, instante);
+    }
+
+    private void processar(long palavra, long instante) {
+        int p = Evento.filosofo(palavra);
+        int garfo = Evento.garfo(palavra);
+        if (p < 0 || p >= numFilosofos) {
+            return;
+        }
+        if (eventos == 0) {
+            primeiro = instante;
+        }
+        eventos++;
+        ultimo = instante;
+        int esquerdo = p;
+        int direito = (p + 1) % numFilosofos;
+        switch (Evento.codigo(palavra)) {
+            case Evento.TENTANDO_ESQUERDO:
+            case Evento.TENTANDO_DIREITO:
+                aguardando[p] = garfo;
+                inicioEspera[p] = instante;
+                verificarCadeia(p, instante);
+                break;
+            case Evento.PEGOU_ESQUERDO:
+            case Evento.PEGOU_DIREITO:
+                registrarEspera(p, garfo, instante);
+                adquirir(p, garfo, instante);
+                break;
+            case Evento.TENTANDO_GARFOS:
+                aguardando[p] = DOIS_GARFOS;
+                inicioEspera[p] = instante;
+                break;
+            case Evento.PEGOU_GARFOS:
+                if (aguardando[p] == DOIS_GARFOS) {
+                    long espera = instante - inicioEspera[p];
+                    esperas.registrar(espera);
+                    acumularEspera(esquerdo, espera);
+                    acumularEspera(direito, espera);
+                }
+                aguardando[p] = NENHUM;
+                adquirir(p, esquerdo, instante);
+                adquirir(p, direito, instante);
+                refeicoes[p]++;
+                break;
+            case Evento.COMENDO:
+                refeicoes[p]++;
+                break;
+            case Evento.SOLTOU_GARFOS:
+                soltarDe(p, esquerdo, instante);
+                soltarDe(p, direito, instante);
+                break;
+            case Evento.PREEMPTADO:
+                soltarDe(p, garfo, instante);
+                break;
+            case Evento.DESISTIU_DIREITO:
+                // DECISÃO: Desistiu do direito (garfo do evento) e soltou o que tinha
+                aguardando[p] = NENHUM;
+                soltarDe(p, garfo == esquerdo ? direito : esquerdo, instante);
+                break;
+            default:
+                // PENSANDO e códigos desconhecidos não mudam a ocupação
+        }
+    }
+
+    private void registrarEspera(int p, int garfo, long instante) {
+        if (aguardando[p] == garfo) {
+            long espera = instante - inicioEspera[p];
+            esperas.registrar(espera);
+            acumularEspera(garfo, espera);
+        }
+        aguardando[p] = NENHUM;
+    }
+
+    private void acumularEspera(int garfo, long espera) {
+        if (garfo >= 0 && garfo < numFilosofos) {
+            esperaTotal[garfo] += espera;
+            esperaMaxima[garfo] = Math.max(esperaMaxima[garfo], espera);
+        }
+    }
+
+    private void adquirir(int p, int garfo, long instante) {
+        if (garfo < 0 || garfo >= numFilosofos) {
+            return;
+        }
+        // DECISÃO: Dono anterior sem soltura registrada. É o caso normal quando o
+        // vizinho pega o garfo entre o soltar() e o registro do SOLTOU_GARFOS, e
+        // também o de um trace que começa no meio (rotação): encerra a posse dele
+        if (dono[garfo] != LIVRE && dono[garfo] != p) {
+            posseSobreposta++;
+            encerrarPosse(garfo, instante);
+        }
+        if (dono[garfo] == p) {
+            return;
+        }
+        dono[garfo] = p;
+        inicioPosse[garfo] = instante;
+        aquisicoes[garfo]++;
+        // DECISÃO: Só os dois filósofos que compartilham o garfo podem estar
+        // esperando por ele; a nova posse pode fechar a cadeia de um deles
+        int outro = garfo == p ? (p - 1 + numFilosofos) % numFilosofos : garfo;
+        if (aguardando[outro] == garfo) {
+            verificarCadeia(outro, instante);
+        }
+    }
+
+    private void soltarDe(int p, int garfo, long instante) {
+        if (garfo >= 0 && garfo < numFilosofos && dono[garfo] == p) {
+            encerrarPosse(garfo, instante);
+        }
+    }
+
+    private void encerrarPosse(int garfo, long instante) {
+        long posse = instante - inicioPosse[garfo];
+        tempoOcupado[garfo] += posse;
+        posseMaxima[garfo] = Math.max(posseMaxima[garfo], posse);
+        dono[garfo] = LIVRE;
+    }
+
+    /**
+     * Segue a cadeia de espera a partir de um filósofo que acabou de ganhar
+     * uma aresta (passou a esperar, ou o garfo que espera ganhou dono).
+     *
+     * DECISÃO: O ciclo só pode fechar na aresta nova, então basta ver se a
+     * cadeia volta ao início; cada deadlock é contado uma vez, no evento que o
+     * fechou. O laço é limitado a N passos.
+     */
+    private void verificarCadeia(int inicio, long instante) {
+        int comprimento = 1;
+        int atual = inicio;
+        while (comprimento <= numFilosofos) {
+            int garfo = aguardando[atual];
+            if (garfo < 0 || garfo >= numFilosofos) {
+                break;
+            }
+            int proximo = dono[garfo];
+            if (proximo == LIVRE || proximo == atual) {
+                break;
+            }
+            if (proximo == inicio) {
+                registrarTravamento(inicio, instante);
+                break;
+            }
+            comprimento++;
+            atual = proximo;
+        }
+        if (comprimento > maiorCadeia) {
+            maiorCadeia = comprimento;
+            instanteMaiorCadeia = instante;
+        }
+    }
+
+    private void registrarTravamento(int inicio, long instante) {
+        travamentos++;
+        if (descricaoTravamentos.size() >= MAX_TRAVAMENTOS_LISTADOS) {
+            return;
+        }
+        StringBuilder membros = new StringBuilder();
+        int atual = inicio;
+        int listados = 0;
+        do {
+            if (listados == MAX_MEMBROS_LISTADOS) {
+                membros.append(" -> ...");
+                break;
+            }
+            membros.append(atual).append(" -> ");
+            atual = dono[aguardando[atual]];
+            listados++;
+        } while (atual != inicio);
+        if (listados < MAX_MEMBROS_LISTADOS) {
+            membros.append(inicio);
+        }
+        descricaoTravamentos.add(String.format("  %10.1f ms: %s", ms(instante - origem), membros));
+    }
+
+    void imprimir(String prefixo, List<Path> segmentos, int garfosListados) {
+        long duracao = Math.max(1, ultimo - primeiro);
+        System.out.println("=== Analise do trace " + prefixo + " ===");
+        System.out.println("Segmentos: " + segmentos.size() + " (" + segmentos.get(0).getFileName()
+                + (segmentos.size() > 1 ? " .. " + segmentos.get(segmentos.size() - 1).getFileName() : "") + ")");
+        System.out.println(String.format("Eventos: %d em %.1f s, %d filosofos", eventos, duracao / 1e9, numFilosofos));
+        if (foraDaJanela > 0) {
+            System.out.println("Aviso: " + foraDaJanela + " eventos fora da janela de reordenacao (aumente --janela)");
+        }
+        if (posseSobreposta > 0) {
+            System.out.println("Garfos pegos antes do registro da soltura anterior: " + posseSobreposta);
+        }
+
+        // DECISÃO: Em mesas grandes só os garfos de maior espera total
+        Integer[] ordem = new Integer[numFilosofos];
+        for (int g = 0; g < numFilosofos; g++) {
+            ordem[g] = g;
+        }
+        Arrays.sort(ordem, (a, b) -> Long.compare(esperaTotal[b], esperaTotal[a]));
+        int listados = Math.min(garfosListados, numFilosofos);
+        System.out.println();
+        System.out.println("Garfos" + (listados < numFilosofos ? " (" + listados + " de maior espera)" : "") + ":");
+        System.out.println(String.format("%7s %12s %11s %14s %13s %15s %14s",
+                "garfo", "aquisicoes", "ocupado(%)", "posse med(ms)", "posse max(ms)", "espera med(ms)", "espera max(ms)"));
+        for (int k = 0; k < listados; k++) {
+            int g = ordem[k];
+            System.out.println(String.format("%7d %12d %11.1f %14.3f %13.3f %15.3f %14.3f",
+                    g, aquisicoes[g], 100.0 * tempoOcupado[g] / duracao,
+                    aquisicoes[g] == 0 ? 0 : ms(tempoOcupado[g]) / aquisicoes[g], ms(posseMaxima[g]),
+                    aquisicoes[g] == 0 ? 0 : ms(esperaTotal[g]) / aquisicoes[g], ms(esperaMaxima[g])));
+        }
+
+        long total = 0;
+        int minimo = Integer.MAX_VALUE;
+        int maximo = 0;
+        for (int r : refeicoes) {
+            total += r;
+            minimo = Math.min(minimo, r);
+            maximo = Math.max(maximo, r);
+        }
+        System.out.println();
+        System.out.println(String.format("Refeicoes: %d (min %d, max %d por filosofo), indice de Jain %.4f",
+                total, minimo, maximo, RelatorioEstatisticas.indiceJain(refeicoes)));
+        System.out.println(String.format("Espera por garfo: p50 %.3f ms, p99 %.3f ms, max %.3f ms",
+                ms(esperas.percentil(50)), ms(esperas.percentil(99)), ms(esperas.getMaximo())));
+        if (maiorCadeia > 0) {
+            System.out.println(String.format("Maior cadeia de espera: %d filosofo(s), em %.1f ms",
+                    maiorCadeia, ms(instanteMaiorCadeia - origem)));
+        } else {
+            System.out.println("Maior cadeia de espera: nenhuma (espera pelos dois garfos juntos)");
+        }
+        System.out.println("Travamentos (ciclos de espera): " + travamentos);
+        for (String descricao : descricaoTravamentos) {
+            System.out.println(descricao);
+        }
+        if (travamentos > descricaoTravamentos.size()) {
+            System.out.println("  ... e mais " + (travamentos - descricaoTravamentos.size()));
+        }
+
+        int esperando = 0;
+        int ocupados = 0;
+        for (int i = 0; i < numFilosofos; i++) {
+            if (aguardando[i] != NENHUM) {
+                esperando++;
+            }
+            if (dono[i] != LIVRE) {
+                ocupados++;
+            }
+        }
+        System.out.println("Estado final: " + esperando + " filosofo(s) esperando garfos, "
+                + ocupados + " garfo(s) ocupados");
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,86 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Leitura simples de argumentos de linha de comando no formato --chave=valor.
+ *
+ * DECISÃO DE DESIGN: Os programas do projeto são executados com "java Main"
+ * a partir do diretório da tarefa, sem bibliotecas externas. Um parser mínimo
+ * mantém essa simplicidade e deixa os valores padrão visíveis em cada Main,
+ * que continua definindo suas constantes.
+ *
+ * EXEMPLO: java Benchmark --filosofos=5,64 --threads=1,4 --medicao=2000
+ */
+public class Argumentos {
+    private final Map<String, String> valores;
+
+    public Argumentos(String[] args) {
+        this.valores = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Argumento invalido: " + arg + " (use --chave=valor)");
+            }
+            // DECISÃO: Aceitar também "--flag" sem valor, interpretado como "true"
+            int igual = arg.indexOf('=');
+            if (igual < 0) {
+                valores.put(arg.substring(2), "true");
+            } else {
+                valores.put(arg.substring(2, igual), arg.substring(igual + 1));
+            }
+        }
+    }
+
+    public boolean contem(String chave) {
+        return valores.containsKey(chave);
+    }
+
+    public String getString(String chave, String padrao) {
+        String valor = valores.get(chave);
+        return valor != null ? valor : padrao;
+    }
+
+    public int getInt(String chave, int padrao) {
+        String valor = valores.get(chave);
+        return valor != null ? Integer.parseInt(valor.trim()) : padrao;
+    }
+
+    /**
+     * Inteiro com valor mínimo; abaixo dele imprime o uso e encerra o programa.
+     *
+     * DECISÃO: Para os Main, onde um valor inválido só apareceria como uma
+     * exceção no meio da montagem da mesa, ou como um filósofo esperando por si mesmo.
+     */
+    public int getIntMinimo(String chave, int padrao, int minimo) {
+        int valor = getInt(chave, padrao);
+        if (valor < minimo) {
+            System.err.println("Uso: --" + chave + "=N com N >= " + minimo + " (recebido " + valor + ")");
+            System.exit(1);
+        }
+        return valor;
+    }
+
+    public long getLong(String chave, long padrao) {
+        String valor = valores.get(chave);
+        return valor != null ? Long.parseLong(valor.trim()) : padrao;
+    }
+
+    public boolean getBoolean(String chave, boolean padrao) {
+        String valor = valores.get(chave);
+        return valor != null ? Boolean.parseBoolean(valor.trim()) : padrao;
+    }
+
+    /**
+     * Lista de inteiros separados por vírgula (ex.: "1,2,4,8").
+     */
+    public List<Integer> getListaInt(String chave, String padrao) {
+        List<Integer> lista = new ArrayList<>();
+        for (String parte : getString(chave, padrao).split(",")) {
+            if (!parte.trim().isEmpty()) {
+                lista.add(Integer.parseInt(parte.trim()));
+            }
+        }
+        return lista;
+    }
+}
@@ -0,0 +1,183 @@
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmark de vazão e latência dos protocolos de aquisição de garfos.
+ *
+ * DECISÃO DE DESIGN: O projeto não usa ferramenta de build, então em vez de
+ * JMH seguimos a mesma metodologia com código próprio: aquecimento antes da
+ * medição (para o JIT compilar o caminho quente), várias iterações
+ * independentes e resultados agregados com média e desvio.
+ *
+ * O QUE É MEDIDO:
+ * - ops/s: refeições completas (pegarGarfos + soltarGarfos) por segundo
+ * - latência de aquisição: tempo dentro de pegarGarfos (média, p50, p99, máx)
+ * - escalabilidade: cada combinação de número de filósofos (N) e de threads
+ *   ativas (T), onde cada thread ocupa um assento fixo da mesa
+ *
+ * Os tempos de pensar/comer são configuráveis e por padrão são zero, para
+ * que o custo medido seja o do protocolo e não o de Thread.sleep.
+ *
+ * USO (a partir do diretório de uma tarefa compilada):
+ *   java Benchmark --protocolo=Mesa --filosofos=5,64 --threads=1,2,4,N
+ *
+ * PARÂMETROS:
+ *   --protocolo   classe que implementa ProtocoloGarfos (obrigatório)
+ *   --filosofos   tamanhos de mesa, separados por vírgula (padrão 5,16,64)
+ *   --threads     threads ativas; "N" = todos os assentos (padrão 1,2,4,N)
+ *   --assentos    espalhados | contiguos (padrão espalhados)
+ *   --pensar, --comer   ver DistribuicaoTempo (padrão 0)
+ *   --famintos    quantas das T threads, espalhadas entre elas, não pensam
+ *                 (carga desigual: poucos filósofos muito mais famintos; padrão 0)
+ *   --aquecimento, --medicao   duração em ms (padrão 1000 e 2000)
+ *   --iteracoes   repetições por combinação (padrão 3)
+ *   --execucao    plataforma | virtual (padrão plataforma, ver ModoExecucao)
+ */
+public class Benchmark {
+    // DECISÃO: Tempo máximo para as threads terminarem após a interrupção
+    private static final long TIMEOUT_JOIN_MS = 5000;
+
+    public static void main(String[] args) throws Exception {
+        Argumentos argumentos = new Argumentos(args);
+        String protocolo = argumentos.getString("protocolo", null);
+        if (protocolo == null) {
+            System.err.println("Uso: java Benchmark --protocolo=<classe> [--filosofos=5,16,64] [--threads=1,2,4,N]");
+            System.exit(1);
+        }
+        List<Integer> tamanhos = argumentos.getListaInt("filosofos", "5,16,64");
+        String threads = argumentos.getString("threads", "1,2,4,N");
+        boolean contiguos = "contiguos".equals(argumentos.getString("assentos", "espalhados"));
+        DistribuicaoTempo pensar = DistribuicaoTempo.parse(argumentos.getString("pensar", "0"));
+        DistribuicaoTempo comer = DistribuicaoTempo.parse(argumentos.getString("comer", "0"));
+        int famintos = argumentos.getInt("famintos", 0);
+        long aquecimentoMs = argumentos.getLong("aquecimento", 1000);
+        long medicaoMs = argumentos.getLong("medicao", 2000);
+        int iteracoes = argumentos.getInt("iteracoes", 3);
+        String execucao = argumentos.getString("execucao", ModoExecucao.PLATAFORMA);
+
+        System.out.println("=== Benchmark " + protocolo + " ===");
+        System.out.println("pensar=" + pensar + " comer=" + comer + " aquecimento=" + aquecimentoMs
+                + "ms medicao=" + medicaoMs + "ms iteracoes=" + iteracoes
+                + " assentos=" + (contiguos ? "contiguos" : "espalhados") + " execucao=" + execucao
+                + (famintos > 0 ? " famintos=" + famintos : ""));
+        System.out.println(String.format("%-22s %7s %5s %14s %10s %10s %10s %10s %10s  %s",
+                "protocolo", "N", "T", "ops/s", "desvio", "media(us)", "p50(us)", "p99(us)", "max(us)", "obs"));
+
+        for (int n : tamanhos) {
+            for (int t : threadsPara(threads, n)) {
+                Histograma latencias = new Histograma();
+                double[] vazoes = new double[iteracoes];
+                int travamentos = 0;
+                String nome = protocolo;
+                for (int it = 0; it < iteracoes; it++) {
+                    ProtocoloGarfos mesa = criar(protocolo, n);
+                    nome = mesa.getNome();
+                    Rodada rodada = executar(mesa, t, contiguos, pensar, comer, famintos,
+                            aquecimentoMs, medicaoMs, execucao);
+                    vazoes[it] = rodada.vazao;
+                    latencias.combinar(rodada.latencias);
+                    if (rodada.travou) {
+                        travamentos++;
+                    }
+                }
+                // DECISÃO: "TRAVOU" cobre deadlock e também esperas que nunca são
+                // reavaliadas (ex.: fairness da Mesa aguardando filósofos ociosos)
+                String obs = travamentos > 0 ? "TRAVOU em " + travamentos + "/" + iteracoes : "";
+                System.out.println(String.format("%-22s %7d %5d %14.0f %10.0f %10.2f %10.2f %10.2f %10.2f  %s",
+                        nome, n, t, RelatorioEstatisticas.media(vazoes), RelatorioEstatisticas.desvio(vazoes),
+                        latencias.getMedia() / 1000.0,
+                        latencias.percentil(50) / 1000.0,
+                        latencias.percentil(99) / 1000.0,
+                        latencias.getMaximo() / 1000.0, obs));
+            }
+        }
+    }
+
+    /**
+     * Executa uma rodada: aquecimento, medição e encerramento.
+     *
+     * DECISÃO: As threads são criadas uma vez por rodada e só registram
+     * amostras durante a fase MEDINDO; assim o aquecimento exercita exatamente
+     * o mesmo código sem contaminar os números.
+     */
+    static Rodada executar(ProtocoloGarfos mesa, int numThreads, boolean contiguos,
+                           DistribuicaoTempo pensar, DistribuicaoTempo comer, int famintos,
+                           long aquecimentoMs, long medicaoMs, String execucao) throws InterruptedException {
+        int n = mesa.getNumFilosofos();
+        AtomicInteger fase = new AtomicInteger(CicloFilosofo.AQUECENDO);
+        CicloFilosofo[] trabalhadores = new CicloFilosofo[numThreads];
+        Thread[] threads = new Thread[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            // DECISÃO: "espalhados" distribui as threads pela mesa; "contiguos"
+            // as coloca lado a lado para forçar disputa entre vizinhos
+            int assento = contiguos ? i : (int) ((long) i * n / numThreads);
+            // DECISÃO: Os famintos são as threads 0, T/K, 2T/K, ... e comem sem pensar
+            boolean faminto = famintos > 0 && i % Math.max(1, numThreads / famintos) == 0
+                    && i / Math.max(1, numThreads / famintos) < famintos;
+            trabalhadores[i] = new CicloFilosofo(mesa, assento, fase,
+                    faminto ? DistribuicaoTempo.zero() : pensar, comer, true);
+            threads[i] = ModoExecucao.preparar(new Thread(trabalhadores[i], "bench-" + assento), execucao);
+            threads[i].start();
+        }
+
+        Thread.sleep(aquecimentoMs);
+        fase.set(CicloFilosofo.MEDINDO);
+        long inicio = System.nanoTime();
+        Thread.sleep(medicaoMs);
+        fase.set(CicloFilosofo.ENCERRADO);
+        long fim = System.nanoTime();
+
+        // DECISÃO: interrupt() libera threads bloqueadas (inclusive em deadlock);
+        // join() com timeout garante que o benchmark nunca fica preso
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        Rodada rodada = new Rodada();
+        long operacoes = 0;
+        long ultimaOperacao = Long.MIN_VALUE;
+        for (int i = 0; i < numThreads; i++) {
+            CicloFilosofo trabalhador = trabalhadores[i];
+            threads[i].join(TIMEOUT_JOIN_MS);
+            if (threads[i].isAlive()) {
+                System.err.println("Aviso: thread do assento " + trabalhador.getAssento() + " nao terminou");
+            }
+            operacoes += trabalhador.getRefeicoes();
+            rodada.latencias.combinar(trabalhador.getEspera());
+            ultimaOperacao = Math.max(ultimaOperacao, trabalhador.getUltimaRefeicaoNs());
+        }
+        rodada.vazao = operacoes / ((fim - inicio) / 1e9);
+        // DECISÃO: Consideramos travamento quando nenhuma thread completou uma
+        // refeição no último quarto da medição (com folga para tempos longos)
+        long limiar = Math.max(TimeUnit.MILLISECONDS.toNanos(medicaoMs) / 4,
+                4 * (pensar.getMaximoNs() + comer.getMaximoNs()));
+        rodada.travou = ultimaOperacao < fim - limiar;
+        return rodada;
+    }
+
+    static ProtocoloGarfos criar(String classe, int numFilosofos) throws Exception {
+        Class<?> tipo = Class.forName(classe);
+        return (ProtocoloGarfos) tipo.getConstructor(int.class).newInstance(numFilosofos);
+    }
+
+    private static List<Integer> threadsPara(String especificacao, int n) {
+        Set<Integer> valores = new LinkedHashSet<>();
+        for (String parte : especificacao.split(",")) {
+            String p = parte.trim();
+            int t = p.equalsIgnoreCase("N") ? n : Integer.parseInt(p);
+            if (t >= 1 && t <= n) {
+                valores.add(t);
+            }
+        }
+        return new ArrayList<>(valores);
+    }
+
+    static class Rodada {
+        final Histograma latencias = new Histograma();
+        double vazao;
+        boolean travou;
+    }
+}
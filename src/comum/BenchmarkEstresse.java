@@ -0,0 +1,315 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Teste de estresse: vazão máxima com verificação contínua das invariantes.
+ *
+ * PROBLEMA: Com 1 a 3 s de pensar e comer, Garfo e Mesa quase não são
+ * exercitados; uma corrida rara nunca apareceria, nem o teto real de disputa.
+ *
+ * DECISÃO DE DESIGN: Um assento por thread, todos ocupados, sem pensar nem
+ * comer - cada thread só pega e solta os garfos, o mais rápido que puder.
+ * A cada refeição a própria thread confere, sobre estruturas que são só do
+ * teste (nunca do protocolo):
+ * - garfo com dois donos: toma por CAS os dois garfos em "donos"; se um já
+ *   tem dono, outro filósofo saiu de pegarGarfos com ele e ainda não o soltou
+ * - vizinhos comendo juntos: marca "comendo" e lê os dois vizinhos, como no
+ *   algoritmo de Dekker (leituras e escritas voláteis, ordem sequencial)
+ * As marcações ficam dentro do intervalo entre pegarGarfos e soltarGarfos,
+ * então uma violação acusada é sempre real.
+ *
+ * ACORDAR PERDIDO: Com todos disputando, um sinal perdido é coberto pelo
+ * próximo vizinho que solta os garfos, e ninguém nota. Por isso o teste corre
+ * em rodadas curtas: no fim de cada uma, as threads deixam de pedir garfos e
+ * param numa barreira. Quem ficou esperando precisa ser acordado por quem
+ * soltou por último; se alguém não chega à barreira no prazo, com todos os
+ * outros parados, ficou preso (acordar perdido, ou deadlock na Tarefa 1). Na
+ * barreira, nenhum garfo pode continuar com dono em "donos".
+ *
+ * O QUE É MEDIDO: refeições por segundo (média e a pior rodada, que é a taxa
+ * sustentada) e a maior espera em pegarGarfos. O tempo de cada rodada vai até
+ * todos pararem, então a parada entra na conta.
+ *
+ * USO (a partir do diretório de uma tarefa compilada):
+ *   java BenchmarkEstresse --protocolo=Mesa --filosofos=5,64
+ *
+ * PARÂMETROS:
+ *   --protocolo   classe que implementa ProtocoloGarfos (obrigatório)
+ *   --filosofos   tamanhos de mesa (mínimo 2), separados por vírgula (padrão 5,64)
+ *   --duracao     tempo total das rodadas em ms (padrão 5000)
+ *   --rodada      duração de cada rodada em ms (padrão 250)
+ *   --limite      prazo para todos pararem no fim de uma rodada, em ms
+ *                 (padrão 10000, acima dos 5 s da fairness da Mesa)
+ */
+public class BenchmarkEstresse {
+    private static final int LIVRE = -1;
+    // DECISÃO: Prazo do join final; quem não terminou já foi contado como preso
+    private static final long TIMEOUT_JOIN_MS = 5000;
+    // DECISÃO: Assentos presos listados no relatório; o resto só é contado
+    private static final int MAXIMO_LISTADOS = 8;
+
+    public static void main(String[] args) throws Exception {
+        Argumentos argumentos = new Argumentos(args);
+        String protocolo = argumentos.getString("protocolo", null);
+        if (protocolo == null) {
+            System.err.println("Uso: java BenchmarkEstresse --protocolo=<classe> [--filosofos=5,64] [--duracao=5000]");
+            System.exit(1);
+        }
+        List<Integer> tamanhos = argumentos.getListaInt("filosofos", "5,64");
+        long duracaoMs = argumentos.getLong("duracao", 5000);
+        long rodadaMs = argumentos.getLong("rodada", 250);
+        long limiteMs = argumentos.getLong("limite", 10000);
+
+        System.out.println("=== Estresse " + protocolo + " (sem pensar nem comer, " + duracaoMs + " ms em rodadas de "
+                + rodadaMs + " ms, " + Runtime.getRuntime().availableProcessors() + " nucleos) ===");
+        System.out.println(String.format("%-22s %7s %8s %14s %14s %12s %7s %9s  %s",
+                "protocolo", "N", "rodadas", "ops/s", "pior rodada", "max(us)", "garfo", "vizinhos", "resultado"));
+        for (int n : tamanhos) {
+            if (n < 2) {
+                System.out.println(String.format("%-22s %7d  (exige ao menos 2 filosofos)", protocolo, n));
+                continue;
+            }
+            ProtocoloGarfos mesa = Benchmark.criar(protocolo, n);
+            Resultado resultado = executar(mesa, duracaoMs, rodadaMs, limiteMs);
+            System.out.println(String.format("%-22s %7d %8d %14.0f %14.0f %12.1f %7d %9d  %s",
+                    mesa.getNome(), n, resultado.rodadas, resultado.vazao, resultado.piorVazao,
+                    resultado.maiorEsperaNs / 1000.0, resultado.violacoesGarfo, resultado.violacoesVizinhos,
+                    resultado.descrever()));
+        }
+    }
+
+    static Resultado executar(ProtocoloGarfos mesa, long duracaoMs, long rodadaMs, long limiteMs)
+            throws InterruptedException {
+        int n = mesa.getNumFilosofos();
+        Verificador verificador = new Verificador(n);
+        // DECISÃO: O main também é parte da barreira - é ele quem abre e fecha as rodadas
+        Phaser barreira = new Phaser(n + 1);
+        Controle controle = new Controle();
+        Estressador[] estressadores = new Estressador[n];
+        for (int i = 0; i < n; i++) {
+            estressadores[i] = new Estressador(mesa, i, verificador, barreira, controle);
+            estressadores[i].start();
+        }
+
+        Resultado resultado = new Resultado();
+        resultado.piorVazao = Double.MAX_VALUE;
+        long operacoesAnteriores = 0;
+        long tempoTotalNs = 0;
+        long fimTeste = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(duracaoMs);
+        while (System.nanoTime() < fimTeste) {
+            controle.parar = false;
+            barreira.arrive();
+            long inicio = System.nanoTime();
+            Thread.sleep(rodadaMs);
+            controle.parar = true;
+            try {
+                barreira.awaitAdvanceInterruptibly(barreira.arrive(), limiteMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // DECISÃO: Quem não chegou continua dentro do protocolo com todos os
+                // outros parados; a rodada é descartada e o teste termina aqui
+                int rodada = resultado.rodadas + 1;
+                for (Estressador estressador : estressadores) {
+                    if (estressador.rodadasConcluidas < rodada) {
+                        resultado.presos.add(estressador.assento);
+                    }
+                }
+                break;
+            }
+            long duracaoNs = System.nanoTime() - inicio;
+            resultado.rodadas++;
+            long operacoes = 0;
+            for (Estressador estressador : estressadores) {
+                operacoes += estressador.operacoes;
+            }
+            double vazao = (operacoes - operacoesAnteriores) / (duracaoNs / 1e9);
+            resultado.piorVazao = Math.min(resultado.piorVazao, vazao);
+            operacoesAnteriores = operacoes;
+            tempoTotalNs += duracaoNs;
+            resultado.garfosRetidos += verificador.contarGarfosComDono();
+        }
+
+        controle.encerrado = true;
+        if (resultado.presos.isEmpty()) {
+            barreira.arrive();
+        } else {
+            // DECISÃO: interrupt() libera os presos e quem espera na barreira
+            for (Estressador estressador : estressadores) {
+                estressador.interrupt();
+            }
+        }
+        for (Estressador estressador : estressadores) {
+            estressador.join(TIMEOUT_JOIN_MS);
+            if (estressador.isAlive()) {
+                System.err.println("Aviso: thread do assento " + estressador.assento + " nao terminou");
+            }
+            resultado.maiorEsperaNs = Math.max(resultado.maiorEsperaNs, estressador.maiorEsperaNs);
+        }
+        resultado.vazao = tempoTotalNs == 0 ? 0 : operacoesAnteriores / (tempoTotalNs / 1e9);
+        if (resultado.rodadas == 0) {
+            resultado.piorVazao = 0;
+        }
+        resultado.violacoesGarfo = verificador.violacoesGarfo.get();
+        resultado.violacoesVizinhos = verificador.violacoesVizinhos.get();
+        return resultado;
+    }
+
+    static class Resultado {
+        final List<Integer> presos = new ArrayList<>();
+        int rodadas;
+        double vazao;
+        double piorVazao;
+        long maiorEsperaNs;
+        long violacoesGarfo;
+        long violacoesVizinhos;
+        long garfosRetidos;
+
+        boolean valido() {
+            return presos.isEmpty() && violacoesGarfo == 0 && violacoesVizinhos == 0 && garfosRetidos == 0;
+        }
+
+        String descrever() {
+            if (valido()) {
+                return "OK";
+            }
+            StringBuilder texto = new StringBuilder("FALHOU");
+            if (!presos.isEmpty()) {
+                texto.append(" presos=").append(presos.size()).append(" (assentos ");
+                for (int i = 0; i < Math.min(presos.size(), MAXIMO_LISTADOS); i++) {
+                    texto.append(i > 0 ? "," : "").append(presos.get(i));
+                }
+                texto.append(presos.size() > MAXIMO_LISTADOS ? ",...)" : ")");
+            }
+            if (garfosRetidos > 0) {
+                texto.append(" garfos com dono na barreira=").append(garfosRetidos);
+            }
+            return texto.toString();
+        }
+    }
+
+    /**
+     * Sinais do main para as threads; lidos fora de qualquer lock.
+     */
+    static class Controle {
+        volatile boolean parar;
+        volatile boolean encerrado;
+    }
+
+    /**
+     * Estado paralelo ao do protocolo, usado só para verificar as invariantes.
+     *
+     * DECISÃO: Arrays atômicos comuns, sem padding. O falso compartilhamento
+     * soma algum custo a cada refeição, igual para todos os protocolos.
+     */
+    static class Verificador {
+        private final int n;
+        private final AtomicIntegerArray donos;
+        private final AtomicIntegerArray comendo;
+        final AtomicLong violacoesGarfo = new AtomicLong();
+        final AtomicLong violacoesVizinhos = new AtomicLong();
+
+        Verificador(int n) {
+            this.n = n;
+            this.donos = new AtomicIntegerArray(n);
+            this.comendo = new AtomicIntegerArray(n);
+            for (int i = 0; i < n; i++) {
+                donos.set(i, LIVRE);
+            }
+        }
+
+        /**
+         * Chamado logo após pegarGarfos: confere e marca os dois garfos e o assento.
+         */
+        void entrar(int assento) {
+            int direito = (assento + 1) % n;
+            if (!donos.compareAndSet(assento, LIVRE, assento)) {
+                violacoesGarfo.incrementAndGet();
+            }
+            if (!donos.compareAndSet(direito, LIVRE, assento)) {
+                violacoesGarfo.incrementAndGet();
+            }
+            comendo.set(assento, 1);
+            if (comendo.get((assento + n - 1) % n) != 0 || comendo.get(direito) != 0) {
+                violacoesVizinhos.incrementAndGet();
+            }
+        }
+
+        /**
+         * Chamado logo antes de soltarGarfos.
+         *
+         * DECISÃO: Só desmarca o garfo se ele estiver em nome deste assento,
+         * para não apagar a marca de quem o tomou indevidamente.
+         */
+        void sair(int assento) {
+            comendo.set(assento, 0);
+            donos.compareAndSet((assento + 1) % n, assento, LIVRE);
+            donos.compareAndSet(assento, assento, LIVRE);
+        }
+
+        int contarGarfosComDono() {
+            int comDono = 0;
+            for (int i = 0; i < n; i++) {
+                if (donos.get(i) != LIVRE) {
+                    comDono++;
+                }
+            }
+            return comDono;
+        }
+    }
+
+    /**
+     * Thread de um assento: pega e solta os garfos sem pausa até o fim da rodada.
+     *
+     * DECISÃO: Contadores privados da thread, lidos pelo main depois da barreira
+     * (a chegada ao Phaser acontece-antes do avanço de fase).
+     */
+    static class Estressador extends Thread {
+        private final ProtocoloGarfos mesa;
+        private final int assento;
+        private final Verificador verificador;
+        private final Phaser barreira;
+        private final Controle controle;
+        private long operacoes;
+        private long maiorEsperaNs;
+        private volatile int rodadasConcluidas;
+
+        Estressador(ProtocoloGarfos mesa, int assento, Verificador verificador, Phaser barreira, Controle controle) {
+            super("estresse-" + assento);
+            this.mesa = mesa;
+            this.assento = assento;
+            this.verificador = verificador;
+            this.barreira = barreira;
+            this.controle = controle;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    // DECISÃO: Largada - espera o main abrir a rodada (ou encerrar)
+                    barreira.awaitAdvanceInterruptibly(barreira.arrive());
+                    if (controle.encerrado) {
+                        return;
+                    }
+                    while (!controle.parar) {
+                        long antes = System.nanoTime();
+                        mesa.pegarGarfos(assento);
+                        maiorEsperaNs = Math.max(maiorEsperaNs, System.nanoTime() - antes);
+                        verificador.entrar(assento);
+                        verificador.sair(assento);
+                        mesa.soltarGarfos(assento);
+                        operacoes++;
+                    }
+                    rodadasConcluidas++;
+                    barreira.awaitAdvanceInterruptibly(barreira.arrive());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark de início e memória dos modos de execução dos filósofos.
+ *
+ * PERGUNTA: Com mesas grandes, quanto custa colocar N filósofos para rodar
+ * em cada modo de ModoExecucao (uma thread de plataforma por filósofo,
+ * threads virtuais ou um pool fixo)?
+ *
+ * O QUE É MEDIDO (por modo e tamanho de mesa):
+ * - início: do primeiro execute() até todos os filósofos entrarem no laço
+ *   (no pool com K < N só K entram; o tempo é o desses K)
+ * - iniciados: filósofos que entraram no laço, de N
+ * - heap: heap usado após GC, descontado o valor antes da rodada (as pilhas
+ *   das threads virtuais ficam no heap)
+ * - RSS: memória residente do processo (/proc/self/status), descontada a de
+ *   antes da rodada; inclui as pilhas das threads de plataforma. "-" fora do Linux
+ * - threads: threads de plataforma vivas durante a rodada
+ * - refeições/s durante a medição, e quantos filósofos chegaram a comer
+ *
+ * DECISÃO DE DESIGN: Cada filósofo é uma tarefa com o mesmo ciclo dos
+ * Filosofo (CicloFilosofo: pensar, pegarGarfos, comer, soltarGarfos) sobre o
+ * ProtocoloGarfos da tarefa, com os tempos originais de 1 a 3 s por padrão:
+ * o regime em que quase todos estão dormindo e o custo é só o de existir.
+ *
+ * DECISÃO: Os modos rodam em sequência na mesma JVM, com GC entre as
+ * rodadas. Memória devolvida ao sistema operacional nem sempre volta na hora,
+ * então para números de RSS mais limpos rode um modo por execução (--modos).
+ *
+ * USO (a partir do diretório de uma tarefa compilada, JDK 21 para "virtual"):
+ *   java BenchmarkExecucao --protocolo=Mesa --filosofos=1000,10000 --modos=plataforma,virtual,pool:8
+ *
+ * PARÂMETROS:
+ *   --protocolo   classe que implementa ProtocoloGarfos (obrigatório)
+ *   --filosofos   tamanhos de mesa, separados por vírgula (padrão 1000,10000)
+ *   --modos       modos de ModoExecucao, separados por vírgula (padrão plataforma,virtual,pool)
+ *   --pensar, --comer   ver DistribuicaoTempo (padrão 1000-3000ms)
+ *   --medicao     duração em ms após o início (padrão 5000)
+ */
+public class BenchmarkExecucao {
+    // DECISÃO: Prazo para todos os filósofos entrarem no laço
+    private static final long ESPERA_INICIO_MS = 30000;
+
+    public static void main(String[] args) throws Exception {
+        Argumentos argumentos = new Argumentos(args);
+        String protocolo = argumentos.getString("protocolo", null);
+        if (protocolo == null) {
+            System.err.println("Uso: java BenchmarkExecucao --protocolo=<classe> [--filosofos=1000,10000] [--modos=plataforma,virtual,pool]");
+            System.exit(1);
+        }
+        List<Integer> tamanhos = argumentos.getListaInt("filosofos", "1000,10000");
+        String[] modos = argumentos.getString("modos", "plataforma,virtual,pool").split(",");
+        DistribuicaoTempo pensar = DistribuicaoTempo.parse(argumentos.getString("pensar", "1000-3000ms"));
+        DistribuicaoTempo comer = DistribuicaoTempo.parse(argumentos.getString("comer", "1000-3000ms"));
+        long medicaoMs = argumentos.getLong("medicao", 5000);
+
+        System.out.println("=== Benchmark de execucao " + protocolo + " (pensar=" + pensar + " comer=" + comer
+                + ", medicao " + medicaoMs + " ms, JDK " + System.getProperty("java.version") + ") ===");
+        imprimirCabecalho();
+        for (int n : tamanhos) {
+            for (String modo : modos) {
+                if (ModoExecucao.VIRTUAL.equals(modo.trim()) && !ModoExecucao.suportaThreadsVirtuais()) {
+                    System.out.println(String.format("%-12s %7d  (threads virtuais exigem JDK 21)", modo.trim(), n));
+                    continue;
+                }
+                medir(new Bloqueantes(Benchmark.criar(protocolo, n), modo.trim(), pensar, comer), medicaoMs);
+            }
+        }
+    }
+
+    static void imprimirCabecalho() {
+        System.out.println(String.format("%-12s %7s %11s %14s %10s %10s %8s %14s %10s",
+                "modo", "N", "inicio(ms)", "iniciados", "heap(MB)", "RSS(MB)", "threads", "refeicoes/s", "comeram"));
+    }
+
+    /**
+     * Mede uma rodada e imprime a sua linha da tabela.
+     *
+     * DECISÃO: Quem chama só diz como os filósofos começam e param
+     * (Comensais); o BenchmarkAssincrono (Tarefa 4) mede as suas cadeias de
+     * futuros com este mesmo passo.
+     */
+    static void medir(Comensais comensais, long medicaoMs) throws InterruptedException {
+        int n = comensais.getNumFilosofos();
+        long heapAntes = heapAposGc();
+        long rssAntes = rss();
+
+        int capacidade = comensais.capacidade();
+        CountDownLatch iniciados = new CountDownLatch(capacidade);
+        AtomicLong refeicoes = new AtomicLong();
+        boolean[] comeu = new boolean[n];
+        long inicio = System.nanoTime();
+        comensais.iniciar(iniciados, refeicoes, comeu);
+        iniciados.await(ESPERA_INICIO_MS, TimeUnit.MILLISECONDS);
+        double inicioMs = (System.nanoTime() - inicio) / 1e6;
+        long contados = capacidade - iniciados.getCount();
+
+        long refeicoesAntes = refeicoes.get();
+        long inicioMedicao = System.nanoTime();
+        Thread.sleep(medicaoMs);
+        double vazao = (refeicoes.get() - refeicoesAntes) / ((System.nanoTime() - inicioMedicao) / 1e9);
+        int threads = ManagementFactory.getThreadMXBean().getThreadCount();
+        long heap = heapAposGc() - heapAntes;
+        long rss = rss();
+
+        // DECISÃO: comeu[] é lido depois do término, que publica as escritas das tarefas
+        boolean terminou = comensais.encerrar();
+        int comeram = 0;
+        for (boolean c : comeu) {
+            if (c) {
+                comeram++;
+            }
+        }
+        System.out.println(String.format("%-12s %7d %11.1f %14s %10.1f %10s %8d %14.1f %10d%s",
+                comensais.getModo(), n, inicioMs, contados + "/" + n, heap / 1e6,
+                rss < 0 || rssAntes < 0 ? "-" : String.format("%.1f", (rss - rssAntes) / 1e6),
+                threads, vazao, comeram, terminou ? "" : "  (nao terminou)"));
+    }
+
+    static long heapAposGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Memória residente do processo em bytes, ou -1 se não disponível.
+     */
+    static long rss() {
+        try {
+            for (String linha : Files.readAllLines(Paths.get("/proc/self/status"))) {
+                if (linha.startsWith("VmRSS:")) {
+                    return Long.parseLong(linha.replaceAll("[^0-9]", "")) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // DECISÃO: Fora do Linux a coluna fica vazia
+        }
+        return -1;
+    }
+
+    /**
+     * Os N filósofos de uma rodada: como começam e como param.
+     */
+    interface Comensais {
+        String getModo();
+
+        int getNumFilosofos();
+
+        /**
+         * Quantos filósofos devem entrar no laço (contados em iniciados).
+         */
+        int capacidade();
+
+        /**
+         * Põe os filósofos para rodar; cada um conta em iniciados ao entrar no
+         * laço, soma cada refeição em refeicoes e marca comeu[assento].
+         */
+        void iniciar(CountDownLatch iniciados, AtomicLong refeicoes, boolean[] comeu);
+
+        /**
+         * Para os filósofos; true se todos terminaram no prazo.
+         */
+        boolean encerrar() throws InterruptedException;
+    }
+
+    /**
+     * Uma Tarefa bloqueante por filósofo no executor de ModoExecucao.
+     */
+    static class Bloqueantes implements Comensais {
+        private final ProtocoloGarfos mesa;
+        private final String modo;
+        private final DistribuicaoTempo pensar;
+        private final DistribuicaoTempo comer;
+        private ExecutorService executor;
+
+        Bloqueantes(ProtocoloGarfos mesa, String modo, DistribuicaoTempo pensar, DistribuicaoTempo comer) {
+            this.mesa = mesa;
+            this.modo = modo;
+            this.pensar = pensar;
+            this.comer = comer;
+        }
+
+        @Override
+        public String getModo() {
+            return modo;
+        }
+
+        @Override
+        public int getNumFilosofos() {
+            return mesa.getNumFilosofos();
+        }
+
+        /**
+         * DECISÃO: No pool com K < N só K tarefas começam; espera-se por essas.
+         */
+        @Override
+        public int capacidade() {
+            return ModoExecucao.capacidade(modo, mesa.getNumFilosofos());
+        }
+
+        @Override
+        public void iniciar(CountDownLatch iniciados, AtomicLong refeicoes, boolean[] comeu) {
+            int n = mesa.getNumFilosofos();
+            executor = ModoExecucao.criarExecutor(modo, n, "bench-");
+            for (int i = 0; i < n; i++) {
+                executor.execute(new Tarefa(mesa, i, pensar, comer, iniciados, refeicoes, comeu));
+            }
+        }
+
+        @Override
+        public boolean encerrar() throws InterruptedException {
+            return ModoExecucao.encerrar(executor, 5000);
+        }
+    }
+
+    /**
+     * Um filósofo que conta as refeições da mesa e marca que comeu.
+     *
+     * DECISÃO: Sem fase nem histograma - roda até ModoExecucao.encerrar e
+     * não soma memória por filósofo além do CicloFilosofo.
+     */
+    private static class Tarefa extends CicloFilosofo {
+        private final CountDownLatch iniciados;
+        private final AtomicLong refeicoesDaMesa;
+        private final boolean[] comeu;
+
+        Tarefa(ProtocoloGarfos mesa, int assento, DistribuicaoTempo pensar, DistribuicaoTempo comer,
+               CountDownLatch iniciados, AtomicLong refeicoesDaMesa, boolean[] comeu) {
+            super(mesa, assento, null, pensar, comer, false);
+            this.iniciados = iniciados;
+            this.refeicoesDaMesa = refeicoesDaMesa;
+            this.comeu = comeu;
+        }
+
+        @Override
+        protected void aoIniciar() {
+            iniciados.countDown();
+        }
+
+        @Override
+        protected void aoComer() {
+            refeicoesDaMesa.incrementAndGet();
+            comeu[assento] = true;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Memória por assento de cada protocolo de garfos.
+ *
+ * PERGUNTA: Quantos bytes cada assento custa só para existir na mesa, antes
+ * de qualquer thread ou filósofo? É o que limita mesas de milhões de lugares.
+ *
+ * O QUE É MEDIDO: heap após GC e memória dos buffers diretos (BufferPoolMXBean
+ * "direct"), antes e depois de criar o protocolo, divididos por N.
+ *
+ * DECISÃO DE DESIGN: Mede só o protocolo criado pelo construtor (int), como
+ * o Benchmark o cria. Filosofo, Random e a thread de cada assento não entram;
+ * o custo deles está no BenchmarkExecucao.
+ *
+ * USO (a partir do diretório de uma tarefa compilada):
+ *   java BenchmarkMemoria --protocolos=Mesa,MesaAtomica,MesaCompacta --filosofos=1000000
+ *
+ * PARÂMETROS:
+ *   --protocolos  classes que implementam ProtocoloGarfos (obrigatório)
+ *   --filosofos   tamanhos de mesa, separados por vírgula (padrão 1000000)
+ */
+public class BenchmarkMemoria {
+
+    public static void main(String[] args) throws Exception {
+        Argumentos argumentos = new Argumentos(args);
+        String protocolos = argumentos.getString("protocolos", null);
+        if (protocolos == null) {
+            System.err.println("Uso: java BenchmarkMemoria --protocolos=<classe,...> [--filosofos=1000000]");
+            System.exit(1);
+        }
+        List<Integer> tamanhos = argumentos.getListaInt("filosofos", "1000000");
+
+        System.out.println("=== Memoria por assento (JDK " + System.getProperty("java.version") + ") ===");
+        System.out.println(String.format("%-26s %9s %12s %14s %12s", "protocolo", "N", "heap(B)", "fora heap(B)", "total(B)"));
+        for (int n : tamanhos) {
+            for (String protocolo : protocolos.split(",")) {
+                long diretoAntes = memoriaDiretaEstavel();
+                long heapAntes = BenchmarkExecucao.heapAposGc();
+                ProtocoloGarfos mesa = Benchmark.criar(protocolo.trim(), n);
+                long heap = BenchmarkExecucao.heapAposGc() - heapAntes;
+                long direto = memoriaDireta() - diretoAntes;
+                System.out.println(String.format("%-26s %9d %12.1f %14.1f %12.1f",
+                        mesa.getNome(), n, (double) heap / n, (double) direto / n, (double) (heap + direto) / n));
+                // DECISÃO: Mantém a mesa viva até depois da segunda medição
+                mesa.getNumFilosofos();
+            }
+        }
+    }
+
+    /**
+     * Memória direta depois que os buffers das mesas anteriores foram liberados.
+     *
+     * DECISÃO: Um buffer direto só é liberado pelo Cleaner algum tempo depois
+     * do GC; sem esperar, a liberação da mesa anterior cairia na medição desta.
+     */
+    private static long memoriaDiretaEstavel() throws InterruptedException {
+        long anterior = -1;
+        long atual = memoriaDireta();
+        for (int i = 0; i < 20 && atual != anterior; i++) {
+            System.gc();
+            Thread.sleep(50);
+            anterior = atual;
+            atual = memoriaDireta();
+        }
+        return atual;
+    }
+
+    private static long memoriaDireta() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) {
+                return pool.getMemoryUsed();
+            }
+        }
+        return 0;
+    }
+}
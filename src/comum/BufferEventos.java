@@ -0,0 +1,100 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffer circular de eventos de um único filósofo.
+ *
+ * DECISÃO DE DESIGN: Um produtor (a thread do filósofo) e um consumidor (o
+ * drenador do RegistroEventos). Com um só escritor por buffer não há disputa
+ * entre filósofos: registrar() não usa lock nem CAS, apenas duas escritas no
+ * array e uma publicação ordenada (lazySet) do índice de escrita.
+ *
+ * DECISÃO: Nenhuma alocação no caminho quente - o array é criado uma vez e
+ * cada evento ocupa duas posições (palavra empacotada + instante).
+ *
+ * DECISÃO: Buffer cheio descarta o evento e conta o descarte, em vez de
+ * bloquear o filósofo. O log nunca deve alterar o comportamento que observa.
+ */
+public class BufferEventos {
+    private final int filosofoId;
+    private final long[] dados;
+    private final int mascara;
+    private final boolean ativo;
+    // DECISÃO: Acompanhamento de fases do MonitorJmx (null sem --jmx)
+    private final FasesFilosofos fases;
+    // DECISÃO: Índices monotônicos; a posição é índice & mascara
+    private final AtomicLong escrita;
+    private final AtomicLong leitura;
+    // DECISÃO: Cópia local do índice de leitura, atualizada só quando o buffer
+    // parece cheio, para o produtor não ler a variável do consumidor sempre
+    private long leituraConhecida;
+    private volatile long descartados;
+
+    BufferEventos(int filosofoId, int capacidade, boolean ativo, FasesFilosofos fases) {
+        this.filosofoId = filosofoId;
+        this.ativo = ativo;
+        this.fases = fases;
+        // DECISÃO: Capacidade arredondada para potência de 2 (índice por máscara)
+        int tamanho = ativo ? Integer.highestOneBit(Math.max(2, capacidade - 1) << 1) : 0;
+        this.dados = new long[tamanho * 2];
+        this.mascara = tamanho - 1;
+        this.escrita = new AtomicLong();
+        this.leitura = new AtomicLong();
+    }
+
+    /**
+     * Registra um evento. Chamado apenas pela thread do filósofo dono.
+     */
+    public void registrar(int codigo, int garfoId) {
+        // DECISÃO: Antes do teste de ativo, para funcionar com --log=silencioso
+        if (fases != null) {
+            fases.registrar(filosofoId, codigo);
+        }
+        if (!ativo) {
+            return;
+        }
+        long posicao = escrita.get();
+        if (posicao - leituraConhecida > mascara) {
+            leituraConhecida = leitura.get();
+            if (posicao - leituraConhecida > mascara) {
+                descartados++;
+                return;
+            }
+        }
+        int i = (int) (posicao & mascara) << 1;
+        dados[i] = Evento.empacotar(filosofoId, codigo, garfoId);
+        dados[i + 1] = System.nanoTime();
+        // DECISÃO: lazySet publica o evento sem a barreira completa de um volatile
+        escrita.lazySet(posicao + 1);
+    }
+
+    /**
+     * Copia para o destino os eventos pendentes (até caber) e os consome.
+     * Chamado apenas pelo consumidor.
+     *
+     * @return quantidade de eventos copiados
+     */
+    int drenar(long[] palavras, long[] instantes, int inicio) {
+        if (!ativo) {
+            return 0;
+        }
+        long de = leitura.get();
+        long ate = Math.min(escrita.get(), de + (palavras.length - inicio));
+        int copiados = 0;
+        for (long p = de; p < ate; p++) {
+            int i = (int) (p & mascara) << 1;
+            palavras[inicio + copiados] = dados[i];
+            instantes[inicio + copiados] = dados[i + 1];
+            copiados++;
+        }
+        leitura.lazySet(ate);
+        return copiados;
+    }
+
+    public long getDescartados() {
+        return descartados;
+    }
+
+    public int getFilosofoId() {
+        return filosofoId;
+    }
+}
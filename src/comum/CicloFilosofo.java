@@ -0,0 +1,116 @@
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Um filósofo sobre o ProtocoloGarfos: pensar, pegarGarfos, comer, soltarGarfos.
+ *
+ * DECISÃO DE DESIGN: O mesmo ciclo dos Filosofo das tarefas, escrito uma vez
+ * para todas as ferramentas de medição (Benchmark, Experimento,
+ * BenchmarkExecucao e, na Tarefa 4, BenchmarkAssincrono). Com uma fase, só
+ * conta em MEDINDO e para em ENCERRADO; sem fase (null), conta sempre e roda
+ * até ser interrompido.
+ *
+ * DECISÃO: Contadores e histograma são privados da tarefa (sem sincronização
+ * no caminho quente) e lidos depois do término (join ou ModoExecucao.encerrar).
+ * O histograma (~8 KB) só existe se pedido: com 100 mil filósofos seria quase
+ * toda a memória medida pelo BenchmarkExecucao.
+ *
+ * DECISÃO: Quem precisa de algo a mais (um contador compartilhado, a marca de
+ * quem comeu) sobrescreve aoIniciar() e aoComer().
+ */
+public class CicloFilosofo implements Runnable {
+    public static final int AQUECENDO = 0;
+    public static final int MEDINDO = 1;
+    public static final int ENCERRADO = 2;
+
+    protected final ProtocoloGarfos mesa;
+    protected final int assento;
+    private final AtomicInteger fase;
+    private final DistribuicaoTempo pensar;
+    private final DistribuicaoTempo comer;
+    private final Random random;
+    private final Histograma espera;
+    private long refeicoes;
+    private long ultimaRefeicaoNs;
+
+    /**
+     * @param fase        AQUECENDO, MEDINDO ou ENCERRADO; null = sempre medindo
+     * @param medirEspera registrar a espera em pegarGarfos em um Histograma
+     */
+    public CicloFilosofo(ProtocoloGarfos mesa, int assento, AtomicInteger fase,
+                         DistribuicaoTempo pensar, DistribuicaoTempo comer, boolean medirEspera) {
+        this.mesa = mesa;
+        this.assento = assento;
+        this.fase = fase;
+        this.pensar = pensar;
+        this.comer = comer;
+        this.random = new Random();
+        this.espera = medirEspera ? new Histograma() : null;
+        this.ultimaRefeicaoNs = System.nanoTime();
+    }
+
+    @Override
+    public void run() {
+        aoIniciar();
+        try {
+            while (fase == null || fase.get() != ENCERRADO) {
+                pensar.pausar(random);
+                long antes = System.nanoTime();
+                mesa.pegarGarfos(assento);
+                long depois = System.nanoTime();
+                try {
+                    comer.pausar(random);
+                } finally {
+                    mesa.soltarGarfos(assento);
+                }
+                ultimaRefeicaoNs = depois;
+                if (fase == null || fase.get() == MEDINDO) {
+                    if (espera != null) {
+                        espera.registrar(depois - antes);
+                    }
+                    refeicoes++;
+                    aoComer();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Chamado uma vez, na thread da tarefa, antes da primeira refeição.
+     */
+    protected void aoIniciar() {
+    }
+
+    /**
+     * Chamado depois de cada refeição contada, já sem os garfos.
+     */
+    protected void aoComer() {
+    }
+
+    public int getAssento() {
+        return assento;
+    }
+
+    /**
+     * Refeições contadas (só na fase MEDINDO, se houver fase).
+     */
+    public long getRefeicoes() {
+        return refeicoes;
+    }
+
+    /**
+     * Instante (nanoTime) em que a última refeição começou, contada ou não.
+     */
+    public long getUltimaRefeicaoNs() {
+        return ultimaRefeicaoNs;
+    }
+
+    /**
+     * Espera em pegarGarfos das refeições contadas; null se não foi pedida.
+     */
+    public Histograma getEspera() {
+        return espera;
+    }
+}
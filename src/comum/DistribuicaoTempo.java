@@ -0,0 +1,126 @@
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distribuição de duração para as fases de pensar e comer.
+ *
+ * DECISÃO DE DESIGN: Os Filosofo usam "1000 + random.nextInt(2000)" ms, o que
+ * torna cada execução dominada por Thread.sleep. Para medir o protocolo de
+ * garfos é preciso poder zerar esses tempos ou usar durações curtas.
+ *
+ * FORMATOS ACEITOS (unidade ns, us ou ms; sem unidade = ms):
+ * - "0"            : sem pausa
+ * - "50us"         : duração fixa
+ * - "1000-3000ms"  : uniforme no intervalo [min, max)
+ *
+ * DECISÃO: Durações abaixo de LIMIAR_SPIN_NS são feitas com espera ativa,
+ * pois Thread.sleep tem granularidade de dezenas de microssegundos e
+ * distorceria a medição. Acima disso usamos sleep, como os Filosofo originais.
+ */
+public class DistribuicaoTempo {
+    private static final long LIMIAR_SPIN_NS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final long minimoNs;
+    private final long maximoNs;
+    private final String descricao;
+
+    private DistribuicaoTempo(long minimoNs, long maximoNs, String descricao) {
+        this.minimoNs = minimoNs;
+        this.maximoNs = maximoNs;
+        this.descricao = descricao;
+    }
+
+    public static DistribuicaoTempo parse(String texto) {
+        String t = texto.trim();
+        int hifen = t.indexOf('-');
+        if (hifen > 0) {
+            // DECISÃO: A unidade do máximo vale para o intervalo inteiro ("1-3ms")
+            String unidade = unidade(t.substring(hifen + 1));
+            long min = paraNanos(t.substring(0, hifen) + unidade);
+            long max = paraNanos(t.substring(hifen + 1));
+            if (max <= min) {
+                throw new IllegalArgumentException("Intervalo invalido: " + texto);
+            }
+            return new DistribuicaoTempo(min, max, t);
+        }
+        long fixo = paraNanos(t);
+        return new DistribuicaoTempo(fixo, fixo, t);
+    }
+
+    public static DistribuicaoTempo zero() {
+        return new DistribuicaoTempo(0, 0, "0");
+    }
+
+    /**
+     * Sorteia uma duração em nanossegundos.
+     */
+    public long sortear(Random random) {
+        if (maximoNs == minimoNs) {
+            return minimoNs;
+        }
+        return minimoNs + (long) (random.nextDouble() * (maximoNs - minimoNs));
+    }
+
+    /**
+     * Sorteia uma duração e pausa a thread atual por ela.
+     */
+    public void pausar(Random random) throws InterruptedException {
+        pausarNanos(sortear(random));
+    }
+
+    public static void pausarNanos(long nanos) throws InterruptedException {
+        if (nanos <= 0) {
+            return;
+        }
+        if (nanos < LIMIAR_SPIN_NS) {
+            long fim = System.nanoTime() + nanos;
+            while (System.nanoTime() < fim) {
+                // DECISÃO: Espera ativa curta - ver comentário da classe
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            return;
+        }
+        TimeUnit.NANOSECONDS.sleep(nanos);
+    }
+
+    public boolean isZero() {
+        return maximoNs == 0;
+    }
+
+    public long getMinimoNs() {
+        return minimoNs;
+    }
+
+    public long getMaximoNs() {
+        return maximoNs;
+    }
+
+    @Override
+    public String toString() {
+        return descricao;
+    }
+
+    private static String unidade(String texto) {
+        String t = texto.trim();
+        if (t.endsWith("ns")) return "ns";
+        if (t.endsWith("us")) return "us";
+        if (t.endsWith("ms")) return "ms";
+        return "ms";
+    }
+
+    private static long paraNanos(String texto) {
+        String t = texto.trim();
+        if (t.endsWith("ns")) {
+            return Long.parseLong(t.substring(0, t.length() - 2).trim());
+        }
+        if (t.endsWith("us")) {
+            return TimeUnit.MICROSECONDS.toNanos(Long.parseLong(t.substring(0, t.length() - 2).trim()));
+        }
+        if (t.endsWith("ms")) {
+            t = t.substring(0, t.length() - 2);
+        }
+        return TimeUnit.MILLISECONDS.toNanos(Long.parseLong(t.trim()));
+    }
+}
@@ -0,0 +1,160 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Estado de uma mesa grande fora do heap, em struct-of-arrays.
+ *
+ * PROBLEMA: Cada assento custa um Filosofo, um Random, um Garfo com monitor
+ * e, na Tarefa 4, posições em vários arrays; na simulação, um
+ * EstatisticasFilosofo com histograma próprio (~8 KB). Com um milhão de
+ * assentos a memória acaba antes da mesa.
+ *
+ * DECISÃO DE DESIGN: Um campo por array, cada um em um ByteBuffer direto
+ * alinhado à linha de cache, sem nenhum objeto por assento:
+ * - garfos: int (0 = livre, senão dono + 1), tomado por CAS
+ * - ultimaRefeicao: long (instante da última refeição, válido se refeicoes > 0)
+ * - refeicoes: int
+ * - fase: byte (PENSANDO, ESPERANDO, FAMINTO, COMENDO)
+ * São 17 bytes de dados por assento. Os acessos atômicos usam VarHandles de
+ * visão sobre o buffer (byteBufferViewVarHandle), que aceitam CAS e
+ * acquire/release em buffers diretos com acesso alinhado.
+ *
+ * DECISÃO: Vizinhos em linhas de cache diferentes, sem padding. O elemento i
+ * de um campo fica na linha (i mod L), posição (i div L), onde L é o número
+ * de linhas do campo. Assentos vizinhos, que disputam o mesmo garfo, caem em
+ * linhas diferentes, e uma linha só junta assentos a L de distância. O L é
+ * escolhido para que também N-1 e 0 (vizinhos pelo anel) fiquem separados.
+ * Com mesas pequenas isso vira praticamente um elemento por linha.
+ *
+ * CONCORRÊNCIA: garfos aceita qualquer thread. ultimaRefeicao, refeicoes e
+ * fase têm um único escritor por assento (o próprio filósofo, ou a thread
+ * da simulação); quem lê de outra thread vê valores publicados com release.
+ * Não há VarHandle de visão para byte, então a fase usa cercas
+ * (releaseFence/acquireFence) em volta do acesso comum ao buffer.
+ */
+public final class EstadoMesaCompacto {
+    public static final byte PENSANDO = 0;
+    public static final byte ESPERANDO = 1;
+    public static final byte COMENDO = 2;
+    // DECISÃO: Esperando há mais de 5 s - os vizinhos cedem a vez (MesaCompacta)
+    public static final byte FAMINTO = 3;
+    // DECISÃO: Dono de um garfo livre em getDono()
+    public static final int LIVRE = -1;
+
+    private static final int LINHA_CACHE = 64;
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final int numAssentos;
+    private final Campo garfos;
+    private final Campo ultimaRefeicao;
+    private final Campo refeicoes;
+    private final Campo fases;
+
+    public EstadoMesaCompacto(int numAssentos) {
+        this.numAssentos = numAssentos;
+        this.garfos = new Campo(numAssentos, Integer.BYTES);
+        this.ultimaRefeicao = new Campo(numAssentos, Long.BYTES);
+        this.refeicoes = new Campo(numAssentos, Integer.BYTES);
+        this.fases = new Campo(numAssentos, Byte.BYTES);
+    }
+
+    public int getNumAssentos() {
+        return numAssentos;
+    }
+
+    /**
+     * Toma o garfo se estiver livre, sem esperar.
+     */
+    public boolean tentarPegar(int garfo, int dono) {
+        return INT.compareAndSet(garfos.dados, garfos.posicao(garfo), 0, dono + 1);
+    }
+
+    public void soltar(int garfo) {
+        INT.setRelease(garfos.dados, garfos.posicao(garfo), 0);
+    }
+
+    /**
+     * Quem segura o garfo, ou LIVRE.
+     */
+    public int getDono(int garfo) {
+        return (int) INT.getAcquire(garfos.dados, garfos.posicao(garfo)) - 1;
+    }
+
+    /**
+     * Conta uma refeição do assento, iniciada no instante dado. Só o próprio assento chama.
+     */
+    public void registrarRefeicao(int assento, long instante) {
+        int posicao = refeicoes.posicao(assento);
+        LONG.setRelease(ultimaRefeicao.dados, ultimaRefeicao.posicao(assento), instante);
+        // DECISÃO: Escritor único - ler e escrever não perde incrementos (como EstatisticasFilosofo)
+        INT.setRelease(refeicoes.dados, posicao, (int) INT.get(refeicoes.dados, posicao) + 1);
+    }
+
+    public int getRefeicoes(int assento) {
+        return (int) INT.getAcquire(refeicoes.dados, refeicoes.posicao(assento));
+    }
+
+    /**
+     * Instante da última refeição; só tem sentido se getRefeicoes(assento) > 0.
+     */
+    public long getUltimaRefeicao(int assento) {
+        return (long) LONG.getAcquire(ultimaRefeicao.dados, ultimaRefeicao.posicao(assento));
+    }
+
+    public void setFase(int assento, byte fase) {
+        VarHandle.releaseFence();
+        fases.dados.put(fases.posicao(assento), fase);
+    }
+
+    public byte getFase(int assento) {
+        byte fase = fases.dados.get(fases.posicao(assento));
+        VarHandle.acquireFence();
+        return fase;
+    }
+
+    /**
+     * Bytes reservados fora do heap pelos quatro campos.
+     */
+    public long getBytesTotais() {
+        return garfos.bytes() + ultimaRefeicao.bytes() + refeicoes.bytes() + fases.bytes();
+    }
+
+    public double getBytesPorAssento() {
+        return numAssentos == 0 ? 0 : (double) getBytesTotais() / numAssentos;
+    }
+
+    /**
+     * Um campo: buffer direto alinhado e o mapeamento assento -> posição.
+     */
+    private static final class Campo {
+        final ByteBuffer dados;
+        final int tamanho;
+        final int porLinha;
+        final int linhas;
+
+        Campo(int numAssentos, int tamanho) {
+            this.tamanho = tamanho;
+            this.porLinha = LINHA_CACHE / tamanho;
+            int l = Math.max(2, (numAssentos + porLinha - 1) / porLinha);
+            // DECISÃO: N-1 e 0 caem na mesma linha quando L divide N-1
+            while (numAssentos > 1 && (numAssentos - 1) % l == 0) {
+                l++;
+            }
+            this.linhas = l;
+            // DECISÃO: allocateDirect não garante alinhamento de 64 bytes;
+            // reservar uma linha a mais e recortar a parte alinhada
+            this.dados = ByteBuffer.allocateDirect((l + 1) * LINHA_CACHE).alignedSlice(LINHA_CACHE);
+        }
+
+        int posicao(int i) {
+            return ((i % linhas) * porLinha + i / linhas) * tamanho;
+        }
+
+        long bytes() {
+            return (long) (linhas + 1) * LINHA_CACHE;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Instrumentação de um filósofo: refeições e tempo de espera por refeição.
+ *
+ * DECISÃO DE DESIGN: O tempo de espera vai de "tentando pegar" até "comecou a
+ * comer" e é registrado em um Histograma próprio do filósofo. Um único
+ * escritor (a thread do filósofo) e nenhum lock: registrar é só incrementar
+ * contadores em arrays já alocados, sem interferir na disputa por Garfo/Mesa
+ * que está sendo medida.
+ *
+ * DECISÃO: O contador de refeições é volatile e escrito DEPOIS do histograma.
+ * Quem lê getRefeicoes() de outra thread (vigia, relatório) enxerga também
+ * as amostras de espera até essa refeição. O antigo "private int vezesComeu"
+ * não tinha garantia nenhuma de visibilidade.
+ *
+ * DECISÃO: Opcionalmente também publica cada refeição nas EstatisticasVivas
+ * da mesa (--ao-vivo), que podem ser amostradas durante a execução.
+ */
+public final class EstatisticasFilosofo {
+    private final Histograma espera;
+    private volatile int refeicoes;
+    // DECISÃO: Atribuídos antes de o filósofo começar (ver publicarEm)
+    private EstatisticasVivas vivas;
+    private int filosofoId;
+
+    public EstatisticasFilosofo() {
+        this.espera = new Histograma();
+        this.refeicoes = 0;
+    }
+
+    /**
+     * Registra o início de uma refeição. Chamado apenas pela thread do filósofo.
+     */
+    public void registrarRefeicao(long esperaNs) {
+        espera.registrar(esperaNs);
+        // DECISÃO: Escritor único - ler e escrever o volatile não perde incrementos
+        refeicoes = refeicoes + 1;
+    }
+
+    /**
+     * Registra o início de uma refeição que vai durar comerNs.
+     */
+    public void registrarRefeicao(long esperaNs, long comerNs) {
+        registrarRefeicao(esperaNs);
+        if (vivas != null) {
+            vivas.registrarRefeicao(filosofoId, esperaNs, comerNs);
+        }
+    }
+
+    /**
+     * Liga este filósofo à sua faixa nas EstatisticasVivas.
+     *
+     * DECISÃO: Chamado por InstrumentacaoMesa.acompanhar antes de entregar o
+     * filósofo ao executor; o início da tarefa publica os dois campos para a
+     * thread do filósofo.
+     */
+    public void publicarEm(EstatisticasVivas vivas, int filosofoId) {
+        this.vivas = vivas;
+        this.filosofoId = filosofoId;
+    }
+
+    public int getRefeicoes() {
+        return refeicoes;
+    }
+
+    /**
+     * Histograma de espera (ns). Leia depois de getRefeicoes() ou com o
+     * filósofo já encerrado.
+     */
+    public Histograma getEspera() {
+        return espera;
+    }
+}
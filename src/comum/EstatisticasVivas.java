@@ -0,0 +1,198 @@
+import java.io.PrintStream;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contadores da mesa que podem ser lidos a qualquer momento da execução.
+ *
+ * PROBLEMA: As estatísticas só eram lidas no fim, depois de encerrar os
+ * filósofos. Em uma execução longa não havia como acompanhar a vazão sem
+ * parar a mesa, e somar os EstatisticasFilosofo no meio da execução não dá
+ * garantia de que refeições e tempos pertençam à mesma refeição.
+ *
+ * DECISÃO DE DESIGN: Uma faixa de contadores por filósofo (refeições, tempo
+ * de espera e tempo de comer), escrita só pela thread dele, cada uma na sua
+ * linha de cache (POR_FAIXA longs). Sem escritor concorrente não há CAS nem
+ * falso compartilhamento entre filósofos: registrar uma refeição custa
+ * algumas escritas ordenadas (lazySet) e uma barreira store-store.
+ *
+ * DECISÃO: Cada faixa é um seqlock. O escritor torna a sequência ímpar,
+ * atualiza os três contadores e a torna par de novo; quem amostra lê a
+ * sequência antes e depois e repete a faixa se ela mudou ou estava ímpar.
+ * Cada faixa é lida de forma consistente (as três somas sempre da mesma
+ * refeição); entre faixas diferentes a amostra não é instantânea, o que
+ * basta para uma linha de vazão por segundo.
+ *
+ * DECISÃO: O tempo de comer registrado é a duração sorteada para a refeição,
+ * conhecida quando ela começa; assim a refeição inteira entra em uma única
+ * escrita, sem outra leitura do relógio.
+ */
+public final class EstatisticasVivas {
+    private static final int SEQUENCIA = 0;
+    private static final int REFEICOES = 1;
+    private static final int ESPERA_NS = 2;
+    private static final int COMER_NS = 3;
+    // DECISÃO: 8 longs = 64 bytes, uma linha de cache por filósofo
+    private static final int POR_FAIXA = 8;
+    private static final int TENTATIVAS_SPIN = 64;
+
+    private final int numFilosofos;
+    private final AtomicLongArray faixas;
+    private final long inicio;
+    private volatile Thread relator;
+
+    public EstatisticasVivas(int numFilosofos) {
+        this.numFilosofos = numFilosofos;
+        this.faixas = new AtomicLongArray(numFilosofos * POR_FAIXA);
+        this.inicio = System.nanoTime();
+    }
+
+    /**
+     * Registra o início de uma refeição. Chamado apenas pela thread do filósofo.
+     */
+    public void registrarRefeicao(int filosofoId, long esperaNs, long comerNs) {
+        int base = filosofoId * POR_FAIXA;
+        long sequencia = faixas.get(base + SEQUENCIA);
+        faixas.lazySet(base + SEQUENCIA, sequencia + 1);
+        // DECISÃO: Barreira store-store em vez de set() volátil: basta que os
+        // contadores não fiquem visíveis antes da sequência ímpar, e no x86
+        // ela não custa nenhuma instrução (o set() volátil derrubava a vazão
+        // com pensar e comer zero)
+        VarHandle.storeStoreFence();
+        faixas.lazySet(base + REFEICOES, faixas.get(base + REFEICOES) + 1);
+        faixas.lazySet(base + ESPERA_NS, faixas.get(base + ESPERA_NS) + esperaNs);
+        faixas.lazySet(base + COMER_NS, faixas.get(base + COMER_NS) + comerNs);
+        faixas.lazySet(base + SEQUENCIA, sequencia + 2);
+    }
+
+    /**
+     * Soma as faixas de todos os filósofos, sem bloquear nenhum deles.
+     */
+    public Amostra amostrar() {
+        long refeicoes = 0;
+        long esperaNs = 0;
+        long comerNs = 0;
+        for (int i = 0; i < numFilosofos; i++) {
+            int base = i * POR_FAIXA;
+            int tentativas = 0;
+            while (true) {
+                long antes = faixas.get(base + SEQUENCIA);
+                long r = faixas.get(base + REFEICOES);
+                long e = faixas.get(base + ESPERA_NS);
+                long c = faixas.get(base + COMER_NS);
+                if ((antes & 1) == 0 && faixas.get(base + SEQUENCIA) == antes) {
+                    refeicoes += r;
+                    esperaNs += e;
+                    comerNs += c;
+                    break;
+                }
+                // DECISÃO: O escritor pode ter perdido o processador no meio da
+                // faixa; depois de algumas voltas cede a vez em vez de girar
+                if (++tentativas % TENTATIVAS_SPIN == 0) {
+                    Thread.yield();
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+        return new Amostra(System.nanoTime(), refeicoes, esperaNs, comerNs);
+    }
+
+    /**
+     * Refeições de um filósofo (leitura consistente da faixa dele).
+     */
+    public long getRefeicoes(int filosofoId) {
+        int base = filosofoId * POR_FAIXA;
+        int tentativas = 0;
+        while (true) {
+            long antes = faixas.get(base + SEQUENCIA);
+            long r = faixas.get(base + REFEICOES);
+            if ((antes & 1) == 0 && faixas.get(base + SEQUENCIA) == antes) {
+                return r;
+            }
+            if (++tentativas % TENTATIVAS_SPIN == 0) {
+                Thread.yield();
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Imprime a vazão desde a amostra anterior a cada intervaloMs.
+     */
+    public void iniciarRelatorio(long intervaloMs, PrintStream saida) {
+        if (intervaloMs <= 0) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            Amostra anterior = amostrar();
+            try {
+                while (true) {
+                    Thread.sleep(intervaloMs);
+                    Amostra atual = amostrar();
+                    saida.println(atual.formatarDesde(anterior, inicio));
+                    anterior = atual;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "estatisticas-vivas");
+        // DECISÃO: Daemon, como o amostrador do PerfilGarfos
+        thread.setDaemon(true);
+        relator = thread;
+        thread.start();
+    }
+
+    public void encerrarRelatorio() {
+        Thread thread = relator;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Totais da mesa em um instante.
+     */
+    public static final class Amostra {
+        private final long instante;
+        private final long refeicoes;
+        private final long esperaNs;
+        private final long comerNs;
+
+        Amostra(long instante, long refeicoes, long esperaNs, long comerNs) {
+            this.instante = instante;
+            this.refeicoes = refeicoes;
+            this.esperaNs = esperaNs;
+            this.comerNs = comerNs;
+        }
+
+        public long getRefeicoes() {
+            return refeicoes;
+        }
+
+        public long getEsperaNs() {
+            return esperaNs;
+        }
+
+        public long getComerNs() {
+            return comerNs;
+        }
+
+        /**
+         * Linha de vazão do intervalo entre anterior e esta amostra.
+         */
+        String formatarDesde(Amostra anterior, long inicio) {
+            long refeicoesIntervalo = refeicoes - anterior.refeicoes;
+            double segundos = (instante - anterior.instante) / 1e9;
+            return String.format("[ao vivo %.1f s] %.1f refeicoes/s (total %d) - espera media %.1f ms, comer medio %.1f ms",
+                    (instante - inicio) / 1e9, refeicoesIntervalo / segundos, refeicoes,
+                    media(esperaNs - anterior.esperaNs, refeicoesIntervalo) / 1e6,
+                    media(comerNs - anterior.comerNs, refeicoesIntervalo) / 1e6);
+        }
+
+        private static double media(long soma, long quantidade) {
+            return quantidade == 0 ? 0 : (double) soma / quantidade;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Códigos dos eventos registrados pelos filósofos e seu formato binário.
+ *
+ * DECISÃO DE DESIGN: Em vez de montar uma String a cada log, o filósofo grava
+ * um registro de tamanho fixo (dois longs) e a formatação fica a cargo de
+ * quem drena os eventos, fora do caminho quente.
+ *
+ * FORMATO DO REGISTRO:
+ * - palavra: bits 63-32 = ID do filósofo, 31-24 = código, 23-0 = ID do garfo
+ * - instante: System.nanoTime() no momento do evento
+ *
+ * DECISÃO: As mensagens reproduzem exatamente o texto dos antigos log(String),
+ * para que a saída no console continue igual à das versões anteriores.
+ */
+public final class Evento {
+    // DECISÃO: Valor usado quando o evento não se refere a um garfo específico
+    public static final int SEM_GARFO = 0xFFFFFF;
+
+    public static final int PENSANDO = 1;
+    public static final int TENTANDO_ESQUERDO = 2;
+    public static final int PEGOU_ESQUERDO = 3;
+    public static final int TENTANDO_DIREITO = 4;
+    public static final int PEGOU_DIREITO = 5;
+    public static final int COMENDO = 6;
+    public static final int SOLTOU_GARFOS = 7;
+    // DECISÃO: Eventos da Tarefa 4, onde a Mesa entrega os dois garfos de uma vez
+    public static final int TENTANDO_GARFOS = 8;
+    public static final int PEGOU_GARFOS = 9;
+    // DECISÃO: Evento da recuperação de deadlock da Tarefa 1 (VigiaDeadlock)
+    public static final int PREEMPTADO = 10;
+    // DECISÃO: Evento da Tarefa 6, quando o tempo limite do garfo direito se esgota
+    public static final int DESISTIU_DIREITO = 11;
+
+    private Evento() {
+    }
+
+    static long empacotar(int filosofoId, int codigo, int garfoId) {
+        return ((long) filosofoId << 32) | ((long) (codigo & 0xFF) << 24) | (garfoId & SEM_GARFO);
+    }
+
+    public static int filosofo(long palavra) {
+        return (int) (palavra >>> 32);
+    }
+
+    public static int codigo(long palavra) {
+        return (int) (palavra >>> 24) & 0xFF;
+    }
+
+    public static int garfo(long palavra) {
+        return (int) palavra & SEM_GARFO;
+    }
+
+    /**
+     * Acrescenta a linha de log do evento, no formato "Filosofo N: mensagem".
+     */
+    public static void formatar(long palavra, StringBuilder saida) {
+        int garfo = garfo(palavra);
+        saida.append("Filosofo ").append(filosofo(palavra)).append(": ");
+        switch (codigo(palavra)) {
+            case PENSANDO:
+                saida.append("comecou a pensar");
+                break;
+            case TENTANDO_ESQUERDO:
+                saida.append("tentando pegar garfo esquerdo ").append(garfo);
+                break;
+            case PEGOU_ESQUERDO:
+                saida.append("pegou garfo esquerdo ").append(garfo);
+                break;
+            case TENTANDO_DIREITO:
+                saida.append("tentando pegar garfo direito ").append(garfo);
+                break;
+            case PEGOU_DIREITO:
+                saida.append("pegou garfo direito ").append(garfo);
+                break;
+            case COMENDO:
+                saida.append("comecou a comer");
+                break;
+            case SOLTOU_GARFOS:
+                saida.append("terminou de comer e soltou os garfos");
+                break;
+            case TENTANDO_GARFOS:
+                saida.append("tentando pegar os garfos");
+                break;
+            case PEGOU_GARFOS:
+                saida.append("pegou os garfos e comecou a comer");
+                break;
+            case PREEMPTADO:
+                saida.append("soltou garfo esquerdo ").append(garfo).append(" por preempcao do vigia");
+                break;
+            case DESISTIU_DIREITO:
+                saida.append("desistiu do garfo direito ").append(garfo).append(" e soltou o esquerdo");
+                break;
+            default:
+                saida.append("evento desconhecido ").append(codigo(palavra));
+        }
+        saida.append('\n');
+    }
+}
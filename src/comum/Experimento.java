@@ -0,0 +1,318 @@
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor único de experimentos, com resultados legíveis por máquina.
+ *
+ * PROBLEMA: Cada tarefa tem o seu Main, que roda uma vez e imprime texto
+ * livre. Comparar estratégias exige rodar vários Mains à mão, copiar números
+ * do console e não há aquecimento nem repetições.
+ *
+ * DECISÃO DE DESIGN: Uma tarefa por assento com o ciclo dos Filosofo
+ * (CicloFilosofo: pensar, pegarGarfos, comer, soltarGarfos) sobre o ProtocoloGarfos da
+ * estratégia, executada pelo ModoExecucao escolhido. Cada iteração usa uma
+ * mesa nova: aquecimento (nada é contado), medição e encerramento com
+ * ModoExecucao.encerrar, que interrompe e aguarda o término das tarefas em
+ * vez de um sleep fixo. Os resultados só são lidos depois do término, que
+ * publica as escritas das tarefas.
+ *
+ * DECISÃO: Como as classes de cada tarefa têm os mesmos nomes (Filosofo,
+ * Garfo, Main), cada tarefa é compilada em separado junto com comum, e o
+ * Experimento roda a partir do diretório da tarefa escolhida.
+ * executar_experimento.bat faz isso a partir da raiz.
+ *
+ * RESULTADOS (por iteração e resumo): refeições/s, refeições de cada
+ * filósofo, índice de Jain, espera em pegarGarfos (média, p50, p90, p99,
+ * máx, em ns) e se a mesa travou (nenhuma refeição no último quarto da
+ * medição) ou não terminou após a interrupção.
+ *
+ * USO (a partir do diretório de uma tarefa compilada):
+ *   java Experimento --estrategia=tarefa2 --filosofos=5 --duracao=10000 --formato=json
+ *
+ * PARÂMETROS:
+ *   --estrategia   tarefa1 a tarefa6, ou --protocolo=<classe> (ver ESTRATEGIAS)
+ *   --filosofos    tamanho da mesa (padrão 5)
+ *   --pensar, --comer   ver DistribuicaoTempo (padrão 1-3ms)
+ *   --aquecimento, --duracao   duração em ms (padrão 2000 e 10000)
+ *   --iteracoes    repetições (padrão 3)
+ *   --execucao     plataforma | virtual | pool:K (padrão plataforma)
+ *   --formato      texto | csv | json (padrão texto)
+ *   --saida        arquivo de saída (padrão: console)
+ */
+public class Experimento {
+    private static final long TIMEOUT_ENCERRAMENTO_MS = 5000;
+
+    // DECISÃO: O protocolo de cada tarefa, o mesmo usado pelo Benchmark
+    private static final String[][] ESTRATEGIAS = {
+            {"tarefa1", "ProtocoloEsquerdoDireito"},
+            {"tarefa2", "ProtocoloAssimetrico"},
+            {"tarefa3", "ProtocoloSemaforo"},
+            {"tarefa4", "Mesa"},
+            {"tarefa5", "ProtocoloHigienico"},
+            {"tarefa6", "ProtocoloBackoff"},
+    };
+
+    public static void main(String[] args) throws Exception {
+        Argumentos argumentos = new Argumentos(args);
+        String estrategia = argumentos.getString("estrategia", null);
+        String protocolo = argumentos.getString("protocolo", protocoloDe(estrategia));
+        if (protocolo == null) {
+            System.err.println("Uso: java Experimento --estrategia=tarefa1..tarefa6 [--filosofos=5] [--formato=texto|csv|json]");
+            System.exit(1);
+        }
+        Configuracao configuracao = new Configuracao();
+        configuracao.estrategia = estrategia != null ? estrategia : protocolo;
+        configuracao.protocolo = protocolo;
+        configuracao.numFilosofos = argumentos.getIntMinimo("filosofos", 5, 2);
+        configuracao.pensar = DistribuicaoTempo.parse(argumentos.getString("pensar", "1-3ms"));
+        configuracao.comer = DistribuicaoTempo.parse(argumentos.getString("comer", "1-3ms"));
+        configuracao.aquecimentoMs = argumentos.getLong("aquecimento", 2000);
+        configuracao.duracaoMs = argumentos.getLong("duracao", 10000);
+        configuracao.execucao = argumentos.getString("execucao", ModoExecucao.PLATAFORMA);
+        int iteracoes = argumentos.getIntMinimo("iteracoes", 3, 1);
+        String formato = argumentos.getString("formato", "texto");
+        if (!"texto".equals(formato) && !"csv".equals(formato) && !"json".equals(formato)) {
+            throw new IllegalArgumentException("Formato invalido: " + formato + " (use texto, csv ou json)");
+        }
+
+        List<Resultado> resultados = new ArrayList<>();
+        for (int it = 0; it < iteracoes; it++) {
+            ProtocoloGarfos mesa;
+            try {
+                mesa = Benchmark.criar(protocolo, configuracao.numFilosofos);
+            } catch (ClassNotFoundException e) {
+                System.err.println("Protocolo " + protocolo + " nao encontrado: execute a partir de src/"
+                        + configuracao.estrategia + " compilado");
+                System.exit(1);
+                return;
+            }
+            configuracao.nome = mesa.getNome();
+            resultados.add(executar(mesa, configuracao));
+        }
+
+        PrintStream saida = abrirSaida(argumentos.getString("saida", null));
+        if ("json".equals(formato)) {
+            escreverJson(saida, configuracao, resultados);
+        } else if ("csv".equals(formato)) {
+            escreverCsv(saida, configuracao, resultados);
+        } else {
+            escreverTexto(saida, configuracao, resultados);
+        }
+        saida.flush();
+        if (saida != System.out) {
+            saida.close();
+        }
+    }
+
+    static String protocoloDe(String estrategia) {
+        for (String[] par : ESTRATEGIAS) {
+            if (par[0].equals(estrategia)) {
+                return par[1];
+            }
+        }
+        return null;
+    }
+
+    private static Resultado executar(ProtocoloGarfos mesa, Configuracao configuracao) throws InterruptedException {
+        int n = mesa.getNumFilosofos();
+        AtomicInteger fase = new AtomicInteger(CicloFilosofo.AQUECENDO);
+        CicloFilosofo[] tarefas = new CicloFilosofo[n];
+        ExecutorService executor = ModoExecucao.criarExecutor(configuracao.execucao, n, "experimento-");
+        for (int i = 0; i < n; i++) {
+            tarefas[i] = new CicloFilosofo(mesa, i, fase, configuracao.pensar, configuracao.comer, true);
+            executor.execute(tarefas[i]);
+        }
+        Thread.sleep(configuracao.aquecimentoMs);
+        fase.set(CicloFilosofo.MEDINDO);
+        long inicio = System.nanoTime();
+        Thread.sleep(configuracao.duracaoMs);
+        fase.set(CicloFilosofo.ENCERRADO);
+        long fim = System.nanoTime();
+
+        Resultado resultado = new Resultado();
+        resultado.terminou = ModoExecucao.encerrar(executor, TIMEOUT_ENCERRAMENTO_MS);
+        resultado.refeicoes = new int[n];
+        long total = 0;
+        long ultimaRefeicao = Long.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            resultado.refeicoes[i] = (int) tarefas[i].getRefeicoes();
+            resultado.espera.combinar(tarefas[i].getEspera());
+            total += tarefas[i].getRefeicoes();
+            ultimaRefeicao = Math.max(ultimaRefeicao, tarefas[i].getUltimaRefeicaoNs());
+        }
+        resultado.refeicoesPorSegundo = total / ((fim - inicio) / 1e9);
+        // DECISÃO: Mesmo critério de travamento do Benchmark
+        long limiar = Math.max(TimeUnit.MILLISECONDS.toNanos(configuracao.duracaoMs) / 4,
+                4 * (configuracao.pensar.getMaximoNs() + configuracao.comer.getMaximoNs()));
+        resultado.travou = ultimaRefeicao < fim - limiar;
+        return resultado;
+    }
+
+    private static PrintStream abrirSaida(String arquivo) throws FileNotFoundException {
+        if (arquivo == null) {
+            return System.out;
+        }
+        return new PrintStream(new FileOutputStream(arquivo), false, StandardCharsets.UTF_8);
+    }
+
+    private static void escreverTexto(PrintStream saida, Configuracao c, List<Resultado> resultados) {
+        saida.println("=== Experimento " + c.estrategia + " (" + c.nome + ", N=" + c.numFilosofos + ", pensar="
+                + c.pensar + " comer=" + c.comer + ", aquecimento " + c.aquecimentoMs + " ms, medicao "
+                + c.duracaoMs + " ms, execucao " + c.execucao + ") ===");
+        saida.println(String.format("%-9s %14s %10s %10s %10s %10s %10s %8s  %s",
+                "iteracao", "refeicoes/s", "min", "max", "p50(us)", "p99(us)", "max(us)", "jain", "obs"));
+        for (int i = 0; i < resultados.size(); i++) {
+            Resultado r = resultados.get(i);
+            saida.println(String.format(Locale.ROOT, "%-9d %14.1f %10d %10d %10.1f %10.1f %10.1f %8.4f  %s",
+                    i + 1, r.refeicoesPorSegundo, minimo(r.refeicoes), maximo(r.refeicoes),
+                    r.espera.percentil(50) / 1e3, r.espera.percentil(99) / 1e3, r.espera.getMaximo() / 1e3,
+                    RelatorioEstatisticas.indiceJain(r.refeicoes), observacao(r)));
+        }
+        double[] vazoes = vazoes(resultados);
+        Histograma espera = esperaCombinada(resultados);
+        saida.println(String.format(Locale.ROOT, "resumo: %.1f refeicoes/s (desvio %.1f), espera p50 %.1f us, p99 %.1f us",
+                RelatorioEstatisticas.media(vazoes), RelatorioEstatisticas.desvio(vazoes), espera.percentil(50) / 1e3, espera.percentil(99) / 1e3));
+    }
+
+    /**
+     * Uma linha por iteração; as refeições de cada filósofo vão em uma coluna
+     * separadas por ';'.
+     */
+    private static void escreverCsv(PrintStream saida, Configuracao c, List<Resultado> resultados) {
+        saida.println("estrategia,protocolo,filosofos,pensar,comer,execucao,aquecimento_ms,duracao_ms,iteracao,"
+                + "refeicoes_s,refeicoes_min,refeicoes_max,jain,espera_media_ns,espera_p50_ns,espera_p90_ns,"
+                + "espera_p99_ns,espera_max_ns,travou,terminou,refeicoes_por_filosofo");
+        for (int i = 0; i < resultados.size(); i++) {
+            Resultado r = resultados.get(i);
+            StringBuilder porFilosofo = new StringBuilder();
+            for (int k = 0; k < r.refeicoes.length; k++) {
+                porFilosofo.append(k == 0 ? "" : ";").append(r.refeicoes[k]);
+            }
+            saida.println(String.format(Locale.ROOT, "%s,%s,%d,%s,%s,%s,%d,%d,%d,%.3f,%d,%d,%.6f,%.0f,%d,%d,%d,%d,%b,%b,%s",
+                    c.estrategia, c.nome, c.numFilosofos, c.pensar, c.comer, c.execucao, c.aquecimentoMs, c.duracaoMs,
+                    i + 1, r.refeicoesPorSegundo, minimo(r.refeicoes), maximo(r.refeicoes),
+                    RelatorioEstatisticas.indiceJain(r.refeicoes), r.espera.getMedia(), r.espera.percentil(50),
+                    r.espera.percentil(90), r.espera.percentil(99), r.espera.getMaximo(), r.travou, r.terminou,
+                    porFilosofo));
+        }
+    }
+
+    /**
+     * DECISÃO: JSON montado à mão (o projeto não tem dependências); os únicos
+     * textos livres são nomes de estratégia, protocolo e distribuições.
+     */
+    private static void escreverJson(PrintStream saida, Configuracao c, List<Resultado> resultados) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"estrategia\": ").append(texto(c.estrategia)).append(",\n");
+        json.append("  \"protocolo\": ").append(texto(c.nome)).append(",\n");
+        json.append("  \"filosofos\": ").append(c.numFilosofos).append(",\n");
+        json.append("  \"pensar\": ").append(texto(c.pensar.toString())).append(",\n");
+        json.append("  \"comer\": ").append(texto(c.comer.toString())).append(",\n");
+        json.append("  \"execucao\": ").append(texto(c.execucao)).append(",\n");
+        json.append("  \"aquecimentoMs\": ").append(c.aquecimentoMs).append(",\n");
+        json.append("  \"duracaoMs\": ").append(c.duracaoMs).append(",\n");
+        json.append("  \"iteracoes\": [\n");
+        for (int i = 0; i < resultados.size(); i++) {
+            Resultado r = resultados.get(i);
+            json.append("    {\"iteracao\": ").append(i + 1)
+                    .append(", \"refeicoesPorSegundo\": ").append(numero(r.refeicoesPorSegundo))
+                    .append(", \"jain\": ").append(numero(RelatorioEstatisticas.indiceJain(r.refeicoes)))
+                    .append(", \"travou\": ").append(r.travou)
+                    .append(", \"terminou\": ").append(r.terminou)
+                    .append(",\n     \"esperaNs\": ").append(percentis(r.espera))
+                    .append(",\n     \"refeicoes\": [");
+            for (int k = 0; k < r.refeicoes.length; k++) {
+                json.append(k == 0 ? "" : ", ").append(r.refeicoes[k]);
+            }
+            json.append("]}").append(i + 1 < resultados.size() ? "," : "").append('\n');
+        }
+        json.append("  ],\n");
+        double[] vazoes = vazoes(resultados);
+        json.append("  \"resumo\": {\"refeicoesPorSegundo\": {\"media\": ").append(numero(RelatorioEstatisticas.media(vazoes)))
+                .append(", \"desvio\": ").append(numero(RelatorioEstatisticas.desvio(vazoes))).append("}")
+                .append(", \"esperaNs\": ").append(percentis(esperaCombinada(resultados))).append("}\n");
+        json.append("}");
+        saida.println(json);
+    }
+
+    private static String percentis(Histograma h) {
+        return "{\"media\": " + numero(h.getMedia()) + ", \"p50\": " + h.percentil(50) + ", \"p90\": " + h.percentil(90)
+                + ", \"p99\": " + h.percentil(99) + ", \"max\": " + h.getMaximo() + "}";
+    }
+
+    private static String numero(double valor) {
+        return String.format(Locale.ROOT, "%.3f", valor);
+    }
+
+    private static String texto(String valor) {
+        return "\"" + valor.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static String observacao(Resultado r) {
+        if (!r.terminou) {
+            return "NAO TERMINOU";
+        }
+        return r.travou ? "TRAVOU" : "";
+    }
+
+    private static double[] vazoes(List<Resultado> resultados) {
+        double[] vazoes = new double[resultados.size()];
+        for (int i = 0; i < vazoes.length; i++) {
+            vazoes[i] = resultados.get(i).refeicoesPorSegundo;
+        }
+        return vazoes;
+    }
+
+    private static Histograma esperaCombinada(List<Resultado> resultados) {
+        Histograma espera = new Histograma();
+        for (Resultado r : resultados) {
+            espera.combinar(r.espera);
+        }
+        return espera;
+    }
+
+    private static int minimo(int[] valores) {
+        int minimo = Integer.MAX_VALUE;
+        for (int v : valores) {
+            minimo = Math.min(minimo, v);
+        }
+        return minimo;
+    }
+
+    private static int maximo(int[] valores) {
+        int maximo = 0;
+        for (int v : valores) {
+            maximo = Math.max(maximo, v);
+        }
+        return maximo;
+    }
+
+    private static class Configuracao {
+        String estrategia;
+        String protocolo;
+        String nome;
+        int numFilosofos;
+        DistribuicaoTempo pensar;
+        DistribuicaoTempo comer;
+        long aquecimentoMs;
+        long duracaoMs;
+        String execucao;
+    }
+
+    private static class Resultado {
+        final Histograma espera = new Histograma();
+        int[] refeicoes;
+        double refeicoesPorSegundo;
+        boolean travou;
+        boolean terminou;
+    }
+}
@@ -0,0 +1,85 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fase atual e instante da última refeição de cada filósofo, para o
+ * monitoramento (MonitorJmx).
+ *
+ * DECISÃO DE DESIGN: Alimentado pelo BufferEventos, a partir dos mesmos
+ * eventos que o filósofo já registra (pensando, tentando, comendo...), então
+ * nenhum Filosofo nem protocolo de garfos precisa mudar. Cada filósofo
+ * escreve só a sua posição, com lazySet, em uma linha de cache própria;
+ * quem lê (os MXBeans) não toma lock nenhum da Mesa nem dos garfos.
+ *
+ * DECISÃO: A última refeição equivale ao ultimaVezComeu da Mesa da Tarefa 4,
+ * mas vale para todas as tarefas e não exige o lock da Mesa para ser lida.
+ */
+public final class FasesFilosofos {
+    public static final String INICIANDO = "iniciando";
+    public static final String PENSANDO = "pensando";
+    public static final String ESPERANDO = "esperando";
+    public static final String COMENDO = "comendo";
+
+    private static final int CODIGO = 0;
+    private static final int ULTIMA_REFEICAO = 1;
+    // DECISÃO: 0 em ULTIMA_REFEICAO significa "nunca comeu"
+    private static final int TEM_REFEICAO = 2;
+    private static final int POR_FILOSOFO = 8;
+
+    private final int numFilosofos;
+    private final AtomicLongArray dados;
+
+    public FasesFilosofos(int numFilosofos) {
+        this.numFilosofos = numFilosofos;
+        this.dados = new AtomicLongArray(numFilosofos * POR_FILOSOFO);
+    }
+
+    /**
+     * Chamado pela thread do filósofo a cada evento.
+     */
+    void registrar(int filosofoId, int codigo) {
+        int base = filosofoId * POR_FILOSOFO;
+        dados.lazySet(base + CODIGO, codigo);
+        // DECISÃO: Na Tarefa 4 a refeição começa em PEGOU_GARFOS (não há COMENDO)
+        if (codigo == Evento.COMENDO || codigo == Evento.PEGOU_GARFOS) {
+            dados.lazySet(base + ULTIMA_REFEICAO, System.nanoTime());
+            dados.lazySet(base + TEM_REFEICAO, 1);
+        }
+    }
+
+    public int getNumFilosofos() {
+        return numFilosofos;
+    }
+
+    /**
+     * Fase do filósofo a partir do último evento registrado.
+     */
+    public String getFase(int filosofoId) {
+        switch ((int) dados.get(filosofoId * POR_FILOSOFO + CODIGO)) {
+            case 0:
+                return INICIANDO;
+            case Evento.PENSANDO:
+            case Evento.SOLTOU_GARFOS:
+                return PENSANDO;
+            // DECISÃO: Só COMENDO e PEGOU_GARFOS; depois de PEGOU_DIREITO o
+            // filósofo invertido da Tarefa 2 ainda espera o esquerdo e o da
+            // Tarefa 5 pode voltar a pedir os garfos
+            case Evento.PEGOU_GARFOS:
+            case Evento.COMENDO:
+                return COMENDO;
+            default:
+                return ESPERANDO;
+        }
+    }
+
+    /**
+     * Milissegundos desde que o filósofo começou a comer pela última vez, ou
+     * -1 se ainda não comeu.
+     */
+    public long getMsDesdeUltimaRefeicao(int filosofoId) {
+        int base = filosofoId * POR_FILOSOFO;
+        if (dados.get(base + TEM_REFEICAO) == 0) {
+            return -1;
+        }
+        return (System.nanoTime() - dados.get(base + ULTIMA_REFEICAO)) / 1_000_000;
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ * Atributos de um filósofo expostos por JMX (ver MonitorJmx).
+ */
+public interface FilosofoMXBean {
+    int getId();
+
+    String getFase();
+
+    long getRefeicoes();
+
+    double getRefeicoesPorSegundo();
+
+    long getMsDesdeUltimaRefeicao();
+}
@@ -0,0 +1,161 @@
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Garfo sem monitor: estado em uma palavra atômica, aquisição por CAS.
+ *
+ * PROBLEMA DO GARFO COM MONITOR:
+ * Garfo.pegar() entra em um monitor e Garfo.soltar() chama notifyAll(). Mesmo
+ * com um único vizinho esperando, a liberação paga a inflação do monitor e
+ * acorda todas as threads em wait(), que voltam a disputar o lock.
+ *
+ * DECISÃO DE DESIGN (mutex em três estados):
+ * - LIVRE (0), OCUPADO (1) e OCUPADO_COM_ESPERA (2)
+ * - Caminho sem disputa: um CAS LIVRE -> OCUPADO para pegar e uma troca
+ *   atômica para soltar - nenhum monitor, nenhuma chamada ao sistema
+ * - Com disputa: espera ativa curta (Thread.onSpinWait) e, se não bastar, a
+ *   thread entra na fila e estaciona com LockSupport.park()
+ * - soltar() só acorda alguém se o estado era OCUPADO_COM_ESPERA, e acorda
+ *   exatamente um esperador (o primeiro da fila) com LockSupport.unpark()
+ *
+ * DECISÃO: Quem espera marca OCUPADO_COM_ESPERA antes de estacionar. Assim
+ * um soltar() concorrente sempre vê que precisa acordar alguém, e o unpark
+ * que chega antes do park não se perde (LockSupport guarda a permissão).
+ *
+ * DECISÃO: O esperador só sai da fila quando desiste ou consegue o garfo.
+ * Se for acordado e perder a corrida para outra thread, continua no início
+ * da fila e será acordado na próxima liberação.
+ *
+ * Não é reentrante nem verifica o dono, assim como o Garfo original.
+ *
+ * DECISÃO: Com PerfilGarfos, o caminho rápido conta uma aquisição sem
+ * disputa; só quem falha no primeiro CAS lê o relógio.
+ */
+public class GarfoAtomico implements GarfoCompartilhado {
+    private static final int LIVRE = 0;
+    private static final int OCUPADO = 1;
+    private static final int OCUPADO_COM_ESPERA = 2;
+    // DECISÃO: Espera ativa só compensa com mais de um núcleo; com um núcleo
+    // o dono do garfo não executa enquanto giramos
+    private static final int TENTATIVAS_SPIN = Runtime.getRuntime().availableProcessors() > 1 ? 128 : 0;
+
+    private final int id;
+    private final AtomicInteger estado;
+    private final Queue<Thread> esperando;
+    private final PerfilGarfos perfil;
+
+    public GarfoAtomico(int id) {
+        this(id, null);
+    }
+
+    public GarfoAtomico(int id, PerfilGarfos perfil) {
+        this.id = id;
+        this.estado = new AtomicInteger(LIVRE);
+        this.esperando = new ConcurrentLinkedQueue<>();
+        this.perfil = perfil;
+    }
+
+    @Override
+    public void pegar() throws InterruptedException {
+        // DECISÃO: Caminho rápido - um único CAS quando o garfo está livre
+        if (estado.compareAndSet(LIVRE, OCUPADO)) {
+            if (perfil != null) {
+                perfil.registrarAquisicao(id, false, 0);
+            }
+            return;
+        }
+        long inicioEspera = perfil != null ? System.nanoTime() : 0;
+        if (!girar()) {
+            pegarComEspera();
+        }
+        if (perfil != null) {
+            perfil.registrarAquisicao(id, true, inicioEspera);
+        }
+    }
+
+    /**
+     * Pega o garfo só se estiver livre e ninguém estiver esperando por ele,
+     * sem esperar nem girar.
+     *
+     * DECISÃO: Para quem precisa de vários garfos e não pode esperar segurando
+     * os outros (MesaGrafo). Ao contrário do caminho rápido de pegar(), não
+     * passa à frente da fila: sem pensar, um vizinho que solta e logo tenta
+     * de novo ganharia sempre de quem foi acordado e ainda não executou.
+     */
+    public boolean tentarPegar() {
+        if (estado.get() == LIVRE && esperando.isEmpty() && estado.compareAndSet(LIVRE, OCUPADO)) {
+            if (perfil != null) {
+                perfil.registrarAquisicao(id, false, 0);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Espera ativa curta; true se pegou o garfo.
+     */
+    private boolean girar() {
+        for (int i = 0; i < TENTATIVAS_SPIN; i++) {
+            Thread.onSpinWait();
+            if (estado.get() == LIVRE && estado.compareAndSet(LIVRE, OCUPADO)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void pegarComEspera() throws InterruptedException {
+        Thread atual = Thread.currentThread();
+        esperando.add(atual);
+        boolean conseguiu = false;
+        try {
+            while (true) {
+                // DECISÃO: getAndSet para OCUPADO_COM_ESPERA - se o garfo estava
+                // livre, nós o pegamos; senão o dono saberá que há quem acordar
+                if (estado.getAndSet(OCUPADO_COM_ESPERA) == LIVRE) {
+                    conseguiu = true;
+                    return;
+                }
+                LockSupport.park(this);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        } finally {
+            esperando.remove(atual);
+            if (!conseguiu) {
+                // DECISÃO: Se desistimos (interrupção) depois de um soltar() nos
+                // acordar, repassamos o aviso para o próximo da fila - mesmo com o
+                // garfo já OCUPADO por quem passou à frente: esse dono viu
+                // OCUPADO, e não OCUPADO_COM_ESPERA, e não acordaria ninguém ao
+                // soltar. O acordado refaz a marca no getAndSet do laço
+                acordarProximo();
+            }
+        }
+    }
+
+    @Override
+    public void soltar() {
+        if (perfil != null) {
+            perfil.registrarSoltura(id);
+        }
+        if (estado.getAndSet(LIVRE) == OCUPADO_COM_ESPERA) {
+            acordarProximo();
+        }
+    }
+
+    private void acordarProximo() {
+        Thread proximo = esperando.peek();
+        if (proximo != null) {
+            LockSupport.unpark(proximo);
+        }
+    }
+
+    @Override
+    public int getId() {
+        return id;
+    }
+}
@@ -0,0 +1,19 @@
+/**
+ * Contrato de um garfo usado diretamente pelos filósofos.
+ *
+ * DECISÃO DE DESIGN: As Tarefas 1 e 2 dependiam da classe concreta Garfo
+ * (synchronized + wait/notifyAll). Extrair o contrato pegar/soltar/getId
+ * permite trocar a implementação (ex.: GarfoAtomico) sem mudar o Filosofo.
+ *
+ * SEMÂNTICA:
+ * - pegar(): bloqueia até o garfo estar livre e o marca como em uso
+ * - soltar(): libera o garfo; deve ser chamado por quem o pegou
+ */
+public interface GarfoCompartilhado {
+
+    void pegar() throws InterruptedException;
+
+    void soltar();
+
+    int getId();
+}
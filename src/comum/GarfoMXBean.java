@@ -0,0 +1,16 @@
+/**
+ * Atributos de um garfo expostos por JMX (ver MonitorJmx e PerfilGarfos).
+ */
+public interface GarfoMXBean {
+    int getId();
+
+    boolean isEmUso();
+
+    long getAquisicoes();
+
+    long getDisputadas();
+
+    double getBloqueadoMs();
+
+    double getPosseMaximaMs();
+}
@@ -0,0 +1,57 @@
+/**
+ * Garfo do modelo de simulação: dono e fila de espera, sem threads.
+ *
+ * DECISÃO DE DESIGN: No Garfo real, soltar() chama notifyAll() e quem vence a
+ * corrida depende do escalonador. Na simulação o garfo é entregue direto ao
+ * primeiro da fila (FIFO), que é a ordem mais provável com poucos esperando e
+ * mantém a simulação determinística para uma mesma semente.
+ *
+ * DECISÃO: Um garfo só é disputado pelos dois vizinhos, então a fila tem
+ * capacidade fixa de 2 e nada é alocado durante a simulação.
+ */
+public final class GarfoSimulado {
+    public static final int LIVRE = -1;
+
+    private final int[] fila;
+    private int inicio;
+    private int tamanho;
+    private int dono;
+
+    public GarfoSimulado() {
+        this.fila = new int[2];
+        this.dono = LIVRE;
+    }
+
+    /**
+     * @return true se o filósofo pegou o garfo; false se entrou na fila
+     */
+    public boolean pegar(int filosofoId) {
+        if (dono == LIVRE) {
+            dono = filosofoId;
+            return true;
+        }
+        fila[(inicio + tamanho) % fila.length] = filosofoId;
+        tamanho++;
+        return false;
+    }
+
+    /**
+     * Solta o garfo e o entrega ao primeiro da fila.
+     *
+     * @return o novo dono, ou LIVRE se ninguém esperava
+     */
+    public int soltar() {
+        if (tamanho == 0) {
+            dono = LIVRE;
+        } else {
+            dono = fila[inicio];
+            inicio = (inicio + 1) % fila.length;
+            tamanho--;
+        }
+        return dono;
+    }
+
+    public int getDono() {
+        return dono;
+    }
+}
@@ -0,0 +1,112 @@
+import java.util.Arrays;
+
+/**
+ * Fila de prioridade de eventos por instante, em arrays de primitivos.
+ *
+ * DECISÃO DE DESIGN: Heap binário mínimo sobre (instante, ordem de inserção),
+ * com um long de carga por evento e sem um objeto por evento. A ordem de
+ * inserção desempata eventos no mesmo instante, então eventos iguais saem na
+ * ordem em que entraram. Usado pelo Simulador (eventos do relógio virtual) e
+ * pela AnaliseTrace (janela de reordenação do trace).
+ *
+ * DECISÃO: Comparação por subtração, que respeita o estouro de
+ * System.nanoTime; para instantes virtuais a partir de zero é a mesma ordem
+ * da comparação direta.
+ *
+ * CONCORRÊNCIA: Não é thread-safe; cada dono o usa de uma única thread.
+ */
+public final class HeapEventos {
+    // DECISÃO: Filhos de k em 2k+1 e 2k+2; os três arrays andam juntos
+    private long[] instantes;
+    private long[] ordens;
+    private long[] dados;
+    private int tamanho;
+    private long proximaOrdem;
+
+    public HeapEventos(int capacidade) {
+        this.instantes = new long[capacidade];
+        this.ordens = new long[capacidade];
+        this.dados = new long[capacidade];
+    }
+
+    public boolean vazio() {
+        return tamanho == 0;
+    }
+
+    /**
+     * Instante do próximo evento; só com o heap não vazio.
+     */
+    public long instanteTopo() {
+        return instantes[0];
+    }
+
+    /**
+     * Carga do próximo evento; só com o heap não vazio.
+     */
+    public long dadoTopo() {
+        return dados[0];
+    }
+
+    public void inserir(long instante, long dado) {
+        if (tamanho == instantes.length) {
+            int capacidade = Math.max(16, tamanho * 2);
+            instantes = Arrays.copyOf(instantes, capacidade);
+            ordens = Arrays.copyOf(ordens, capacidade);
+            dados = Arrays.copyOf(dados, capacidade);
+        }
+        long ordem = proximaOrdem++;
+        int k = tamanho++;
+        while (k > 0) {
+            int pai = (k - 1) >>> 1;
+            if (!antes(instante, ordem, instantes[pai], ordens[pai])) {
+                break;
+            }
+            mover(pai, k);
+            k = pai;
+        }
+        instantes[k] = instante;
+        ordens[k] = ordem;
+        dados[k] = dado;
+    }
+
+    /**
+     * Remove o próximo evento; só com o heap não vazio.
+     */
+    public void remover() {
+        tamanho--;
+        if (tamanho == 0) {
+            return;
+        }
+        long instante = instantes[tamanho];
+        long ordem = ordens[tamanho];
+        long dado = dados[tamanho];
+        int k = 0;
+        int metade = tamanho >>> 1;
+        while (k < metade) {
+            int filho = 2 * k + 1;
+            int direito = filho + 1;
+            if (direito < tamanho && antes(instantes[direito], ordens[direito], instantes[filho], ordens[filho])) {
+                filho = direito;
+            }
+            if (!antes(instantes[filho], ordens[filho], instante, ordem)) {
+                break;
+            }
+            mover(filho, k);
+            k = filho;
+        }
+        instantes[k] = instante;
+        ordens[k] = ordem;
+        dados[k] = dado;
+    }
+
+    private static boolean antes(long instanteA, long ordemA, long instanteB, long ordemB) {
+        long diferenca = instanteA - instanteB;
+        return diferenca < 0 || (diferenca == 0 && ordemA < ordemB);
+    }
+
+    private void mover(int de, int para) {
+        instantes[para] = instantes[de];
+        ordens[para] = ordens[de];
+        dados[para] = dados[de];
+    }
+}
@@ -0,0 +1,117 @@
+import java.util.Arrays;
+
+/**
+ * Histograma de latências com buckets logarítmicos (log-linear).
+ *
+ * DECISÃO DE DESIGN: Guardar cada amostra seria caro em memória e alocação.
+ * Agrupamos os valores em faixas: cada potência de 2 é dividida em
+ * SUB_BUCKETS partes iguais, o que dá erro relativo máximo de ~6% em qualquer
+ * escala (de nanossegundos a minutos) com um array fixo de ~1000 contadores.
+ *
+ * CONCORRÊNCIA: Esta classe NÃO é thread-safe. Cada thread deve registrar no
+ * seu próprio histograma e os resultados são combinados com combinar() depois
+ * do join(), que já garante a visibilidade dos valores.
+ */
+public class Histograma {
+    // DECISÃO: 4 bits de sub-bucket = 16 faixas por potência de 2 (~6% de erro)
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int NUM_BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS + SUB_BUCKETS;
+
+    private final long[] contagens;
+    private long total;
+    private long soma;
+    private long maximo;
+
+    public Histograma() {
+        this.contagens = new long[NUM_BUCKETS];
+    }
+
+    /**
+     * Registra um valor (negativos são tratados como zero).
+     */
+    public void registrar(long valor) {
+        long v = Math.max(0, valor);
+        contagens[indice(v)]++;
+        total++;
+        soma += v;
+        if (v > maximo) {
+            maximo = v;
+        }
+    }
+
+    /**
+     * Soma as contagens de outro histograma a este.
+     */
+    public void combinar(Histograma outro) {
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            contagens[i] += outro.contagens[i];
+        }
+        total += outro.total;
+        soma += outro.soma;
+        maximo = Math.max(maximo, outro.maximo);
+    }
+
+    public void limpar() {
+        Arrays.fill(contagens, 0);
+        total = 0;
+        soma = 0;
+        maximo = 0;
+    }
+
+    /**
+     * Valor no percentil pedido (0-100), com a precisão do bucket.
+     *
+     * DECISÃO: Retorna o limite superior do bucket (limitado ao máximo real),
+     * para que o percentil nunca seja subestimado.
+     */
+    public long percentil(double percentil) {
+        if (total == 0) {
+            return 0;
+        }
+        long alvo = (long) Math.ceil(total * percentil / 100.0);
+        if (alvo < 1) {
+            alvo = 1;
+        }
+        long acumulado = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            acumulado += contagens[i];
+            if (acumulado >= alvo) {
+                return Math.min(limiteSuperior(i), maximo);
+            }
+        }
+        return maximo;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getMaximo() {
+        return maximo;
+    }
+
+    public double getMedia() {
+        return total == 0 ? 0 : (double) soma / total;
+    }
+
+    static int indice(long valor) {
+        if (valor < SUB_BUCKETS) {
+            return (int) valor;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(valor);
+        int deslocamento = expoente - SUB_BITS;
+        int sub = (int) ((valor >>> deslocamento) & (SUB_BUCKETS - 1));
+        return (deslocamento + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long limiteSuperior(int indice) {
+        if (indice < SUB_BUCKETS) {
+            return indice;
+        }
+        int deslocamento = indice / SUB_BUCKETS - 1;
+        long sub = indice % SUB_BUCKETS;
+        long base = (SUB_BUCKETS + sub) << deslocamento;
+        return base + (1L << deslocamento) - 1;
+    }
+}
@@ -0,0 +1,146 @@
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Log, estatísticas ao vivo, perfil dos garfos e MXBeans de uma execução
+ * das tarefas, montados a partir dos Argumentos do Main.
+ *
+ * DECISÃO DE DESIGN: Os Main das seis tarefas ligam os mesmos instrumentos
+ * (--log, --ao-vivo, --perfil-garfos, --jmx) e precisam desligá-los na mesma
+ * ordem; aqui isso é escrito uma vez e cada Main só cria a sua mesa.
+ *
+ * CICLO:
+ * 1. construtor: lê as opções e cria os objetos, sem iniciar nada
+ * 2. getPerfil(): entregue aos garfos (ou à Mesa) ao construí-los
+ * 3. iniciar(): antes de criar os filósofos
+ * 4. acompanhar(): para cada filósofo, antes de entregá-lo ao executor
+ * 5. encerrar(executor): no fim da execução, antes das estatísticas
+ * 6. imprimirPerfil(): depois das estatísticas
+ *
+ * DECISÃO: --jmx publica MXBeans da mesa, dos filósofos e dos garfos (ver
+ * MonitorJmx) e por isso liga as EstatisticasVivas e o PerfilGarfos, de onde
+ * eles leem sem lock, mesmo sem --ao-vivo nem --perfil-garfos.
+ */
+public final class InstrumentacaoMesa {
+    private final String nome;
+    private final int numFilosofos;
+    private final RegistroEventos registro;
+    private final boolean publicarJmx;
+    private final long intervaloVivoMs;
+    private final EstatisticasVivas vivas;
+    private final boolean perfilPedido;
+    private final long intervaloPerfilMs;
+    private PerfilGarfos perfil;
+    private MonitorJmx monitorJmx;
+
+    /**
+     * @param nome nome da mesa nos MXBeans (ex.: "tarefa2")
+     */
+    public InstrumentacaoMesa(Argumentos argumentos, String nome, int numFilosofos) {
+        this.nome = nome;
+        this.numFilosofos = numFilosofos;
+        // DECISÃO: Log assíncrono (--log=console|silencioso|binario[:prefixo]) para que o console
+        // não vire o gargalo medido; o padrão mantém a saída de antes
+        this.registro = new RegistroEventos(argumentos.getString("log", RegistroEventos.MODO_CONSOLE), numFilosofos);
+        this.publicarJmx = argumentos.getBoolean("jmx", false);
+        // DECISÃO: --ao-vivo=ms imprime a vazão da mesa a cada intervalo sem
+        // parar os filósofos (ver EstatisticasVivas); 0 desliga
+        this.intervaloVivoMs = argumentos.getLong("ao-vivo", 0);
+        this.vivas = intervaloVivoMs > 0 || publicarJmx ? new EstatisticasVivas(numFilosofos) : null;
+        // DECISÃO: --perfil-garfos conta aquisições, disputas e tempo bloqueado
+        // por garfo (ver PerfilGarfos); --perfil-intervalo=ms imprime amostras
+        // durante a execução. Sem a opção os garfos não medem nada
+        this.perfilPedido = argumentos.getBoolean("perfil-garfos", false);
+        this.intervaloPerfilMs = argumentos.getLong("perfil-intervalo", 0);
+        this.perfil = perfilPedido || publicarJmx ? new PerfilGarfos(numFilosofos) : null;
+    }
+
+    public RegistroEventos getRegistro() {
+        return registro;
+    }
+
+    /**
+     * Perfil a ser entregue aos garfos; null se não foi pedido.
+     */
+    public PerfilGarfos getPerfil() {
+        return perfil;
+    }
+
+    /**
+     * Para mesas e garfos que não registram no perfil; antes de iniciar().
+     *
+     * @param onde complemento do aviso (ex.: "pela mesa atomica")
+     */
+    public void descartarPerfil(String onde) {
+        if (perfil != null && perfilPedido) {
+            System.err.println("--perfil-garfos nao e suportado " + onde + "; ignorado");
+        }
+        perfil = null;
+    }
+
+    /**
+     * Inicia o drenador de eventos, os relatórios periódicos e os MXBeans.
+     *
+     * DECISÃO: Antes dos filósofos, que criam os seus buffers de eventos no
+     * construtor (o MonitorJmx precisa acompanhá-los desde o primeiro).
+     */
+    public void iniciar() {
+        registro.iniciar();
+        if (vivas != null) {
+            vivas.iniciarRelatorio(intervaloVivoMs, System.out);
+        }
+        if (perfil != null) {
+            perfil.iniciarAmostragem(intervaloPerfilMs, System.out);
+        }
+        if (publicarJmx) {
+            monitorJmx = MonitorJmx.registrar(nome, numFilosofos, registro, vivas, perfil);
+        }
+    }
+
+    /**
+     * Publica as refeições do filósofo nas estatísticas ao vivo, se ligadas;
+     * antes de entregá-lo ao executor (ver EstatisticasFilosofo.publicarEm).
+     */
+    public void acompanhar(EstatisticasFilosofo estatisticas, int filosofoId) {
+        if (vivas != null) {
+            estatisticas.publicarEm(vivas, filosofoId);
+        }
+    }
+
+    /**
+     * Desliga os instrumentos e encerra o executor dos filósofos.
+     *
+     * DECISÃO: Os eventos pendentes vão para o console antes da mensagem de
+     * término, e o restante (registro.encerrar) só depois que os filósofos
+     * pararam, para que as estatísticas venham depois de todos os eventos.
+     */
+    public void encerrar(ExecutorService executor) {
+        registro.descarregar();
+        if (vivas != null) {
+            vivas.encerrarRelatorio();
+        }
+        if (monitorJmx != null) {
+            monitorJmx.encerrar();
+        }
+        if (perfil != null) {
+            perfil.encerrarAmostragem();
+        }
+        System.out.println("\n=== Finalizando execucao ===");
+
+        try {
+            ModoExecucao.encerrar(executor, 1000);
+            registro.encerrar();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Mapa de calor dos garfos (ver PerfilGarfos), depois das estatísticas;
+     * nada se o perfil não foi pedido.
+     */
+    public void imprimirPerfil() {
+        if (perfil != null) {
+            perfil.imprimirMapa(System.out);
+        }
+    }
+}
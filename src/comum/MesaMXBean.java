@@ -0,0 +1,32 @@
+/**
+ * Atributos da mesa expostos por JMX (ver MonitorJmx).
+ */
+public interface MesaMXBean {
+    String getNome();
+
+    int getNumFilosofos();
+
+    long getRefeicoes();
+
+    double getRefeicoesPorSegundo();
+
+    double getEsperaMediaMs();
+
+    int getPensando();
+
+    int getEsperando();
+
+    int getComendo();
+
+    /**
+     * Garfos em uso agora, ou -1 se a tarefa não tem perfil de garfos.
+     */
+    int getGarfosEmUso();
+
+    /**
+     * Maior tempo sem comer entre os filósofos (ms), o que a fairness da Mesa vigia.
+     */
+    long getMaiorTempoSemComerMs();
+
+    int getFilosofoMaisFaminto();
+}
@@ -0,0 +1,35 @@
+/**
+ * Regras de aquisição de garfos de uma tarefa, executadas pelo Simulador.
+ *
+ * DECISÃO DE DESIGN: O Simulador cuida do ciclo pensar/comer e do relógio
+ * virtual; o modelo só decide quem come. Quando um filósofo consegue os
+ * recursos (na hora ou depois, quando outro os libera), o modelo chama
+ * Simulador.comecarRefeicao().
+ *
+ * Como em ProtocoloGarfos, as implementações têm um construtor público
+ * (int numFilosofos), para serem criadas pelo nome da classe.
+ */
+public interface ModeloSimulacao {
+
+    /**
+     * Chamado uma vez, antes do primeiro evento.
+     */
+    void iniciar(Simulador simulador);
+
+    /**
+     * O filósofo terminou de pensar e quer comer.
+     */
+    void pedir(int filosofoId);
+
+    /**
+     * O filósofo terminou de comer e devolve o que segura.
+     */
+    void soltar(int filosofoId);
+
+    /**
+     * Um temporizador agendado pelo modelo (Simulador.agendarVerificacao) venceu.
+     */
+    void verificar(int filosofoId);
+
+    String getNome();
+}
@@ -0,0 +1,171 @@
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Escolha de quem executa cada filósofo.
+ *
+ * MODOS (--execucao):
+ * - "plataforma": uma thread do sistema operacional por filósofo, como
+ *   sempre foi
+ * - "virtual": uma thread virtual por filósofo (JDK 21+), permitindo
+ *   dezenas de milhares de filósofos na mesma mesa
+ * - "pool:K": um pool fixo de K threads de plataforma (só "pool" = número
+ *   de núcleos). Cada filósofo ocupa uma thread até o fim da execução, então
+ *   com K < N os N - K restantes ficam na fila sem comer; o modo existe para
+ *   medir esse limite (ver BenchmarkExecucao)
+ *
+ * DECISÃO DE DESIGN: Os Filosofo são tarefas (Runnable) entregues a um
+ * ExecutorService criado aqui. O Main não lida mais com Thread: inicia com
+ * execute() e encerra com encerrar(), que interrompe todos (shutdownNow) e
+ * espera o término.
+ *
+ * DECISÃO: A API de threads virtuais é acessada por reflexão para que o
+ * projeto continue compilando em JDKs anteriores ao 21; nesses JDKs o modo
+ * "virtual" é recusado com uma mensagem clara em vez de um erro de compilação.
+ */
+public final class ModoExecucao {
+    public static final String PLATAFORMA = "plataforma";
+    public static final String VIRTUAL = "virtual";
+    public static final String POOL = "pool";
+
+    private ModoExecucao() {
+    }
+
+    /**
+     * Cria o executor dos filósofos para o modo escolhido.
+     *
+     * DECISÃO: No modo plataforma o pool fixo tem uma thread por tarefa, criada
+     * sob demanda a cada execute() - o mesmo custo de iniciar N threads.
+     *
+     * @param numTarefas número de filósofos que serão submetidos
+     * @param prefixo    prefixo do nome das threads (ex.: "filosofo-")
+     */
+    public static ExecutorService criarExecutor(String modo, int numTarefas, String prefixo) {
+        if (PLATAFORMA.equals(modo)) {
+            return Executors.newFixedThreadPool(Math.max(1, numTarefas), fabricaPlataforma(prefixo));
+        }
+        if (VIRTUAL.equals(modo)) {
+            return criarExecutorVirtual(prefixo);
+        }
+        if (modo.equals(POOL) || modo.startsWith(POOL + ":")) {
+            int tamanho = tamanhoPool(modo);
+            if (tamanho < numTarefas) {
+                System.err.println("Aviso: pool de " + tamanho + " threads para " + numTarefas
+                        + " filosofos - " + (numTarefas - tamanho) + " ficam na fila sem comer");
+            }
+            return Executors.newFixedThreadPool(tamanho, fabricaPlataforma(prefixo));
+        }
+        throw new IllegalArgumentException("Modo de execucao invalido: " + modo + " (use plataforma, virtual ou pool:K)");
+    }
+
+    /**
+     * Quantas das numTarefas o executor do modo roda ao mesmo tempo.
+     */
+    public static int capacidade(String modo, int numTarefas) {
+        if (modo.equals(POOL) || modo.startsWith(POOL + ":")) {
+            return Math.min(tamanhoPool(modo), numTarefas);
+        }
+        return numTarefas;
+    }
+
+    /**
+     * Interrompe todos os filósofos e espera o término, no máximo timeoutMs.
+     *
+     * DECISÃO: Esperar o término (em vez de apenas dormir) garante que tudo o
+     * que os filósofos escreveram esteja visível para quem lê as estatísticas.
+     *
+     * @return true se todos terminaram dentro do prazo
+     */
+    public static boolean encerrar(ExecutorService executor, long timeoutMs) throws InterruptedException {
+        executor.shutdownNow();
+        return executor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Retorna a thread (ainda não iniciada) que executará a tarefa.
+     *
+     * DECISÃO: Usado pelo Benchmark, que precisa das threads para medir cada
+     * assento; os Main usam criarExecutor().
+     */
+    public static Thread preparar(Thread tarefa, String modo) {
+        if (PLATAFORMA.equals(modo)) {
+            return tarefa;
+        }
+        if (VIRTUAL.equals(modo)) {
+            return criarVirtual(tarefa, tarefa.getName());
+        }
+        throw new IllegalArgumentException("Modo de execucao invalido: " + modo + " (use plataforma ou virtual)");
+    }
+
+    /**
+     * ThreadFactory de threads de plataforma nomeadas prefixo0, prefixo1, ...
+     */
+    public static ThreadFactory fabricaPlataforma(String prefixo) {
+        AtomicInteger contador = new AtomicInteger();
+        return tarefa -> new Thread(tarefa, prefixo + contador.getAndIncrement());
+    }
+
+    private static int tamanhoPool(String modo) {
+        if (modo.equals(POOL)) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        int tamanho = Integer.parseInt(modo.substring(POOL.length() + 1).trim());
+        if (tamanho < 1) {
+            throw new IllegalArgumentException("Tamanho de pool invalido: " + modo);
+        }
+        return tamanho;
+    }
+
+    public static boolean suportaThreadsVirtuais() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Equivalente a Thread.ofVirtual().name(nome).unstarted(tarefa).
+     */
+    static Thread criarVirtual(Runnable tarefa, String nome) {
+        exigirThreadsVirtuais();
+        try {
+            Object construtor = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> tipoConstrutor = Class.forName("java.lang.Thread$Builder");
+            Method nomear = tipoConstrutor.getMethod("name", String.class);
+            Method naoIniciada = tipoConstrutor.getMethod("unstarted", Runnable.class);
+            return (Thread) naoIniciada.invoke(nomear.invoke(construtor, nome), tarefa);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Falha ao criar thread virtual", e);
+        }
+    }
+
+    /**
+     * Equivalente a Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefixo, 0).factory()).
+     */
+    private static ExecutorService criarExecutorVirtual(String prefixo) {
+        exigirThreadsVirtuais();
+        try {
+            Object construtor = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> tipoVirtual = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            Object nomeado = tipoVirtual.getMethod("name", String.class, long.class).invoke(construtor, prefixo, 0L);
+            Method fabrica = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, fabrica.invoke(nomeado));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Falha ao criar executor de threads virtuais", e);
+        }
+    }
+
+    private static void exigirThreadsVirtuais() {
+        if (!suportaThreadsVirtuais()) {
+            throw new UnsupportedOperationException("Threads virtuais exigem JDK 21 ou superior (JDK atual: "
+                    + System.getProperty("java.version") + ")");
+        }
+    }
+}
@@ -0,0 +1,315 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/**
+ * Registro de MXBeans da mesa, dos filósofos e dos garfos (--jmx).
+ *
+ * PROBLEMA: Em execuções longas não havia como olhar dentro do processo: o
+ * estado dos garfos, o ultimaVezComeu da Mesa, a fase de cada filósofo e a
+ * vazão só apareciam no relatório final.
+ *
+ * DECISÃO DE DESIGN: Os MXBeans só leem estruturas que já são feitas para
+ * leitura concorrente sem lock:
+ * - FasesFilosofos: fase e última refeição, vindas dos eventos de cada filósofo
+ * - EstatisticasVivas: refeições e tempos, por seqlock
+ * - PerfilGarfos: estado e contadores de cada garfo
+ * Nenhum atributo toma o lock da Mesa nem o de um Garfo, então consultar pelo
+ * JConsole ou por um coletor local não acrescenta disputa à mesa.
+ *
+ * DECISÃO: Vazão "móvel": uma thread daemon amostra os totais a cada
+ * INTERVALO_AMOSTRA_MS e guarda as últimas AMOSTRAS; refeições/s é a
+ * diferença entre a amostra mais nova e a mais antiga (janela de 10 s).
+ *
+ * DECISÃO: Filósofos e garfos só ganham MXBean próprio até LIMITE_INDIVIDUAIS
+ * lugares, como a listagem do RelatorioEstatisticas; acima disso só a mesa.
+ *
+ * NOMES: filosofos:type=Mesa,name=<mesa>, filosofos:type=Filosofo,mesa=<mesa>,id=<i>
+ * e filosofos:type=Garfo,mesa=<mesa>,id=<i>.
+ */
+public final class MonitorJmx {
+    private static final int LIMITE_INDIVIDUAIS = 100;
+    private static final long INTERVALO_AMOSTRA_MS = 1000;
+    private static final int AMOSTRAS = 11;
+
+    private final String nome;
+    private final int numFilosofos;
+    private final FasesFilosofos fases;
+    private final EstatisticasVivas vivas;
+    private final PerfilGarfos perfil;
+    private final List<ObjectName> registrados;
+    private final Thread amostrador;
+    // DECISÃO: Taxas publicadas pelo amostrador; arrays novos a cada amostra
+    private volatile double taxaMesa;
+    private volatile double esperaMediaMs;
+    private volatile double[] taxasFilosofos;
+
+    private MonitorJmx(String nome, int numFilosofos, FasesFilosofos fases, EstatisticasVivas vivas, PerfilGarfos perfil) {
+        this.nome = nome;
+        this.numFilosofos = numFilosofos;
+        this.fases = fases;
+        this.vivas = vivas;
+        this.perfil = perfil;
+        this.registrados = new ArrayList<>();
+        this.taxasFilosofos = new double[Math.min(numFilosofos, LIMITE_INDIVIDUAIS)];
+        this.amostrador = new Thread(this::amostrar, "monitor-jmx");
+        this.amostrador.setDaemon(true);
+    }
+
+    /**
+     * Registra os MXBeans e liga o acompanhamento de fases no registro de
+     * eventos. Deve ser chamado antes de criar os filósofos (que obtêm os
+     * seus BufferEventos no construtor).
+     *
+     * @param perfil contadores dos garfos, ou null se a tarefa não os tem
+     */
+    public static MonitorJmx registrar(String nome, int numFilosofos, RegistroEventos registro,
+                                       EstatisticasVivas vivas, PerfilGarfos perfil) {
+        FasesFilosofos fases = new FasesFilosofos(numFilosofos);
+        registro.acompanharFases(fases);
+        MonitorJmx monitor = new MonitorJmx(nome, numFilosofos, fases, vivas, perfil);
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        try {
+            monitor.registrarBean(servidor, new ObjectName("filosofos:type=Mesa,name=" + nome),
+                    new StandardMBean(monitor.new Mesa(), MesaMXBean.class, true));
+            for (int i = 0; i < Math.min(numFilosofos, LIMITE_INDIVIDUAIS); i++) {
+                monitor.registrarBean(servidor, new ObjectName("filosofos:type=Filosofo,mesa=" + nome + ",id=" + i),
+                        new StandardMBean(monitor.new Filosofo(i), FilosofoMXBean.class, true));
+                if (perfil != null) {
+                    monitor.registrarBean(servidor, new ObjectName("filosofos:type=Garfo,mesa=" + nome + ",id=" + i),
+                            new StandardMBean(monitor.new Garfo(i), GarfoMXBean.class, true));
+                }
+            }
+        } catch (JMException e) {
+            // DECISÃO: Falha no JMX não deve impedir a execução da mesa
+            System.err.println("Nao foi possivel registrar os MXBeans: " + e);
+        }
+        monitor.amostrador.start();
+        System.out.println("JMX: " + monitor.registrados.size() + " MXBeans em filosofos:* (pid "
+                + ProcessHandle.current().pid() + ")");
+        return monitor;
+    }
+
+    /**
+     * Remove os MXBeans e para o amostrador.
+     */
+    public void encerrar() {
+        amostrador.interrupt();
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName nomeBean : registrados) {
+            try {
+                servidor.unregisterMBean(nomeBean);
+            } catch (JMException e) {
+                // DECISÃO: Já removido ou servidor encerrando; nada a fazer
+            }
+        }
+        registrados.clear();
+    }
+
+    private void registrarBean(MBeanServer servidor, ObjectName nomeBean, Object bean) throws JMException {
+        servidor.registerMBean(bean, nomeBean);
+        registrados.add(nomeBean);
+    }
+
+    private void amostrar() {
+        int individuais = Math.min(numFilosofos, LIMITE_INDIVIDUAIS);
+        long[] instantes = new long[AMOSTRAS];
+        long[] refeicoes = new long[AMOSTRAS];
+        long[] esperas = new long[AMOSTRAS];
+        long[][] porFilosofo = new long[AMOSTRAS][individuais];
+        try {
+            for (long n = 0; ; n++) {
+                int atual = (int) (n % AMOSTRAS);
+                EstatisticasVivas.Amostra amostra = vivas.amostrar();
+                instantes[atual] = System.nanoTime();
+                refeicoes[atual] = amostra.getRefeicoes();
+                esperas[atual] = amostra.getEsperaNs();
+                for (int i = 0; i < individuais; i++) {
+                    porFilosofo[atual][i] = vivas.getRefeicoes(i);
+                }
+                if (n > 0) {
+                    int antiga = (int) (n < AMOSTRAS ? 0 : (n + 1) % AMOSTRAS);
+                    double segundos = (instantes[atual] - instantes[antiga]) / 1e9;
+                    long feitas = refeicoes[atual] - refeicoes[antiga];
+                    taxaMesa = feitas / segundos;
+                    esperaMediaMs = feitas == 0 ? 0 : (esperas[atual] - esperas[antiga]) / 1e6 / feitas;
+                    double[] taxas = new double[individuais];
+                    for (int i = 0; i < individuais; i++) {
+                        taxas[i] = (porFilosofo[atual][i] - porFilosofo[antiga][i]) / segundos;
+                    }
+                    taxasFilosofos = taxas;
+                }
+                Thread.sleep(INTERVALO_AMOSTRA_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int contarFase(String fase) {
+        int total = 0;
+        for (int i = 0; i < numFilosofos; i++) {
+            if (fase.equals(fases.getFase(i))) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    private final class Mesa implements MesaMXBean {
+        @Override
+        public String getNome() {
+            return nome;
+        }
+
+        @Override
+        public int getNumFilosofos() {
+            return numFilosofos;
+        }
+
+        @Override
+        public long getRefeicoes() {
+            return vivas.amostrar().getRefeicoes();
+        }
+
+        @Override
+        public double getRefeicoesPorSegundo() {
+            return taxaMesa;
+        }
+
+        @Override
+        public double getEsperaMediaMs() {
+            return esperaMediaMs;
+        }
+
+        @Override
+        public int getPensando() {
+            return contarFase(FasesFilosofos.PENSANDO);
+        }
+
+        @Override
+        public int getEsperando() {
+            return contarFase(FasesFilosofos.ESPERANDO);
+        }
+
+        @Override
+        public int getComendo() {
+            return contarFase(FasesFilosofos.COMENDO);
+        }
+
+        @Override
+        public int getGarfosEmUso() {
+            if (perfil == null) {
+                return -1;
+            }
+            int total = 0;
+            for (int g = 0; g < numFilosofos; g++) {
+                if (perfil.isEmUso(g)) {
+                    total++;
+                }
+            }
+            return total;
+        }
+
+        @Override
+        public long getMaiorTempoSemComerMs() {
+            int faminto = getFilosofoMaisFaminto();
+            return faminto < 0 ? -1 : fases.getMsDesdeUltimaRefeicao(faminto);
+        }
+
+        /**
+         * DECISÃO: Quem nunca comeu é o mais faminto (como o "nunca comeu" da Mesa).
+         */
+        @Override
+        public int getFilosofoMaisFaminto() {
+            int faminto = -1;
+            long maior = Long.MIN_VALUE;
+            for (int i = 0; i < numFilosofos; i++) {
+                long ms = fases.getMsDesdeUltimaRefeicao(i);
+                if (ms < 0) {
+                    return i;
+                }
+                if (ms > maior) {
+                    maior = ms;
+                    faminto = i;
+                }
+            }
+            return faminto;
+        }
+    }
+
+    private final class Filosofo implements FilosofoMXBean {
+        private final int id;
+
+        Filosofo(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int getId() {
+            return id;
+        }
+
+        @Override
+        public String getFase() {
+            return fases.getFase(id);
+        }
+
+        @Override
+        public long getRefeicoes() {
+            return vivas.getRefeicoes(id);
+        }
+
+        @Override
+        public double getRefeicoesPorSegundo() {
+            return taxasFilosofos[id];
+        }
+
+        @Override
+        public long getMsDesdeUltimaRefeicao() {
+            return fases.getMsDesdeUltimaRefeicao(id);
+        }
+    }
+
+    private final class Garfo implements GarfoMXBean {
+        private final int id;
+
+        Garfo(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int getId() {
+            return id;
+        }
+
+        @Override
+        public boolean isEmUso() {
+            return perfil.isEmUso(id);
+        }
+
+        @Override
+        public long getAquisicoes() {
+            return perfil.getAquisicoes(id);
+        }
+
+        @Override
+        public long getDisputadas() {
+            return perfil.getDisputadas(id);
+        }
+
+        @Override
+        public double getBloqueadoMs() {
+            return perfil.getBloqueadoNs(id) / 1e6;
+        }
+
+        @Override
+        public double getPosseMaximaMs() {
+            return perfil.getPosseMaximaNs(id) / 1e6;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contadores de disputa por garfo e mapa de calor em anel.
+ *
+ * PROBLEMA: Não havia como saber qual garfo é o gargalo. pegar() não
+ * registrava se bloqueou nem por quanto tempo, e o mesmo valia para os
+ * garfos da Mesa.
+ *
+ * O QUE É CONTADO (por garfo):
+ * - aquisições, e quantas delas encontraram o garfo ocupado (disputadas)
+ * - tempo total bloqueado esperando o garfo (inclui esperas que desistiram,
+ *   como o tryPegar da Tarefa 6)
+ * - posse máxima: maior intervalo entre pegar e soltar
+ *
+ * DECISÃO DE DESIGN: Quem escreve os contadores de um garfo é sempre quem o
+ * segura naquele momento (ou quem acabou de desistir de esperá-lo, ainda
+ * dentro do monitor/lock do garfo). A própria exclusão mútua do garfo
+ * serializa os escritores, então basta ler, somar e publicar com lazySet:
+ * sem CAS nem lock extra. Quem amostra lê com get() a qualquer momento.
+ *
+ * DECISÃO: Os contadores de cada garfo ocupam uma linha de cache própria
+ * (POR_GARFO longs), para que dois garfos vizinhos não disputem a mesma
+ * linha. Sem perfil (null nos garfos) o custo é um teste de null.
+ */
+public final class PerfilGarfos {
+    private static final int AQUISICOES = 0;
+    private static final int DISPUTADAS = 1;
+    private static final int BLOQUEADO_NS = 2;
+    private static final int POSSE_MAXIMA_NS = 3;
+    private static final int INICIO_POSSE = 4;
+    // DECISÃO: 8 longs = 64 bytes por garfo
+    private static final int POR_GARFO = 8;
+    // DECISÃO: Rampa de intensidade do mapa, do garfo mais frio ao mais quente
+    private static final String RAMPA = " .:-=+*#%@";
+    private static final int LIMITE_ANEL = 32;
+
+    private final int numGarfos;
+    private final AtomicLongArray contadores;
+    private final long inicio;
+    private volatile Thread amostrador;
+
+    public PerfilGarfos(int numGarfos) {
+        this.numGarfos = numGarfos;
+        this.contadores = new AtomicLongArray(numGarfos * POR_GARFO);
+        this.inicio = System.nanoTime();
+    }
+
+    /**
+     * Chamado por quem acabou de pegar o garfo.
+     *
+     * @param inicioEsperaNs nanoTime de quando encontrou o garfo ocupado (se disputada)
+     */
+    public void registrarAquisicao(int garfo, boolean disputada, long inicioEsperaNs) {
+        long agora = System.nanoTime();
+        int base = garfo * POR_GARFO;
+        somar(base + AQUISICOES, 1);
+        if (disputada) {
+            somar(base + DISPUTADAS, 1);
+            somar(base + BLOQUEADO_NS, agora - inicioEsperaNs);
+        }
+        contadores.lazySet(base + INICIO_POSSE, agora);
+    }
+
+    /**
+     * Chamado por quem esperou o garfo e desistiu sem pegá-lo (ainda com o lock do garfo).
+     */
+    public void registrarDesistencia(int garfo, long inicioEsperaNs) {
+        somar(garfo * POR_GARFO + BLOQUEADO_NS, System.nanoTime() - inicioEsperaNs);
+    }
+
+    /**
+     * Chamado por quem segura o garfo, antes de soltá-lo.
+     */
+    public void registrarSoltura(int garfo) {
+        int base = garfo * POR_GARFO;
+        long posse = System.nanoTime() - contadores.get(base + INICIO_POSSE);
+        if (posse > contadores.get(base + POSSE_MAXIMA_NS)) {
+            contadores.lazySet(base + POSSE_MAXIMA_NS, posse);
+        }
+        // DECISÃO: 0 = garfo livre, para isEmUso() (o MonitorJmx)
+        contadores.lazySet(base + INICIO_POSSE, 0);
+    }
+
+    public int getNumGarfos() {
+        return numGarfos;
+    }
+
+    public long getAquisicoes(int garfo) {
+        return contadores.get(garfo * POR_GARFO + AQUISICOES);
+    }
+
+    public long getDisputadas(int garfo) {
+        return contadores.get(garfo * POR_GARFO + DISPUTADAS);
+    }
+
+    public long getBloqueadoNs(int garfo) {
+        return contadores.get(garfo * POR_GARFO + BLOQUEADO_NS);
+    }
+
+    public long getPosseMaximaNs(int garfo) {
+        return contadores.get(garfo * POR_GARFO + POSSE_MAXIMA_NS);
+    }
+
+    /**
+     * Se o garfo está com alguém agora, sem tomar o lock dele.
+     */
+    public boolean isEmUso(int garfo) {
+        return contadores.get(garfo * POR_GARFO + INICIO_POSSE) != 0;
+    }
+
+    /**
+     * Imprime uma linha de amostra a cada intervaloMs enquanto a execução roda.
+     */
+    public void iniciarAmostragem(long intervaloMs, PrintStream saida) {
+        if (intervaloMs <= 0) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                while (true) {
+                    Thread.sleep(intervaloMs);
+                    saida.println(amostra());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "perfil-garfos");
+        // DECISÃO: Daemon, como o drenador de eventos, para nunca segurar a JVM
+        thread.setDaemon(true);
+        amostrador = thread;
+        thread.start();
+    }
+
+    public void encerrarAmostragem() {
+        Thread thread = amostrador;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Resumo de uma linha: totais e o garfo com mais tempo bloqueado.
+     */
+    public String amostra() {
+        long aquisicoes = 0;
+        long disputadas = 0;
+        int quente = 0;
+        for (int g = 0; g < numGarfos; g++) {
+            aquisicoes += getAquisicoes(g);
+            disputadas += getDisputadas(g);
+            if (getBloqueadoNs(g) > getBloqueadoNs(quente)) {
+                quente = g;
+            }
+        }
+        return String.format("[perfil %.1f s] %d aquisicoes, %.1f%% disputadas; garfo mais quente %d: %.1f ms bloqueado, %.1f%% disputadas",
+                (System.nanoTime() - inicio) / 1e9, aquisicoes, percentual(disputadas, aquisicoes), quente,
+                getBloqueadoNs(quente) / 1e6, percentual(getDisputadas(quente), getAquisicoes(quente)));
+    }
+
+    /**
+     * Tabela por garfo e mapa de calor do tempo bloqueado em volta da mesa.
+     *
+     * DECISÃO: Até LIMITE_ANEL garfos o mapa é desenhado como um anel (garfo 0
+     * no topo, sentido horário), onde a assimetria entre vizinhos aparece de
+     * relance; acima disso, o anel aberto em faixas de 64 garfos.
+     */
+    public void imprimirMapa(PrintStream saida) {
+        long maximo = 1;
+        for (int g = 0; g < numGarfos; g++) {
+            maximo = Math.max(maximo, getBloqueadoNs(g));
+        }
+        saida.println("\n=== Perfil dos garfos ===");
+        if (numGarfos <= LIMITE_ANEL) {
+            saida.println(String.format("%6s %12s %12s %15s %14s  %s",
+                    "garfo", "aquisicoes", "disputadas", "bloqueado(ms)", "posse max(ms)", "calor"));
+            for (int g = 0; g < numGarfos; g++) {
+                saida.println(String.format("%6d %12d %11.1f%% %15.1f %14.1f  %s",
+                        g, getAquisicoes(g), percentual(getDisputadas(g), getAquisicoes(g)),
+                        getBloqueadoNs(g) / 1e6, getPosseMaximaNs(g) / 1e6, barra(getBloqueadoNs(g), maximo)));
+            }
+            saida.println();
+            desenharAnel(saida, maximo);
+        } else {
+            desenharFaixas(saida, maximo);
+        }
+        saida.println("Escala (tempo bloqueado, relativo ao garfo mais quente): \"" + RAMPA + "\"");
+    }
+
+    private void desenharAnel(PrintStream saida, long maximo) {
+        // DECISÃO: Raio cresce com o número de garfos; colunas valem metade de
+        // uma linha na tela, daí o raio horizontal dobrado
+        int raioLinhas = 3 + numGarfos / 4;
+        int raioColunas = 2 * raioLinhas + 2;
+        int altura = 2 * raioLinhas + 1;
+        int largura = 2 * raioColunas + 6;
+        char[][] tela = new char[altura][largura];
+        for (char[] linha : tela) {
+            Arrays.fill(linha, ' ');
+        }
+        for (int g = 0; g < numGarfos; g++) {
+            double angulo = 2 * Math.PI * g / numGarfos - Math.PI / 2;
+            int linha = raioLinhas + (int) Math.round(raioLinhas * Math.sin(angulo));
+            int coluna = raioColunas + (int) Math.round(raioColunas * Math.cos(angulo));
+            String rotulo = calor(getBloqueadoNs(g), maximo) + Integer.toString(g);
+            for (int k = 0; k < rotulo.length() && coluna + k < largura; k++) {
+                tela[linha][coluna + k] = rotulo.charAt(k);
+            }
+        }
+        for (char[] linha : tela) {
+            saida.println(("  " + new String(linha)).replaceAll("\\s+$", ""));
+        }
+    }
+
+    private void desenharFaixas(PrintStream saida, long maximo) {
+        int porFaixa = 64;
+        for (int inicioFaixa = 0; inicioFaixa < numGarfos; inicioFaixa += porFaixa) {
+            StringBuilder faixa = new StringBuilder(String.format("%7d |", inicioFaixa));
+            for (int g = inicioFaixa; g < Math.min(numGarfos, inicioFaixa + porFaixa); g++) {
+                faixa.append(calor(getBloqueadoNs(g), maximo));
+            }
+            saida.println(faixa.append('|'));
+        }
+        saida.println(amostra());
+    }
+
+    private static char calor(long valor, long maximo) {
+        int indice = (int) Math.round((double) valor / maximo * (RAMPA.length() - 1));
+        return RAMPA.charAt(Math.max(0, Math.min(RAMPA.length() - 1, indice)));
+    }
+
+    private static String barra(long valor, long maximo) {
+        int tamanho = (int) Math.round(20.0 * valor / maximo);
+        StringBuilder barra = new StringBuilder();
+        for (int i = 0; i < tamanho; i++) {
+            barra.append('#');
+        }
+        return barra.toString();
+    }
+
+    private static double percentual(long parte, long total) {
+        return total == 0 ? 0 : 100.0 * parte / total;
+    }
+
+    /**
+     * DECISÃO: Ler-somar-publicar sem CAS; seguro porque o escritor é único
+     * (ver comentário da classe).
+     */
+    private void somar(int indice, long valor) {
+        contadores.lazySet(indice, contadores.get(indice) + valor);
+    }
+}
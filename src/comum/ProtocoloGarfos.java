@@ -0,0 +1,38 @@
+/**
+ * Contrato comum a todas as estratégias de aquisição de garfos.
+ *
+ * DECISÃO DE DESIGN: Cada tarefa resolve o problema de um jeito diferente
+ * (ordem fixa, ordem assimétrica, semáforo limitador, monitor centralizado),
+ * mas do ponto de vista de quem mede todas se resumem a duas operações:
+ * "filósofo i pega seus dois garfos" e "filósofo i solta seus dois garfos".
+ * Esta interface expõe exatamente isso, permitindo que o Benchmark e as
+ * ferramentas de src/comum dirijam qualquer tarefa sem conhecer suas classes.
+ *
+ * TOPOLOGIA: o filósofo i usa os garfos i (esquerdo) e (i+1) mod n (direito),
+ * a mesma convenção adotada em todos os Main.
+ *
+ * CONVENÇÃO: implementações devem ter um construtor público (int numFilosofos)
+ * para poderem ser instanciadas por nome (ver Benchmark).
+ */
+public interface ProtocoloGarfos {
+
+    /**
+     * Bloqueia até o filósofo possuir ambos os garfos.
+     *
+     * DECISÃO: Se a thread for interrompida durante a espera, a implementação
+     * não deve ficar segurando garfo algum ao lançar InterruptedException.
+     */
+    void pegarGarfos(int filosofoId) throws InterruptedException;
+
+    /**
+     * Libera os dois garfos do filósofo.
+     */
+    void soltarGarfos(int filosofoId);
+
+    int getNumFilosofos();
+
+    /**
+     * Nome curto usado nos relatórios.
+     */
+    String getNome();
+}
@@ -0,0 +1,267 @@
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Subsistema de log assíncrono dos filósofos.
+ *
+ * PROBLEMA: Cada log(String) concatenava uma String e chamava
+ * System.out.println, que é sincronizado. Com muitas refeições por segundo
+ * todas as threads passavam a disputar o console, e o gargalo medido deixava
+ * de ser o protocolo de garfos.
+ *
+ * DECISÃO DE DESIGN:
+ * - Cada filósofo recebe seu próprio BufferEventos (um produtor, sem disputa)
+ * - Uma thread drenadora recolhe os eventos em lotes, ordena pelo instante e
+ *   escreve o lote inteiro no console com uma única chamada
+ * - No modo "silencioso" os buffers nem são alocados: registrar() retorna
+ *   imediatamente, ideal para benchmarks
+ *
+ * MODOS: "console" (padrão, mesmo texto de antes), "silencioso" e
+ * "binario[:prefixo]", que grava os eventos em arquivos binários mapeados em
+ * memória (ver TraceBinario e AnaliseTrace; prefixo padrão "trace").
+ *
+ * CICLO DE VIDA: o Main cria o registro, passa-o aos filósofos (que obtêm
+ * seus buffers no construtor), chama iniciar() e, ao final, encerrar().
+ */
+public class RegistroEventos {
+    public static final String MODO_CONSOLE = "console";
+    public static final String MODO_SILENCIOSO = "silencioso";
+    public static final String MODO_BINARIO = "binario";
+
+    // DECISÃO: 1024 eventos por filósofo (16 KB) cobrem com folga o intervalo
+    // entre duas drenagens mesmo com pensar/comer zerados
+    private static final int CAPACIDADE_PADRAO = 1024;
+    private static final int CAPACIDADE_MINIMA = 64;
+    private static final long MEMORIA_BUFFERS_BYTES = 64L * 1024 * 1024;
+    private static final int TAMANHO_LOTE = 1 << 16;
+    private static final long INTERVALO_DRENAGEM_NS = TimeUnit.MILLISECONDS.toNanos(2);
+    // DECISÃO: Segmentos de 64 MB (4 milhões de eventos), no máximo 32 no disco
+    private static final long TAMANHO_SEGMENTO_TRACE = 64L * 1024 * 1024;
+    private static final int SEGMENTOS_TRACE_MANTIDOS = 32;
+
+    private final String modo;
+    private final boolean ativo;
+    private final int capacidade;
+    private final int numFilosofos;
+    private final String prefixoTrace;
+    private TraceBinario trace;
+    private final PrintStream saida;
+    private final List<BufferEventos> buffers;
+    // DECISÃO: Arrays do lote pré-alocados e reutilizados pelo consumidor
+    private final long[] palavras;
+    private final long[] instantes;
+    private final long[] palavrasAux;
+    private final long[] instantesAux;
+    private final StringBuilder texto;
+    private volatile boolean executando;
+    private Thread drenador;
+    private FasesFilosofos fases;
+
+    public RegistroEventos(String modo) {
+        this(modo, CAPACIDADE_PADRAO, 0, System.out);
+    }
+
+    /**
+     * Registro dimensionado para uma mesa com numFilosofos lugares.
+     *
+     * DECISÃO: A memória total dos buffers é limitada a MEMORIA_BUFFERS_BYTES;
+     * em mesas grandes cada filósofo recebe um buffer menor (mínimo de
+     * CAPACIDADE_MINIMA eventos) para que 100 mil filósofos não custem gigabytes.
+     */
+    public RegistroEventos(String modo, int numFilosofos) {
+        this(modo, capacidadePara(numFilosofos), numFilosofos, System.out);
+    }
+
+    /**
+     * @param numFilosofos tamanho da mesa, gravado no cabeçalho do trace (0 se desconhecido)
+     */
+    public RegistroEventos(String modo, int capacidade, int numFilosofos, PrintStream saida) {
+        boolean binario = modo.equals(MODO_BINARIO) || modo.startsWith(MODO_BINARIO + ":");
+        if (!MODO_CONSOLE.equals(modo) && !MODO_SILENCIOSO.equals(modo) && !binario) {
+            throw new IllegalArgumentException("Modo de log invalido: " + modo
+                    + " (use console, silencioso ou binario[:prefixo])");
+        }
+        this.modo = modo;
+        this.ativo = !MODO_SILENCIOSO.equals(modo);
+        this.capacidade = capacidade;
+        this.numFilosofos = numFilosofos;
+        // DECISÃO: "binario:prefixo", no mesmo estilo de "pool:K" em ModoExecucao
+        this.prefixoTrace = !binario ? null
+                : modo.length() > MODO_BINARIO.length() ? modo.substring(MODO_BINARIO.length() + 1) : "trace";
+        this.saida = saida;
+        this.buffers = new ArrayList<>();
+        int lote = ativo ? TAMANHO_LOTE : 0;
+        this.palavras = new long[lote];
+        this.instantes = new long[lote];
+        this.palavrasAux = new long[lote];
+        this.instantesAux = new long[lote];
+        this.texto = new StringBuilder();
+    }
+
+    /**
+     * Repassa os eventos de cada filósofo também para fases (MonitorJmx).
+     * Vale só para os buffers criados depois desta chamada.
+     */
+    public synchronized void acompanharFases(FasesFilosofos fases) {
+        this.fases = fases;
+    }
+
+    /**
+     * Cria o buffer de um filósofo. Deve ser chamado antes de o filósofo
+     * começar a registrar eventos (normalmente no construtor).
+     */
+    public synchronized BufferEventos criarBuffer(int filosofoId) {
+        BufferEventos buffer = new BufferEventos(filosofoId, capacidade, ativo, fases);
+        if (ativo) {
+            buffers.add(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Inicia a thread drenadora (no modo silencioso não há o que drenar).
+     */
+    public void iniciar() {
+        if (!ativo) {
+            return;
+        }
+        if (prefixoTrace != null) {
+            trace = new TraceBinario(prefixoTrace, numFilosofos, TAMANHO_SEGMENTO_TRACE, SEGMENTOS_TRACE_MANTIDOS);
+        }
+        executando = true;
+        drenador = new Thread(() -> {
+            while (executando) {
+                // DECISÃO: Se o lote encheu ainda há eventos; drena de novo sem dormir
+                if (drenar() < palavras.length) {
+                    LockSupport.parkNanos(INTERVALO_DRENAGEM_NS);
+                }
+            }
+        }, "drenador-eventos");
+        // DECISÃO: Daemon para nunca impedir o término da JVM
+        drenador.setDaemon(true);
+        drenador.start();
+    }
+
+    /**
+     * Escreve imediatamente todos os eventos pendentes. Usado pelo Main antes
+     * de imprimir suas próprias mensagens, para manter a ordem no console.
+     */
+    public void descarregar() {
+        while (ativo && drenar() == palavras.length) {
+            // continua até esvaziar os buffers
+        }
+    }
+
+    /**
+     * Para o drenador, escreve o que restou e informa eventos descartados.
+     */
+    public void encerrar() throws InterruptedException {
+        if (!ativo) {
+            return;
+        }
+        executando = false;
+        drenador.join();
+        descarregar();
+        long descartados = 0;
+        synchronized (this) {
+            for (BufferEventos buffer : buffers) {
+                descartados += buffer.getDescartados();
+            }
+        }
+        if (descartados > 0) {
+            saida.println("Aviso: " + descartados + " eventos de log descartados (buffer cheio)");
+        }
+        if (trace != null) {
+            trace.encerrar();
+            saida.println("Trace binario: " + trace.getEventos() + " eventos em " + trace.getSegmentos()
+                    + " segmento(s) " + trace.getPrefixo() + "-*.bin (analise: java AnaliseTrace "
+                    + trace.getPrefixo() + ")");
+        }
+    }
+
+    static int capacidadePara(int numFilosofos) {
+        // DECISÃO: 16 bytes por evento (palavra + instante)
+        long porFilosofo = MEMORIA_BUFFERS_BYTES / 16 / Math.max(1, numFilosofos);
+        return (int) Math.max(CAPACIDADE_MINIMA, Math.min(CAPACIDADE_PADRAO, porFilosofo));
+    }
+
+    public String getModo() {
+        return modo;
+    }
+
+    /**
+     * Recolhe um lote de todos os buffers, ordena e escreve.
+     *
+     * DECISÃO: synchronized serializa apenas os consumidores (drenador e
+     * descarregar); os filósofos nunca tomam este lock.
+     */
+    private synchronized int drenar() {
+        int total = 0;
+        for (BufferEventos buffer : buffers) {
+            if (total == palavras.length) {
+                break;
+            }
+            total += buffer.drenar(palavras, instantes, total);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        // DECISÃO: No trace binário o lote vai como está; a AnaliseTrace ordena
+        if (trace != null) {
+            trace.escrever(palavras, instantes, total);
+            return total;
+        }
+        ordenarPorInstante(total);
+        texto.setLength(0);
+        for (int i = 0; i < total; i++) {
+            Evento.formatar(palavras[i], texto);
+        }
+        saida.print(texto);
+        saida.flush();
+        return total;
+    }
+
+    /**
+     * Merge sort estável (bottom-up) dos arrays paralelos pelo instante.
+     *
+     * DECISÃO: Merge sort em vez de Arrays.sort porque precisamos ordenar dois
+     * arrays paralelos sem criar objetos; usa apenas os auxiliares pré-alocados.
+     * A comparação por subtração respeita o estouro de System.nanoTime.
+     */
+    private void ordenarPorInstante(int total) {
+        long[] origemP = palavras;
+        long[] origemI = instantes;
+        long[] destinoP = palavrasAux;
+        long[] destinoI = instantesAux;
+        for (int largura = 1; largura < total; largura <<= 1) {
+            for (int inicio = 0; inicio < total; inicio += largura << 1) {
+                int meio = Math.min(inicio + largura, total);
+                int fim = Math.min(inicio + (largura << 1), total);
+                int a = inicio;
+                int b = meio;
+                for (int k = inicio; k < fim; k++) {
+                    if (a < meio && (b >= fim || origemI[a] - origemI[b] <= 0)) {
+                        destinoP[k] = origemP[a];
+                        destinoI[k] = origemI[a++];
+                    } else {
+                        destinoP[k] = origemP[b];
+                        destinoI[k] = origemI[b++];
+                    }
+                }
+            }
+            long[] t = origemP;
+            origemP = destinoP;
+            destinoP = t;
+            t = origemI;
+            origemI = destinoI;
+            destinoI = t;
+        }
+        if (origemP != palavras) {
+            System.arraycopy(origemP, 0, palavras, 0, total);
+            System.arraycopy(origemI, 0, instantes, 0, total);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+import java.lang.management.ManagementFactory;
+
+/**
+ * Impressão do bloco final "=== Estatisticas ===" comum a todas as tarefas.
+ *
+ * DECISÃO DE DESIGN: Com a mesa configurável, listar 100 mil linhas
+ * "Filosofo i comeu N vezes" deixa de ser útil. Até LIMITE_LISTAGEM filósofos
+ * a listagem é a mesma de sempre; acima disso imprimimos só o resumo.
+ *
+ * MÉTRICAS:
+ * - espera por filósofo e da mesa: p50, p90, p99 e máximo do tempo entre
+ *   "tentando pegar" e "comecou a comer" (ver EstatisticasFilosofo)
+ * - refeições por segundo da mesa
+ * - índice de justiça de Jain sobre as refeições: (soma x)^2 / (n * soma x^2),
+ *   1,0 quando todos comem igual e 1/n quando um só come
+ */
+public final class RelatorioEstatisticas {
+    private static final int LIMITE_LISTAGEM = 100;
+
+    private RelatorioEstatisticas() {
+    }
+
+    public static void imprimir(EstatisticasFilosofo[] estatisticas, long duracaoMs) {
+        imprimirRefeicoes(estatisticas, duracaoMs);
+        // DECISÃO: Com threads virtuais, o número de threads de plataforma revela
+        // quantos carriers o escalonador precisou criar (ex.: por pinning)
+        System.out.println("Threads de plataforma ativas: " + ManagementFactory.getThreadMXBean().getThreadCount()
+                + " (pico " + ManagementFactory.getThreadMXBean().getPeakThreadCount() + ")");
+    }
+
+    /**
+     * O mesmo bloco sem a linha de threads, que não se aplica à simulação.
+     */
+    public static void imprimirRefeicoes(EstatisticasFilosofo[] estatisticas, long duracaoMs) {
+        System.out.println("\n=== Estatisticas ===");
+        // DECISÃO: Ler o contador volatile antes do histograma (ver EstatisticasFilosofo)
+        int[] vezesComeu = new int[estatisticas.length];
+        for (int i = 0; i < estatisticas.length; i++) {
+            vezesComeu[i] = estatisticas[i].getRefeicoes();
+        }
+        Histograma esperaMesa = new Histograma();
+        for (int i = 0; i < estatisticas.length; i++) {
+            Histograma espera = estatisticas[i].getEspera();
+            esperaMesa.combinar(espera);
+            if (estatisticas.length <= LIMITE_LISTAGEM) {
+                System.out.println("Filosofo " + i + " comeu " + vezesComeu[i] + " vezes - espera " + formatarEspera(espera));
+            }
+        }
+
+        long total = 0;
+        int minimo = Integer.MAX_VALUE;
+        int maximo = 0;
+        int semComer = 0;
+        for (int vezes : vezesComeu) {
+            total += vezes;
+            minimo = Math.min(minimo, vezes);
+            maximo = Math.max(maximo, vezes);
+            if (vezes == 0) {
+                semComer++;
+            }
+        }
+        System.out.println(String.format("Total: %d refeicoes de %d filosofos (%.1f refeicoes/s) - min %d, max %d, %d sem comer",
+                total, vezesComeu.length, total * 1000.0 / duracaoMs, minimo, maximo, semComer));
+        System.out.println("Espera da mesa: " + formatarEspera(esperaMesa));
+        System.out.println(String.format("Indice de justica de Jain: %.4f", indiceJain(vezesComeu)));
+    }
+
+    /**
+     * Índice de justiça de Jain sobre as refeições.
+     *
+     * DECISÃO: Sem nenhuma refeição o índice não é definido; 0 deixa claro que ninguém comeu
+     */
+    public static double indiceJain(int[] vezesComeu) {
+        double total = 0;
+        double somaQuadrados = 0;
+        for (int vezes : vezesComeu) {
+            total += vezes;
+            somaQuadrados += (double) vezes * vezes;
+        }
+        return somaQuadrados == 0 ? 0 : total * total / (vezesComeu.length * somaQuadrados);
+    }
+
+    /**
+     * Média de amostras (ex.: a vazão de cada iteração de um benchmark); 0 sem amostras.
+     */
+    public static double media(double[] valores) {
+        double soma = 0;
+        for (double v : valores) {
+            soma += v;
+        }
+        return valores.length == 0 ? 0 : soma / valores.length;
+    }
+
+    /**
+     * Desvio padrão amostral (divisor n - 1); 0 com menos de duas amostras.
+     */
+    public static double desvio(double[] valores) {
+        if (valores.length < 2) {
+            return 0;
+        }
+        double m = media(valores);
+        double soma = 0;
+        for (double v : valores) {
+            soma += (v - m) * (v - m);
+        }
+        return Math.sqrt(soma / (valores.length - 1));
+    }
+
+    private static String formatarEspera(Histograma espera) {
+        return String.format("p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, max %.1f ms",
+                espera.percentil(50) / 1e6, espera.percentil(90) / 1e6,
+                espera.percentil(99) / 1e6, espera.getMaximo() / 1e6);
+    }
+}
@@ -0,0 +1,117 @@
+import java.util.List;
+
+/**
+ * Executa os modelos de simulação (ModeloSimulacao) com relógio virtual.
+ *
+ * DECISÃO DE DESIGN: Os mesmos tempos de pensar/comer dos Filosofo (1 a 3 s)
+ * por padrão, mas sem sleep: 2 min de jantar custam alguns milissegundos,
+ * o que permite repetir cada configuração centenas de vezes com sementes
+ * diferentes. Com uma única execução o relatório é o mesmo dos Main
+ * (RelatorioEstatisticas); com várias, uma linha agregada por tamanho de mesa.
+ *
+ * USO (a partir do diretório de uma tarefa compilada):
+ *   java Simulacao --modelo=SimulacaoMesa --duracao=120000
+ *   java Simulacao --modelo=SimulacaoSemaforo --filosofos=5,50,500 --repeticoes=1000
+ *
+ * PARÂMETROS:
+ *   --modelo      classe que implementa ModeloSimulacao (obrigatório)
+ *   --filosofos   tamanhos de mesa, separados por vírgula (padrão 5)
+ *   --duracao     tempo virtual em ms (padrão 120000)
+ *   --pensar, --comer   ver DistribuicaoTempo (padrão 1000-3000ms)
+ *   --repeticoes  execuções por tamanho, cada uma com sua semente (padrão 1)
+ *   --semente     semente da primeira execução (padrão 42)
+ *   --compacto    estatísticas em um EstadoMesaCompacto, para mesas de milhões de
+ *                 lugares; sempre usa a tabela agregada, com os bytes por lugar
+ */
+public class Simulacao {
+
+    public static void main(String[] args) throws Exception {
+        Argumentos argumentos = new Argumentos(args);
+        String classe = argumentos.getString("modelo", null);
+        if (classe == null) {
+            System.err.println("Uso: java Simulacao --modelo=<classe> [--filosofos=5] [--duracao=120000] [--repeticoes=1]");
+            System.exit(1);
+        }
+        List<Integer> tamanhos = argumentos.getListaInt("filosofos", "5");
+        long duracaoMs = argumentos.getLong("duracao", 120000);
+        DistribuicaoTempo pensar = DistribuicaoTempo.parse(argumentos.getString("pensar", "1000-3000ms"));
+        DistribuicaoTempo comer = DistribuicaoTempo.parse(argumentos.getString("comer", "1000-3000ms"));
+        int repeticoes = argumentos.getInt("repeticoes", 1);
+        long semente = argumentos.getLong("semente", 42);
+        boolean compacto = argumentos.getBoolean("compacto", false);
+
+        if (tamanhos.size() == 1 && repeticoes == 1 && !compacto) {
+            executarUma(classe, tamanhos.get(0), duracaoMs, pensar, comer, semente);
+            return;
+        }
+
+        System.out.println("=== Simulacao " + classe + " (" + duracaoMs + " ms virtuais, pensar=" + pensar
+                + " comer=" + comer + ", " + repeticoes + " repeticoes) ===");
+        System.out.println(String.format("%-22s %7s %14s %8s %12s %9s %10s%s",
+                "modelo", "N", "refeicoes/s", "jain", "p99(ms)", "travou", "ms/sim", compacto ? "  B/assento" : ""));
+        for (int n : tamanhos) {
+            String nome = classe;
+            double somaVazao = 0;
+            double somaJain = 0;
+            int travamentos = 0;
+            double bytesPorAssento = 0;
+            Histograma espera = new Histograma();
+            long inicio = System.nanoTime();
+            for (int r = 0; r < repeticoes; r++) {
+                ModeloSimulacao modelo = criar(classe, n);
+                nome = modelo.getNome();
+                Simulador simulador = new Simulador(modelo, n, pensar, comer, semente + r, compacto);
+                simulador.executar(duracaoMs);
+                int[] vezesComeu = new int[n];
+                long total = 0;
+                EstadoMesaCompacto estado = simulador.getEstado();
+                for (int i = 0; i < n; i++) {
+                    if (estado != null) {
+                        vezesComeu[i] = estado.getRefeicoes(i);
+                    } else {
+                        EstatisticasFilosofo estatisticas = simulador.getEstatisticas()[i];
+                        vezesComeu[i] = estatisticas.getRefeicoes();
+                        espera.combinar(estatisticas.getEspera());
+                    }
+                    total += vezesComeu[i];
+                }
+                if (estado != null) {
+                    espera.combinar(simulador.getEspera());
+                    bytesPorAssento = estado.getBytesPorAssento();
+                }
+                somaVazao += total * 1000.0 / duracaoMs;
+                somaJain += RelatorioEstatisticas.indiceJain(vezesComeu);
+                if (simulador.travou()) {
+                    travamentos++;
+                }
+            }
+            double msPorSimulacao = (System.nanoTime() - inicio) / 1e6 / repeticoes;
+            System.out.println(String.format("%-22s %7d %14.2f %8.4f %12.1f %9s %10.3f%s",
+                    nome, n, somaVazao / repeticoes, somaJain / repeticoes,
+                    espera.percentil(99) / 1e6, travamentos + "/" + repeticoes, msPorSimulacao,
+                    compacto ? String.format(" %11.1f", bytesPorAssento) : ""));
+        }
+    }
+
+    private static void executarUma(String classe, int n, long duracaoMs, DistribuicaoTempo pensar,
+                                    DistribuicaoTempo comer, long semente) throws Exception {
+        ModeloSimulacao modelo = criar(classe, n);
+        System.out.println("=== Simulacao " + modelo.getNome() + " (N=" + n + ", " + duracaoMs
+                + " ms virtuais, pensar=" + pensar + " comer=" + comer + ", semente " + semente + ") ===");
+        Simulador simulador = new Simulador(modelo, n, pensar, comer, semente);
+        long inicio = System.nanoTime();
+        simulador.executar(duracaoMs);
+        double decorridoMs = (System.nanoTime() - inicio) / 1e6;
+        if (simulador.travou()) {
+            System.out.println(String.format("Mesa travou (deadlock) em %.0f ms virtuais",
+                    simulador.getInstanteTravamento() / 1e6));
+        }
+        RelatorioEstatisticas.imprimirRefeicoes(simulador.getEstatisticas(), duracaoMs);
+        System.out.println(String.format("Simulacao: %d eventos em %.1f ms de relogio", simulador.getEventosProcessados(), decorridoMs));
+    }
+
+    private static ModeloSimulacao criar(String classe, int numFilosofos) throws Exception {
+        Class<?> tipo = Class.forName(classe);
+        return (ModeloSimulacao) tipo.getConstructor(int.class).newInstance(numFilosofos);
+    }
+}
@@ -0,0 +1,193 @@
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulação de eventos discretos do jantar, com relógio virtual.
+ *
+ * PROBLEMA:
+ * Os Filosofo dormem de verdade (1 a 3 s para pensar e para comer) e cada
+ * execução dura 30 s ou 2 min de relógio. Avaliar uma configuração custa
+ * minutos, e varrer milhares delas é inviável.
+ *
+ * DECISÃO DE DESIGN: Nenhuma thread e nenhum sleep. Os instantes em que cada
+ * filósofo termina de pensar ou de comer ficam em uma fila de prioridade; o
+ * relógio salta direto para o próximo evento. Sincronização é instantânea no
+ * tempo virtual, então o que se mede é o efeito das regras de cada tarefa
+ * (quem espera, por quanto tempo, quantas refeições), não o custo de locks.
+ *
+ * CICLO DE CADA FILÓSOFO (igual ao dos Filosofo reais):
+ * pensar (sorteio) -> modelo.pedir() -> ... -> comecarRefeicao() ->
+ * comer (sorteio) -> modelo.soltar() -> pensar ...
+ *
+ * DECISÃO: Fila de prioridade em arrays de primitivos (HeapEventos), com o
+ * filósofo e o tipo do evento na carga. A ordem de inserção desempata eventos
+ * no mesmo instante e torna cada execução reproduzível para uma mesma semente.
+ *
+ * DECISÃO: Se a fila esvaziar antes do fim, todos os filósofos estão
+ * esperando algo que ninguém vai liberar: a simulação registra o travamento
+ * (deadlock) e para.
+ *
+ * DECISÃO: Modo compacto para mesas de milhões de lugares. Em vez de um
+ * EstatisticasFilosofo por filósofo (um histograma de ~8 KB cada), as
+ * refeições, a última refeição e a fase ficam em um EstadoMesaCompacto fora
+ * do heap, e a espera de todos vai para um único Histograma.
+ */
+public final class Simulador {
+    private static final int FIM_PENSAR = 0;
+    private static final int FIM_COMER = 1;
+    private static final int VERIFICAR = 2;
+
+    private final int numFilosofos;
+    private final ModeloSimulacao modelo;
+    private final DistribuicaoTempo pensar;
+    private final DistribuicaoTempo comer;
+    private final Random random;
+    private final EstatisticasFilosofo[] estatisticas;
+    // DECISÃO: Só no modo compacto (estatisticas fica null)
+    private final EstadoMesaCompacto estado;
+    private final Histograma espera;
+    private final long[] inicioEspera;
+
+    private final HeapEventos eventos;
+
+    private long agora;
+    private long eventosProcessados;
+    private long instanteTravamento;
+
+    public Simulador(ModeloSimulacao modelo, int numFilosofos, DistribuicaoTempo pensar,
+                     DistribuicaoTempo comer, long semente) {
+        this(modelo, numFilosofos, pensar, comer, semente, false);
+    }
+
+    /**
+     * @param compacto true para guardar as estatísticas em um EstadoMesaCompacto
+     *                 (ver comentário da classe)
+     */
+    public Simulador(ModeloSimulacao modelo, int numFilosofos, DistribuicaoTempo pensar,
+                     DistribuicaoTempo comer, long semente, boolean compacto) {
+        this.numFilosofos = numFilosofos;
+        this.modelo = modelo;
+        this.pensar = pensar;
+        this.comer = comer;
+        this.random = new Random(semente);
+        this.estatisticas = compacto ? null : new EstatisticasFilosofo[numFilosofos];
+        this.estado = compacto ? new EstadoMesaCompacto(numFilosofos) : null;
+        this.espera = compacto ? new Histograma() : null;
+        this.inicioEspera = new long[numFilosofos];
+        // DECISÃO: No máximo um evento de ciclo por filósofo, mais os temporizadores do modelo
+        this.eventos = new HeapEventos(Math.max(16, 2 * numFilosofos));
+        this.instanteTravamento = -1;
+        for (int i = 0; !compacto && i < numFilosofos; i++) {
+            estatisticas[i] = new EstatisticasFilosofo();
+        }
+    }
+
+    /**
+     * Executa a simulação até o instante virtual duracaoMs.
+     */
+    public void executar(long duracaoMs) {
+        long fim = TimeUnit.MILLISECONDS.toNanos(duracaoMs);
+        modelo.iniciar(this);
+        // DECISÃO: Todos começam pensando, como os Filosofo ao iniciar a thread
+        for (int i = 0; i < numFilosofos; i++) {
+            agendar(pensar.sortear(random), i, FIM_PENSAR);
+        }
+        while (!eventos.vazio() && eventos.instanteTopo() <= fim) {
+            agora = eventos.instanteTopo();
+            int dado = (int) eventos.dadoTopo();
+            eventos.remover();
+            eventosProcessados++;
+            int filosofoId = dado >>> 2;
+            switch (dado & 3) {
+                case FIM_PENSAR:
+                    inicioEspera[filosofoId] = agora;
+                    if (estado != null) {
+                        estado.setFase(filosofoId, EstadoMesaCompacto.ESPERANDO);
+                    }
+                    modelo.pedir(filosofoId);
+                    break;
+                case FIM_COMER:
+                    if (estado != null) {
+                        estado.setFase(filosofoId, EstadoMesaCompacto.PENSANDO);
+                    }
+                    modelo.soltar(filosofoId);
+                    agendar(agora + pensar.sortear(random), filosofoId, FIM_PENSAR);
+                    break;
+                default:
+                    modelo.verificar(filosofoId);
+            }
+        }
+        if (eventos.vazio()) {
+            instanteTravamento = agora;
+        }
+        agora = fim;
+    }
+
+    /**
+     * Chamado pelo modelo quando o filósofo consegue os recursos para comer.
+     */
+    public void comecarRefeicao(int filosofoId) {
+        if (estado != null) {
+            espera.registrar(agora - inicioEspera[filosofoId]);
+            estado.registrarRefeicao(filosofoId, agora);
+            estado.setFase(filosofoId, EstadoMesaCompacto.COMENDO);
+        } else {
+            estatisticas[filosofoId].registrarRefeicao(agora - inicioEspera[filosofoId]);
+        }
+        agendar(agora + comer.sortear(random), filosofoId, FIM_COMER);
+    }
+
+    /**
+     * Agenda uma chamada a modelo.verificar(filosofoId) no instante dado (ns).
+     */
+    public void agendarVerificacao(long instante, int filosofoId) {
+        agendar(Math.max(instante, agora), filosofoId, VERIFICAR);
+    }
+
+    /**
+     * Instante virtual atual, em nanossegundos desde o início.
+     */
+    public long agora() {
+        return agora;
+    }
+
+    /**
+     * Estatísticas por filósofo; null no modo compacto.
+     */
+    public EstatisticasFilosofo[] getEstatisticas() {
+        return estatisticas;
+    }
+
+    /**
+     * Refeições, última refeição e fase de cada filósofo; null fora do modo compacto.
+     */
+    public EstadoMesaCompacto getEstado() {
+        return estado;
+    }
+
+    /**
+     * Espera de todos os filósofos juntos; null fora do modo compacto.
+     */
+    public Histograma getEspera() {
+        return espera;
+    }
+
+    public long getEventosProcessados() {
+        return eventosProcessados;
+    }
+
+    public boolean travou() {
+        return instanteTravamento >= 0;
+    }
+
+    /**
+     * Instante virtual (ns) em que a mesa travou, ou -1.
+     */
+    public long getInstanteTravamento() {
+        return instanteTravamento;
+    }
+
+    private void agendar(long instante, int filosofoId, int tipo) {
+        eventos.inserir(instante, (filosofoId << 2) | tipo);
+    }
+}
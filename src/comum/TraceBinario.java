@@ -0,0 +1,186 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+
+/**
+ * Gravação dos eventos dos filósofos em arquivos binários mapeados em memória.
+ *
+ * PROBLEMA: Reconstruir uma execução a partir do texto do console exige
+ * guardar e varrer gigabytes de "Filosofo N: ...", e formatar esse texto
+ * custa mais que o próprio evento.
+ *
+ * DECISÃO DE DESIGN: O drenador do RegistroEventos copia os eventos, como
+ * estão na memória (palavra empacotada + instante, 16 bytes), para um
+ * MappedByteBuffer. Os filósofos continuam só escrevendo nos seus
+ * BufferEventos; o custo extra fica todo na thread drenadora, e é uma cópia
+ * de dois longs por evento, sem formatação nem ordenação.
+ *
+ * FORMATO (little-endian):
+ * - arquivos prefixo-00000.bin, prefixo-00001.bin, ..., cada um com tamanho fixo
+ * - cabeçalho de 64 bytes: MAGICO, versão, número de filósofos (0 se
+ *   desconhecido), número do segmento, System.nanoTime() e
+ *   System.currentTimeMillis() da abertura do trace
+ * - registros de 16 bytes a partir do byte 64: palavra (ver Evento) e instante
+ * - o primeiro registro com palavra zero marca o fim (o código 0 não existe),
+ *   então um trace interrompido no meio continua legível até o último evento
+ *
+ * DECISÃO: Segmentos de tamanho fixo, mapeados um de cada vez: quando um
+ * enche, o próximo é criado. Com segmentosMantidos > 0 os mais antigos são
+ * apagados, limitando o disco em execuções longas; a AnaliseTrace começa
+ * então pelo segmento mais antigo que restou.
+ *
+ * DECISÃO: Um segmento que não pôde ser apagado (no Windows, enquanto o
+ * mapeamento antigo não foi liberado pelo coletor) gera um aviso e volta a
+ * ser tentado a cada novo segmento e no encerramento; a gravação não para.
+ *
+ * DECISÃO: Os eventos não são ordenados aqui. Cada filósofo grava em ordem,
+ * mas lotes drenados em momentos diferentes podem se intercalar fora de
+ * ordem por alguns milissegundos; a AnaliseTrace reordena com uma janela.
+ */
+public class TraceBinario {
+    public static final long MAGICO = 0x31435254304C4946L; // "FIL0TRC1" em little-endian
+    public static final int VERSAO = 1;
+    public static final int TAMANHO_CABECALHO = 64;
+    public static final int TAMANHO_REGISTRO = 16;
+
+    private final String prefixo;
+    private final int numFilosofos;
+    private final long tamanhoSegmento;
+    private final int segmentosMantidos;
+    private final long origemNanos;
+    private final long origemMillis;
+    private final ArrayDeque<Path> segmentos;
+    private final ArrayDeque<Path> naoApagados;
+    private MappedByteBuffer atual;
+    // DECISÃO: Visão em longs do segmento, para gravar o lote com uma cópia em bloco
+    private LongBuffer registros;
+    private long[] intercalados;
+    private int numeroSegmento;
+    private long eventos;
+
+    /**
+     * @param tamanhoSegmento   bytes por arquivo, incluindo o cabeçalho
+     * @param segmentosMantidos quantos segmentos manter no disco (0 = todos)
+     */
+    public TraceBinario(String prefixo, int numFilosofos, long tamanhoSegmento, int segmentosMantidos) {
+        if (tamanhoSegmento < TAMANHO_CABECALHO + TAMANHO_REGISTRO || tamanhoSegmento > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Tamanho de segmento invalido: " + tamanhoSegmento);
+        }
+        this.prefixo = prefixo;
+        this.numFilosofos = numFilosofos;
+        // DECISÃO: Área de registros múltipla de 16, para um registro nunca ficar dividido
+        this.tamanhoSegmento = tamanhoSegmento - (tamanhoSegmento - TAMANHO_CABECALHO) % TAMANHO_REGISTRO;
+        this.segmentosMantidos = segmentosMantidos;
+        this.origemNanos = System.nanoTime();
+        this.origemMillis = System.currentTimeMillis();
+        this.segmentos = new ArrayDeque<>();
+        this.naoApagados = new ArrayDeque<>();
+        this.intercalados = new long[0];
+        abrirSegmento();
+    }
+
+    /**
+     * Grava os eventos [0, total) dos arrays paralelos. Chamado apenas pelo drenador.
+     */
+    public void escrever(long[] palavras, long[] instantes, int total) {
+        if (intercalados.length < 2 * total) {
+            intercalados = new long[2 * total];
+        }
+        for (int i = 0; i < total; i++) {
+            intercalados[2 * i] = palavras[i];
+            intercalados[2 * i + 1] = instantes[i];
+        }
+        int gravados = 0;
+        while (gravados < 2 * total) {
+            if (!registros.hasRemaining()) {
+                abrirSegmento();
+            }
+            int bloco = Math.min(2 * total - gravados, registros.remaining());
+            registros.put(intercalados, gravados, bloco);
+            gravados += bloco;
+        }
+        eventos += total;
+    }
+
+    /**
+     * Descarrega o segmento atual para o disco.
+     *
+     * DECISÃO: force() só no encerramento; durante a execução o sistema
+     * operacional escreve as páginas sozinho, e um trace interrompido ainda
+     * é lido até o último registro que chegou ao arquivo.
+     */
+    public void encerrar() {
+        atual.force();
+        apagarPendentes();
+    }
+
+    public long getEventos() {
+        return eventos;
+    }
+
+    public int getSegmentos() {
+        return numeroSegmento;
+    }
+
+    public String getPrefixo() {
+        return prefixo;
+    }
+
+    static Path caminho(String prefixo, int segmento) {
+        return Paths.get(String.format("%s-%05d.bin", prefixo, segmento));
+    }
+
+    private void abrirSegmento() {
+        Path arquivo = caminho(prefixo, numeroSegmento);
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // DECISÃO: O mapeamento continua válido depois de fechar o canal; o
+            // arquivo nasce esparso e com zeros, que é a marca de fim
+            atual = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanhoSegmento);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Nao foi possivel criar o segmento de trace " + arquivo, e);
+        }
+        atual.order(ByteOrder.LITTLE_ENDIAN);
+        atual.putLong(MAGICO);
+        atual.putInt(VERSAO);
+        atual.putInt(numFilosofos);
+        atual.putInt(numeroSegmento);
+        atual.putInt(0);
+        atual.putLong(origemNanos);
+        atual.putLong(origemMillis);
+        atual.position(TAMANHO_CABECALHO);
+        registros = atual.asLongBuffer();
+        segmentos.addLast(arquivo);
+        numeroSegmento++;
+        apagarPendentes();
+        if (segmentosMantidos > 0 && segmentos.size() > segmentosMantidos) {
+            Path antigo = segmentos.removeFirst();
+            if (!apagar(antigo)) {
+                System.err.println("Aviso: segmento de trace " + antigo
+                        + " nao foi apagado; nova tentativa a cada segmento");
+                naoApagados.addLast(antigo);
+            }
+        }
+    }
+
+    private void apagarPendentes() {
+        naoApagados.removeIf(TraceBinario::apagar);
+    }
+
+    private static boolean apagar(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
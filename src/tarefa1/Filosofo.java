@@ -1,10 +1,13 @@
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Representa um filósofo no problema dos Filósofos Jantando.
  * 
- * DECISÃO DE DESIGN: Esta classe estende Thread para que cada filósofo
- * execute em sua própria thread, simulando concorrência real.
+ * DECISÃO DE DESIGN: Esta classe é uma tarefa (Runnable) e cada filósofo
+ * executa em sua própria thread, simulando concorrência real. Quem fornece
+ * a thread (de plataforma, virtual ou de um pool) é o executor escolhido no
+ * Main (ver ModoExecucao).
  * 
  * COMPORTAMENTO:
  * - Ciclo infinito: pensar -> comer -> pensar -> comer...
@@ -15,17 +18,38 @@ import java.util.Random;
  * Todos os filósofos seguem a mesma ordem: esquerdo primeiro, depois direito.
  * Se todos pegarem o garfo esquerdo simultaneamente, nenhum conseguirá pegar
  * o direito, causando deadlock.
+ *
+ * DECISÃO: Para o VigiaDeadlock, o filósofo publica o seu estado (o que está
+ * esperando) e o instante da última refeição (heartbeat), e aceita ser
+ * preemptado: se for interrompido pelo vigia enquanto espera o garfo direito,
+ * solta o esquerdo e volta a pensar, quebrando a espera circular.
  */
-public class Filosofo extends Thread {
+public class Filosofo implements Runnable {
+    // DECISÃO: Estados publicados para o vigia montar o grafo de espera
+    public static final int PENSANDO = 0;
+    public static final int ESPERANDO_ESQUERDO = 1;
+    public static final int ESPERANDO_DIREITO = 2;
+    public static final int COMENDO = 3;
+
     // DECISÃO: ID imutável para identificação única e thread-safe
     private final int id;
     // DECISÃO: Referências diretas aos garfos - cada filósofo conhece seus recursos
-    private final Garfo garfoEsquerdo;
-    private final Garfo garfoDireito;
+    private final GarfoCompartilhado garfoEsquerdo;
+    private final GarfoCompartilhado garfoDireito;
     // DECISÃO: Random por instância para evitar contenção entre threads
     private final Random random;
-    // DECISÃO: Contador não sincronizado - assumimos que leitura ocorre após join/interrupt
-    private int vezesComeu;
+    private final DistribuicaoTempo tempoPensar;
+    private final DistribuicaoTempo tempoComer;
+    private final EstatisticasFilosofo estatisticas;
+    private final BufferEventos eventos;
+    // DECISÃO: volatile - escritos pelo filósofo e lidos pela thread do vigia
+    private volatile int estado;
+    private volatile long ultimaRefeicaoNs;
+    // DECISÃO: Distingue a interrupção do vigia (preempção) da interrupção de término
+    private final AtomicBoolean preempcaoPendente;
+    private int preempcoes;
+    // DECISÃO: Thread do executor que roda este filósofo, para o vigia interromper
+    private volatile Thread executora;
 
     /**
      * Construtor do filósofo.
@@ -33,13 +57,20 @@ public class Filosofo extends Thread {
      * DECISÃO: Recebe referências aos garfos no construtor para estabelecer
      * a topologia circular da mesa antes da execução.
      */
-    public Filosofo(int id, Garfo garfoEsquerdo, Garfo garfoDireito) {
+    public Filosofo(int id, GarfoCompartilhado garfoEsquerdo, GarfoCompartilhado garfoDireito, DistribuicaoTempo tempoPensar, DistribuicaoTempo tempoComer, RegistroEventos registro) {
         this.id = id;
         this.garfoEsquerdo = garfoEsquerdo;
         this.garfoDireito = garfoDireito;
         // DECISÃO: Random sem seed para variabilidade entre execuções
         this.random = new Random();
-        this.vezesComeu = 0;
+        this.tempoPensar = tempoPensar;
+        this.tempoComer = tempoComer;
+        this.estatisticas = new EstatisticasFilosofo();
+        this.eventos = registro.criarBuffer(id);
+        this.estado = PENSANDO;
+        this.ultimaRefeicaoNs = System.nanoTime();
+        this.preempcaoPendente = new AtomicBoolean(false);
+        this.preempcoes = 0;
     }
 
     /**
@@ -51,6 +82,7 @@ public class Filosofo extends Thread {
      */
     @Override
     public void run() {
+        executora = Thread.currentThread();
         try {
             // DECISÃO: Loop infinito simula comportamento contínuo dos filósofos
             while (true) {
@@ -66,13 +98,14 @@ public class Filosofo extends Thread {
     /**
      * Simula o filósofo pensando.
      * 
-     * DECISÃO: Tempo aleatório entre 1-3 segundos para simular comportamento
+     * DECISÃO: Tempo aleatório (1-3 segundos por padrão) para simular comportamento
      * não determinístico e evitar sincronização artificial entre threads.
      */
     private void pensar() throws InterruptedException {
-        int tempo = 1000 + random.nextInt(2000);
-        log("comecou a pensar");
-        Thread.sleep(tempo);
+        long tempo = tempoPensar.sortear(random);
+        estado = PENSANDO;
+        log(Evento.PENSANDO, Evento.SEM_GARFO);
+        DistribuicaoTempo.pausarNanos(tempo);
     }
 
     /**
@@ -91,30 +124,53 @@ public class Filosofo extends Thread {
      * nenhum conseguirá avançar para a etapa 2, causando deadlock.
      */
     private void comer() throws InterruptedException {
+        long inicioEspera = System.nanoTime();
         // DECISÃO: Ordem fixa (esquerdo -> direito) para todos - causa deadlock potencial
-        log("tentando pegar garfo esquerdo " + garfoEsquerdo.getId());
+        estado = ESPERANDO_ESQUERDO;
+        log(Evento.TENTANDO_ESQUERDO, garfoEsquerdo.getId());
         garfoEsquerdo.pegar(); // Bloqueia até conseguir
-        log("pegou garfo esquerdo " + garfoEsquerdo.getId());
+        log(Evento.PEGOU_ESQUERDO, garfoEsquerdo.getId());
 
-        log("tentando pegar garfo direito " + garfoDireito.getId());
-        garfoDireito.pegar(); // Pode ficar bloqueado aqui se outro filósofo já tiver o garfo
-        log("pegou garfo direito " + garfoDireito.getId());
+        estado = ESPERANDO_DIREITO;
+        log(Evento.TENTANDO_DIREITO, garfoDireito.getId());
+        try {
+            garfoDireito.pegar(); // Pode ficar bloqueado aqui se outro filósofo já tiver o garfo
+        } catch (InterruptedException e) {
+            if (!preempcaoPendente.compareAndSet(true, false)) {
+                throw e;
+            }
+            // DECISÃO: Preempção do vigia - devolve o garfo esquerdo e desiste
+            // desta refeição; o vizinho da esquerda pode então comer
+            garfoEsquerdo.soltar();
+            preempcoes++;
+            log(Evento.PREEMPTADO, garfoEsquerdo.getId());
+            return;
+        }
+        log(Evento.PEGOU_DIREITO, garfoDireito.getId());
 
         // DECISÃO: Tempo aleatório de alimentação simula duração variável
-        int tempo = 1000 + random.nextInt(2000);
-        log("comecou a comer");
-        vezesComeu++;
-        Thread.sleep(tempo);
+        long tempo = tempoComer.sortear(random);
+        estado = COMENDO;
+        ultimaRefeicaoNs = System.nanoTime();
+        log(Evento.COMENDO, Evento.SEM_GARFO);
+        estatisticas.registrarRefeicao(System.nanoTime() - inicioEspera, tempo);
+        DistribuicaoTempo.pausarNanos(tempo);
 
         // DECISÃO: Sempre soltar ambos os garfos, independente de exceções
         // (neste código simples, não há try-finally, mas seria ideal)
         garfoEsquerdo.soltar();
         garfoDireito.soltar();
-        log("terminou de comer e soltou os garfos");
+        log(Evento.SOLTOU_GARFOS, Evento.SEM_GARFO);
     }
 
-    private void log(String mensagem) {
-        System.out.println("Filosofo " + id + ": " + mensagem);
+    /**
+     * Registra um evento no buffer próprio do filósofo.
+     *
+     * DECISÃO: Sem String nem System.out no caminho quente - a formatação é
+     * feita em lote pelo drenador do RegistroEventos.
+     */
+    private void log(int evento, int garfoId) {
+        eventos.registrar(evento, garfoId);
     }
 
     public int getFilosofoId() {
@@ -122,7 +178,41 @@ public class Filosofo extends Thread {
     }
 
     public int getVezesComeu() {
-        return vezesComeu;
+        return estatisticas.getRefeicoes();
+    }
+
+    public EstatisticasFilosofo getEstatisticas() {
+        return estatisticas;
+    }
+
+    public int getEstado() {
+        return estado;
+    }
+
+    public long getUltimaRefeicaoNs() {
+        return ultimaRefeicaoNs;
+    }
+
+    public int getPreempcoes() {
+        return preempcoes;
+    }
+
+    /**
+     * Marca a preempção e interrompe a thread que executa este filósofo.
+     *
+     * DECISÃO: A marca vem antes da interrupção, para que o catch em comer()
+     * já a encontre ao tratar a InterruptedException.
+     */
+    void preemptar() {
+        preempcaoPendente.set(true);
+        Thread thread = executora;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    boolean isPreempcaoPendente() {
+        return preempcaoPendente.get();
     }
 }
 
@@ -12,12 +12,17 @@
  * 
  * DECISÃO: notifyAll() em vez de notify() para evitar starvation,
  * garantindo que todas as threads esperando tenham chance de executar.
+ *
+ * DECISÃO: Implementa GarfoCompartilhado para poder ser trocado pelo
+ * GarfoAtomico (--garfo=cas) sem alterar o Filosofo.
  */
-public class Garfo {
+public class Garfo implements GarfoCompartilhado {
     // DECISÃO: ID imutável para identificação e debug
     private final int id;
     // DECISÃO: Flag booleana simples para indicar estado - protegida por synchronized
     private boolean emUso;
+    // DECISÃO: Contadores de disputa opcionais (--perfil-garfos); null = sem custo
+    private final PerfilGarfos perfil;
 
     /**
      * Construtor do garfo.
@@ -26,8 +31,13 @@ public class Garfo {
      * o primeiro filósofo possa pegá-lo imediatamente.
      */
     public Garfo(int id) {
+        this(id, null);
+    }
+
+    public Garfo(int id, PerfilGarfos perfil) {
         this.id = id;
         this.emUso = false;
+        this.perfil = perfil;
     }
 
     /**
@@ -44,12 +54,19 @@ public class Garfo {
      * - Se garfo está em uso: bloqueia thread até ser liberado
      */
     public synchronized void pegar() throws InterruptedException {
+        // DECISÃO: Com perfil, o instante em que o garfo foi encontrado ocupado
+        // marca o início do bloqueio
+        boolean disputada = emUso;
+        long inicioEspera = perfil != null && disputada ? System.nanoTime() : 0;
         // DECISÃO: while em vez de if para proteger contra spurious wakeups
         while (emUso) {
             wait(); // Libera o lock e espera até ser notificado
         }
         // DECISÃO: Marcar como em uso apenas após sair do loop
         emUso = true;
+        if (perfil != null) {
+            perfil.registrarAquisicao(id, disputada, inicioEspera);
+        }
     }
 
     /**
@@ -62,6 +79,9 @@ public class Garfo {
      * fique permanentemente bloqueada se notify() acordar a thread errada.
      */
     public synchronized void soltar() {
+        if (perfil != null) {
+            perfil.registrarSoltura(id);
+        }
         emUso = false;
         // DECISÃO: notifyAll() garante que todas as threads esperando sejam acordadas
         // e tenham chance de competir pelo garfo, evitando starvation
@@ -1,3 +1,5 @@
+import java.util.concurrent.ExecutorService;
+
 /**
  * Classe principal que implementa o problema clássico dos Filósofos Jantando.
  * 
@@ -19,50 +21,84 @@ public class Main {
     private static final int TEMPO_EXECUCAO_MS = 30000;
 
     public static void main(String[] args) {
+        Argumentos argumentos = new Argumentos(args);
+        // DECISÃO: Tamanho da mesa e tipo de thread configuráveis
+        // (--filosofos=N, --execucao=plataforma|virtual|pool:K, --duracao=ms); o padrão é a mesa clássica
+        int numFilosofos = argumentos.getIntMinimo("filosofos", NUM_FILOSOFOS, 2);
+        String execucao = argumentos.getString("execucao", ModoExecucao.PLATAFORMA);
+        long duracaoMs = argumentos.getLong("duracao", TEMPO_EXECUCAO_MS);
+        // DECISÃO: Durações de pensar e comer (ver DistribuicaoTempo); o padrão são os 1 a 3 s originais
+        DistribuicaoTempo tempoPensar = DistribuicaoTempo.parse(argumentos.getString("pensar", "1000-3000ms"));
+        DistribuicaoTempo tempoComer = DistribuicaoTempo.parse(argumentos.getString("comer", "1000-3000ms"));
+        // DECISÃO: --garfo=cas troca o Garfo (monitor) pelo GarfoAtomico (CAS + park)
+        boolean garfoAtomico = "cas".equals(argumentos.getString("garfo", "monitor"));
+        // DECISÃO: --vigia=ms liga o VigiaDeadlock com essa janela sem refeições;
+        // desligado por padrão para que a tarefa continue demonstrando o deadlock
+        long janelaVigiaMs = argumentos.getLong("vigia", 0);
+        InstrumentacaoMesa instrumentacao = new InstrumentacaoMesa(argumentos, "tarefa1", numFilosofos);
+        RegistroEventos registro = instrumentacao.getRegistro();
+        PerfilGarfos perfil = instrumentacao.getPerfil();
+
         // DECISÃO: Array de garfos compartilhados - cada garfo é compartilhado por 2 filósofos
-        Garfo[] garfos = new Garfo[NUM_FILOSOFOS];
-        Filosofo[] filosofos = new Filosofo[NUM_FILOSOFOS];
+        GarfoCompartilhado[] garfos = new GarfoCompartilhado[numFilosofos];
+        Filosofo[] filosofos = new Filosofo[numFilosofos];
+        // DECISÃO: Quem executa os filósofos - uma thread por filósofo, threads virtuais ou um pool (ver ModoExecucao)
+        ExecutorService executor = ModoExecucao.criarExecutor(execucao, numFilosofos, "filosofo-");
 
         // DECISÃO: Criar garfos primeiro, pois são recursos compartilhados necessários para os filósofos
-        for (int i = 0; i < NUM_FILOSOFOS; i++) {
-            garfos[i] = new Garfo(i);
+        for (int i = 0; i < numFilosofos; i++) {
+            garfos[i] = garfoAtomico ? new GarfoAtomico(i, perfil) : new Garfo(i, perfil);
         }
+        instrumentacao.iniciar();
 
         // DECISÃO: Configuração circular - filósofo i compartilha garfo i (esquerdo) e garfo (i+1) mod 5 (direito)
         // Isso cria a dependência circular que caracteriza o problema
-        for (int i = 0; i < NUM_FILOSOFOS; i++) {
-            Garfo garfoEsquerdo = garfos[i];
+        for (int i = 0; i < numFilosofos; i++) {
+            GarfoCompartilhado garfoEsquerdo = garfos[i];
             // DECISÃO: Uso de módulo para criar estrutura circular - último filósofo compartilha garfo 0
-            Garfo garfoDireito = garfos[(i + 1) % NUM_FILOSOFOS];
-            filosofos[i] = new Filosofo(i, garfoEsquerdo, garfoDireito);
-            // DECISÃO: Iniciar thread imediatamente após criação para simular comportamento concorrente
-            filosofos[i].start();
+            GarfoCompartilhado garfoDireito = garfos[(i + 1) % numFilosofos];
+            filosofos[i] = new Filosofo(i, garfoEsquerdo, garfoDireito, tempoPensar, tempoComer, registro);
+            // DECISÃO: Iniciar o filósofo imediatamente após criação para simular comportamento concorrente
+            instrumentacao.acompanhar(filosofos[i].getEstatisticas(), i);
+            executor.execute(filosofos[i]);
+        }
+
+        VigiaDeadlock vigia = null;
+        if (janelaVigiaMs > 0) {
+            vigia = new VigiaDeadlock(filosofos, janelaVigiaMs);
+            vigia.start();
         }
 
         // DECISÃO: Aguardar tempo de execução para permitir que os filósofos executem seus ciclos
         try {
-            Thread.sleep(TEMPO_EXECUCAO_MS);
+            Thread.sleep(duracaoMs);
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
 
-        // DECISÃO: Usar interrupt() para sinalizar término - permite finalização graciosa
-        System.out.println("\n=== Finalizando execucao ===");
-        for (Filosofo filosofo : filosofos) {
-            filosofo.interrupt();
+        // DECISÃO: Parar o vigia antes de interromper os filósofos, para que a
+        // interrupção de término não seja confundida com uma preempção
+        if (vigia != null) {
+            try {
+                vigia.encerrar();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
         }
 
-        // DECISÃO: Aguardar 1 segundo para dar tempo das threads finalizarem antes de coletar estatísticas
-        try {
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+        // DECISÃO: Interromper todos (shutdownNow) e aguardar (até 1 segundo) o término antes
+        // de coletar estatísticas; o término também torna visível tudo o que os filósofos registraram
+        instrumentacao.encerrar(executor);
 
         // DECISÃO: Mostrar estatísticas ao final para avaliar justiça e eficiência da solução
-        System.out.println("\n=== Estatisticas ===");
+        EstatisticasFilosofo[] estatisticas = new EstatisticasFilosofo[numFilosofos];
         for (Filosofo filosofo : filosofos) {
-            System.out.println("Filosofo " + filosofo.getFilosofoId() + " comeu " + filosofo.getVezesComeu() + " vezes");
+            estatisticas[filosofo.getFilosofoId()] = filosofo.getEstatisticas();
+        }
+        RelatorioEstatisticas.imprimir(estatisticas, duracaoMs);
+        instrumentacao.imprimirPerfil();
+        if (vigia != null) {
+            vigia.imprimirResumo(duracaoMs);
         }
     }
 }
@@ -0,0 +1,63 @@
+/**
+ * Adaptador da estratégia da Tarefa 1 para o contrato ProtocoloGarfos.
+ *
+ * DECISÃO DE DESIGN: Reproduz exatamente a ordem usada em Filosofo.comer()
+ * (esquerdo -> direito para todos) sobre os mesmos objetos Garfo, para que o
+ * Benchmark meça o comportamento real desta tarefa - inclusive o deadlock.
+ */
+public class ProtocoloEsquerdoDireito implements ProtocoloGarfos {
+    private final GarfoCompartilhado[] garfos;
+    private final String nome;
+
+    public ProtocoloEsquerdoDireito(int numFilosofos) {
+        this(criarGarfos(numFilosofos), "tarefa1-esq-dir");
+    }
+
+    /**
+     * DECISÃO: Construtor usado pelas variantes que trocam o tipo de garfo
+     * (ex.: ProtocoloEsquerdoDireitoAtomico), mantendo a mesma ordem de aquisição.
+     */
+    protected ProtocoloEsquerdoDireito(GarfoCompartilhado[] garfos, String nome) {
+        this.garfos = garfos;
+        this.nome = nome;
+    }
+
+    private static GarfoCompartilhado[] criarGarfos(int numFilosofos) {
+        GarfoCompartilhado[] garfos = new GarfoCompartilhado[numFilosofos];
+        for (int i = 0; i < numFilosofos; i++) {
+            garfos[i] = new Garfo(i);
+        }
+        return garfos;
+    }
+
+    @Override
+    public void pegarGarfos(int filosofoId) throws InterruptedException {
+        GarfoCompartilhado esquerdo = garfos[filosofoId];
+        GarfoCompartilhado direito = garfos[(filosofoId + 1) % garfos.length];
+        esquerdo.pegar();
+        try {
+            direito.pegar();
+        } catch (InterruptedException e) {
+            // DECISÃO: Se interrompido esperando o segundo garfo, devolve o primeiro
+            // para não deixar o vizinho bloqueado após o fim do benchmark
+            esquerdo.soltar();
+            throw e;
+        }
+    }
+
+    @Override
+    public void soltarGarfos(int filosofoId) {
+        garfos[filosofoId].soltar();
+        garfos[(filosofoId + 1) % garfos.length].soltar();
+    }
+
+    @Override
+    public int getNumFilosofos() {
+        return garfos.length;
+    }
+
+    @Override
+    public String getNome() {
+        return nome;
+    }
+}
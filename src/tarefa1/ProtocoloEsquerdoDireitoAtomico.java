@@ -0,0 +1,21 @@
+/**
+ * Estratégia da Tarefa 1 com GarfoAtomico no lugar do Garfo com monitor.
+ *
+ * DECISÃO DE DESIGN: Mesma ordem de aquisição (e o mesmo deadlock) de
+ * ProtocoloEsquerdoDireito; só muda o garfo. Existe para o Benchmark comparar
+ * as duas implementações de garfo lado a lado.
+ */
+public class ProtocoloEsquerdoDireitoAtomico extends ProtocoloEsquerdoDireito {
+
+    public ProtocoloEsquerdoDireitoAtomico(int numFilosofos) {
+        super(criarGarfosAtomicos(numFilosofos), "tarefa1-esq-dir-cas");
+    }
+
+    private static GarfoCompartilhado[] criarGarfosAtomicos(int numFilosofos) {
+        GarfoCompartilhado[] garfos = new GarfoCompartilhado[numFilosofos];
+        for (int i = 0; i < numFilosofos; i++) {
+            garfos[i] = new GarfoAtomico(i);
+        }
+        return garfos;
+    }
+}
@@ -0,0 +1,186 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vigia que detecta o deadlock da Tarefa 1 e recupera a mesa - Tarefa 1.
+ *
+ * PROBLEMA:
+ * Quando todos pegam o garfo esquerdo ao mesmo tempo, a vazão cai a zero e
+ * nada percebe; o programa fica parado até ser encerrado.
+ *
+ * DETECÇÃO (duas fontes):
+ * 1. Heartbeat + grafo de espera: se nenhum filósofo começou a comer dentro
+ *    da janela configurada e TODOS estão segurando o esquerdo e esperando o
+ *    direito, a espera é circular. A condição precisa se repetir em duas
+ *    verificações seguidas para descartar leituras de um instante de transição.
+ * 2. ThreadMXBean.findDeadlockedThreads(): deadlocks que a JVM enxerga (locks
+ *    de monitor e ReentrantLock, na entrada). O Garfo espera com wait() e o
+ *    GarfoAtomico com park(), que a JVM não considera deadlock, por isso a
+ *    fonte principal é a primeira; a segunda só dispensa a segunda verificação.
+ *
+ * DECISÃO: A espera circular é exigida nas duas fontes. O ThreadMXBean vê a
+ * JVM inteira, não esta mesa: um deadlock em outro lugar faria o vigia
+ * interromper um filósofo que pensa ou espera o esquerdo, e essa interrupção
+ * não é uma preempção - ela encerra a thread do filósofo.
+ *
+ * RECUPERAÇÃO:
+ * Uma vítima (o filósofo que mais comeu, para não castigar quem está atrás)
+ * é marcada e interrompida. Filosofo trata essa interrupção soltando o garfo
+ * esquerdo e voltando a pensar, o que deixa o vizinho da esquerda comer.
+ *
+ * MÉTRICAS:
+ * - tempo para detectar: da última refeição da mesa até a detecção
+ * - tempo para recuperar: da detecção até a próxima refeição da mesa
+ * - tempo travado: soma dos dois; comparado com a duração da execução, mostra
+ *   quanto da vazão a estratégia ingênua perde
+ */
+public class VigiaDeadlock extends Thread {
+    // DECISÃO: Tempo máximo esperando a vítima consumir a preempção
+    private static final long ESPERA_VITIMA_MS = 1000;
+
+    private final Filosofo[] filosofos;
+    private final long janelaNs;
+    private final long intervaloMs;
+    private final ThreadMXBean mxBean;
+    private volatile boolean ativo;
+
+    private int deteccoes;
+    private int deteccoesMXBean;
+    private long somaDeteccaoNs;
+    private long somaRecuperacaoNs;
+    private long maiorTravamentoNs;
+
+    /**
+     * @param janelaMs tempo sem nenhuma refeição a partir do qual a mesa é suspeita
+     */
+    public VigiaDeadlock(Filosofo[] filosofos, long janelaMs) {
+        super("vigia-deadlock");
+        this.filosofos = filosofos;
+        this.janelaNs = TimeUnit.MILLISECONDS.toNanos(janelaMs);
+        // DECISÃO: Quatro verificações por janela - detecção em até ~1,25 janela
+        this.intervaloMs = Math.max(10, janelaMs / 4);
+        this.mxBean = ManagementFactory.getThreadMXBean();
+        this.ativo = true;
+        setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+        boolean suspeitaAnterior = false;
+        try {
+            while (ativo) {
+                Thread.sleep(intervaloMs);
+                long agora = System.nanoTime();
+                long ultimaRefeicao = ultimaRefeicaoDaMesa();
+                if (agora - ultimaRefeicao < janelaNs) {
+                    suspeitaAnterior = false;
+                    continue;
+                }
+                boolean deadlockJvm = mxBean.findDeadlockedThreads() != null;
+                boolean esperaCircular = todosEsperandoDireito();
+                if (esperaCircular && (deadlockJvm || suspeitaAnterior)) {
+                    recuperar(ultimaRefeicao, agora, deadlockJvm);
+                    suspeitaAnterior = false;
+                } else {
+                    suspeitaAnterior = esperaCircular;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Preempta uma vítima e mede quanto a mesa leva para voltar a comer.
+     */
+    private void recuperar(long ultimaRefeicao, long deteccao, boolean deadlockJvm) throws InterruptedException {
+        int vitima = escolherVitima();
+        // DECISÃO: Só ESPERANDO_DIREITO trata a interrupção como preempção
+        if (vitima < 0) {
+            return;
+        }
+        filosofos[vitima].preemptar();
+
+        // DECISÃO: Esperar a vítima consumir a preempção antes de seguir. Assim
+        // encerrar() nunca retorna com uma preempção pendente, que faria a
+        // interrupção de término ser confundida com preempção
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ESPERA_VITIMA_MS);
+        while (filosofos[vitima].isPreempcaoPendente() && System.nanoTime() < limite) {
+            Thread.sleep(1);
+        }
+        while (ultimaRefeicaoDaMesa() == ultimaRefeicao && System.nanoTime() < limite) {
+            Thread.sleep(1);
+        }
+        long recuperacao = ultimaRefeicaoDaMesa();
+
+        long detectarNs = deteccao - ultimaRefeicao;
+        long recuperarNs = recuperacao > ultimaRefeicao ? Math.max(0, recuperacao - deteccao) : System.nanoTime() - deteccao;
+        deteccoes++;
+        if (deadlockJvm) {
+            deteccoesMXBean++;
+        }
+        somaDeteccaoNs += detectarNs;
+        somaRecuperacaoNs += recuperarNs;
+        maiorTravamentoNs = Math.max(maiorTravamentoNs, detectarNs + recuperarNs);
+        System.out.println(String.format("[vigia] deadlock detectado (%s): filosofo %d preemptado - detectar %.0f ms, recuperar %.1f ms",
+                deadlockJvm ? "ThreadMXBean" : "heartbeat + espera circular", vitima,
+                detectarNs / 1e6, recuperarNs / 1e6));
+    }
+
+    private long ultimaRefeicaoDaMesa() {
+        long ultima = Long.MIN_VALUE;
+        for (Filosofo filosofo : filosofos) {
+            ultima = Math.max(ultima, filosofo.getUltimaRefeicaoNs());
+        }
+        return ultima;
+    }
+
+    private boolean todosEsperandoDireito() {
+        for (Filosofo filosofo : filosofos) {
+            if (filosofo.getEstado() != Filosofo.ESPERANDO_DIREITO) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * O filósofo que mais comeu entre os que esperam o direito; -1 se nenhum.
+     */
+    private int escolherVitima() {
+        int vitima = -1;
+        for (int i = 0; i < filosofos.length; i++) {
+            if (filosofos[i].getEstado() == Filosofo.ESPERANDO_DIREITO
+                    && (vitima < 0 || filosofos[i].getVezesComeu() > filosofos[vitima].getVezesComeu())) {
+                vitima = i;
+            }
+        }
+        return vitima;
+    }
+
+    /**
+     * Para o vigia e espera a verificação em andamento terminar.
+     */
+    public void encerrar() throws InterruptedException {
+        ativo = false;
+        interrupt();
+        join();
+    }
+
+    /**
+     * Imprime o resumo das detecções; chamado depois de encerrar().
+     */
+    public void imprimirResumo(long duracaoMs) {
+        System.out.println("\n=== Vigia de deadlock ===");
+        if (deteccoes == 0) {
+            System.out.println("Nenhum deadlock detectado (janela " + TimeUnit.NANOSECONDS.toMillis(janelaNs) + " ms)");
+            return;
+        }
+        double travadoMs = (somaDeteccaoNs + somaRecuperacaoNs) / 1e6;
+        System.out.println(String.format("Deadlocks: %d (%d pelo ThreadMXBean) - detectar %.0f ms, recuperar %.1f ms em media",
+                deteccoes, deteccoesMXBean, somaDeteccaoNs / 1e6 / deteccoes, somaRecuperacaoNs / 1e6 / deteccoes));
+        System.out.println(String.format("Tempo travado: %.0f ms (%.1f%% da execucao), maior travamento %.0f ms",
+                travadoMs, 100.0 * travadoMs / duracaoMs, maiorTravamentoNs / 1e6));
+    }
+}
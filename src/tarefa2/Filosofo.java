@@ -14,21 +14,34 @@ import java.util.Random;
  * do filósofo 4 é o garfo esquerdo do filósofo 0, e o filósofo 0 já o tem,
  * o filósofo 4 ficará bloqueado. Isso permite que pelo menos um filósofo
  * (o 0) complete a aquisição e libere seus garfos, quebrando o ciclo.
+ *
+ * DECISÃO: Com o tamanho da mesa configurável, quem inverte a ordem é o
+ * último filósofo (ID numFilosofos - 1), que é o 4 na mesa clássica. O Main
+ * informa isso pelo construtor; basta um filósofo invertido para quebrar o ciclo.
  */
-public class Filosofo extends Thread {
+public class Filosofo implements Runnable {
     // DECISÃO: ID imutável usado para determinar estratégia de aquisição
     private final int id;
-    private final Garfo garfoEsquerdo;
-    private final Garfo garfoDireito;
+    private final GarfoCompartilhado garfoEsquerdo;
+    private final GarfoCompartilhado garfoDireito;
+    // DECISÃO: true apenas para o filósofo que pega direito -> esquerdo
+    private final boolean ordemInvertida;
     private final Random random;
-    private int vezesComeu;
+    private final DistribuicaoTempo tempoPensar;
+    private final DistribuicaoTempo tempoComer;
+    private final EstatisticasFilosofo estatisticas;
+    private final BufferEventos eventos;
 
-    public Filosofo(int id, Garfo garfoEsquerdo, Garfo garfoDireito) {
+    public Filosofo(int id, GarfoCompartilhado garfoEsquerdo, GarfoCompartilhado garfoDireito, boolean ordemInvertida, DistribuicaoTempo tempoPensar, DistribuicaoTempo tempoComer, RegistroEventos registro) {
         this.id = id;
         this.garfoEsquerdo = garfoEsquerdo;
         this.garfoDireito = garfoDireito;
+        this.ordemInvertida = ordemInvertida;
         this.random = new Random();
-        this.vezesComeu = 0;
+        this.tempoPensar = tempoPensar;
+        this.tempoComer = tempoComer;
+        this.estatisticas = new EstatisticasFilosofo();
+        this.eventos = registro.criarBuffer(id);
     }
 
     @Override
@@ -44,9 +57,9 @@ public class Filosofo extends Thread {
     }
 
     private void pensar() throws InterruptedException {
-        int tempo = 1000 + random.nextInt(2000);
-        log("comecou a pensar");
-        Thread.sleep(tempo);
+        long tempo = tempoPensar.sortear(random);
+        log(Evento.PENSANDO, Evento.SEM_GARFO);
+        DistribuicaoTempo.pausarNanos(tempo);
     }
 
     /**
@@ -69,41 +82,48 @@ public class Filosofo extends Thread {
      * e liberar seus garfos, quebrando o deadlock.
      */
     private void comer() throws InterruptedException {
-        // DECISÃO: Filósofo 4 usa ordem invertida para quebrar simetria
-        if (id == 4) {
+        long inicioEspera = System.nanoTime();
+        // DECISÃO: O filósofo invertido (4 na mesa clássica) quebra a simetria
+        if (ordemInvertida) {
             // ESTRATÉGIA INVERTIDA: Direito primeiro, depois esquerdo
-            log("tentando pegar garfo direito " + garfoDireito.getId());
+            log(Evento.TENTANDO_DIREITO, garfoDireito.getId());
             garfoDireito.pegar();
-            log("pegou garfo direito " + garfoDireito.getId());
+            log(Evento.PEGOU_DIREITO, garfoDireito.getId());
 
-            log("tentando pegar garfo esquerdo " + garfoEsquerdo.getId());
+            log(Evento.TENTANDO_ESQUERDO, garfoEsquerdo.getId());
             garfoEsquerdo.pegar();
-            log("pegou garfo esquerdo " + garfoEsquerdo.getId());
+            log(Evento.PEGOU_ESQUERDO, garfoEsquerdo.getId());
         } else {
             // ESTRATÉGIA PADRÃO: Esquerdo primeiro, depois direito
-            log("tentando pegar garfo esquerdo " + garfoEsquerdo.getId());
+            log(Evento.TENTANDO_ESQUERDO, garfoEsquerdo.getId());
             garfoEsquerdo.pegar();
-            log("pegou garfo esquerdo " + garfoEsquerdo.getId());
+            log(Evento.PEGOU_ESQUERDO, garfoEsquerdo.getId());
 
-            log("tentando pegar garfo direito " + garfoDireito.getId());
+            log(Evento.TENTANDO_DIREITO, garfoDireito.getId());
             garfoDireito.pegar();
-            log("pegou garfo direito " + garfoDireito.getId());
+            log(Evento.PEGOU_DIREITO, garfoDireito.getId());
         }
 
         // DECISÃO: Comportamento após pegar garfos é idêntico para todos
-        int tempo = 1000 + random.nextInt(2000);
-        log("comecou a comer");
-        vezesComeu++;
-        Thread.sleep(tempo);
+        long tempo = tempoComer.sortear(random);
+        log(Evento.COMENDO, Evento.SEM_GARFO);
+        estatisticas.registrarRefeicao(System.nanoTime() - inicioEspera, tempo);
+        DistribuicaoTempo.pausarNanos(tempo);
 
         // DECISÃO: Ordem de soltar não importa, mas mantemos consistência
         garfoEsquerdo.soltar();
         garfoDireito.soltar();
-        log("terminou de comer e soltou os garfos");
+        log(Evento.SOLTOU_GARFOS, Evento.SEM_GARFO);
     }
 
-    private void log(String mensagem) {
-        System.out.println("Filosofo " + id + ": " + mensagem);
+    /**
+     * Registra um evento no buffer próprio do filósofo.
+     *
+     * DECISÃO: Sem String nem System.out no caminho quente - a formatação é
+     * feita em lote pelo drenador do RegistroEventos.
+     */
+    private void log(int evento, int garfoId) {
+        eventos.registrar(evento, garfoId);
     }
 
     public int getFilosofoId() {
@@ -111,7 +131,11 @@ public class Filosofo extends Thread {
     }
 
     public int getVezesComeu() {
-        return vezesComeu;
+        return estatisticas.getRefeicoes();
+    }
+
+    public EstatisticasFilosofo getEstatisticas() {
+        return estatisticas;
     }
 }
 
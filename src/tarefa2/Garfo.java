@@ -6,14 +6,27 @@
  * 
  * MECANISMO: Usa sincronização Java nativa (synchronized, wait, notifyAll)
  * para garantir exclusão mútua e comunicação entre threads.
+ *
+ * DECISÃO: Implementa GarfoCompartilhado, como na Tarefa 1 (--garfo=cas usa
+ * o GarfoAtomico no lugar desta classe).
  */
-public class Garfo {
+public class Garfo implements GarfoCompartilhado {
     private final int id;
     private boolean emUso;
+    private final PerfilGarfos perfil;
 
     public Garfo(int id) {
+        this(id, null);
+    }
+
+    /**
+     * DECISÃO: Com perfil (--perfil-garfos), conta aquisições, disputas e
+     * tempo bloqueado deste garfo, como na Tarefa 1.
+     */
+    public Garfo(int id, PerfilGarfos perfil) {
         this.id = id;
         this.emUso = false;
+        this.perfil = perfil;
     }
 
     /**
@@ -23,10 +36,15 @@ public class Garfo {
      * Bloqueia até o garfo estar disponível.
      */
     public synchronized void pegar() throws InterruptedException {
+        boolean disputada = emUso;
+        long inicioEspera = perfil != null && disputada ? System.nanoTime() : 0;
         while (emUso) {
             wait();
         }
         emUso = true;
+        if (perfil != null) {
+            perfil.registrarAquisicao(id, disputada, inicioEspera);
+        }
     }
 
     /**
@@ -36,6 +54,9 @@ public class Garfo {
      * sejam notificadas, evitando starvation.
      */
     public synchronized void soltar() {
+        if (perfil != null) {
+            perfil.registrarSoltura(id);
+        }
         emUso = false;
         notifyAll();
     }
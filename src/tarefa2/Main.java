@@ -1,3 +1,5 @@
+import java.util.concurrent.ExecutorService;
+
 /**
  * Classe principal que implementa o problema dos Filósofos Jantando - Tarefa 2.
  * 
@@ -22,41 +24,50 @@ public class Main {
     private static final int TEMPO_EXECUCAO_MS = 120000;
 
     public static void main(String[] args) {
-        Garfo[] garfos = new Garfo[NUM_FILOSOFOS];
-        Filosofo[] filosofos = new Filosofo[NUM_FILOSOFOS];
+        Argumentos argumentos = new Argumentos(args);
+        int numFilosofos = argumentos.getIntMinimo("filosofos", NUM_FILOSOFOS, 2);
+        String execucao = argumentos.getString("execucao", ModoExecucao.PLATAFORMA);
+        long duracaoMs = argumentos.getLong("duracao", TEMPO_EXECUCAO_MS);
+        DistribuicaoTempo tempoPensar = DistribuicaoTempo.parse(argumentos.getString("pensar", "1000-3000ms"));
+        DistribuicaoTempo tempoComer = DistribuicaoTempo.parse(argumentos.getString("comer", "1000-3000ms"));
+        // DECISÃO: --garfo=cas troca o Garfo (monitor) pelo GarfoAtomico (CAS + park)
+        boolean garfoAtomico = "cas".equals(argumentos.getString("garfo", "monitor"));
+        InstrumentacaoMesa instrumentacao = new InstrumentacaoMesa(argumentos, "tarefa2", numFilosofos);
+        RegistroEventos registro = instrumentacao.getRegistro();
+        PerfilGarfos perfil = instrumentacao.getPerfil();
 
-        for (int i = 0; i < NUM_FILOSOFOS; i++) {
-            garfos[i] = new Garfo(i);
-        }
+        GarfoCompartilhado[] garfos = new GarfoCompartilhado[numFilosofos];
+        Filosofo[] filosofos = new Filosofo[numFilosofos];
+        ExecutorService executor = ModoExecucao.criarExecutor(execucao, numFilosofos, "filosofo-");
 
-        for (int i = 0; i < NUM_FILOSOFOS; i++) {
-            Garfo garfoEsquerdo = garfos[i];
-            Garfo garfoDireito = garfos[(i + 1) % NUM_FILOSOFOS];
-            filosofos[i] = new Filosofo(i, garfoEsquerdo, garfoDireito);
-            filosofos[i].start();
+        for (int i = 0; i < numFilosofos; i++) {
+            garfos[i] = garfoAtomico ? new GarfoAtomico(i, perfil) : new Garfo(i, perfil);
         }
+        instrumentacao.iniciar();
 
-        try {
-            Thread.sleep(TEMPO_EXECUCAO_MS);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-
-        System.out.println("\n=== Finalizando execucao ===");
-        for (Filosofo filosofo : filosofos) {
-            filosofo.interrupt();
+        for (int i = 0; i < numFilosofos; i++) {
+            GarfoCompartilhado garfoEsquerdo = garfos[i];
+            GarfoCompartilhado garfoDireito = garfos[(i + 1) % numFilosofos];
+            // DECISÃO: O último filósofo (4 na mesa clássica) inverte a ordem
+            filosofos[i] = new Filosofo(i, garfoEsquerdo, garfoDireito, i == numFilosofos - 1, tempoPensar, tempoComer, registro);
+            instrumentacao.acompanhar(filosofos[i].getEstatisticas(), i);
+            executor.execute(filosofos[i]);
         }
 
         try {
-            Thread.sleep(1000);
+            Thread.sleep(duracaoMs);
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
 
-        System.out.println("\n=== Estatisticas ===");
+        instrumentacao.encerrar(executor);
+
+        EstatisticasFilosofo[] estatisticas = new EstatisticasFilosofo[numFilosofos];
         for (Filosofo filosofo : filosofos) {
-            System.out.println("Filosofo " + filosofo.getFilosofoId() + " comeu " + filosofo.getVezesComeu() + " vezes");
+            estatisticas[filosofo.getFilosofoId()] = filosofo.getEstatisticas();
         }
+        RelatorioEstatisticas.imprimir(estatisticas, duracaoMs);
+        instrumentacao.imprimirPerfil();
     }
 }
 
@@ -0,0 +1,70 @@
+/**
+ * Adaptador da estratégia da Tarefa 2 para o contrato ProtocoloGarfos.
+ *
+ * DECISÃO DE DESIGN: Mesma quebra de simetria de Filosofo.comer(): um único
+ * filósofo pega os garfos em ordem inversa (direito -> esquerdo).
+ *
+ * DECISÃO: O filósofo invertido é o último (numFilosofos - 1). Com 5
+ * filósofos é o ID 4, como no Filosofo desta tarefa; com outros tamanhos de
+ * mesa continua existindo exatamente um filósofo invertido, o que basta para
+ * quebrar a espera circular.
+ */
+public class ProtocoloAssimetrico implements ProtocoloGarfos {
+    private final GarfoCompartilhado[] garfos;
+    private final String nome;
+
+    public ProtocoloAssimetrico(int numFilosofos) {
+        this(criarGarfos(numFilosofos), "tarefa2-assimetrico");
+    }
+
+    /**
+     * DECISÃO: Construtor usado pelas variantes que trocam o tipo de garfo
+     * (ex.: ProtocoloAssimetricoAtomico), mantendo a mesma ordem de aquisição.
+     */
+    protected ProtocoloAssimetrico(GarfoCompartilhado[] garfos, String nome) {
+        this.garfos = garfos;
+        this.nome = nome;
+    }
+
+    private static GarfoCompartilhado[] criarGarfos(int numFilosofos) {
+        GarfoCompartilhado[] garfos = new GarfoCompartilhado[numFilosofos];
+        for (int i = 0; i < numFilosofos; i++) {
+            garfos[i] = new Garfo(i);
+        }
+        return garfos;
+    }
+
+    @Override
+    public void pegarGarfos(int filosofoId) throws InterruptedException {
+        GarfoCompartilhado esquerdo = garfos[filosofoId];
+        GarfoCompartilhado direito = garfos[(filosofoId + 1) % garfos.length];
+        boolean invertido = filosofoId == garfos.length - 1;
+        GarfoCompartilhado primeiro = invertido ? direito : esquerdo;
+        GarfoCompartilhado segundo = invertido ? esquerdo : direito;
+
+        primeiro.pegar();
+        try {
+            segundo.pegar();
+        } catch (InterruptedException e) {
+            // DECISÃO: Devolver o primeiro garfo ao ser interrompido no segundo
+            primeiro.soltar();
+            throw e;
+        }
+    }
+
+    @Override
+    public void soltarGarfos(int filosofoId) {
+        garfos[filosofoId].soltar();
+        garfos[(filosofoId + 1) % garfos.length].soltar();
+    }
+
+    @Override
+    public int getNumFilosofos() {
+        return garfos.length;
+    }
+
+    @Override
+    public String getNome() {
+        return nome;
+    }
+}
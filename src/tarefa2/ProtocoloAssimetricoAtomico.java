@@ -0,0 +1,21 @@
+/**
+ * Estratégia da Tarefa 2 com GarfoAtomico no lugar do Garfo com monitor.
+ *
+ * DECISÃO DE DESIGN: Mesma quebra de simetria de ProtocoloAssimetrico; só
+ * muda o garfo. Existe para o Benchmark comparar CAS + park com
+ * synchronized + wait/notifyAll.
+ */
+public class ProtocoloAssimetricoAtomico extends ProtocoloAssimetrico {
+
+    public ProtocoloAssimetricoAtomico(int numFilosofos) {
+        super(criarGarfosAtomicos(numFilosofos), "tarefa2-assimetrico-cas");
+    }
+
+    private static GarfoCompartilhado[] criarGarfosAtomicos(int numFilosofos) {
+        GarfoCompartilhado[] garfos = new GarfoCompartilhado[numFilosofos];
+        for (int i = 0; i < numFilosofos; i++) {
+            garfos[i] = new GarfoAtomico(i);
+        }
+        return garfos;
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Modelo de simulação da estratégia da Tarefa 2 (ver Simulador).
+ *
+ * DECISÃO DE DESIGN: Mesma ordem de ProtocoloAssimetrico: esquerdo e depois
+ * direito, exceto o último filósofo, que pega o direito primeiro. Quem não
+ * consegue um garfo entra na fila dele; quando o garfo é solto, o próximo da
+ * fila o recebe e continua a aquisição de onde parou.
+ */
+public class SimulacaoAssimetrica implements ModeloSimulacao {
+    private final GarfoSimulado[] garfos;
+    // DECISÃO: true enquanto o filósofo segura o primeiro garfo e espera o segundo
+    private final boolean[] comPrimeiro;
+    private Simulador simulador;
+
+    public SimulacaoAssimetrica(int numFilosofos) {
+        this.garfos = new GarfoSimulado[numFilosofos];
+        this.comPrimeiro = new boolean[numFilosofos];
+        for (int i = 0; i < numFilosofos; i++) {
+            garfos[i] = new GarfoSimulado();
+        }
+    }
+
+    @Override
+    public void iniciar(Simulador simulador) {
+        this.simulador = simulador;
+    }
+
+    @Override
+    public void pedir(int filosofoId) {
+        if (garfos[primeiro(filosofoId)].pegar(filosofoId)) {
+            pegarSegundo(filosofoId);
+        }
+    }
+
+    @Override
+    public void soltar(int filosofoId) {
+        entregar(garfos[filosofoId].soltar());
+        entregar(garfos[(filosofoId + 1) % garfos.length].soltar());
+    }
+
+    @Override
+    public void verificar(int filosofoId) {
+        // DECISÃO: Este modelo não agenda temporizadores
+    }
+
+    @Override
+    public String getNome() {
+        return "tarefa2-assimetrico";
+    }
+
+    private void pegarSegundo(int filosofoId) {
+        comPrimeiro[filosofoId] = true;
+        if (garfos[segundo(filosofoId)].pegar(filosofoId)) {
+            comecar(filosofoId);
+        }
+    }
+
+    /**
+     * O filósofo recebeu o garfo pelo qual esperava na fila.
+     */
+    private void entregar(int filosofoId) {
+        if (filosofoId == GarfoSimulado.LIVRE) {
+            return;
+        }
+        if (comPrimeiro[filosofoId]) {
+            comecar(filosofoId);
+        } else {
+            pegarSegundo(filosofoId);
+        }
+    }
+
+    private void comecar(int filosofoId) {
+        comPrimeiro[filosofoId] = false;
+        simulador.comecarRefeicao(filosofoId);
+    }
+
+    private int primeiro(int filosofoId) {
+        return filosofoId == garfos.length - 1 ? (filosofoId + 1) % garfos.length : filosofoId;
+    }
+
+    private int segundo(int filosofoId) {
+        return filosofoId == garfos.length - 1 ? filosofoId : (filosofoId + 1) % garfos.length;
+    }
+}
@@ -0,0 +1,249 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limitador de concorrência da Tarefa 3 com limite ajustável (AIMD).
+ *
+ * PROBLEMA DO Semaphore(4) FIXO:
+ * O limite de 4 permissões vale para 5 filósofos. Com N filósofos, N - 1 é o
+ * maior limite sem deadlock, mas admitir N - 1 filósofos que pegam o garfo
+ * esquerdo e esperam o direito forma cadeias de espera: muitos admitidos
+ * seguram um garfo parado enquanto só uns poucos comem.
+ *
+ * DECISÃO DE DESIGN: Continua sendo um Semaphore, agora com o número de
+ * permissões alterado em tempo de execução. A cada janela o controle olha:
+ * - desperdício: fração do tempo dos admitidos passada esperando garfos
+ *   (da admissão até começar a comer), sobre o tempo total admitido
+ * - vazão: refeições por segundo na janela
+ * e ajusta como o controle de congestionamento do TCP:
+ * - desperdício acima de LIMIAR_DESPERDICIO sem a vazão subir: redução
+ *   multiplicativa (limite * FATOR_REDUCAO)
+ * - desperdício baixo e alguém esperou por admissão: aumento aditivo (+1)
+ * - senão, mantém
+ *
+ * LIMITES:
+ * - máximo N - 1: o limite que garante ausência de deadlock (com N admitidos
+ *   todos podem pegar o esquerdo ao mesmo tempo); nunca é ultrapassado
+ * - mínimo floor(N / 2): o máximo de filósofos que podem comer juntos; abaixo
+ *   disso o limitador cortaria refeições possíveis
+ *
+ * DECISÃO: Aumentar é release() e reduzir é reducePermits() do próprio
+ * Semaphore. A redução não tira a permissão de quem já foi admitido: as
+ * permissões ficam negativas e os próximos acquire() esperam até o número de
+ * admitidos cair abaixo do novo limite.
+ *
+ * DECISÃO: Sem thread própria. Quem libera a permissão verifica se a janela
+ * acabou, e um CAS em proximaJanela escolhe um único filósofo para ajustar.
+ * Os contadores da janela são LongAdder, para os filósofos não disputarem
+ * uma mesma variável.
+ *
+ * DECISÃO: Modo justo opcional (Semaphore(n, true)): a admissão passa a ser
+ * por ordem de chegada, à custa de não deixar quem chega passar à frente de
+ * quem acabou de ser acordado.
+ */
+public class ControleAdmissao {
+    private static final double LIMIAR_DESPERDICIO = 0.5;
+    private static final double FATOR_REDUCAO = 0.75;
+    // DECISÃO: Variação de vazão abaixo de 5% é ruído, não melhora
+    private static final double GANHO_MINIMO = 1.05;
+    // DECISÃO: Linhas do relatório; janelas a mais são agrupadas
+    private static final int LINHAS_RELATORIO = 30;
+
+    private final SemaforoAjustavel semaforo;
+    private final boolean adaptativo;
+    private final boolean justo;
+    private final int limiteMinimo;
+    private final int limiteMaximo;
+    private final long janelaNs;
+    private final long inicio;
+    private final AtomicLong proximaJanela;
+    private final LongAdder refeicoes;
+    private final LongAdder esperaGarfosNs;
+    private final LongAdder admitidoNs;
+    private final LongAdder esperasAdmissao;
+    // DECISÃO: Escrito só dentro de ajustar() (synchronized); volatile para o relatório
+    private volatile int limite;
+    private double vazaoAnterior;
+    private long fimJanelaAnterior;
+    private final List<Janela> historico;
+
+    /**
+     * @param adaptativo false mantém o limite fixo em N - 1 (o Semaphore de antes)
+     * @param justo      admissão por ordem de chegada
+     * @param janelaMs   intervalo entre ajustes
+     */
+    public ControleAdmissao(int numFilosofos, boolean adaptativo, boolean justo, long janelaMs) {
+        this.limiteMaximo = Math.max(1, numFilosofos - 1);
+        this.limiteMinimo = Math.max(1, Math.min(limiteMaximo, numFilosofos / 2));
+        this.adaptativo = adaptativo;
+        this.justo = justo;
+        this.limite = limiteMaximo;
+        this.semaforo = new SemaforoAjustavel(limiteMaximo, justo);
+        this.janelaNs = TimeUnit.MILLISECONDS.toNanos(janelaMs);
+        this.inicio = System.nanoTime();
+        this.fimJanelaAnterior = inicio;
+        this.proximaJanela = new AtomicLong(inicio + janelaNs);
+        this.refeicoes = new LongAdder();
+        this.esperaGarfosNs = new LongAdder();
+        this.admitidoNs = new LongAdder();
+        this.esperasAdmissao = new LongAdder();
+        this.historico = new ArrayList<>();
+    }
+
+    /**
+     * Bloqueia até o filósofo ser admitido.
+     *
+     * @return instante (nanoTime) da admissão, a ser passado para liberar()
+     */
+    public long admitir() throws InterruptedException {
+        // DECISÃO: tryAcquire com prazo zero respeita a fila no modo justo
+        // (tryAcquire() sem prazo passaria à frente)
+        if (!semaforo.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+            esperasAdmissao.increment();
+            semaforo.acquire();
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Devolve a permissão de quem desistiu antes de comer (interrupção).
+     */
+    public void cancelar() {
+        semaforo.release();
+    }
+
+    /**
+     * Devolve a permissão depois da refeição e registra a janela.
+     *
+     * @param admitidoEm     retorno de admitir()
+     * @param comecouComerEm instante em que o filósofo conseguiu os dois garfos
+     */
+    public void liberar(long admitidoEm, long comecouComerEm) {
+        semaforo.release();
+        long agora = System.nanoTime();
+        refeicoes.increment();
+        esperaGarfosNs.add(comecouComerEm - admitidoEm);
+        admitidoNs.add(agora - admitidoEm);
+        long proxima = proximaJanela.get();
+        if (agora >= proxima && proximaJanela.compareAndSet(proxima, agora + janelaNs)) {
+            ajustar(agora);
+        }
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    public boolean isAdaptativo() {
+        return adaptativo;
+    }
+
+    public boolean isJusto() {
+        return justo;
+    }
+
+    /**
+     * Fecha a janela: mede, decide o novo limite e guarda a linha do histórico.
+     */
+    private synchronized void ajustar(long agora) {
+        double segundos = (agora - fimJanelaAnterior) / 1e9;
+        fimJanelaAnterior = agora;
+        long feitas = refeicoes.sumThenReset();
+        long espera = esperaGarfosNs.sumThenReset();
+        long admitido = admitidoNs.sumThenReset();
+        long esperas = esperasAdmissao.sumThenReset();
+        double vazao = feitas / segundos;
+        double desperdicio = admitido == 0 ? 0 : (double) espera / admitido;
+        // DECISÃO: Tempo admitido / duração da janela = média de admitidos ao mesmo tempo
+        double concorrencia = admitido / 1e9 / segundos;
+        int anterior = limite;
+        if (adaptativo && feitas > 0) {
+            if (desperdicio > LIMIAR_DESPERDICIO && vazao < vazaoAnterior * GANHO_MINIMO) {
+                mudarLimite(Math.max(limiteMinimo, (int) (limite * FATOR_REDUCAO)));
+            } else if (desperdicio <= LIMIAR_DESPERDICIO && esperas > 0) {
+                mudarLimite(Math.min(limiteMaximo, limite + 1));
+            }
+            vazaoAnterior = vazao;
+        }
+        historico.add(new Janela((agora - inicio) / 1e9, anterior, concorrencia, vazao, desperdicio));
+    }
+
+    private void mudarLimite(int novo) {
+        if (novo > limite) {
+            semaforo.release(novo - limite);
+        } else if (novo < limite) {
+            semaforo.reduzir(limite - novo);
+        }
+        limite = novo;
+    }
+
+    /**
+     * Concorrência admitida ao longo do tempo, ao lado da vazão.
+     *
+     * DECISÃO: Com mais de LINHAS_RELATORIO janelas, janelas consecutivas são
+     * agrupadas (médias); o limite mostrado é o do início do grupo.
+     */
+    public synchronized void imprimirRelatorio() {
+        System.out.println("\n=== Controle de admissao (" + (adaptativo ? "adaptativo" : "fixo")
+                + (justo ? ", justo" : "") + ", limites " + limiteMinimo + "-" + limiteMaximo + ") ===");
+        if (historico.isEmpty()) {
+            System.out.println("Nenhuma janela completa (limite " + limite + ")");
+            return;
+        }
+        System.out.println(String.format("%9s %7s %14s %14s %13s", "tempo(s)", "limite", "admitidos med", "refeicoes/s", "desperdicio"));
+        int porLinha = (historico.size() + LINHAS_RELATORIO - 1) / LINHAS_RELATORIO;
+        for (int i = 0; i < historico.size(); i += porLinha) {
+            int fim = Math.min(historico.size(), i + porLinha);
+            double concorrencia = 0;
+            double vazao = 0;
+            double desperdicio = 0;
+            for (int j = i; j < fim; j++) {
+                concorrencia += historico.get(j).concorrencia;
+                vazao += historico.get(j).vazao;
+                desperdicio += historico.get(j).desperdicio;
+            }
+            int n = fim - i;
+            System.out.println(String.format("%9.1f %7d %14.2f %14.1f %12.1f%%",
+                    historico.get(fim - 1).tempo, historico.get(i).limite, concorrencia / n, vazao / n, 100 * desperdicio / n));
+        }
+        System.out.println("Limite final: " + limite);
+    }
+
+    /**
+     * Uma janela do histórico.
+     */
+    private static final class Janela {
+        final double tempo;
+        final int limite;
+        final double concorrencia;
+        final double vazao;
+        final double desperdicio;
+
+        Janela(double tempo, int limite, double concorrencia, double vazao, double desperdicio) {
+            this.tempo = tempo;
+            this.limite = limite;
+            this.concorrencia = concorrencia;
+            this.vazao = vazao;
+            this.desperdicio = desperdicio;
+        }
+    }
+
+    /**
+     * Semaphore com reducePermits() visível (é protected na classe original).
+     */
+    private static final class SemaforoAjustavel extends Semaphore {
+        private static final long serialVersionUID = 1L;
+
+        SemaforoAjustavel(int permissoes, boolean justo) {
+            super(permissoes, justo);
+        }
+
+        void reduzir(int permissoes) {
+            reducePermits(permissoes);
+        }
+    }
+}
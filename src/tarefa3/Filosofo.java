@@ -1,5 +1,4 @@
 import java.util.Random;
-import java.util.concurrent.Semaphore;
 
 /**
  * Representa um filósofo no problema dos Filósofos Jantando - Tarefa 3.
@@ -19,29 +18,39 @@ import java.util.concurrent.Semaphore;
  * 4. Come
  * 5. Solta ambos os garfos
  * 6. Libera permissão do semáforo (em finally para garantir liberação)
+ *
+ * DECISÃO: O semáforo agora é o do ControleAdmissao, cujo limite começa em
+ * N - 1 e é ajustado pela disputa observada. O filósofo informa quando foi
+ * admitido e quando conseguiu os garfos, que é o que o controle mede.
  */
-public class Filosofo extends Thread {
+public class Filosofo implements Runnable {
     private final int id;
     private final Garfo garfoEsquerdo;
     private final Garfo garfoDireito;
-    // DECISÃO: Referência ao semáforo compartilhado - todos competem pelas mesmas permissões
-    private final Semaphore semaforoLimite;
+    // DECISÃO: Referência ao limitador compartilhado - todos competem pelas mesmas permissões
+    private final ControleAdmissao controleAdmissao;
     private final Random random;
-    private int vezesComeu;
+    private final DistribuicaoTempo tempoPensar;
+    private final DistribuicaoTempo tempoComer;
+    private final EstatisticasFilosofo estatisticas;
+    private final BufferEventos eventos;
 
     /**
      * Construtor do filósofo.
      * 
-     * DECISÃO: Recebe o semáforo compartilhado como parâmetro para garantir
+     * DECISÃO: Recebe o limitador compartilhado como parâmetro para garantir
      * que todos os filósofos compartilhem o mesmo limitador de concorrência.
      */
-    public Filosofo(int id, Garfo garfoEsquerdo, Garfo garfoDireito, Semaphore semaforoLimite) {
+    public Filosofo(int id, Garfo garfoEsquerdo, Garfo garfoDireito, ControleAdmissao controleAdmissao, DistribuicaoTempo tempoPensar, DistribuicaoTempo tempoComer, RegistroEventos registro) {
         this.id = id;
         this.garfoEsquerdo = garfoEsquerdo;
         this.garfoDireito = garfoDireito;
-        this.semaforoLimite = semaforoLimite;
+        this.controleAdmissao = controleAdmissao;
         this.random = new Random();
-        this.vezesComeu = 0;
+        this.tempoPensar = tempoPensar;
+        this.tempoComer = tempoComer;
+        this.estatisticas = new EstatisticasFilosofo();
+        this.eventos = registro.criarBuffer(id);
     }
 
     @Override
@@ -57,9 +66,9 @@ public class Filosofo extends Thread {
     }
 
     private void pensar() throws InterruptedException {
-        int tempo = 1000 + random.nextInt(2000);
-        log("comecou a pensar");
-        Thread.sleep(tempo);
+        long tempo = tempoPensar.sortear(random);
+        log(Evento.PENSANDO, Evento.SEM_GARFO);
+        DistribuicaoTempo.pausarNanos(tempo);
     }
 
     /**
@@ -84,37 +93,53 @@ public class Filosofo extends Thread {
      * 6. Liberar semáforo (finally)
      */
     private void comer() throws InterruptedException {
+        // DECISÃO: Antes de admitir() - a fila da admissão também é espera
+        long inicioEspera = System.nanoTime();
         // DECISÃO: Adquirir semáforo ANTES de tentar pegar garfos
         // Isso limita quantos filósofos competem simultaneamente
-        semaforoLimite.acquire();
+        long admitido = controleAdmissao.admitir();
+        long comecouComer = 0;
+        boolean comeu = false;
         try {
             // DECISÃO: Ordem padrão (esquerdo -> direito) funciona agora
             // porque o semáforo previne que todos tentem simultaneamente
-            log("tentando pegar garfo esquerdo " + garfoEsquerdo.getId());
+            log(Evento.TENTANDO_ESQUERDO, garfoEsquerdo.getId());
             garfoEsquerdo.pegar();
-            log("pegou garfo esquerdo " + garfoEsquerdo.getId());
+            log(Evento.PEGOU_ESQUERDO, garfoEsquerdo.getId());
 
-            log("tentando pegar garfo direito " + garfoDireito.getId());
+            log(Evento.TENTANDO_DIREITO, garfoDireito.getId());
             garfoDireito.pegar();
-            log("pegou garfo direito " + garfoDireito.getId());
+            log(Evento.PEGOU_DIREITO, garfoDireito.getId());
 
-            int tempo = 1000 + random.nextInt(2000);
-            log("comecou a comer");
-            vezesComeu++;
-            Thread.sleep(tempo);
+            long tempo = tempoComer.sortear(random);
+            log(Evento.COMENDO, Evento.SEM_GARFO);
+            comecouComer = System.nanoTime();
+            comeu = true;
+            estatisticas.registrarRefeicao(comecouComer - inicioEspera, tempo);
+            DistribuicaoTempo.pausarNanos(tempo);
 
             garfoEsquerdo.soltar();
             garfoDireito.soltar();
-            log("terminou de comer e soltou os garfos");
+            log(Evento.SOLTOU_GARFOS, Evento.SEM_GARFO);
         } finally {
             // DECISÃO CRÍTICA: Sempre liberar semáforo, mesmo em caso de exceção
             // Garante que outras threads não fiquem bloqueadas permanentemente
-            semaforoLimite.release();
+            if (comeu) {
+                controleAdmissao.liberar(admitido, comecouComer);
+            } else {
+                controleAdmissao.cancelar();
+            }
         }
     }
 
-    private void log(String mensagem) {
-        System.out.println("Filosofo " + id + ": " + mensagem);
+    /**
+     * Registra um evento no buffer próprio do filósofo.
+     *
+     * DECISÃO: Sem String nem System.out no caminho quente - a formatação é
+     * feita em lote pelo drenador do RegistroEventos.
+     */
+    private void log(int evento, int garfoId) {
+        eventos.registrar(evento, garfoId);
     }
 
     public int getFilosofoId() {
@@ -122,7 +147,11 @@ public class Filosofo extends Thread {
     }
 
     public int getVezesComeu() {
-        return vezesComeu;
+        return estatisticas.getRefeicoes();
+    }
+
+    public EstatisticasFilosofo getEstatisticas() {
+        return estatisticas;
     }
 }
 
@@ -18,12 +18,16 @@ import java.util.concurrent.Semaphore;
  * FUNCIONAMENTO:
  * - acquire(): bloqueia até conseguir a permissão (garfo disponível)
  * - release(): libera a permissão (garfo disponível novamente)
+ *
+ * DECISÃO: Com PerfilGarfos, tenta primeiro tryAcquire() para saber se houve
+ * disputa; só quando falha mede o acquire() bloqueante.
  */
 public class Garfo {
     private final int id;
     // DECISÃO: Semaphore com 1 permissão = mutex binário
     // Garante que apenas 1 filósofo pode ter o garfo por vez
     private final Semaphore semaforo;
+    private final PerfilGarfos perfil;
 
     /**
      * Construtor do garfo.
@@ -32,8 +36,13 @@ public class Garfo {
      * apenas uma thread por vez, equivalente a um lock exclusivo.
      */
     public Garfo(int id) {
+        this(id, null);
+    }
+
+    public Garfo(int id, PerfilGarfos perfil) {
         this.id = id;
         this.semaforo = new Semaphore(1);
+        this.perfil = perfil;
     }
 
     /**
@@ -43,7 +52,17 @@ public class Garfo {
      * Mais simples que synchronized + while + wait().
      */
     public void pegar() throws InterruptedException {
+        if (perfil == null) {
+            semaforo.acquire();
+            return;
+        }
+        if (semaforo.tryAcquire()) {
+            perfil.registrarAquisicao(id, false, 0);
+            return;
+        }
+        long inicioEspera = System.nanoTime();
         semaforo.acquire();
+        perfil.registrarAquisicao(id, true, inicioEspera);
     }
 
     /**
@@ -53,6 +72,9 @@ public class Garfo {
      * Semaphore gerencia a fila de espera automaticamente.
      */
     public void soltar() {
+        if (perfil != null) {
+            perfil.registrarSoltura(id);
+        }
         semaforo.release();
     }
 
@@ -1,4 +1,4 @@
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Classe principal que implementa o problema dos Filósofos Jantando - Tarefa 3.
@@ -19,53 +19,72 @@ import java.util.concurrent.Semaphore;
  * MECANISMO:
  * Cada filósofo deve adquirir o semáforo antes de tentar pegar os garfos.
  * Com apenas 4 permissões disponíveis, no máximo 4 filósofos competem pelos garfos.
+ *
+ * DECISÃO: As permissões vêm do ControleAdmissao, que começa em N - 1 e ajusta
+ * o limite (AIMD) pela disputa de garfos e pela vazão, sem passar de N - 1.
+ * --admissao=fixa mantém as N - 1 permissões de antes, --admissao-justa usa um
+ * semáforo justo e --janela-admissao=ms define o intervalo entre ajustes.
  */
 public class Main {
     private static final int NUM_FILOSOFOS = 5;
     private static final int TEMPO_EXECUCAO_MS = 120000;
-    // DECISÃO CRÍTICA: Semáforo com 4 permissões (NUM_FILOSOFOS - 1)
-    // Garante que sempre haverá pelo menos 1 garfo disponível
-    private static final Semaphore semaforoLimite = new Semaphore(4);
+    // DECISÃO: Janela de 2 s - com os tempos originais (1 a 3 s) uma janela
+    // menor teria poucas refeições para medir
+    private static final long JANELA_ADMISSAO_MS = 2000;
 
     public static void main(String[] args) {
-        Garfo[] garfos = new Garfo[NUM_FILOSOFOS];
-        Filosofo[] filosofos = new Filosofo[NUM_FILOSOFOS];
+        Argumentos argumentos = new Argumentos(args);
+        int numFilosofos = argumentos.getIntMinimo("filosofos", NUM_FILOSOFOS, 2);
+        String execucao = argumentos.getString("execucao", ModoExecucao.PLATAFORMA);
+        long duracaoMs = argumentos.getLong("duracao", TEMPO_EXECUCAO_MS);
+        DistribuicaoTempo tempoPensar = DistribuicaoTempo.parse(argumentos.getString("pensar", "1000-3000ms"));
+        DistribuicaoTempo tempoComer = DistribuicaoTempo.parse(argumentos.getString("comer", "1000-3000ms"));
+        InstrumentacaoMesa instrumentacao = new InstrumentacaoMesa(argumentos, "tarefa3", numFilosofos);
+        RegistroEventos registro = instrumentacao.getRegistro();
+        PerfilGarfos perfil = instrumentacao.getPerfil();
 
-        for (int i = 0; i < NUM_FILOSOFOS; i++) {
-            garfos[i] = new Garfo(i);
+        // DECISÃO CRÍTICA: Semáforo com no máximo numFilosofos - 1 permissões (4 na mesa clássica)
+        // Garante que sempre haverá pelo menos 1 garfo disponível
+        ControleAdmissao controleAdmissao = new ControleAdmissao(numFilosofos,
+                !"fixa".equals(argumentos.getString("admissao", "adaptativa")),
+                argumentos.getBoolean("admissao-justa", false),
+                argumentos.getLong("janela-admissao", JANELA_ADMISSAO_MS));
+
+        Garfo[] garfos = new Garfo[numFilosofos];
+        Filosofo[] filosofos = new Filosofo[numFilosofos];
+        ExecutorService executor = ModoExecucao.criarExecutor(execucao, numFilosofos, "filosofo-");
+
+        for (int i = 0; i < numFilosofos; i++) {
+            garfos[i] = new Garfo(i, perfil);
         }
+        instrumentacao.iniciar();
 
         // DECISÃO: Passar semáforo compartilhado para todos os filósofos
-        // Todos competem pelas mesmas 4 permissões
-        for (int i = 0; i < NUM_FILOSOFOS; i++) {
+        // Todos competem pelas mesmas numFilosofos - 1 permissões
+        for (int i = 0; i < numFilosofos; i++) {
             Garfo garfoEsquerdo = garfos[i];
-            Garfo garfoDireito = garfos[(i + 1) % NUM_FILOSOFOS];
+            Garfo garfoDireito = garfos[(i + 1) % numFilosofos];
             // DECISÃO: Semáforo compartilhado injetado via construtor
-            filosofos[i] = new Filosofo(i, garfoEsquerdo, garfoDireito, semaforoLimite);
-            filosofos[i].start();
+            filosofos[i] = new Filosofo(i, garfoEsquerdo, garfoDireito, controleAdmissao, tempoPensar, tempoComer, registro);
+            instrumentacao.acompanhar(filosofos[i].getEstatisticas(), i);
+            executor.execute(filosofos[i]);
         }
 
         try {
-            Thread.sleep(TEMPO_EXECUCAO_MS);
+            Thread.sleep(duracaoMs);
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
 
-        System.out.println("\n=== Finalizando execucao ===");
-        for (Filosofo filosofo : filosofos) {
-            filosofo.interrupt();
-        }
-
-        try {
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+        instrumentacao.encerrar(executor);
 
-        System.out.println("\n=== Estatisticas ===");
+        EstatisticasFilosofo[] estatisticas = new EstatisticasFilosofo[numFilosofos];
         for (Filosofo filosofo : filosofos) {
-            System.out.println("Filosofo " + filosofo.getFilosofoId() + " comeu " + filosofo.getVezesComeu() + " vezes");
+            estatisticas[filosofo.getFilosofoId()] = filosofo.getEstatisticas();
         }
+        RelatorioEstatisticas.imprimir(estatisticas, duracaoMs);
+        controleAdmissao.imprimirRelatorio();
+        instrumentacao.imprimirPerfil();
     }
 }
 
@@ -0,0 +1,61 @@
+import java.util.concurrent.Semaphore;
+
+/**
+ * Adaptador da estratégia da Tarefa 3 para o contrato ProtocoloGarfos.
+ *
+ * DECISÃO DE DESIGN: Mesmo fluxo de Filosofo.comer(): permissão do semáforo
+ * limitador, garfo esquerdo, garfo direito; ao soltar, garfos e depois a
+ * permissão.
+ *
+ * DECISÃO: O limitador tem numFilosofos - 1 permissões, a generalização do
+ * Semaphore(4) usado com 5 filósofos no Main desta tarefa.
+ */
+public class ProtocoloSemaforo implements ProtocoloGarfos {
+    private final Garfo[] garfos;
+    private final Semaphore semaforoLimite;
+
+    public ProtocoloSemaforo(int numFilosofos) {
+        this.garfos = new Garfo[numFilosofos];
+        for (int i = 0; i < numFilosofos; i++) {
+            garfos[i] = new Garfo(i);
+        }
+        this.semaforoLimite = new Semaphore(Math.max(1, numFilosofos - 1));
+    }
+
+    @Override
+    public void pegarGarfos(int filosofoId) throws InterruptedException {
+        Garfo esquerdo = garfos[filosofoId];
+        Garfo direito = garfos[(filosofoId + 1) % garfos.length];
+        semaforoLimite.acquire();
+        try {
+            esquerdo.pegar();
+            try {
+                direito.pegar();
+            } catch (InterruptedException e) {
+                esquerdo.soltar();
+                throw e;
+            }
+        } catch (InterruptedException e) {
+            // DECISÃO: Sem garfos na mão, a permissão também deve ser devolvida
+            semaforoLimite.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void soltarGarfos(int filosofoId) {
+        garfos[filosofoId].soltar();
+        garfos[(filosofoId + 1) % garfos.length].soltar();
+        semaforoLimite.release();
+    }
+
+    @Override
+    public int getNumFilosofos() {
+        return garfos.length;
+    }
+
+    @Override
+    public String getNome() {
+        return "tarefa3-semaforo";
+    }
+}
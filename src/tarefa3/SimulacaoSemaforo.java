@@ -0,0 +1,105 @@
+/**
+ * Modelo de simulação da estratégia da Tarefa 3 (ver Simulador).
+ *
+ * DECISÃO DE DESIGN: Mesmo fluxo de ProtocoloSemaforo: permissão do
+ * limitador (numFilosofos - 1), garfo esquerdo, garfo direito; ao soltar,
+ * garfos e depois a permissão.
+ *
+ * DECISÃO: A permissão é entregue ao primeiro da fila (FIFO). O Semaphore
+ * real não é justo, mas com threads bloqueadas em ordem a fila do AQS
+ * também atende nessa ordem; a diferença fica só nas corridas com quem
+ * chega no mesmo instante.
+ */
+public class SimulacaoSemaforo implements ModeloSimulacao {
+    private final GarfoSimulado[] garfos;
+    // DECISÃO: true enquanto o filósofo segura o esquerdo e espera o direito
+    private final boolean[] comEsquerdo;
+    // DECISÃO: Fila circular de quem espera permissão; cabe a mesa inteira
+    private final int[] fila;
+    private int inicioFila;
+    private int tamanhoFila;
+    private int permissoes;
+    private Simulador simulador;
+
+    public SimulacaoSemaforo(int numFilosofos) {
+        this.garfos = new GarfoSimulado[numFilosofos];
+        this.comEsquerdo = new boolean[numFilosofos];
+        this.fila = new int[numFilosofos];
+        this.permissoes = Math.max(1, numFilosofos - 1);
+        for (int i = 0; i < numFilosofos; i++) {
+            garfos[i] = new GarfoSimulado();
+        }
+    }
+
+    @Override
+    public void iniciar(Simulador simulador) {
+        this.simulador = simulador;
+    }
+
+    @Override
+    public void pedir(int filosofoId) {
+        if (permissoes > 0) {
+            permissoes--;
+            pegarEsquerdo(filosofoId);
+        } else {
+            fila[(inicioFila + tamanhoFila) % fila.length] = filosofoId;
+            tamanhoFila++;
+        }
+    }
+
+    @Override
+    public void soltar(int filosofoId) {
+        entregar(garfos[filosofoId].soltar());
+        entregar(garfos[(filosofoId + 1) % garfos.length].soltar());
+        if (tamanhoFila > 0) {
+            int proximo = fila[inicioFila];
+            inicioFila = (inicioFila + 1) % fila.length;
+            tamanhoFila--;
+            pegarEsquerdo(proximo);
+        } else {
+            permissoes++;
+        }
+    }
+
+    @Override
+    public void verificar(int filosofoId) {
+        // DECISÃO: Este modelo não agenda temporizadores
+    }
+
+    @Override
+    public String getNome() {
+        return "tarefa3-semaforo";
+    }
+
+    private void pegarEsquerdo(int filosofoId) {
+        if (garfos[filosofoId].pegar(filosofoId)) {
+            pegarDireito(filosofoId);
+        }
+    }
+
+    private void pegarDireito(int filosofoId) {
+        comEsquerdo[filosofoId] = true;
+        if (garfos[(filosofoId + 1) % garfos.length].pegar(filosofoId)) {
+            comecar(filosofoId);
+        }
+    }
+
+    /**
+     * O filósofo recebeu o garfo pelo qual esperava na fila.
+     */
+    private void entregar(int filosofoId) {
+        if (filosofoId == GarfoSimulado.LIVRE) {
+            return;
+        }
+        if (comEsquerdo[filosofoId]) {
+            comecar(filosofoId);
+        } else {
+            pegarDireito(filosofoId);
+        }
+    }
+
+    private void comecar(int filosofoId) {
+        comEsquerdo[filosofoId] = false;
+        simulador.comecarRefeicao(filosofoId);
+    }
+}
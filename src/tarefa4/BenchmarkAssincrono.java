@@ -0,0 +1,213 @@
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark de filósofos bloqueantes contra filósofos assíncronos - Tarefa 4.
+ *
+ * PERGUNTA: Com pegarGarfosAsync, cada filósofo esperando custa um Pedido na
+ * Mesa em vez de uma thread estacionada. Quanto isso muda com mesas de
+ * 100 mil lugares?
+ *
+ * MODOS:
+ * - plataforma, virtual: um filósofo por thread de ModoExecucao, com
+ *   pegarGarfos bloqueante (o mesmo ciclo do BenchmarkExecucao)
+ * - futuros[:K]: cada filósofo é uma cadeia de continuações sobre um pool de
+ *   K threads (padrão: uma por núcleo). Pensar e comer são atrasos agendados
+ *   (delayedExecutor), sem thread dormindo, e a espera pelos garfos é o
+ *   futuro de pegarGarfosAsync
+ *
+ * O QUE É MEDIDO: as mesmas colunas do BenchmarkExecucao (início, heap e RSS
+ * descontados os de antes da rodada, threads de plataforma vivas,
+ * refeições/s e quantos comeram).
+ *
+ * USO (a partir de src/tarefa4 compilado, JDK 21 para "virtual"):
+ *   java BenchmarkAssincrono --filosofos=10000,100000 --modos=plataforma,virtual,futuros:4
+ *
+ * PARÂMETROS:
+ *   --protocolo   Mesa ou MesaArrendada (padrão Mesa)
+ *   --filosofos   tamanhos de mesa, separados por vírgula (padrão 10000,100000)
+ *   --modos       separados por vírgula (padrão plataforma,virtual,futuros)
+ *   --pensar, --comer   ver DistribuicaoTempo (padrão 1000-3000ms)
+ *   --medicao     duração em ms após o início (padrão 5000)
+ */
+public class BenchmarkAssincrono {
+    private static final String FUTUROS = "futuros";
+    // DECISÃO: Prazo para as cadeias pararem: quem está esperando garfos só
+    // para depois de comer, e a espera pode atravessar vários vizinhos comendo
+    // 1 a 3 s cada
+    private static final long ESPERA_FIM_MS = 30000;
+
+    public static void main(String[] args) throws Exception {
+        Argumentos argumentos = new Argumentos(args);
+        String protocolo = argumentos.getString("protocolo", "Mesa");
+        List<Integer> tamanhos = argumentos.getListaInt("filosofos", "10000,100000");
+        String[] modos = argumentos.getString("modos", "plataforma,virtual,futuros").split(",");
+        DistribuicaoTempo pensar = DistribuicaoTempo.parse(argumentos.getString("pensar", "1000-3000ms"));
+        DistribuicaoTempo comer = DistribuicaoTempo.parse(argumentos.getString("comer", "1000-3000ms"));
+        long medicaoMs = argumentos.getLong("medicao", 5000);
+
+        System.out.println("=== Benchmark assincrono " + protocolo + " (pensar=" + pensar + " comer=" + comer
+                + ", medicao " + medicaoMs + " ms, JDK " + System.getProperty("java.version") + ") ===");
+        BenchmarkExecucao.imprimirCabecalho();
+        for (int n : tamanhos) {
+            for (String texto : modos) {
+                String modo = texto.trim();
+                if (ModoExecucao.VIRTUAL.equals(modo) && !ModoExecucao.suportaThreadsVirtuais()) {
+                    System.out.println(String.format("%-12s %7d  (threads virtuais exigem JDK 21)", modo, n));
+                    continue;
+                }
+                ProtocoloGarfos protocoloGarfos = Benchmark.criar(protocolo, n);
+                if (!(protocoloGarfos instanceof Mesa)) {
+                    throw new IllegalArgumentException("pegarGarfosAsync so existe na Mesa: " + protocolo);
+                }
+                Mesa mesa = (Mesa) protocoloGarfos;
+                BenchmarkExecucao.medir(modo.startsWith(FUTUROS) ? new Futuros(mesa, modo, pensar, comer)
+                        : new BenchmarkExecucao.Bloqueantes(mesa, modo, pensar, comer), medicaoMs);
+            }
+        }
+    }
+
+    private static int tamanhoPool(String modo) {
+        int doisPontos = modo.indexOf(':');
+        return doisPontos < 0 ? Runtime.getRuntime().availableProcessors()
+                : Integer.parseInt(modo.substring(doisPontos + 1));
+    }
+
+    /**
+     * Os filósofos de uma rodada como cadeias de continuações sobre um pool.
+     */
+    private static class Futuros implements BenchmarkExecucao.Comensais {
+        private final Mesa mesa;
+        private final String modo;
+        private final DistribuicaoTempo pensar;
+        private final DistribuicaoTempo comer;
+        private final AtomicBoolean ativo;
+        private CountDownLatch terminados;
+        private ExecutorService pool;
+
+        Futuros(Mesa mesa, String modo, DistribuicaoTempo pensar, DistribuicaoTempo comer) {
+            this.mesa = mesa;
+            this.modo = modo;
+            this.pensar = pensar;
+            this.comer = comer;
+            this.ativo = new AtomicBoolean(true);
+        }
+
+        @Override
+        public String getModo() {
+            return modo;
+        }
+
+        @Override
+        public int getNumFilosofos() {
+            return mesa.getNumFilosofos();
+        }
+
+        @Override
+        public int capacidade() {
+            return mesa.getNumFilosofos();
+        }
+
+        @Override
+        public void iniciar(CountDownLatch iniciados, AtomicLong refeicoes, boolean[] comeu) {
+            int n = mesa.getNumFilosofos();
+            terminados = new CountDownLatch(n);
+            pool = Executors.newFixedThreadPool(tamanhoPool(modo), ModoExecucao.fabricaPlataforma("futuro-"));
+            for (int i = 0; i < n; i++) {
+                new Comensal(mesa, i, pensar, comer, pool, ativo, iniciados, terminados, refeicoes, comeu).iniciar();
+            }
+        }
+
+        /**
+         * DECISÃO: As cadeias param sozinhas na próxima volta e soltam os
+         * garfos, o que completa os pedidos dos vizinhos.
+         */
+        @Override
+        public boolean encerrar() throws InterruptedException {
+            ativo.set(false);
+            boolean terminou = terminados.await(ESPERA_FIM_MS, TimeUnit.MILLISECONDS);
+            pool.shutdownNow();
+            return terminou;
+        }
+    }
+
+    /**
+     * Filósofo como cadeia de continuações: pensar, pegarGarfosAsync, comer,
+     * soltarGarfos, e de novo, sem nunca bloquear uma thread do pool.
+     *
+     * DECISÃO: ThreadLocalRandom em vez de um Random por filósofo - a cadeia
+     * troca de thread a cada passo, e 100 mil Random seriam só memória.
+     */
+    private static class Comensal {
+        private final Mesa mesa;
+        private final int assento;
+        private final DistribuicaoTempo pensar;
+        private final DistribuicaoTempo comer;
+        private final ExecutorService pool;
+        private final AtomicBoolean ativo;
+        private final CountDownLatch iniciados;
+        private final CountDownLatch terminados;
+        private final AtomicLong refeicoes;
+        private final boolean[] comeu;
+
+        Comensal(Mesa mesa, int assento, DistribuicaoTempo pensar, DistribuicaoTempo comer, ExecutorService pool,
+                 AtomicBoolean ativo, CountDownLatch iniciados, CountDownLatch terminados, AtomicLong refeicoes, boolean[] comeu) {
+            this.mesa = mesa;
+            this.assento = assento;
+            this.pensar = pensar;
+            this.comer = comer;
+            this.pool = pool;
+            this.ativo = ativo;
+            this.iniciados = iniciados;
+            this.terminados = terminados;
+            this.refeicoes = refeicoes;
+            this.comeu = comeu;
+        }
+
+        void iniciar() {
+            pool.execute(() -> {
+                iniciados.countDown();
+                pensar();
+            });
+        }
+
+        private void pensar() {
+            if (!ativo.get()) {
+                terminados.countDown();
+                return;
+            }
+            depois(pensar, this::pedir);
+        }
+
+        private void pedir() {
+            // DECISÃO: thenRunAsync no pool - o futuro é completado por quem
+            // soltou os garfos, e a refeição não deve rodar na thread dele
+            mesa.pegarGarfosAsync(assento).thenRunAsync(this::comer, pool);
+        }
+
+        private void comer() {
+            refeicoes.incrementAndGet();
+            comeu[assento] = true;
+            depois(comer, () -> {
+                mesa.soltarGarfos(assento);
+                pensar();
+            });
+        }
+
+        private void depois(DistribuicaoTempo tempo, Runnable acao) {
+            long nanos = tempo.sortear(ThreadLocalRandom.current());
+            if (nanos <= 0) {
+                pool.execute(acao);
+            } else {
+                CompletableFuture.delayedExecutor(nanos, TimeUnit.NANOSECONDS, pool).execute(acao);
+            }
+        }
+    }
+}
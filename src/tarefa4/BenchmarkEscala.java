@@ -0,0 +1,162 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmark de escalabilidade da Mesa única contra a MesaParticionada - Tarefa 4.
+ *
+ * DECISÃO DE DESIGN: A mesa tem tamanho fixo e o número de threads varia de 1
+ * até o número de núcleos. Cada thread atende vários assentos em rodízio
+ * (assentos k, k+T, k+2T, ...), então todos os assentos continuam comendo:
+ * com assentos ociosos a regra de fairness faria os ativos cederem a vez a
+ * quem nunca come (ver README). Assentos vizinhos são sempre de threads
+ * diferentes, o que mantém a disputa pelos garfos, inclusive nas fronteiras
+ * entre segmentos.
+ *
+ * USO (a partir de src/tarefa4 compilado):
+ *   java BenchmarkEscala --filosofos=1024 --threads=1,2,4,8,16,32
+ *
+ * PARÂMETROS:
+ *   --filosofos   tamanho da mesa (padrão 1024)
+ *   --threads     threads, separadas por vírgula (padrão 1, 2, 4, ... até o número de núcleos)
+ *   --protocolos  classes comparadas (padrão Mesa,MesaParticionada)
+ *   --comer       ver DistribuicaoTempo (padrão 0)
+ *   --aquecimento, --medicao   duração em ms (padrão 1000 e 2000)
+ *   --iteracoes   repetições por combinação (padrão 3)
+ */
+public class BenchmarkEscala {
+    private static final int AQUECENDO = 0;
+    private static final int MEDINDO = 1;
+    private static final int ENCERRADO = 2;
+
+    public static void main(String[] args) throws Exception {
+        Argumentos argumentos = new Argumentos(args);
+        int n = argumentos.getInt("filosofos", 1024);
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        List<Integer> threads = argumentos.getListaInt("threads", threadsPadrao(nucleos));
+        String[] protocolos = argumentos.getString("protocolos", "Mesa,MesaParticionada").split(",");
+        DistribuicaoTempo comer = DistribuicaoTempo.parse(argumentos.getString("comer", "0"));
+        long aquecimentoMs = argumentos.getLong("aquecimento", 1000);
+        long medicaoMs = argumentos.getLong("medicao", 2000);
+        int iteracoes = argumentos.getInt("iteracoes", 3);
+
+        System.out.println("=== Benchmark de escala (N=" + n + ", " + nucleos + " nucleos, comer=" + comer + ") ===");
+        System.out.println(String.format("%-30s %5s %14s %10s %10s", "protocolo", "T", "ops/s", "desvio", "speedup"));
+        for (String protocolo : protocolos) {
+            double base = 0;
+            for (int t : threads) {
+                if (t < 1 || t > n) {
+                    continue;
+                }
+                double[] vazoes = new double[iteracoes];
+                String nome = protocolo;
+                for (int it = 0; it < iteracoes; it++) {
+                    ProtocoloGarfos mesa = Benchmark.criar(protocolo.trim(), n);
+                    nome = mesa.getNome();
+                    vazoes[it] = executar(mesa, t, DistribuicaoTempo.zero(), comer, aquecimentoMs, medicaoMs);
+                }
+                double media = RelatorioEstatisticas.media(vazoes);
+                // DECISÃO: Speedup relativo à primeira contagem de threads da lista
+                if (base == 0) {
+                    base = media;
+                }
+                System.out.println(String.format("%-30s %5d %14.0f %10.0f %9.2fx",
+                        nome, t, media, RelatorioEstatisticas.desvio(vazoes), media / base));
+            }
+        }
+    }
+
+    private static String threadsPadrao(int nucleos) {
+        StringBuilder lista = new StringBuilder();
+        for (int t = 1; t < nucleos; t *= 2) {
+            lista.append(t).append(',');
+        }
+        return lista.append(nucleos).toString();
+    }
+
+    /**
+     * Uma medição com T threads em rodízio sobre os assentos; devolve ops/s.
+     *
+     * DECISÃO: Também usado pelo BenchmarkGrafo, que precisa do tempo de pensar.
+     */
+    static double executar(ProtocoloGarfos mesa, int numThreads, DistribuicaoTempo pensar,
+                           DistribuicaoTempo comer, long aquecimentoMs, long medicaoMs)
+            throws InterruptedException {
+        AtomicInteger fase = new AtomicInteger(AQUECENDO);
+        List<Trabalhador> trabalhadores = new ArrayList<>();
+        for (int k = 0; k < numThreads; k++) {
+            Trabalhador trabalhador = new Trabalhador(mesa, k, numThreads, fase, pensar, comer);
+            trabalhadores.add(trabalhador);
+            trabalhador.start();
+        }
+        Thread.sleep(aquecimentoMs);
+        fase.set(MEDINDO);
+        long inicio = System.nanoTime();
+        Thread.sleep(medicaoMs);
+        fase.set(ENCERRADO);
+        long fim = System.nanoTime();
+
+        long operacoes = 0;
+        for (Trabalhador trabalhador : trabalhadores) {
+            trabalhador.interrupt();
+        }
+        for (Trabalhador trabalhador : trabalhadores) {
+            trabalhador.join();
+            operacoes += trabalhador.operacoes;
+        }
+        return operacoes / ((fim - inicio) / 1e9);
+    }
+
+    /**
+     * Thread que atende os assentos primeiro, primeiro+passo, ... em rodízio.
+     */
+    private static class Trabalhador extends Thread {
+        private final ProtocoloGarfos mesa;
+        private final int primeiro;
+        private final int passo;
+        private final AtomicInteger fase;
+        private final DistribuicaoTempo pensar;
+        private final DistribuicaoTempo comer;
+        private final Random random;
+        private long operacoes;
+
+        Trabalhador(ProtocoloGarfos mesa, int primeiro, int passo, AtomicInteger fase,
+                    DistribuicaoTempo pensar, DistribuicaoTempo comer) {
+            super("escala-" + primeiro);
+            this.mesa = mesa;
+            this.primeiro = primeiro;
+            this.passo = passo;
+            this.fase = fase;
+            this.pensar = pensar;
+            this.comer = comer;
+            this.random = new Random();
+        }
+
+        @Override
+        public void run() {
+            int n = mesa.getNumFilosofos();
+            int assento = primeiro;
+            try {
+                while (fase.get() != ENCERRADO) {
+                    pensar.pausar(random);
+                    mesa.pegarGarfos(assento);
+                    try {
+                        comer.pausar(random);
+                    } finally {
+                        mesa.soltarGarfos(assento);
+                    }
+                    if (fase.get() == MEDINDO) {
+                        operacoes++;
+                    }
+                    assento += passo;
+                    if (assento >= n) {
+                        assento = primeiro;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Benchmark do tempo de posse do lock da Mesa na decisão de fairness - Tarefa 4.
+ *
+ * DECISÃO DE DESIGN: Compara, no mesmo estado de mesa, a decisão antiga
+ * (varredura linear de podeComer com currentTimeMillis a cada volta) com a
+ * atual (HeapRefeicoes com uma leitura de nanoTime). Cada amostra é o tempo
+ * entre adquirir e soltar o lock: verificação de fairness mais a atualização
+ * da última refeição, exatamente o trabalho feito sob o lock em pegarGarfos.
+ *
+ * DECISÃO: Os instantes de última refeição são sorteados em uma janela de
+ * 1,5 s, menor que a diferença de 2 s da regra de prioridade. Ninguém é
+ * adiado e a varredura linear percorre a mesa inteira, que é o regime normal
+ * de uma mesa justa (e o pior caso da versão antiga).
+ *
+ * USO (a partir de src/tarefa4 compilado):
+ *   java BenchmarkEscalonador --filosofos=1000,4000,16000 --decisoes=20000
+ */
+public class BenchmarkEscalonador {
+    private static final long ESPERA_MAXIMA_MS = 5000;
+    private static final long DIFERENCA_PRIORIDADE_MS = 2000;
+    private static final long JANELA_MS = 1500;
+
+    public static void main(String[] args) {
+        Argumentos argumentos = new Argumentos(args);
+        List<Integer> tamanhos = argumentos.getListaInt("filosofos", "1000,4000,16000");
+        int decisoes = argumentos.getInt("decisoes", 20000);
+        int iteracoes = argumentos.getInt("iteracoes", 3);
+
+        System.out.println("=== Benchmark do escalonador de fairness (tempo com o lock, ns) ===");
+        System.out.println(String.format("%-8s %8s %10s %10s %10s %10s", "versao", "N", "media", "p50", "p99", "max"));
+        for (int n : tamanhos) {
+            // DECISÃO: A primeira iteração é aquecimento do JIT e não é reportada
+            Histograma linear = new Histograma();
+            Histograma heap = new Histograma();
+            for (int it = 0; it <= iteracoes; it++) {
+                Histograma l = medirLinear(n, decisoes);
+                Histograma h = medirHeap(n, decisoes);
+                if (it > 0) {
+                    linear.combinar(l);
+                    heap.combinar(h);
+                }
+            }
+            imprimir("linear", n, linear);
+            imprimir("heap", n, heap);
+        }
+    }
+
+    private static void imprimir(String versao, int n, Histograma h) {
+        System.out.println(String.format("%-8s %8d %10.0f %10d %10d %10d",
+                versao, n, h.getMedia(), h.percentil(50), h.percentil(99), h.getMaximo()));
+    }
+
+    /**
+     * Versão anterior: laço sobre todos os filósofos, relógio lido a cada volta.
+     */
+    private static Histograma medirLinear(int n, int decisoes) {
+        Random random = new Random(42);
+        long[] ultimaVezComeu = new long[n];
+        long agora = System.currentTimeMillis();
+        for (int i = 0; i < n; i++) {
+            ultimaVezComeu[i] = agora - random.nextInt((int) JANELA_MS);
+        }
+        ReentrantLock lock = new ReentrantLock();
+        Histograma tempos = new Histograma();
+        for (int d = 0; d < decisoes; d++) {
+            int filosofoId = random.nextInt(n);
+            lock.lock();
+            long inicio = System.nanoTime();
+            try {
+                if (podeComerLinear(ultimaVezComeu, filosofoId)) {
+                    ultimaVezComeu[filosofoId] = System.currentTimeMillis();
+                }
+            } finally {
+                long fim = System.nanoTime();
+                lock.unlock();
+                tempos.registrar(fim - inicio);
+            }
+            // DECISÃO: Mantém a janela de 1,5 s andando junto com o relógio,
+            // senão com o tempo todos passariam da espera máxima de 5 s
+            if ((d & 1023) == 0) {
+                rejuvenescer(ultimaVezComeu, System.currentTimeMillis(), random);
+            }
+        }
+        return tempos;
+    }
+
+    private static boolean podeComerLinear(long[] ultimaVezComeu, int filosofoId) {
+        long tempoEspera = System.currentTimeMillis() - ultimaVezComeu[filosofoId];
+        if (tempoEspera > ESPERA_MAXIMA_MS) {
+            return true;
+        }
+        for (int i = 0; i < ultimaVezComeu.length; i++) {
+            if (i != filosofoId) {
+                long tempoEsperaOutro = System.currentTimeMillis() - ultimaVezComeu[i];
+                if (tempoEsperaOutro > tempoEspera + DIFERENCA_PRIORIDADE_MS) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Versão atual: HeapRefeicoes e uma leitura de nanoTime por decisão.
+     */
+    private static Histograma medirHeap(int n, int decisoes) {
+        Random random = new Random(42);
+        long esperaMaxima = TimeUnit.MILLISECONDS.toNanos(ESPERA_MAXIMA_MS);
+        long diferenca = TimeUnit.MILLISECONDS.toNanos(DIFERENCA_PRIORIDADE_MS);
+        long janela = TimeUnit.MILLISECONDS.toNanos(JANELA_MS);
+        HeapRefeicoes ultimaVezComeu = new HeapRefeicoes(n, System.nanoTime());
+        rejuvenescer(ultimaVezComeu, n, System.nanoTime(), janela, random);
+        ReentrantLock lock = new ReentrantLock();
+        Histograma tempos = new Histograma();
+        for (int d = 0; d < decisoes; d++) {
+            int filosofoId = random.nextInt(n);
+            lock.lock();
+            long inicio = System.nanoTime();
+            try {
+                long agora = System.nanoTime();
+                long tempoEspera = agora - ultimaVezComeu.getUltimaRefeicao(filosofoId);
+                long menorOutro = ultimaVezComeu.menorExceto(filosofoId);
+                boolean pode = tempoEspera > esperaMaxima
+                        || menorOutro == Long.MAX_VALUE
+                        || agora - menorOutro <= tempoEspera + diferenca;
+                if (pode) {
+                    ultimaVezComeu.registrar(filosofoId, agora);
+                }
+            } finally {
+                long fim = System.nanoTime();
+                lock.unlock();
+                tempos.registrar(fim - inicio);
+            }
+            if ((d & 1023) == 0) {
+                rejuvenescer(ultimaVezComeu, n, System.nanoTime(), janela, random);
+            }
+        }
+        return tempos;
+    }
+
+    /**
+     * Sorteia de novo, dentro da janela, quem ficou para trás dela.
+     */
+    private static void rejuvenescer(long[] ultimaVezComeu, long agora, Random random) {
+        for (int i = 0; i < ultimaVezComeu.length; i++) {
+            if (agora - ultimaVezComeu[i] >= JANELA_MS) {
+                ultimaVezComeu[i] = agora - random.nextInt((int) JANELA_MS);
+            }
+        }
+    }
+
+    private static void rejuvenescer(HeapRefeicoes ultimaVezComeu, int n, long agora, long janela, Random random) {
+        for (int i = 0; i < n; i++) {
+            if (agora - ultimaVezComeu.getUltimaRefeicao(i) >= janela) {
+                ultimaVezComeu.registrar(i, agora - (long) (random.nextDouble() * janela));
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Benchmark da MesaGrafo em várias topologias - Tarefa 4.
+ *
+ * DECISÃO DE DESIGN: A medição é a do BenchmarkEscala (aquecimento, medição,
+ * iterações com média e desvio), chamada para cada topologia. Cada linha é uma
+ * topologia, com o grau médio e máximo ao lado da vazão, para mostrar como a
+ * vazão cai quando cada filósofo precisa de mais recursos e disputa com mais
+ * vizinhos. Com T menor que N, cada thread atende os assentos k, k+T, ... em
+ * rodízio, como no BenchmarkEscala.
+ *
+ * O QUE É MEDIDO:
+ * - ops/s: conjuntos completos adquiridos e soltos por segundo
+ * - recursos/s: ops/s vezes o grau médio (recursos adquiridos por segundo)
+ *
+ * USO (a partir de src/tarefa4 compilado):
+ *   java BenchmarkGrafo --filosofos=1024 --topologias=anel,grade,aleatorio:8,clique:16
+ *
+ * PARÂMETROS:
+ *   --filosofos   nós do grafo (padrão 1024)
+ *   --topologias  separadas por vírgula, ver GrafoRecursos (padrão anel, grade,
+ *                 aleatorio:2 a aleatorio:16 e clique:4, clique:16)
+ *   --threads     threads, separadas por vírgula; "N" = uma por filósofo (padrão N)
+ *   --pensar, --comer   ver DistribuicaoTempo (padrão 0 e 10us)
+ *   --aquecimento, --medicao   duração em ms (padrão 1000 e 2000)
+ *   --iteracoes   repetições por combinação (padrão 3)
+ */
+public class BenchmarkGrafo {
+    private static final String TOPOLOGIAS_PADRAO =
+            "anel,grade,aleatorio:2,aleatorio:4,aleatorio:8,aleatorio:16,clique:4,clique:16";
+
+    public static void main(String[] args) throws Exception {
+        Argumentos argumentos = new Argumentos(args);
+        int n = argumentos.getInt("filosofos", 1024);
+        String[] topologias = argumentos.getString("topologias", TOPOLOGIAS_PADRAO).split(",");
+        String threads = argumentos.getString("threads", "N");
+        DistribuicaoTempo pensar = DistribuicaoTempo.parse(argumentos.getString("pensar", "0"));
+        DistribuicaoTempo comer = DistribuicaoTempo.parse(argumentos.getString("comer", "10us"));
+        long aquecimentoMs = argumentos.getLong("aquecimento", 1000);
+        long medicaoMs = argumentos.getLong("medicao", 2000);
+        int iteracoes = argumentos.getInt("iteracoes", 3);
+
+        System.out.println("=== Benchmark de grafos (N=" + n + ", " + Runtime.getRuntime().availableProcessors()
+                + " nucleos, pensar=" + pensar + ", comer=" + comer + ") ===");
+        System.out.println(String.format("%-14s %9s %9s %9s %6s %14s %10s %14s",
+                "topologia", "recursos", "grau med", "grau max", "T", "ops/s", "desvio", "recursos/s"));
+        for (String topologia : topologias) {
+            GrafoRecursos grafo = GrafoRecursos.parse(topologia, n);
+            for (String texto : threads.split(",")) {
+                int t = "N".equalsIgnoreCase(texto.trim()) ? n : Integer.parseInt(texto.trim());
+                if (t < 1 || t > n) {
+                    continue;
+                }
+                double[] vazoes = new double[iteracoes];
+                for (int it = 0; it < iteracoes; it++) {
+                    vazoes[it] = BenchmarkEscala.executar(new MesaGrafo(grafo), t, pensar, comer,
+                            aquecimentoMs, medicaoMs);
+                }
+                double media = RelatorioEstatisticas.media(vazoes);
+                System.out.println(String.format("%-14s %9d %9.1f %9d %6d %14.0f %10.0f %14.0f",
+                        grafo.getNome(), grafo.getNumRecursos(), grafo.getGrauMedio(), grafo.getGrauMaximo(),
+                        t, media, RelatorioEstatisticas.desvio(vazoes), media * grafo.getGrauMedio()));
+            }
+        }
+    }
+}
@@ -19,13 +19,17 @@ import java.util.Random;
  * - Tarefa 1-3: Filósofo gerencia garfos diretamente
  * - Tarefa 4: Filósofo delega para Mesa (padrão de design mais limpo)
  */
-public class Filosofo extends Thread {
+public class Filosofo implements Runnable {
     private final int id;
     // DECISÃO: Referência à Mesa em vez de garfos individuais
-    // Abstrai a complexidade da gestão de recursos
-    private final Mesa mesa;
+    // Abstrai a complexidade da gestão de recursos. Tipada pelo contrato
+    // ProtocoloGarfos para aceitar tanto a Mesa única quanto a MesaParticionada
+    private final ProtocoloGarfos mesa;
     private final Random random;
-    private int vezesComeu;
+    private final DistribuicaoTempo tempoPensar;
+    private final DistribuicaoTempo tempoComer;
+    private final EstatisticasFilosofo estatisticas;
+    private final BufferEventos eventos;
 
     /**
      * Construtor do filósofo.
@@ -33,11 +37,14 @@ public class Filosofo extends Thread {
      * DECISÃO: Recebe apenas a Mesa, não garfos individuais.
      * A Mesa gerencia quais garfos pertencem a cada filósofo.
      */
-    public Filosofo(int id, Mesa mesa) {
+    public Filosofo(int id, ProtocoloGarfos mesa, DistribuicaoTempo tempoPensar, DistribuicaoTempo tempoComer, RegistroEventos registro) {
         this.id = id;
         this.mesa = mesa;
         this.random = new Random();
-        this.vezesComeu = 0;
+        this.tempoPensar = tempoPensar;
+        this.tempoComer = tempoComer;
+        this.estatisticas = new EstatisticasFilosofo();
+        this.eventos = registro.criarBuffer(id);
     }
 
     /**
@@ -59,9 +66,9 @@ public class Filosofo extends Thread {
     }
 
     private void pensar() throws InterruptedException {
-        int tempo = 1000 + random.nextInt(2000);
-        log("comecou a pensar");
-        Thread.sleep(tempo);
+        long tempo = tempoPensar.sortear(random);
+        log(Evento.PENSANDO, Evento.SEM_GARFO);
+        DistribuicaoTempo.pausarNanos(tempo);
     }
 
     /**
@@ -82,23 +89,30 @@ public class Filosofo extends Thread {
      * A Mesa implementa lógica de prevenção de starvation internamente.
      */
     private void comer() throws InterruptedException {
+        long inicioEspera = System.nanoTime();
         // DECISÃO: Método único pegarGarfos() em vez de pegar garfos separadamente
         // A Mesa decide quando permitir que o filósofo pegue seus garfos
-        log("tentando pegar os garfos");
+        log(Evento.TENTANDO_GARFOS, Evento.SEM_GARFO);
         mesa.pegarGarfos(id); // Bloqueia até conseguir ambos os garfos
-        log("pegou os garfos e comecou a comer");
+        log(Evento.PEGOU_GARFOS, Evento.SEM_GARFO);
 
-        int tempo = 1000 + random.nextInt(2000);
-        vezesComeu++;
-        Thread.sleep(tempo);
+        long tempo = tempoComer.sortear(random);
+        estatisticas.registrarRefeicao(System.nanoTime() - inicioEspera, tempo);
+        DistribuicaoTempo.pausarNanos(tempo);
 
         // DECISÃO: Método único soltarGarfos() libera ambos os garfos
         mesa.soltarGarfos(id);
-        log("terminou de comer e soltou os garfos");
+        log(Evento.SOLTOU_GARFOS, Evento.SEM_GARFO);
     }
 
-    private void log(String mensagem) {
-        System.out.println("Filosofo " + id + ": " + mensagem);
+    /**
+     * Registra um evento no buffer próprio do filósofo.
+     *
+     * DECISÃO: Sem String nem System.out no caminho quente - a formatação é
+     * feita em lote pelo drenador do RegistroEventos.
+     */
+    private void log(int evento, int garfoId) {
+        eventos.registrar(evento, garfoId);
     }
 
     public int getFilosofoId() {
@@ -106,7 +120,11 @@ public class Filosofo extends Thread {
     }
 
     public int getVezesComeu() {
-        return vezesComeu;
+        return estatisticas.getRefeicoes();
+    }
+
+    public EstatisticasFilosofo getEstatisticas() {
+        return estatisticas;
     }
 }
 
@@ -0,0 +1,204 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Quais recursos cada filósofo precisa para comer - Tarefa 4 (MesaGrafo).
+ *
+ * PROBLEMA DO ANEL:
+ * Todas as tarefas supõem que o filósofo i usa os garfos i e i+1. No problema
+ * dos filósofos bebedores (Chandy e Misra) cada um precisa de um conjunto
+ * qualquer de recursos compartilhados, e o grafo de conflitos (quem disputa
+ * recurso com quem) pode ter qualquer forma.
+ *
+ * DECISÃO DE DESIGN: O grafo é guardado só como "filósofo -> ids dos seus
+ * recursos", em ordem crescente e sem repetição. É o que a MesaGrafo precisa
+ * (a ordem crescente é a ordem global de aquisição) e ocupa memória
+ * proporcional à soma dos graus, então grafos esparsos de milhares de nós
+ * custam pouco.
+ *
+ * TOPOLOGIAS PRONTAS (parse): um recurso por aresta do grafo de conflitos, e
+ * cada filósofo precisa dos recursos de todas as suas arestas, então o número
+ * de recursos de um filósofo é o seu grau.
+ * - anel: o jantar clássico; o filósofo i usa os garfos i e (i+1) mod n
+ * - grade: nós em linhas de ceil(sqrt(n)), vizinhos à direita e abaixo (grau até 4)
+ * - aleatorio:D: n*D/2 arestas sorteadas entre pares distintos (grau médio D)
+ * - clique:K: grupos de K filósofos consecutivos, todos contra todos (grau K-1)
+ *
+ * DECISÃO: O sorteio usa uma semente fixa, para que execuções e benchmarks
+ * com a mesma topologia usem o mesmo grafo.
+ */
+public final class GrafoRecursos {
+    private static final long SEMENTE = 42;
+
+    private final String nome;
+    private final int numRecursos;
+    private final int[][] recursos;
+
+    /**
+     * Grafo com conjuntos de recursos arbitrários.
+     *
+     * @param recursos recursos[i] = ids (entre 0 e numRecursos - 1) que o filósofo i precisa
+     */
+    public GrafoRecursos(String nome, int numRecursos, int[][] recursos) {
+        this.nome = nome;
+        this.numRecursos = numRecursos;
+        this.recursos = new int[recursos.length][];
+        for (int i = 0; i < recursos.length; i++) {
+            int[] conjunto = Arrays.stream(recursos[i]).distinct().sorted().toArray();
+            for (int r : conjunto) {
+                if (r < 0 || r >= numRecursos) {
+                    throw new IllegalArgumentException("Recurso invalido para o filosofo " + i + ": " + r);
+                }
+            }
+            this.recursos[i] = conjunto;
+        }
+    }
+
+    /**
+     * Cria a topologia a partir do texto de --topologia.
+     */
+    public static GrafoRecursos parse(String texto, int numFilosofos) {
+        String t = texto.trim();
+        int doisPontos = t.indexOf(':');
+        String tipo = doisPontos < 0 ? t : t.substring(0, doisPontos);
+        boolean temParametro = doisPontos >= 0;
+        int parametro = temParametro ? Integer.parseInt(t.substring(doisPontos + 1)) : 0;
+        switch (tipo) {
+            case "anel":
+                return anel(numFilosofos);
+            case "grade":
+                return grade(numFilosofos);
+            case "aleatorio":
+                if (temParametro && parametro < 0) {
+                    throw new IllegalArgumentException("Topologia invalida: " + texto + " (o grau D deve ser >= 0)");
+                }
+                return aleatorio(numFilosofos, temParametro ? parametro : 4);
+            case "clique":
+                // DECISÃO: K < 1 nunca avançaria de um grupo para o seguinte em cliques()
+                if (temParametro && parametro < 1) {
+                    throw new IllegalArgumentException("Topologia invalida: " + texto + " (o tamanho K deve ser >= 1)");
+                }
+                return cliques(numFilosofos, temParametro ? parametro : numFilosofos);
+            default:
+                throw new IllegalArgumentException("Topologia invalida: " + texto
+                        + " (use anel, grade, aleatorio:D ou clique:K)");
+        }
+    }
+
+    public static GrafoRecursos anel(int numFilosofos) {
+        int[][] recursos = new int[numFilosofos][];
+        for (int i = 0; i < numFilosofos; i++) {
+            recursos[i] = new int[] {i, (i + 1) % numFilosofos};
+        }
+        return new GrafoRecursos("anel", numFilosofos, recursos);
+    }
+
+    public static GrafoRecursos grade(int numFilosofos) {
+        int largura = (int) Math.ceil(Math.sqrt(numFilosofos));
+        List<int[]> arestas = new ArrayList<>();
+        for (int v = 0; v < numFilosofos; v++) {
+            if ((v + 1) % largura != 0 && v + 1 < numFilosofos) {
+                arestas.add(new int[] {v, v + 1});
+            }
+            if (v + largura < numFilosofos) {
+                arestas.add(new int[] {v, v + largura});
+            }
+        }
+        return porArestas("grade", numFilosofos, arestas);
+    }
+
+    public static GrafoRecursos aleatorio(int numFilosofos, int grauMedio) {
+        long possiveis = (long) numFilosofos * (numFilosofos - 1) / 2;
+        long numArestas = Math.min(possiveis, (long) numFilosofos * grauMedio / 2);
+        Random random = new Random(SEMENTE);
+        Set<Long> sorteadas = new HashSet<>();
+        List<int[]> arestas = new ArrayList<>();
+        while (arestas.size() < numArestas) {
+            int u = random.nextInt(numFilosofos);
+            int v = random.nextInt(numFilosofos);
+            if (u == v) {
+                continue;
+            }
+            // DECISÃO: Chave do par sem ordem, para não sortear a mesma aresta duas vezes
+            long chave = (long) Math.min(u, v) * numFilosofos + Math.max(u, v);
+            if (sorteadas.add(chave)) {
+                arestas.add(new int[] {u, v});
+            }
+        }
+        return porArestas("aleatorio:" + grauMedio, numFilosofos, arestas);
+    }
+
+    public static GrafoRecursos cliques(int numFilosofos, int tamanho) {
+        List<int[]> arestas = new ArrayList<>();
+        for (int inicio = 0; inicio < numFilosofos; inicio += tamanho) {
+            int fim = Math.min(numFilosofos, inicio + tamanho);
+            for (int u = inicio; u < fim; u++) {
+                for (int v = u + 1; v < fim; v++) {
+                    arestas.add(new int[] {u, v});
+                }
+            }
+        }
+        return porArestas("clique:" + tamanho, numFilosofos, arestas);
+    }
+
+    /**
+     * Um recurso por aresta; cada extremo da aresta precisa dele.
+     */
+    private static GrafoRecursos porArestas(String nome, int numFilosofos, List<int[]> arestas) {
+        int[] grau = new int[numFilosofos];
+        for (int[] aresta : arestas) {
+            grau[aresta[0]]++;
+            grau[aresta[1]]++;
+        }
+        int[][] recursos = new int[numFilosofos][];
+        for (int i = 0; i < numFilosofos; i++) {
+            recursos[i] = new int[grau[i]];
+            grau[i] = 0;
+        }
+        for (int r = 0; r < arestas.size(); r++) {
+            int[] aresta = arestas.get(r);
+            recursos[aresta[0]][grau[aresta[0]]++] = r;
+            recursos[aresta[1]][grau[aresta[1]]++] = r;
+        }
+        return new GrafoRecursos(nome, arestas.size(), recursos);
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public int getNumFilosofos() {
+        return recursos.length;
+    }
+
+    public int getNumRecursos() {
+        return numRecursos;
+    }
+
+    /**
+     * Recursos do filósofo em ordem crescente. O array é o interno: não alterar.
+     */
+    int[] getRecursos(int filosofoId) {
+        return recursos[filosofoId];
+    }
+
+    public double getGrauMedio() {
+        long soma = 0;
+        for (int[] conjunto : recursos) {
+            soma += conjunto.length;
+        }
+        return recursos.length == 0 ? 0 : (double) soma / recursos.length;
+    }
+
+    public int getGrauMaximo() {
+        int maximo = 0;
+        for (int[] conjunto : recursos) {
+            maximo = Math.max(maximo, conjunto.length);
+        }
+        return maximo;
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Fila de prioridade indexada pelo instante da última refeição - Tarefa 4.
+ *
+ * DECISÃO DE DESIGN: A regra dos 2000 ms da Mesa pergunta "existe outro
+ * filósofo que comeu pela última vez há muito mais tempo que eu?". Isso é o
+ * mesmo que comparar com o MENOR instante de última refeição entre os outros.
+ * Um min-heap responde essa pergunta olhando a raiz (ou, se a raiz for o
+ * próprio filósofo, o menor dos seus dois filhos): O(1) por decisão, em vez
+ * da varredura O(N) de podeComer().
+ *
+ * DECISÃO: Heap indexado (posicao[id] guarda onde cada filósofo está), para
+ * que atualizar o instante de um filósofo específico custe O(log N).
+ * Como o instante só aumenta quando o filósofo come, basta descer no heap.
+ *
+ * CONCORRÊNCIA: Não é thread-safe; é usado sempre sob o lock da Mesa.
+ */
+public class HeapRefeicoes {
+    // DECISÃO: heap[k] = ID do filósofo na posição k; filhos de k em 2k+1 e 2k+2
+    private final int[] heap;
+    private final int[] posicao;
+    private final long[] ultimaRefeicao;
+
+    /**
+     * Cria o heap com todos os filósofos no mesmo instante inicial.
+     */
+    public HeapRefeicoes(int tamanho, long instanteInicial) {
+        this.heap = new int[tamanho];
+        this.posicao = new int[tamanho];
+        this.ultimaRefeicao = new long[tamanho];
+        // DECISÃO: Valores iguais já formam um heap válido em qualquer ordem
+        for (int i = 0; i < tamanho; i++) {
+            heap[i] = i;
+            posicao[i] = i;
+            ultimaRefeicao[i] = instanteInicial;
+        }
+    }
+
+    public long getUltimaRefeicao(int id) {
+        return ultimaRefeicao[id];
+    }
+
+    /**
+     * Menor instante de última refeição entre todos exceto o filósofo dado,
+     * ou Long.MAX_VALUE se ele for o único.
+     */
+    public long menorExceto(int id) {
+        if (heap[0] != id) {
+            return ultimaRefeicao[heap[0]];
+        }
+        long menor = Long.MAX_VALUE;
+        if (heap.length > 1) {
+            menor = ultimaRefeicao[heap[1]];
+        }
+        if (heap.length > 2) {
+            menor = Math.min(menor, ultimaRefeicao[heap[2]]);
+        }
+        return menor;
+    }
+
+    /**
+     * Menor instante de última refeição entre todos - O(1).
+     */
+    public long menor() {
+        return ultimaRefeicao[heap[0]];
+    }
+
+    /**
+     * Registra uma nova refeição do filósofo - O(log N).
+     */
+    public void registrar(int id, long instante) {
+        long anterior = ultimaRefeicao[id];
+        ultimaRefeicao[id] = instante;
+        if (instante >= anterior) {
+            descer(posicao[id]);
+        } else {
+            subir(posicao[id]);
+        }
+    }
+
+    private void descer(int k) {
+        int id = heap[k];
+        long valor = ultimaRefeicao[id];
+        int metade = heap.length >>> 1;
+        while (k < metade) {
+            int filho = 2 * k + 1;
+            int direito = filho + 1;
+            if (direito < heap.length && ultimaRefeicao[heap[direito]] < ultimaRefeicao[heap[filho]]) {
+                filho = direito;
+            }
+            if (valor <= ultimaRefeicao[heap[filho]]) {
+                break;
+            }
+            mover(heap[filho], k);
+            k = filho;
+        }
+        mover(id, k);
+    }
+
+    private void subir(int k) {
+        int id = heap[k];
+        long valor = ultimaRefeicao[id];
+        while (k > 0) {
+            int pai = (k - 1) >>> 1;
+            if (ultimaRefeicao[heap[pai]] <= valor) {
+                break;
+            }
+            mover(heap[pai], k);
+            k = pai;
+        }
+        mover(id, k);
+    }
+
+    private void mover(int id, int k) {
+        heap[k] = id;
+        posicao[id] = k;
+    }
+}
@@ -1,3 +1,5 @@
+import java.util.concurrent.ExecutorService;
+
 /**
  * Classe principal que implementa o problema dos Filósofos Jantando - Tarefa 4.
  * 
@@ -22,38 +24,71 @@ public class Main {
     private static final int TEMPO_EXECUCAO_MS = 120000;
 
     public static void main(String[] args) {
+        Argumentos argumentos = new Argumentos(args);
+        // DECISÃO: Mínimo 1 - as mesas tomam os dois garfos juntos, então um
+        // filósofo sozinho come com o único garfo (nas outras tarefas o mínimo é 2)
+        int numFilosofos = argumentos.getIntMinimo("filosofos", NUM_FILOSOFOS, 1);
+        String execucao = argumentos.getString("execucao", ModoExecucao.PLATAFORMA);
+        long duracaoMs = argumentos.getLong("duracao", TEMPO_EXECUCAO_MS);
+        DistribuicaoTempo tempoPensar = DistribuicaoTempo.parse(argumentos.getString("pensar", "1000-3000ms"));
+        DistribuicaoTempo tempoComer = DistribuicaoTempo.parse(argumentos.getString("comer", "1000-3000ms"));
+        InstrumentacaoMesa instrumentacao = new InstrumentacaoMesa(argumentos, "tarefa4", numFilosofos);
+        RegistroEventos registro = instrumentacao.getRegistro();
+
         // DECISÃO: Criar uma única instância de Mesa que gerencia todos os recursos
-        Mesa mesa = new Mesa(NUM_FILOSOFOS);
-        Filosofo[] filosofos = new Filosofo[NUM_FILOSOFOS];
+        // (--mesa=particionada divide a mesa em segmentos com locks próprios,
+        // --segmentos=K escolhe quantos, --mesa=arrendada mantém os garfos entre
+        // refeições enquanto nenhum vizinho os pede, --mesa=atomica guarda os garfos em
+        // bits e os toma por CAS, sem lock, --mesa=grafo dá a cada filósofo os recursos
+        // da --topologia=anel|grade|aleatorio:D|clique:K, --mesa=compacta guarda o estado
+        // fora do heap (EstadoMesaCompacto); o padrão é a Mesa única de sempre)
+        ProtocoloGarfos mesa;
+        String tipoMesa = argumentos.getString("mesa", "unica");
+        if ("particionada".equals(tipoMesa)) {
+            mesa = new MesaParticionada(numFilosofos,
+                    argumentos.getInt("segmentos", MesaParticionada.segmentosPadrao(numFilosofos)));
+        } else if ("atomica".equals(tipoMesa)) {
+            mesa = new MesaAtomica(numFilosofos);
+        } else if ("grafo".equals(tipoMesa)) {
+            mesa = new MesaGrafo(GrafoRecursos.parse(argumentos.getString("topologia", "anel"), numFilosofos));
+        } else if ("compacta".equals(tipoMesa)) {
+            mesa = new MesaCompacta(numFilosofos);
+        } else if ("arrendada".equals(tipoMesa)) {
+            mesa = new MesaArrendada(numFilosofos, instrumentacao.getPerfil());
+        } else {
+            mesa = new Mesa(numFilosofos, instrumentacao.getPerfil());
+        }
+        // DECISÃO: Só a Mesa (e a MesaArrendada, que a estende) registra no perfil
+        if (!(mesa instanceof Mesa)) {
+            instrumentacao.descartarPerfil("pela mesa " + tipoMesa);
+        }
+        instrumentacao.iniciar();
+
+        Filosofo[] filosofos = new Filosofo[numFilosofos];
+        ExecutorService executor = ModoExecucao.criarExecutor(execucao, numFilosofos, "filosofo-");
 
         // DECISÃO: Filósofos recebem apenas referência à Mesa, não aos garfos individuais
         // A Mesa abstrai a complexidade da gestão de recursos
-        for (int i = 0; i < NUM_FILOSOFOS; i++) {
-            filosofos[i] = new Filosofo(i, mesa);
-            filosofos[i].start();
+        for (int i = 0; i < numFilosofos; i++) {
+            filosofos[i] = new Filosofo(i, mesa, tempoPensar, tempoComer, registro);
+            instrumentacao.acompanhar(filosofos[i].getEstatisticas(), i);
+            executor.execute(filosofos[i]);
         }
 
         try {
-            Thread.sleep(TEMPO_EXECUCAO_MS);
+            Thread.sleep(duracaoMs);
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
 
-        System.out.println("\n=== Finalizando execucao ===");
-        for (Filosofo filosofo : filosofos) {
-            filosofo.interrupt();
-        }
-
-        try {
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+        instrumentacao.encerrar(executor);
 
-        System.out.println("\n=== Estatisticas ===");
+        EstatisticasFilosofo[] estatisticas = new EstatisticasFilosofo[numFilosofos];
         for (Filosofo filosofo : filosofos) {
-            System.out.println("Filosofo " + filosofo.getFilosofoId() + " comeu " + filosofo.getVezesComeu() + " vezes");
+            estatisticas[filosofo.getFilosofoId()] = filosofo.getEstatisticas();
         }
+        RelatorioEstatisticas.imprimir(estatisticas, duracaoMs);
+        instrumentacao.imprimirPerfil();
     }
 }
 
@@ -1,3 +1,9 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
 /**
  * Classe que gerencia a mesa e todos os garfos no problema dos Filósofos Jantando - Tarefa 4.
  * 
@@ -17,89 +23,510 @@
  * - Garante justiça (fairness) entre filósofos
  * - Previne que um filósofo fique sem comer indefinidamente
  * - Lógica centralizada facilita manutenção e testes
+ *
+ * DECISÃO: Implementa ProtocoloGarfos diretamente, pois pegarGarfos/soltarGarfos
+ * já são o contrato comum usado pelo Benchmark.
+ *
+ * DECISÃO: Acordar só quem pode prosseguir. Com um único monitor e notifyAll(),
+ * cada liberação acordava os N filósofos para que todos refizessem podeComer(),
+ * embora só os dois vizinhos dos garfos liberados pudessem comer. Agora cada
+ * filósofo espera na sua própria Condition de um ReentrantLock, e:
+ * - soltarGarfos() sinaliza apenas o vizinho esquerdo e o direito
+ * - um filósofo adiado pela fairness (garfos livres, mas outro esperou mais)
+ *   só é acordado quando alguém que podia estar bloqueando-o começa a comer,
+ *   ou pelo próprio prazo de 5s (espera com timeout)
+ * Como o ReentrantLock estaciona com LockSupport, threads virtuais também
+ * deixam de ficar presas ao carrier enquanto esperam (ver README).
+ *
+ * DECISÃO: A regra dos 2000 ms só precisa do menor instante de última
+ * refeição entre os outros filósofos, mantido em um HeapRefeicoes. A decisão
+ * de podeComer() passa de O(N) para O(1), a atualização após comer custa
+ * O(log N), e o relógio (System.nanoTime) é lido uma vez por decisão.
+ *
+ * DECISÃO: Modo arrendamento (MesaArrendada). Ao terminar de comer, o
+ * filósofo pode manter os garfos ("arrendados") se nenhum vizinho os pediu;
+ * a próxima refeição é só um CAS na sua palavra de arrendamento, sem o lock
+ * da Mesa e sem sinais. Um vizinho que precisa de um garfo arrendado o toma
+ * sob o lock (GUARDANDO -> SEM_GARFOS) ou, se o dono está comendo, marca o
+ * pedido (COMENDO -> COMENDO_PEDIDO), o que obriga o dono a soltar pelo
+ * caminho normal ao terminar. Ver os estados abaixo.
+ *
+ * DECISÃO: Com PerfilGarfos (--perfil-garfos), cada garfo conta como disputado
+ * se estava ocupado em alguma verificação antes de o filósofo conseguir os
+ * dois, e recebe todo o tempo dessa espera. Espera só pela fairness, com os
+ * dois garfos livres, não é disputa de garfo e não entra no perfil. A
+ * refeição pelo caminho rápido do arrendamento conta como aquisição sem disputa.
+ *
+ * DECISÃO: pegarGarfosAsync() não bloqueia: devolve um CompletableFuture que
+ * é completado quando o filósofo pode comer. O pedido pendente fica em
+ * pedidos[], e todo ponto que sinalizaria a Condition do filósofo (vizinho
+ * soltou, adiados acordados, arrendamento devolvido) também o coloca na fila
+ * de reavaliação. A fila é processada com podeComer() antes de soltar o lock,
+ * e os futuros atendidos são completados só depois de soltá-lo, para que as
+ * continuações não rodem dentro da Mesa. Cada filósofo esperando custa um
+ * Pedido em vez de uma thread estacionada. O prazo de 5 s de quem é adiado
+ * pela fairness vira uma reavaliação agendada (delayedExecutor).
  */
-public class Mesa {
+public class Mesa implements ProtocoloGarfos {
+    // DECISÃO: Limites da fairness em constantes, usados em podeComer() e no prazo de espera
+    private static final long ESPERA_MAXIMA_NS = TimeUnit.MILLISECONDS.toNanos(5000);
+    private static final long DIFERENCA_PRIORIDADE_NS = TimeUnit.MILLISECONDS.toNanos(2000);
+    // DECISÃO: Estados da palavra de arrendamento de cada filósofo
+    private static final int SEM_GARFOS = 0;
+    private static final int COMENDO = 1;
+    private static final int COMENDO_PEDIDO = 2; // comendo, e um vizinho quer um dos garfos
+    private static final int GUARDANDO = 3;      // pensando, com os garfos arrendados
+
     // DECISÃO: Array de booleanos para rastrear disponibilidade de cada garfo
     // Índice i representa o garfo i
     private final boolean[] garfosDisponiveis;
-    // DECISÃO: Array de timestamps para rastrear última vez que cada filósofo comeu
+    // DECISÃO: Instante (nanoTime) da última vez que cada filósofo comeu, em um heap
     // Usado para prevenir starvation - filósofos que esperaram muito têm prioridade
-    private final long[] ultimaVezComeu;
+    private final HeapRefeicoes ultimaVezComeu;
     private final int numFilosofos;
+    private final ReentrantLock lock;
+    // DECISÃO: Uma Condition por filósofo - o sinal vai direto para quem pode comer
+    private final Condition[] vez;
+    // DECISÃO: Filósofos adiados pela fairness, sem repetição (adiado[i] marca presença)
+    private final int[] adiados;
+    private final boolean[] adiado;
+    // DECISÃO: volatile - lido sem o lock no caminho rápido do arrendamento
+    private volatile int numAdiados;
+    // DECISÃO: Maior ultimaVezComeu - 2000 ms entre os adiados. Quem começa a comer só
+    // pode ter bloqueado algum adiado se tinha comido antes desse limite; fora
+    // disso ninguém é acordado. O limite só é recalculado quando a lista esvazia,
+    // então pode sobrar um valor alto demais, o que gera no máximo um sinal extra.
+    private long limiteAdiamento;
+    private final boolean arrendamento;
+    // DECISÃO: Só usados com arrendamento. O instante das refeições feitas sem o
+    // lock fica em ultimaArrendada e vai para o heap quando o arrendamento acaba
+    private final AtomicIntegerArray estados;
+    private final long[] ultimaArrendada;
+    private final PerfilGarfos perfil;
+    // DECISÃO: Pedidos assíncronos pendentes (null = nenhum) e a fila, sem
+    // repetição, dos que precisam refazer podeComer(); tudo com o lock
+    private final Pedido[] pedidos;
+    private final int[] reavaliar;
+    private final boolean[] aReavaliar;
+    private int numReavaliar;
 
     /**
      * Construtor da Mesa.
      * 
-     * DECISÃO: Inicializar todos os garfos como disponíveis e timestamps como 0.
-     * Timestamp 0 significa que o filósofo nunca comeu, dando-lhe prioridade inicial.
+     * DECISÃO: Inicializar todos os garfos como disponíveis e todos os filósofos
+     * como se tivessem comido há mais de 5s. nanoTime não tem o "zero" que
+     * currentTimeMillis tinha, então o "nunca comeu" (com prioridade inicial)
+     * é representado por esse instante no passado.
      */
     public Mesa(int numFilosofos) {
+        this(numFilosofos, false, null);
+    }
+
+    /**
+     * @param perfil contadores por garfo, ou null para não medir
+     */
+    public Mesa(int numFilosofos, PerfilGarfos perfil) {
+        this(numFilosofos, false, perfil);
+    }
+
+    /**
+     * @param arrendamento true para manter os garfos entre refeições enquanto
+     *                     nenhum vizinho os pede (ver comentário da classe)
+     */
+    protected Mesa(int numFilosofos, boolean arrendamento) {
+        this(numFilosofos, arrendamento, null);
+    }
+
+    protected Mesa(int numFilosofos, boolean arrendamento, PerfilGarfos perfil) {
         this.numFilosofos = numFilosofos;
+        this.arrendamento = arrendamento;
+        this.perfil = perfil;
+        this.estados = new AtomicIntegerArray(numFilosofos);
+        this.ultimaArrendada = new long[numFilosofos];
         this.garfosDisponiveis = new boolean[numFilosofos];
-        this.ultimaVezComeu = new long[numFilosofos];
+        this.ultimaVezComeu = new HeapRefeicoes(numFilosofos, System.nanoTime() - ESPERA_MAXIMA_NS - 1);
+        this.lock = new ReentrantLock();
+        this.vez = new Condition[numFilosofos];
+        this.adiados = new int[numFilosofos];
+        this.adiado = new boolean[numFilosofos];
+        this.numAdiados = 0;
+        this.limiteAdiamento = Long.MIN_VALUE;
+        this.pedidos = new Pedido[numFilosofos];
+        this.reavaliar = new int[numFilosofos];
+        this.aReavaliar = new boolean[numFilosofos];
         // DECISÃO: Todos os garfos começam disponíveis
         for (int i = 0; i < numFilosofos; i++) {
             garfosDisponiveis[i] = true;
-            ultimaVezComeu[i] = 0; // 0 = nunca comeu, terá prioridade
+            vez[i] = lock.newCondition();
+            ultimaArrendada[i] = Long.MIN_VALUE;
         }
     }
 
     /**
      * Método para um filósofo pegar seus dois garfos.
      * 
-     * DECISÃO DE DESIGN: Método sincronizado que bloqueia até conseguir ambos os garfos.
+     * DECISÃO DE DESIGN: Bloqueia (sob o lock da Mesa) até conseguir ambos os garfos.
      * 
      * COMPORTAMENTO:
      * - Calcula quais garfos o filósofo precisa (esquerdo e direito)
      * - Verifica se pode comer usando lógica de prevenção de starvation
-     * - Bloqueia até que possa comer
+     * - Bloqueia na sua Condition até que possa comer
      * - Marca garfos como indisponíveis e atualiza timestamp
      * 
      * DECISÃO: Garantir aquisição atômica de ambos os garfos evita deadlock
      * parcial (ter um garfo mas não o outro).
      */
-    public synchronized void pegarGarfos(int filosofoId) throws InterruptedException {
+    @Override
+    public void pegarGarfos(int filosofoId) throws InterruptedException {
         // DECISÃO: Calcular índices dos garfos baseado no ID do filósofo
         // Estrutura circular: filósofo i precisa garfos i e (i+1) mod n
         int garfoEsquerdo = filosofoId;
         int garfoDireito = (filosofoId + 1) % numFilosofos;
 
-        // DECISÃO: Loop while para verificar condições antes de pegar garfos
-        // podeComer() implementa lógica de prevenção de starvation
-        while (!podeComer(filosofoId, garfoEsquerdo, garfoDireito)) {
-            wait(); // Bloqueia até ser notificado que condições mudaram
+        // DECISÃO: Caminho rápido do arrendamento - os garfos continuam com o
+        // filósofo. Só vale sem adiados, pois a refeição não passa pela fairness
+        if (comerArrendado(filosofoId, garfoEsquerdo, garfoDireito)) {
+            return;
+        }
+
+        Pedido atendidos = null;
+        lock.lock();
+        try {
+            devolverProprioArrendamento(filosofoId);
+            // DECISÃO: Loop while para verificar condições antes de pegar garfos
+            // podeComer() implementa lógica de prevenção de starvation
+            // DECISÃO: Uma leitura do relógio por decisão, passada para podeComer()
+            long agora = System.nanoTime();
+            long inicioEspera = agora;
+            boolean esquerdoOcupado = false;
+            boolean direitoOcupado = false;
+            pedirArrendados(filosofoId, garfoEsquerdo, garfoDireito);
+            while (!podeComer(filosofoId, garfoEsquerdo, garfoDireito, agora)) {
+                esquerdoOcupado |= !garfosDisponiveis[garfoEsquerdo];
+                direitoOcupado |= !garfosDisponiveis[garfoDireito];
+                // DECISÃO: Arrendamentos tomados acima podem ter liberado pedidos
+                // assíncronos; eles são atendidos e completados antes de esperar,
+                // fora do lock. Ao voltar, a condição é refeita antes do await,
+                // então nenhum sinal se perde
+                atendidos = atenderPedidos();
+                if (atendidos != null) {
+                    lock.unlock();
+                    try {
+                        completar(atendidos);
+                    } finally {
+                        atendidos = null;
+                        lock.lock();
+                    }
+                } else if (garfosDisponiveis[garfoEsquerdo] && garfosDisponiveis[garfoDireito]) {
+                    // DECISÃO: Garfos livres, mas adiado pela fairness. Nenhuma
+                    // liberação de garfo mudará isso, então espera um sinal de
+                    // quem começar a comer ou, no máximo, até completar 5s sem comer
+                    adiar(filosofoId);
+                    vez[filosofoId].awaitNanos(prazoAdiamento(filosofoId, agora));
+                } else {
+                    vez[filosofoId].await(); // Bloqueia até um vizinho soltar os garfos
+                }
+                agora = System.nanoTime();
+                pedirArrendados(filosofoId, garfoEsquerdo, garfoDireito);
+            }
+
+            ocupar(filosofoId, garfoEsquerdo, garfoDireito, agora, esquerdoOcupado, direitoOcupado, inicioEspera);
+            atendidos = atenderPedidos();
+        } finally {
+            lock.unlock();
+        }
+        completar(atendidos);
+    }
+
+    /**
+     * Versão assíncrona de pegarGarfos: o futuro é completado quando o
+     * filósofo tem os dois garfos, e ele deve chamar soltarGarfos depois de comer.
+     *
+     * DECISÃO: Mesmas regras de podeComer() e do arrendamento; só muda quem
+     * espera. O futuro é completado pela thread que liberou a vaga (em
+     * soltarGarfos, normalmente), já sem o lock: continuações síncronas rodam
+     * nela, então quem não quer isso encadeia com os métodos *Async.
+     * Cancelar o futuro desiste do pedido; se os garfos já tinham sido dados
+     * a ele, são devolvidos.
+     *
+     * @throws IllegalStateException se o filósofo já tem um pedido pendente
+     *         (um pedido cancelado não conta)
+     */
+    public CompletableFuture<Void> pegarGarfosAsync(int filosofoId) {
+        int garfoEsquerdo = filosofoId;
+        int garfoDireito = (filosofoId + 1) % numFilosofos;
+        if (comerArrendado(filosofoId, garfoEsquerdo, garfoDireito)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Pedido pedido = new Pedido(filosofoId, System.nanoTime());
+        Pedido atendidos;
+        lock.lock();
+        try {
+            // DECISÃO: Um pedido cancelado só sai da lista quando um vizinho o
+            // reavalia; até lá ele não impede um novo pedido
+            if (pedidos[filosofoId] != null && pedidos[filosofoId].futuro.isDone()) {
+                pedidos[filosofoId] = null;
+            }
+            if (pedidos[filosofoId] != null) {
+                throw new IllegalStateException("Filosofo " + filosofoId + " ja tem um pedido pendente");
+            }
+            devolverProprioArrendamento(filosofoId);
+            pedidos[filosofoId] = pedido;
+            marcarReavaliacao(filosofoId);
+            atendidos = atenderPedidos();
+        } finally {
+            lock.unlock();
+        }
+        completar(atendidos);
+        return pedido.futuro;
+    }
+
+    /**
+     * Caminho rápido do arrendamento, sem o lock; true se o filósofo já pode comer.
+     */
+    private boolean comerArrendado(int filosofoId, int garfoEsquerdo, int garfoDireito) {
+        if (arrendamento && numAdiados == 0 && estados.compareAndSet(filosofoId, GUARDANDO, COMENDO)) {
+            ultimaArrendada[filosofoId] = System.nanoTime();
+            if (perfil != null) {
+                perfil.registrarAquisicao(garfoEsquerdo, false, 0);
+                perfil.registrarAquisicao(garfoDireito, false, 0);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Com adiados, um arrendamento próprio é devolvido e a refeição segue o
+     * caminho normal, passando pela fairness (com o lock).
+     */
+    private void devolverProprioArrendamento(int filosofoId) {
+        if (arrendamento && estados.get(filosofoId) == GUARDANDO) {
+            estados.set(filosofoId, SEM_GARFOS);
+            encerrarArrendamento(filosofoId);
         }
+    }
 
+    /**
+     * Entrega os dois garfos ao filósofo que passou em podeComer() (com o lock).
+     */
+    private void ocupar(int filosofoId, int garfoEsquerdo, int garfoDireito, long agora,
+                        boolean esquerdoOcupado, boolean direitoOcupado, long inicioEspera) {
         // DECISÃO: Marcar garfos como indisponíveis atomicamente
         // Garante que ninguém mais pode pegá-los até serem liberados
         garfosDisponiveis[garfoEsquerdo] = false;
         garfosDisponiveis[garfoDireito] = false;
+        if (perfil != null) {
+            perfil.registrarAquisicao(garfoEsquerdo, esquerdoOcupado, inicioEspera);
+            perfil.registrarAquisicao(garfoDireito, direitoOcupado, inicioEspera);
+        }
         // DECISÃO: Atualizar timestamp quando filósofo começa a comer
         // Usado para calcular tempo de espera na próxima tentativa
-        ultimaVezComeu[filosofoId] = System.currentTimeMillis();
+        long comeuAntes = ultimaVezComeu.getUltimaRefeicao(filosofoId);
+        ultimaVezComeu.registrar(filosofoId, agora);
+        // DECISÃO: Quem tinha prioridade sobre os adiados acabou de comer,
+        // então eles precisam refazer a verificação
+        if (numAdiados > 0 && comeuAntes < limiteAdiamento) {
+            acordarAdiados();
+        }
+        if (arrendamento) {
+            estados.set(filosofoId, COMENDO);
+        }
+    }
+
+    /**
+     * Quanto falta para o filósofo adiado completar 5s sem comer (pelo menos 1 ns).
+     */
+    private long prazoAdiamento(int filosofoId, long agora) {
+        return Math.max(1, ultimaVezComeu.getUltimaRefeicao(filosofoId) + ESPERA_MAXIMA_NS + 1 - agora);
     }
 
     /**
      * Método para um filósofo soltar seus dois garfos.
      * 
-     * DECISÃO: Método sincronizado que libera ambos os garfos atomicamente
-     * e notifica todas as threads esperando.
+     * DECISÃO: Libera ambos os garfos atomicamente e sinaliza apenas os dois
+     * vizinhos, os únicos que disputam esses garfos.
      * 
      * COMPORTAMENTO:
      * - Calcula quais garfos o filósofo está usando
      * - Marca garfos como disponíveis
-     * - Notifica todas as threads esperando (pode acordar múltiplos filósofos)
+     * - Sinaliza o vizinho esquerdo (garfo esquerdo) e o direito (garfo direito)
      */
-    public synchronized void soltarGarfos(int filosofoId) {
+    @Override
+    public void soltarGarfos(int filosofoId) {
         int garfoEsquerdo = filosofoId;
         int garfoDireito = (filosofoId + 1) % numFilosofos;
 
-        // DECISÃO: Liberar ambos os garfos atomicamente
-        garfosDisponiveis[garfoEsquerdo] = true;
-        garfosDisponiveis[garfoDireito] = true;
-        // DECISÃO: notifyAll() acorda todos os filósofos esperando
-        // Cada um verificará novamente se pode comer em podeComer()
-        notifyAll();
+        // DECISÃO: Sem pedido de vizinho nem adiados, mantém os garfos arrendados.
+        // O CAS falha se um vizinho marcou COMENDO_PEDIDO, e então solta normalmente
+        boolean solturaRegistrada = false;
+        if (arrendamento && numAdiados == 0) {
+            // DECISÃO: Antes do CAS - depois dele um vizinho pode tomar o
+            // arrendamento e registrar a aquisição nos mesmos contadores do
+            // PerfilGarfos, que só aceitam um escritor por garfo
+            registrarSoltura(garfoEsquerdo, garfoDireito);
+            solturaRegistrada = true;
+            if (estados.compareAndSet(filosofoId, COMENDO, GUARDANDO)) {
+                return;
+            }
+        }
+
+        Pedido atendidos;
+        lock.lock();
+        try {
+            if (!solturaRegistrada) {
+                registrarSoltura(garfoEsquerdo, garfoDireito);
+            }
+            if (arrendamento) {
+                estados.set(filosofoId, SEM_GARFOS);
+                registrarArrendada(filosofoId);
+            }
+            // DECISÃO: Liberar ambos os garfos atomicamente
+            garfosDisponiveis[garfoEsquerdo] = true;
+            garfosDisponiveis[garfoDireito] = true;
+            // DECISÃO: O(1) sinais por liberação, em vez de acordar a mesa inteira
+            // Cada vizinho verificará novamente se pode comer em podeComer()
+            sinalizar((filosofoId - 1 + numFilosofos) % numFilosofos);
+            sinalizar(garfoDireito);
+            atendidos = atenderPedidos();
+        } finally {
+            lock.unlock();
+        }
+        completar(atendidos);
+    }
+
+    @Override
+    public int getNumFilosofos() {
+        return numFilosofos;
+    }
+
+    @Override
+    public String getNome() {
+        return arrendamento ? "tarefa4-mesa-arrendada" : "tarefa4-mesa";
+    }
+
+    /**
+     * Acorda o filósofo bloqueado em pegarGarfos ou, se ele tem um pedido
+     * assíncrono, o coloca na fila de reavaliação (com o lock).
+     */
+    private void sinalizar(int filosofoId) {
+        vez[filosofoId].signal();
+        if (pedidos[filosofoId] != null) {
+            marcarReavaliacao(filosofoId);
+        }
+    }
+
+    private void marcarReavaliacao(int filosofoId) {
+        if (!aReavaliar[filosofoId]) {
+            aReavaliar[filosofoId] = true;
+            reavaliar[numReavaliar++] = filosofoId;
+        }
+    }
+
+    /**
+     * Refaz podeComer() para os pedidos da fila de reavaliação (com o lock).
+     *
+     * DECISÃO: Um pedido atendido pode acordar adiados, que entram na mesma
+     * fila; o laço segue até ela esvaziar.
+     *
+     * @return os pedidos atendidos, encadeados por Pedido.proximo, para
+     *         completar() depois de soltar o lock; null se nenhum
+     */
+    private Pedido atenderPedidos() {
+        Pedido atendidos = null;
+        while (numReavaliar > 0) {
+            int filosofoId = reavaliar[--numReavaliar];
+            aReavaliar[filosofoId] = false;
+            Pedido pedido = pedidos[filosofoId];
+            if (pedido != null && atender(pedido)) {
+                pedido.proximo = atendidos;
+                atendidos = pedido;
+            }
+        }
+        return atendidos;
+    }
+
+    /**
+     * O mesmo que uma volta do laço de pegarGarfos para um pedido assíncrono;
+     * true se o filósofo ficou com os garfos.
+     */
+    private boolean atender(Pedido pedido) {
+        int filosofoId = pedido.filosofoId;
+        if (pedido.futuro.isDone()) {
+            pedidos[filosofoId] = null; // Cancelado por quem pediu
+            return false;
+        }
+        int garfoEsquerdo = filosofoId;
+        int garfoDireito = (filosofoId + 1) % numFilosofos;
+        long agora = System.nanoTime();
+        pedirArrendados(filosofoId, garfoEsquerdo, garfoDireito);
+        if (!podeComer(filosofoId, garfoEsquerdo, garfoDireito, agora)) {
+            pedido.esquerdoOcupado |= !garfosDisponiveis[garfoEsquerdo];
+            pedido.direitoOcupado |= !garfosDisponiveis[garfoDireito];
+            if (garfosDisponiveis[garfoEsquerdo] && garfosDisponiveis[garfoDireito]) {
+                adiar(filosofoId);
+                // DECISÃO: O prazo só muda quando o filósofo come, então basta
+                // agendar uma vez por pedido
+                if (!pedido.prazoAgendado) {
+                    pedido.prazoAgendado = true;
+                    CompletableFuture.delayedExecutor(prazoAdiamento(filosofoId, agora), TimeUnit.NANOSECONDS)
+                            .execute(() -> reavaliarNoPrazo(pedido));
+                }
+            }
+            return false;
+        }
+        pedidos[filosofoId] = null;
+        ocupar(filosofoId, garfoEsquerdo, garfoDireito, agora,
+                pedido.esquerdoOcupado, pedido.direitoOcupado, pedido.inicioEspera);
+        return true;
+    }
+
+    /**
+     * Fim do prazo de 5 s de um pedido adiado pela fairness.
+     */
+    private void reavaliarNoPrazo(Pedido pedido) {
+        Pedido atendidos = null;
+        lock.lock();
+        try {
+            if (pedidos[pedido.filosofoId] == pedido) {
+                marcarReavaliacao(pedido.filosofoId);
+                atendidos = atenderPedidos();
+            }
+        } finally {
+            lock.unlock();
+        }
+        completar(atendidos);
+    }
+
+    /**
+     * Completa os futuros atendidos (sem o lock).
+     *
+     * DECISÃO: Se o futuro foi cancelado entre o atendimento e aqui, ninguém
+     * vai comer com esses garfos, então eles voltam para a mesa.
+     */
+    private void completar(Pedido atendidos) {
+        while (atendidos != null) {
+            Pedido pedido = atendidos;
+            atendidos = pedido.proximo;
+            pedido.proximo = null;
+            if (!pedido.futuro.complete(null)) {
+                soltarGarfos(pedido.filosofoId);
+            }
+        }
+    }
+
+    /**
+     * Fim da posse dos dois garfos no PerfilGarfos.
+     *
+     * DECISÃO: Com arrendamento, a posse medida é a da refeição; o tempo em
+     * que os garfos ficam guardados entre refeições não conta.
+     */
+    private void registrarSoltura(int garfoEsquerdo, int garfoDireito) {
+        if (perfil != null) {
+            perfil.registrarSoltura(garfoEsquerdo);
+            perfil.registrarSoltura(garfoDireito);
+        }
     }
 
     /**
@@ -121,37 +548,150 @@ public class Mesa {
      * THRESHOLDS:
      * - 5000ms: tempo máximo de espera antes de ter prioridade absoluta
      * - 2000ms: diferença mínima para dar prioridade a outro filósofo
+     *
+     * DECISÃO: O "outro que esperou mais" só pode ser o que comeu há mais tempo,
+     * ou seja, a raiz do heap - sem laço sobre os N filósofos.
      */
-    private boolean podeComer(int filosofoId, int garfoEsquerdo, int garfoDireito) {
+    private boolean podeComer(int filosofoId, int garfoEsquerdo, int garfoDireito, long agora) {
         // DECISÃO: Verificação básica - ambos os garfos devem estar disponíveis
         if (!garfosDisponiveis[garfoEsquerdo] || !garfosDisponiveis[garfoDireito]) {
             return false;
         }
 
         // DECISÃO: Calcular quanto tempo o filósofo esperou desde a última vez que comeu
-        long tempoEspera = System.currentTimeMillis() - ultimaVezComeu[filosofoId];
-        
+        long tempoEspera = agora - ultimaVezComeu.getUltimaRefeicao(filosofoId);
+
         // DECISÃO: Se esperou mais de 5 segundos, tem prioridade absoluta
         // Previne starvation garantindo que filósofos não esperem indefinidamente
-        if (tempoEspera > 5000) {
+        if (tempoEspera > ESPERA_MAXIMA_NS) {
             return true;
         }
 
-        // DECISÃO: Verificar se algum outro filósofo esperou muito mais tempo
-        // Se sim, dar prioridade a ele para garantir justiça
-        for (int i = 0; i < numFilosofos; i++) {
-            if (i != filosofoId) {
-                long tempoEsperaOutro = System.currentTimeMillis() - ultimaVezComeu[i];
-                // DECISÃO: Se outro filósofo esperou mais de 2s a mais, dar prioridade a ele
-                // Isso garante que filósofos que esperaram muito não sejam preteridos
-                if (tempoEsperaOutro > tempoEspera + 2000) {
-                    return false; // Outro filósofo tem prioridade
-                }
-            }
+        // DECISÃO: Se o filósofo que comeu há mais tempo esperou mais de 2s a mais,
+        // dar prioridade a ele. Isso garante que filósofos que esperaram muito não
+        // sejam preteridos
+        long menorOutro = ultimaVezComeu.menorExceto(filosofoId);
+        if (menorOutro != Long.MAX_VALUE && agora - menorOutro > tempoEspera + DIFERENCA_PRIORIDADE_NS) {
+            return false; // Outro filósofo tem prioridade
         }
 
         // DECISÃO: Se não há risco de starvation e garfos estão disponíveis, pode comer
         return true;
     }
-}
 
+    /**
+     * Coloca o filósofo na lista de adiados pela fairness.
+     */
+    private void adiar(int filosofoId) {
+        if (!adiado[filosofoId]) {
+            adiado[filosofoId] = true;
+            adiados[numAdiados++] = filosofoId;
+        }
+        limiteAdiamento = Math.max(limiteAdiamento, ultimaVezComeu.getUltimaRefeicao(filosofoId) - DIFERENCA_PRIORIDADE_NS);
+    }
+
+    /**
+     * Sinaliza todos os adiados e esvazia a lista.
+     *
+     * DECISÃO: Quem continuar adiado volta para a lista em adiar(); quem já
+     * tinha saído por timeout recebe um sinal sem efeito.
+     */
+    private void acordarAdiados() {
+        for (int i = 0; i < numAdiados; i++) {
+            int filosofoId = adiados[i];
+            adiado[filosofoId] = false;
+            sinalizar(filosofoId);
+        }
+        numAdiados = 0;
+        limiteAdiamento = Long.MIN_VALUE;
+    }
+
+    /**
+     * Pede ao vizinho que tem os garfos ocupados que os devolva (com o lock).
+     *
+     * DECISÃO: Um garfo ocupado só pode estar com o vizinho que o compartilha:
+     * o esquerdo com o filósofo da esquerda, o direito com o da direita.
+     */
+    private void pedirArrendados(int filosofoId, int garfoEsquerdo, int garfoDireito) {
+        if (!arrendamento) {
+            return;
+        }
+        if (!garfosDisponiveis[garfoEsquerdo]) {
+            pedirArrendado((filosofoId - 1 + numFilosofos) % numFilosofos);
+        }
+        if (!garfosDisponiveis[garfoDireito]) {
+            pedirArrendado(garfoDireito);
+        }
+    }
+
+    /**
+     * Toma os garfos de um dono que os guarda, ou marca o pedido se ele está comendo.
+     *
+     * DECISÃO: O dono muda a própria palavra sem o lock (COMENDO -> GUARDANDO e
+     * GUARDANDO -> COMENDO), então aqui também só se muda por CAS, repetindo
+     * se o dono mudou de estado no meio.
+     */
+    private void pedirArrendado(int dono) {
+        while (true) {
+            int estado = estados.get(dono);
+            if (estado == GUARDANDO) {
+                if (estados.compareAndSet(dono, GUARDANDO, SEM_GARFOS)) {
+                    encerrarArrendamento(dono);
+                    return;
+                }
+            } else if (estado == COMENDO) {
+                if (estados.compareAndSet(dono, COMENDO, COMENDO_PEDIDO)) {
+                    return;
+                }
+            } else {
+                return; // Já pedido, ou o garfo está com o dono pelo caminho normal
+            }
+        }
+    }
+
+    /**
+     * Devolve à mesa os garfos de um arrendamento encerrado (com o lock).
+     */
+    private void encerrarArrendamento(int dono) {
+        int garfoDireito = (dono + 1) % numFilosofos;
+        registrarArrendada(dono);
+        garfosDisponiveis[dono] = true;
+        garfosDisponiveis[garfoDireito] = true;
+        sinalizar((dono - 1 + numFilosofos) % numFilosofos);
+        sinalizar(garfoDireito);
+    }
+
+    /**
+     * Leva ao heap a última refeição feita pelo caminho rápido, se for mais recente.
+     *
+     * DECISÃO: Enquanto isso não acontece o heap vê o dono com fome maior que a
+     * real, o que no máximo adia algum filósofo; o adiamento desliga o caminho
+     * rápido e força a atualização na refeição seguinte do dono.
+     */
+    private void registrarArrendada(int dono) {
+        long instante = ultimaArrendada[dono];
+        if (instante > ultimaVezComeu.getUltimaRefeicao(dono)) {
+            ultimaVezComeu.registrar(dono, instante);
+        }
+    }
+
+    /**
+     * Pedido de pegarGarfosAsync ainda não atendido.
+     */
+    private static final class Pedido {
+        final int filosofoId;
+        final long inicioEspera;
+        final CompletableFuture<Void> futuro = new CompletableFuture<>();
+        // DECISÃO: Como as variáveis locais do laço de pegarGarfos, só com o lock
+        boolean esquerdoOcupado;
+        boolean direitoOcupado;
+        boolean prazoAgendado;
+        // DECISÃO: Lista dos atendidos entre atenderPedidos() e completar()
+        Pedido proximo;
+
+        Pedido(int filosofoId, long inicioEspera) {
+            this.filosofoId = filosofoId;
+            this.inicioEspera = inicioEspera;
+        }
+    }
+}
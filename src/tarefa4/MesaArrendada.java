@@ -0,0 +1,18 @@
+/**
+ * Mesa da Tarefa 4 com arrendamento de garfos.
+ *
+ * DECISÃO DE DESIGN: Mesmas regras da Mesa, mas quem termina de comer mantém
+ * os garfos enquanto nenhum vizinho os pede, e a refeição seguinte não passa
+ * pelo lock (ver Mesa). Classe própria, como ProtocoloAssimetricoAtomico,
+ * para que o Benchmark a crie pelo nome.
+ */
+public class MesaArrendada extends Mesa {
+
+    public MesaArrendada(int numFilosofos) {
+        super(numFilosofos, true);
+    }
+
+    public MesaArrendada(int numFilosofos, PerfilGarfos perfil) {
+        super(numFilosofos, true, perfil);
+    }
+}
@@ -0,0 +1,221 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Mesa sem lock: garfos como bits de um AtomicLongArray - Tarefa 4.
+ *
+ * PROBLEMA DA MESA COM LOCK:
+ * Na Mesa, garfosDisponiveis é um boolean[] protegido por um único lock, então
+ * até a refeição sem nenhuma disputa paga lock e unlock duas vezes, e com
+ * muitos núcleos todos os filósofos disputam esse lock.
+ *
+ * DECISÃO DE DESIGN: O garfo g é o bit (g % 64) da palavra (g / 64); bit 1 =
+ * em uso. O filósofo i precisa dos garfos i e i+1:
+ * - Na mesma palavra (63 de cada 64 filósofos, e o último quando N <= 64),
+ *   os dois bits são tomados juntos com um único CAS: ou pega os dois, ou
+ *   nenhum. Sem lock, sem espera com um garfo na mão.
+ * - Na fronteira entre palavras, toma primeiro o bit da palavra de menor
+ *   índice e depois tenta o outro uma vez; se falhar, devolve o primeiro.
+ *   Ninguém espera segurando um garfo, então não há ciclo de espera
+ *   (deadlock); a ordem fixa evita que dois filósofos de fronteira fiquem
+ *   tomando e devolvendo em simetria.
+ *
+ * DECISÃO: CAS que falha porque outro bit da palavra mudou (outro filósofo)
+ * é repetido na hora e não conta como tentativa. Só encontrar um dos
+ * próprios garfos ocupado conta; depois de TENTATIVAS_CAS dessas o filósofo
+ * estaciona (LockSupport.park).
+ *
+ * DECISÃO: Sem perder sinal: quem vai estacionar se registra em esperando[i]
+ * e só então tenta de novo; quem solta limpa os bits e só então lê
+ * esperando[] dos dois vizinhos. São todas operações voláteis, então ao
+ * menos um dos dois vê a escrita do outro. Mesmo assim a espera tem prazo
+ * (PARK_MAXIMO_NS), como proteção, e também para reavaliar a fairness.
+ *
+ * FAIRNESS (só depois de estacionar):
+ * Quem está estacionado há mais de ESPERA_MAXIMA_NS (os 5s da Mesa) marca
+ * prioridade[i] com o instante em que começou a esperar. Um vizinho que vê
+ * essa marca não pega os garfos e cede a vez. Entre dois vizinhos marcados,
+ * cede o que começou a esperar depois (empate pelo índice), então nunca há
+ * dois filósofos cedendo um para o outro. A regra dos 2s da Mesa, que
+ * compara com a mesa inteira, não existe aqui: exigiria estado global.
+ *
+ * DECISÃO: 64 garfos por palavra também significa que filósofos vizinhos
+ * disputam a mesma linha de cache. É o preço do CAS de dois bits; com
+ * muitos núcleos essa disputa fica restrita a grupos de 64 filósofos, em vez
+ * de um lock para a mesa inteira.
+ */
+public class MesaAtomica implements ProtocoloGarfos {
+    private static final long ESPERA_MAXIMA_NS = TimeUnit.MILLISECONDS.toNanos(5000);
+    private static final long PARK_MAXIMO_NS = TimeUnit.MILLISECONDS.toNanos(10);
+    // DECISÃO: Com um núcleo o dono dos garfos não executa enquanto giramos,
+    // então estaciona na primeira falha (como o GarfoAtomico)
+    private static final int TENTATIVAS_CAS = Runtime.getRuntime().availableProcessors() > 1 ? 64 : 1;
+
+    private final int numFilosofos;
+    private final AtomicLongArray garfosEmUso;
+    private final AtomicReferenceArray<Thread> esperando;
+    // DECISÃO: 0 = sem prioridade; senão, o instante em que começou a esperar
+    private final AtomicLongArray prioridade;
+
+    public MesaAtomica(int numFilosofos) {
+        this.numFilosofos = numFilosofos;
+        this.garfosEmUso = new AtomicLongArray((numFilosofos + 63) / 64);
+        this.esperando = new AtomicReferenceArray<>(numFilosofos);
+        this.prioridade = new AtomicLongArray(numFilosofos);
+    }
+
+    @Override
+    public void pegarGarfos(int filosofoId) throws InterruptedException {
+        // DECISÃO: Sem lock nem espera, um filósofo que nunca encontra disputa
+        // nunca veria a interrupção do encerramento (com pensar e comer zero)
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        // DECISÃO: Caminho rápido - nenhum vizinho com prioridade e os garfos
+        // tomados por CAS, sem lock e sem ler o relógio
+        if (!vizinhoComPrioridade(filosofoId) && tentarPegar(filosofoId, TENTATIVAS_CAS)) {
+            return;
+        }
+        pegarComEspera(filosofoId);
+    }
+
+    private void pegarComEspera(int filosofoId) throws InterruptedException {
+        long inicio = System.nanoTime();
+        esperando.set(filosofoId, Thread.currentThread());
+        try {
+            while (true) {
+                if (!cederVez(filosofoId) && tentarPegar(filosofoId, 1)) {
+                    return;
+                }
+                if (prioridade.get(filosofoId) == 0 && System.nanoTime() - inicio > ESPERA_MAXIMA_NS) {
+                    // DECISÃO: Nunca 0, que significa "sem prioridade"
+                    prioridade.set(filosofoId, inicio == 0 ? 1 : inicio);
+                }
+                LockSupport.parkNanos(this, PARK_MAXIMO_NS);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        } finally {
+            esperando.set(filosofoId, null);
+            prioridade.set(filosofoId, 0);
+        }
+    }
+
+    @Override
+    public void soltarGarfos(int filosofoId) {
+        int garfoEsquerdo = filosofoId;
+        int garfoDireito = (filosofoId + 1) % numFilosofos;
+        if (garfoEsquerdo / 64 == garfoDireito / 64) {
+            limpar(garfoEsquerdo / 64, bit(garfoEsquerdo) | bit(garfoDireito));
+        } else {
+            limpar(garfoEsquerdo / 64, bit(garfoEsquerdo));
+            limpar(garfoDireito / 64, bit(garfoDireito));
+        }
+        acordarVizinhos(filosofoId);
+    }
+
+    @Override
+    public int getNumFilosofos() {
+        return numFilosofos;
+    }
+
+    @Override
+    public String getNome() {
+        return "tarefa4-mesa-atomica";
+    }
+
+    /**
+     * Tenta pegar os dois garfos; desiste depois de encontrá-los ocupados
+     * "tentativas" vezes.
+     */
+    private boolean tentarPegar(int filosofoId, int tentativas) {
+        int garfoEsquerdo = filosofoId;
+        int garfoDireito = (filosofoId + 1) % numFilosofos;
+        if (garfoEsquerdo / 64 == garfoDireito / 64) {
+            return tomar(garfoEsquerdo / 64, bit(garfoEsquerdo) | bit(garfoDireito), tentativas);
+        }
+        // DECISÃO: Fronteira - primeiro a palavra de menor índice
+        int primeiro = Math.min(garfoEsquerdo, garfoDireito);
+        int segundo = Math.max(garfoEsquerdo, garfoDireito);
+        for (int i = 0; i < tentativas; i++) {
+            if (tomar(primeiro / 64, bit(primeiro), 1)) {
+                if (tomar(segundo / 64, bit(segundo), 1)) {
+                    return true;
+                }
+                // DECISÃO: Sem segurar um garfo enquanto espera o outro; o
+                // vizinho que viu o primeiro ocupado nesse meio tempo é acordado
+                limpar(primeiro / 64, bit(primeiro));
+                acordarVizinhos(filosofoId);
+            }
+            Thread.onSpinWait();
+        }
+        return false;
+    }
+
+    /**
+     * CAS que liga todos os bits de mascara na palavra, se todos estiverem livres.
+     */
+    private boolean tomar(int palavra, long mascara, int tentativas) {
+        int ocupados = 0;
+        while (true) {
+            long atual = garfosEmUso.get(palavra);
+            if ((atual & mascara) != 0) {
+                if (++ocupados >= tentativas) {
+                    return false;
+                }
+                Thread.onSpinWait();
+            } else if (garfosEmUso.compareAndSet(palavra, atual, atual | mascara)) {
+                return true;
+            }
+        }
+    }
+
+    private void limpar(int palavra, long mascara) {
+        while (true) {
+            long atual = garfosEmUso.get(palavra);
+            if (garfosEmUso.compareAndSet(palavra, atual, atual & ~mascara)) {
+                return;
+            }
+        }
+    }
+
+    private void acordarVizinhos(int filosofoId) {
+        Thread esquerdo = esperando.get((filosofoId - 1 + numFilosofos) % numFilosofos);
+        if (esquerdo != null) {
+            LockSupport.unpark(esquerdo);
+        }
+        Thread direito = esperando.get((filosofoId + 1) % numFilosofos);
+        if (direito != null) {
+            LockSupport.unpark(direito);
+        }
+    }
+
+    private boolean vizinhoComPrioridade(int filosofoId) {
+        return prioridade.get((filosofoId - 1 + numFilosofos) % numFilosofos) != 0
+                || prioridade.get((filosofoId + 1) % numFilosofos) != 0;
+    }
+
+    /**
+     * Se um vizinho com prioridade mais antiga que a própria deve comer antes.
+     */
+    private boolean cederVez(int filosofoId) {
+        long propria = prioridade.get(filosofoId);
+        return deveCeder(filosofoId, propria, (filosofoId - 1 + numFilosofos) % numFilosofos)
+                || deveCeder(filosofoId, propria, (filosofoId + 1) % numFilosofos);
+    }
+
+    private boolean deveCeder(int filosofoId, long propria, int vizinho) {
+        long outra = prioridade.get(vizinho);
+        if (outra == 0 || vizinho == filosofoId) {
+            return false;
+        }
+        return propria == 0 || outra - propria < 0 || (outra == propria && vizinho < filosofoId);
+    }
+
+    private static long bit(int garfo) {
+        return 1L << (garfo & 63);
+    }
+}
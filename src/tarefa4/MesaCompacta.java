@@ -0,0 +1,133 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Mesa para milhões de assentos, com todo o estado fora do heap - Tarefa 4.
+ *
+ * PROBLEMA: A Mesa guarda por assento um boolean, um long no HeapRefeicoes,
+ * dois ints de posição, uma Condition e os arrays de adiados e arrendamento;
+ * a MesaAtomica, um bit, mas também um Thread e um long de prioridade. Com
+ * um milhão de assentos isso são dezenas de MB no heap.
+ *
+ * DECISÃO DE DESIGN: O estado inteiro fica em um EstadoMesaCompacto (garfos,
+ * última refeição, refeições e fase, ~17 bytes por assento fora do heap,
+ * com vizinhos em linhas de cache diferentes). Nenhum objeto por assento.
+ *
+ * AQUISIÇÃO (como na fronteira de palavras da MesaAtomica): CAS no garfo de
+ * menor índice e uma tentativa no outro; se falhar, devolve o primeiro.
+ * Ninguém espera segurando garfo, então não há deadlock.
+ *
+ * DECISÃO: Sem fila de espera nem unpark - guardar quem espera custaria uma
+ * referência de Thread por assento. Quem falha gira um pouco e depois
+ * estaciona com pausa exponencial de até 1 ms. O preço é latência de até
+ * 1 ms para quem espera um vizinho.
+ *
+ * FAIRNESS: a regra dos 5 s da Mesa, com o estado que já existe. Quem espera
+ * há mais de ESPERA_MAXIMA_NS desde a última refeição (ou, se nunca comeu,
+ * desde o início da espera) passa à fase FAMINTO, e um vizinho que a vê não
+ * toma os garfos. Entre dois vizinhos famintos cede o que comeu por último
+ * (quem nunca comeu vem antes, empate pelo índice), então ninguém cede em
+ * círculo. A regra dos 2 s, que compara com a mesa inteira, não existe aqui,
+ * como na MesaAtomica.
+ */
+public class MesaCompacta implements ProtocoloGarfos {
+    private static final int TENTATIVAS_GIRANDO = 64;
+    private static final long PAUSA_MINIMA_NS = TimeUnit.MICROSECONDS.toNanos(1);
+    private static final long PAUSA_MAXIMA_NS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long ESPERA_MAXIMA_NS = TimeUnit.MILLISECONDS.toNanos(5000);
+
+    private final int numFilosofos;
+    private final EstadoMesaCompacto estado;
+
+    public MesaCompacta(int numFilosofos) {
+        this.numFilosofos = numFilosofos;
+        this.estado = new EstadoMesaCompacto(numFilosofos);
+    }
+
+    @Override
+    public void pegarGarfos(int filosofoId) throws InterruptedException {
+        // DECISÃO: Como na MesaAtomica, o caminho sem espera não veria a interrupção
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        int garfoDireito = (filosofoId + 1) % numFilosofos;
+        int vizinhoEsquerdo = (filosofoId - 1 + numFilosofos) % numFilosofos;
+        int primeiro = Math.min(filosofoId, garfoDireito);
+        int segundo = Math.max(filosofoId, garfoDireito);
+        estado.setFase(filosofoId, EstadoMesaCompacto.ESPERANDO);
+        boolean jaComeu = estado.getRefeicoes(filosofoId) > 0;
+        long referencia = jaComeu ? estado.getUltimaRefeicao(filosofoId) : System.nanoTime();
+        long prioridade = jaComeu ? referencia : Long.MIN_VALUE;
+        boolean faminto = false;
+        long pausa = PAUSA_MINIMA_NS;
+        for (int tentativa = 0; ; tentativa++) {
+            if (!cede(filosofoId, faminto, prioridade, vizinhoEsquerdo)
+                    && !cede(filosofoId, faminto, prioridade, garfoDireito)
+                    && estado.tentarPegar(primeiro, filosofoId)) {
+                // DECISÃO: Com um único filósofo os dois garfos são o mesmo
+                if (segundo == primeiro || estado.tentarPegar(segundo, filosofoId)) {
+                    estado.setFase(filosofoId, EstadoMesaCompacto.COMENDO);
+                    estado.registrarRefeicao(filosofoId, System.nanoTime());
+                    return;
+                }
+                estado.soltar(primeiro);
+            }
+            if (tentativa < TENTATIVAS_GIRANDO) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(this, pausa);
+                pausa = Math.min(PAUSA_MAXIMA_NS, pausa * 2);
+                if (Thread.interrupted()) {
+                    estado.setFase(filosofoId, EstadoMesaCompacto.PENSANDO);
+                    throw new InterruptedException();
+                }
+                // DECISÃO: O relógio só é lido no caminho lento, uma vez por pausa
+                if (!faminto && System.nanoTime() - referencia > ESPERA_MAXIMA_NS) {
+                    faminto = true;
+                    estado.setFase(filosofoId, EstadoMesaCompacto.FAMINTO);
+                }
+            }
+        }
+    }
+
+    /**
+     * True se o vizinho está faminto e tem precedência sobre este filósofo.
+     *
+     * DECISÃO: A prioridade (última refeição, ou Long.MIN_VALUE para quem
+     * nunca comeu) é calculada igual dos dois lados, senão dois famintos que
+     * nunca comeram poderiam ceder um para o outro. Um faminto não come até
+     * sair dessa fase, então a última refeição dele não muda enquanto é lida.
+     */
+    private boolean cede(int filosofoId, boolean faminto, long prioridade, int vizinho) {
+        if (vizinho == filosofoId || estado.getFase(vizinho) != EstadoMesaCompacto.FAMINTO) {
+            return false;
+        }
+        if (!faminto) {
+            return true;
+        }
+        long outra = estado.getRefeicoes(vizinho) > 0 ? estado.getUltimaRefeicao(vizinho) : Long.MIN_VALUE;
+        return outra < prioridade || (outra == prioridade && vizinho < filosofoId);
+    }
+
+    @Override
+    public void soltarGarfos(int filosofoId) {
+        int garfoDireito = (filosofoId + 1) % numFilosofos;
+        estado.soltar(filosofoId);
+        estado.soltar(garfoDireito);
+        estado.setFase(filosofoId, EstadoMesaCompacto.PENSANDO);
+    }
+
+    @Override
+    public int getNumFilosofos() {
+        return numFilosofos;
+    }
+
+    @Override
+    public String getNome() {
+        return "tarefa4-mesa-compacta";
+    }
+
+    public EstadoMesaCompacto getEstado() {
+        return estado;
+    }
+}
@@ -0,0 +1,228 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Mesa para grafos de recursos quaisquer (filósofos bebedores) - Tarefa 4.
+ *
+ * PROBLEMA: A Mesa e suas variantes só conhecem o anel (garfos i e i+1). Com
+ * k recursos por filósofo e um grafo de conflitos qualquer (GrafoRecursos),
+ * pegar os recursos um a um pode formar ciclos de espera de qualquer tamanho,
+ * e um lock único para a mesa inteira não escala para milhares de nós.
+ *
+ * DECISÃO DE DESIGN: Um GarfoAtomico por recurso, sem estado global: dois
+ * filósofos sem recurso em comum nunca tocam a mesma memória, então grafos
+ * esparsos escalam com o número de núcleos. A aquisição do conjunto é
+ * "tudo ou nada" em duas fases:
+ *
+ * 1. OTIMISTA: tenta pegar todos os recursos com tentarPegar() (um CAS cada,
+ *    sem esperar). Se um estiver ocupado, solta todos os que pegou e espera
+ *    (pegar(), que estaciona a thread) apenas por esse recurso, sem segurar
+ *    nenhum outro. Com ele na mão, tenta os demais de novo.
+ * 2. ORDENADA: depois de RODADAS_OTIMISTAS falhas, solta tudo e pega os
+ *    recursos com pegar() em ordem crescente de id, esperando por cada um.
+ *    É a hierarquia de recursos da Tarefa 2 generalizada para k recursos.
+ *
+ * AUSÊNCIA DE DEADLOCK:
+ * Só a fase ordenada espera segurando recursos, e sempre por um id maior que
+ * todos os que segura. Na fase otimista quem espera não segura nada, e
+ * tentarPegar() nunca espera. Assim toda aresta "espera por" sai de um id
+ * menor para um maior e não há ciclo.
+ *
+ * FAIRNESS (reservas):
+ * Sem pensar, quem solta um recurso e logo pede de novo ganha de quem foi
+ * acordado e ainda não executou; numa clique de 200 filósofos a maioria nunca
+ * comia. Por isso quem chega à fase ordenada está faminto: marca cada um dos
+ * seus recursos com o instante em que ficou faminto (reservas, como a
+ * prioridade da MesaAtomica, mas por recurso e não por vizinho).
+ * - Na fase otimista, um recurso reservado conta como ocupado, e quem o
+ *   encontra cede a vez (yield) em vez de esperar por ele.
+ * - Na fase ordenada, quem encontra uma reserva mais antiga que a sua solta
+ *   tudo o que pegou e tenta de novo depois de uma pausa. Se esperasse
+ *   segurando, o mais antigo poderia estar esperando justamente por um
+ *   recurso dele.
+ * O faminto mais antigo nunca cede para ninguém e só espera por quem está
+ * comendo ou na fase ordenada, então sempre chega a comer; cada faminto um
+ * dia é o mais antigo. A reserva é só um long por recurso, sem estado global,
+ * e o caminho rápido paga uma leitura volátil a mais por recurso.
+ *
+ * DECISÃO: Construtor (int) = anel, então o Benchmark e o Main tratam a
+ * MesaGrafo como qualquer outra mesa; --topologia escolhe outro grafo.
+ */
+public class MesaGrafo implements ProtocoloGarfos {
+    private static final int RODADAS_OTIMISTAS = 8;
+    private static final long PAUSA_MINIMA_NS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long PAUSA_MAXIMA_NS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final GrafoRecursos grafo;
+    private final GarfoAtomico[] garfos;
+    // DECISÃO: 0 = sem reserva; senão, o instante em que o faminto entrou na fase ordenada
+    private final AtomicLongArray reservas;
+
+    public MesaGrafo(int numFilosofos) {
+        this(GrafoRecursos.anel(numFilosofos));
+    }
+
+    public MesaGrafo(GrafoRecursos grafo) {
+        this.grafo = grafo;
+        this.garfos = new GarfoAtomico[grafo.getNumRecursos()];
+        for (int r = 0; r < garfos.length; r++) {
+            garfos[r] = new GarfoAtomico(r);
+        }
+        this.reservas = new AtomicLongArray(grafo.getNumRecursos());
+    }
+
+    @Override
+    public void pegarGarfos(int filosofoId) throws InterruptedException {
+        // DECISÃO: Como na MesaAtomica, o caminho sem espera não veria a interrupção
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        int[] recursos = grafo.getRecursos(filosofoId);
+        // DECISÃO: Índice (em recursos) do que foi pego esperando; -1 = nenhum
+        int seguro = -1;
+        for (int rodada = 0; rodada < RODADAS_OTIMISTAS; rodada++) {
+            int ocupado = tentarTodos(recursos, seguro);
+            if (ocupado < 0) {
+                return;
+            }
+            // tentarTodos soltou tudo: espera só pelo recurso ocupado, ou
+            // cede a vez se ele está reservado por um faminto
+            seguro = -1;
+            if (reservas.get(recursos[ocupado]) != 0) {
+                Thread.yield();
+                continue;
+            }
+            garfos[recursos[ocupado]].pegar();
+            seguro = ocupado;
+        }
+        if (seguro >= 0) {
+            garfos[recursos[seguro]].soltar();
+        }
+        pegarComoFaminto(recursos);
+    }
+
+    /**
+     * Tenta pegar todos os recursos, exceto o de índice seguro, que já está na mão.
+     *
+     * @return -1 se ficou com todos; senão o índice do recurso ocupado ou
+     *         reservado, depois de soltar todos os que tinha (inclusive o seguro)
+     */
+    private int tentarTodos(int[] recursos, int seguro) {
+        for (int j = 0; j < recursos.length; j++) {
+            int r = recursos[j];
+            if (reservas.get(r) != 0 || (j != seguro && !garfos[r].tentarPegar())) {
+                for (int i = 0; i < j; i++) {
+                    if (i != seguro) {
+                        garfos[recursos[i]].soltar();
+                    }
+                }
+                if (seguro >= 0) {
+                    garfos[recursos[seguro]].soltar();
+                }
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Fase ordenada: reserva os recursos e os pega em ordem crescente,
+     * cedendo só para reservas mais antigas.
+     */
+    private void pegarComoFaminto(int[] recursos) throws InterruptedException {
+        long agora = System.nanoTime();
+        // DECISÃO: Nunca 0, que significa "sem reserva"
+        long marca = agora == 0 ? 1 : agora;
+        long pausa = PAUSA_MINIMA_NS;
+        try {
+            while (true) {
+                reservar(recursos, marca);
+                int pegos = pegarEmOrdem(recursos, marca);
+                if (pegos == recursos.length) {
+                    return;
+                }
+                // DECISÃO: Soltar tudo antes de esperar o mais antigo (ver FAIRNESS)
+                soltarAte(recursos, pegos);
+                // DECISÃO: Pausa exponencial (como o backoff da Tarefa 6): numa
+                // clique quase todos ficam famintos, e com pausa fixa as novas
+                // tentativas tomavam o processador do mais antigo
+                LockSupport.parkNanos(this, pausa);
+                pausa = Math.min(PAUSA_MAXIMA_NS, pausa * 2);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        } finally {
+            for (int r : recursos) {
+                reservas.compareAndSet(r, marca, 0);
+            }
+        }
+    }
+
+    /**
+     * Marca os recursos com a própria reserva, exceto os que já têm uma mais antiga.
+     */
+    private void reservar(int[] recursos, long marca) {
+        for (int r : recursos) {
+            while (true) {
+                long atual = reservas.get(r);
+                if ((atual != 0 && atual - marca <= 0) || reservas.compareAndSet(r, atual, marca)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Pega os recursos em ordem crescente, esperando por cada um.
+     *
+     * @return quantos pegou: todos, ou até o primeiro com reserva mais antiga
+     */
+    private int pegarEmOrdem(int[] recursos, long marca) throws InterruptedException {
+        for (int j = 0; j < recursos.length; j++) {
+            int r = recursos[j];
+            long reserva = reservas.get(r);
+            if (reserva != 0 && reserva - marca < 0) {
+                return j;
+            }
+            try {
+                garfos[r].pegar();
+            } catch (InterruptedException e) {
+                // DECISÃO: Não sair segurando recursos (contrato de ProtocoloGarfos)
+                soltarAte(recursos, j);
+                throw e;
+            }
+        }
+        return recursos.length;
+    }
+
+    /**
+     * Solta os primeiros quantidade recursos, do maior para o menor.
+     */
+    private void soltarAte(int[] recursos, int quantidade) {
+        for (int i = quantidade - 1; i >= 0; i--) {
+            garfos[recursos[i]].soltar();
+        }
+    }
+
+    @Override
+    public void soltarGarfos(int filosofoId) {
+        int[] recursos = grafo.getRecursos(filosofoId);
+        soltarAte(recursos, recursos.length);
+    }
+
+    @Override
+    public int getNumFilosofos() {
+        return grafo.getNumFilosofos();
+    }
+
+    @Override
+    public String getNome() {
+        return "tarefa4-mesa-grafo-" + grafo.getNome();
+    }
+
+    public GrafoRecursos getGrafo() {
+        return grafo;
+    }
+}
@@ -0,0 +1,294 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Mesa dividida em segmentos, cada um com o seu lock e o seu estado de
+ * fairness - Tarefa 4.
+ *
+ * PROBLEMA DA MESA ÚNICA:
+ * Todo pegarGarfos/soltarGarfos passa pelo mesmo lock. Com muitos núcleos,
+ * filósofos em lados opostos da mesa, que nunca disputam um garfo, ainda
+ * assim disputam o lock, e acrescentar núcleos não aumenta a vazão.
+ *
+ * DECISÃO DE DESIGN: O anel é dividido em segmentos contíguos. O garfo f
+ * pertence ao segmento do filósofo f, então o filósofo i (garfos i e i+1)
+ * só precisa do lock do próprio segmento, exceto o último filósofo de cada
+ * segmento ("fronteira"), cujo garfo direito é do segmento seguinte. Só os
+ * filósofos de fronteira tomam dois locks, sempre em ordem crescente de
+ * segmento, o que evita deadlock entre os locks.
+ *
+ * FAIRNESS (mesmas regras da Mesa: 5000 ms e 2000 ms):
+ * Cada segmento tem um HeapRefeicoes com os seus filósofos e também com o
+ * filósofo de fronteira do segmento anterior. Assim, quaisquer dois vizinhos
+ * aparecem juntos em pelo menos um heap que ambos consultam: quem disputa um
+ * garfo com um filósofo faminto cede a vez a ele, como na Mesa única, e a
+ * espera continua limitada pelos 5s de prioridade absoluta. A diferença é
+ * que a regra dos 2s passa a comparar o filósofo com o seu segmento, e não
+ * com a mesa inteira.
+ *
+ * DECISÃO: Espera com LockSupport.park em vez de Condition. Um filósofo de
+ * fronteira segura dois locks e await() só soltaria um deles. Quem espera se
+ * registra em esperando[i] (sob todos os seus locks), solta os locks e
+ * estaciona; quem libera um garfo lê esperando[] sob o lock do garfo e faz
+ * unpark. Um unpark que chega antes do park não se perde.
+ */
+public class MesaParticionada implements ProtocoloGarfos {
+    private static final long ESPERA_MAXIMA_NS = TimeUnit.MILLISECONDS.toNanos(5000);
+    private static final long DIFERENCA_PRIORIDADE_NS = TimeUnit.MILLISECONDS.toNanos(2000);
+    // DECISÃO: Segmentos menores que isso teriam quase todos os filósofos na fronteira
+    private static final int TAMANHO_MINIMO_SEGMENTO = 4;
+
+    private final int numFilosofos;
+    private final Segmento[] segmentos;
+    // DECISÃO: Segmento de cada filósofo (e do garfo de mesmo índice)
+    private final int[] segmentoDe;
+    // DECISÃO: Cada garfo é protegido pelo lock do segmento ao qual pertence
+    private final boolean[] garfosDisponiveis;
+    // DECISÃO: Thread estacionada de cada filósofo, ou null se ele não espera
+    private final Thread[] esperando;
+
+    /**
+     * Construtor com o número de segmentos escolhido pelo número de núcleos.
+     *
+     * DECISÃO: Dois segmentos por núcleo, para que threads em núcleos
+     * diferentes raramente caiam no mesmo segmento.
+     */
+    public MesaParticionada(int numFilosofos) {
+        this(numFilosofos, segmentosPadrao(numFilosofos));
+    }
+
+    public MesaParticionada(int numFilosofos, int numSegmentos) {
+        if (numSegmentos < 1 || numSegmentos > numFilosofos) {
+            throw new IllegalArgumentException("Numero de segmentos deve estar entre 1 e " + numFilosofos + ": " + numSegmentos);
+        }
+        this.numFilosofos = numFilosofos;
+        this.segmentos = new Segmento[numSegmentos];
+        this.segmentoDe = new int[numFilosofos];
+        this.garfosDisponiveis = new boolean[numFilosofos];
+        this.esperando = new Thread[numFilosofos];
+        // DECISÃO: "Nunca comeu" = comeu há mais de 5s, como na Mesa
+        long inicial = System.nanoTime() - ESPERA_MAXIMA_NS - 1;
+        for (int s = 0; s < numSegmentos; s++) {
+            int inicio = (int) ((long) s * numFilosofos / numSegmentos);
+            int fim = (int) ((long) (s + 1) * numFilosofos / numSegmentos);
+            segmentos[s] = new Segmento(inicio, fim - inicio, numSegmentos > 1, inicial);
+            for (int i = inicio; i < fim; i++) {
+                segmentoDe[i] = s;
+                garfosDisponiveis[i] = true;
+            }
+        }
+    }
+
+    public static int segmentosPadrao(int numFilosofos) {
+        int porNucleos = 2 * Runtime.getRuntime().availableProcessors();
+        return Math.max(1, Math.min(porNucleos, numFilosofos / TAMANHO_MINIMO_SEGMENTO));
+    }
+
+    @Override
+    public void pegarGarfos(int filosofoId) throws InterruptedException {
+        int garfoEsquerdo = filosofoId;
+        int garfoDireito = (filosofoId + 1) % numFilosofos;
+        Segmento proprio = segmentos[segmentoDe[garfoEsquerdo]];
+        // DECISÃO: Para quem não é fronteira, vizinho == proprio e há um único lock
+        Segmento vizinho = segmentos[segmentoDe[garfoDireito]];
+
+        travar(proprio, vizinho);
+        try {
+            while (true) {
+                // DECISÃO: Uma leitura do relógio por decisão, como na Mesa
+                long agora = System.nanoTime();
+                if (podeComer(filosofoId, garfoEsquerdo, garfoDireito, proprio, vizinho, agora)) {
+                    break;
+                }
+                esperando[filosofoId] = Thread.currentThread();
+                boolean adiadoPelaFairness = garfosDisponiveis[garfoEsquerdo] && garfosDisponiveis[garfoDireito];
+                long prazoNs = 0;
+                if (adiadoPelaFairness) {
+                    // DECISÃO: Garfos livres, mas outro filósofo tem prioridade.
+                    // Espera um aviso de quem comer ou, no máximo, o prazo de 5s
+                    proprio.adiar(filosofoId, numFilosofos);
+                    if (vizinho != proprio) {
+                        vizinho.adiar(filosofoId, numFilosofos);
+                    }
+                    prazoNs = Math.max(1, proprio.ultimaRefeicao(filosofoId, numFilosofos) + ESPERA_MAXIMA_NS + 1 - agora);
+                }
+                destravar(proprio, vizinho);
+                if (adiadoPelaFairness) {
+                    LockSupport.parkNanos(this, prazoNs);
+                } else {
+                    LockSupport.park(this);
+                }
+                travar(proprio, vizinho);
+                esperando[filosofoId] = null;
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+
+            garfosDisponiveis[garfoEsquerdo] = false;
+            garfosDisponiveis[garfoDireito] = false;
+            long agora = System.nanoTime();
+            proprio.registrarRefeicao(filosofoId, agora, numFilosofos, esperando);
+            if (vizinho != proprio) {
+                vizinho.registrarRefeicao(filosofoId, agora, numFilosofos, esperando);
+            }
+        } finally {
+            destravar(proprio, vizinho);
+        }
+    }
+
+    @Override
+    public void soltarGarfos(int filosofoId) {
+        int garfoEsquerdo = filosofoId;
+        int garfoDireito = (filosofoId + 1) % numFilosofos;
+        Segmento proprio = segmentos[segmentoDe[garfoEsquerdo]];
+        Segmento vizinho = segmentos[segmentoDe[garfoDireito]];
+
+        travar(proprio, vizinho);
+        try {
+            garfosDisponiveis[garfoEsquerdo] = true;
+            garfosDisponiveis[garfoDireito] = true;
+            // DECISÃO: Só os dois vizinhos podem usar os garfos liberados. Ambos
+            // se registram em esperando[] segurando o lock do garfo que
+            // compartilham conosco, que nós também seguramos agora
+            acordar(esperando[(filosofoId - 1 + numFilosofos) % numFilosofos]);
+            acordar(esperando[garfoDireito]);
+        } finally {
+            destravar(proprio, vizinho);
+        }
+    }
+
+    @Override
+    public int getNumFilosofos() {
+        return numFilosofos;
+    }
+
+    @Override
+    public String getNome() {
+        return "tarefa4-particionada/" + segmentos.length;
+    }
+
+    public int getNumSegmentos() {
+        return segmentos.length;
+    }
+
+    /**
+     * Mesma regra de Mesa.podeComer, consultando os heaps dos segmentos
+     * cujos locks o filósofo segura.
+     */
+    private boolean podeComer(int filosofoId, int garfoEsquerdo, int garfoDireito,
+                              Segmento proprio, Segmento vizinho, long agora) {
+        if (!garfosDisponiveis[garfoEsquerdo] || !garfosDisponiveis[garfoDireito]) {
+            return false;
+        }
+        long tempoEspera = agora - proprio.ultimaRefeicao(filosofoId, numFilosofos);
+        if (tempoEspera > ESPERA_MAXIMA_NS) {
+            return true;
+        }
+        long menorOutro = proprio.menorExceto(filosofoId, numFilosofos);
+        if (vizinho != proprio) {
+            menorOutro = Math.min(menorOutro, vizinho.menorExceto(filosofoId, numFilosofos));
+        }
+        return menorOutro == Long.MAX_VALUE || agora - menorOutro <= tempoEspera + DIFERENCA_PRIORIDADE_NS;
+    }
+
+    /**
+     * DECISÃO: Ordem fixa (índice do segmento) para não haver deadlock entre locks.
+     */
+    private void travar(Segmento proprio, Segmento vizinho) {
+        if (vizinho == proprio) {
+            proprio.lock.lock();
+        } else if (proprio.inicio < vizinho.inicio) {
+            proprio.lock.lock();
+            vizinho.lock.lock();
+        } else {
+            vizinho.lock.lock();
+            proprio.lock.lock();
+        }
+    }
+
+    private void destravar(Segmento proprio, Segmento vizinho) {
+        if (vizinho != proprio) {
+            vizinho.lock.unlock();
+        }
+        proprio.lock.unlock();
+    }
+
+    private static void acordar(Thread thread) {
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Um trecho contíguo da mesa com o seu lock e o seu estado de fairness.
+     *
+     * DECISÃO: O heap tem uma posição extra (índice local 0) para o filósofo
+     * de fronteira do segmento anterior, que disputa o primeiro garfo deste
+     * segmento. Com um único segmento a mesa inteira já está no heap.
+     */
+    private static class Segmento {
+        private final ReentrantLock lock;
+        private final int inicio;
+        private final int deslocamento;
+        private final HeapRefeicoes heap;
+        // DECISÃO: Adiados pela fairness, como na Mesa, indexados pela posição local
+        private final int[] adiados;
+        private final boolean[] adiado;
+        private int numAdiados;
+        private long limiteAdiamento;
+
+        Segmento(int inicio, int tamanho, boolean incluiFronteiraAnterior, long inicial) {
+            int tamanhoHeap = incluiFronteiraAnterior ? tamanho + 1 : tamanho;
+            this.lock = new ReentrantLock();
+            this.inicio = inicio;
+            this.deslocamento = incluiFronteiraAnterior ? 1 : 0;
+            this.heap = new HeapRefeicoes(tamanhoHeap, inicial);
+            this.adiados = new int[tamanhoHeap];
+            this.adiado = new boolean[tamanhoHeap];
+            this.numAdiados = 0;
+            this.limiteAdiamento = Long.MIN_VALUE;
+        }
+
+        private int local(int filosofoId, int numFilosofos) {
+            return (filosofoId - inicio + deslocamento + numFilosofos) % numFilosofos;
+        }
+
+        long ultimaRefeicao(int filosofoId, int numFilosofos) {
+            return heap.getUltimaRefeicao(local(filosofoId, numFilosofos));
+        }
+
+        long menorExceto(int filosofoId, int numFilosofos) {
+            return heap.menorExceto(local(filosofoId, numFilosofos));
+        }
+
+        void adiar(int filosofoId, int numFilosofos) {
+            int k = local(filosofoId, numFilosofos);
+            if (!adiado[k]) {
+                adiado[k] = true;
+                adiados[numAdiados++] = filosofoId;
+            }
+            limiteAdiamento = Math.max(limiteAdiamento, heap.getUltimaRefeicao(k) - DIFERENCA_PRIORIDADE_NS);
+        }
+
+        /**
+         * Registra a refeição e acorda os adiados que podiam estar esperando
+         * por este filósofo (mesmo critério da Mesa).
+         */
+        void registrarRefeicao(int filosofoId, long agora, int numFilosofos, Thread[] esperando) {
+            int k = local(filosofoId, numFilosofos);
+            long comeuAntes = heap.getUltimaRefeicao(k);
+            heap.registrar(k, agora);
+            if (numAdiados > 0 && comeuAntes < limiteAdiamento) {
+                for (int i = 0; i < numAdiados; i++) {
+                    int outro = adiados[i];
+                    adiado[local(outro, numFilosofos)] = false;
+                    acordar(esperando[outro]);
+                }
+                numAdiados = 0;
+                limiteAdiamento = Long.MIN_VALUE;
+            }
+        }
+    }
+}
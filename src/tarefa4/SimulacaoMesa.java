@@ -0,0 +1,174 @@
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Modelo de simulação da Mesa da Tarefa 4 (ver Simulador).
+ *
+ * DECISÃO DE DESIGN: Mesmas regras de Mesa.podeComer() - os dois garfos
+ * livres, prioridade absoluta após 5 s sem comer e a diferença de 2 s em
+ * relação a quem comeu há mais tempo (HeapRefeicoes) - sobre o relógio
+ * virtual. Os sinais da Mesa viram novas tentativas:
+ * - soltar() tenta de novo os dois vizinhos, se estiverem esperando
+ * - quem começa a comer agenda uma verificação para os adiados pela fairness
+ *   que passaram a poder comer
+ * - cada adiado agenda ainda o próprio prazo de 5 s (o awaitNanos da Mesa)
+ *
+ * DECISÃO: Um adiado só perde para o filósofo que comeu há mais tempo (a
+ * raiz do HeapRefeicoes), e só deixa de perder quando esse menor instante
+ * passa da sua última refeição - 2 s. Os adiados ficam então em um heap por
+ * esse limite, e cada refeição verifica só os que ele liberou. Verificar
+ * todos os adiados a cada refeição gerava O(N) eventos por refeição, e com
+ * 100 mil filósofos a fila de eventos esgotava a memória.
+ */
+public class SimulacaoMesa implements ModeloSimulacao {
+    private static final long ESPERA_MAXIMA_NS = TimeUnit.MILLISECONDS.toNanos(5000);
+    private static final long DIFERENCA_PRIORIDADE_NS = TimeUnit.MILLISECONDS.toNanos(2000);
+
+    private final int numFilosofos;
+    private final boolean[] garfosDisponiveis;
+    private final boolean[] esperando;
+    // DECISÃO: Instante virtual (ns) da última refeição; o "nunca comeu" fica
+    // mais de 5 s antes do zero, como na Mesa
+    private final HeapRefeicoes ultimaVezComeu;
+    // DECISÃO: Heap dos adiados por limite (ultimaVezComeu - 2 s); adiado[i]
+    // marca presença. Entradas de quem comeu pelo prazo ficam velhas e são
+    // descartadas ao sair do heap
+    private long[] limites;
+    private int[] adiados;
+    private final boolean[] adiado;
+    private int numAdiados;
+    private Simulador simulador;
+
+    public SimulacaoMesa(int numFilosofos) {
+        this.numFilosofos = numFilosofos;
+        this.garfosDisponiveis = new boolean[numFilosofos];
+        this.esperando = new boolean[numFilosofos];
+        this.ultimaVezComeu = new HeapRefeicoes(numFilosofos, -ESPERA_MAXIMA_NS - 1);
+        this.limites = new long[16];
+        this.adiados = new int[16];
+        this.adiado = new boolean[numFilosofos];
+        for (int i = 0; i < numFilosofos; i++) {
+            garfosDisponiveis[i] = true;
+        }
+    }
+
+    @Override
+    public void iniciar(Simulador simulador) {
+        this.simulador = simulador;
+    }
+
+    @Override
+    public void pedir(int filosofoId) {
+        esperando[filosofoId] = true;
+        tentar(filosofoId);
+    }
+
+    @Override
+    public void soltar(int filosofoId) {
+        int garfoDireito = (filosofoId + 1) % numFilosofos;
+        garfosDisponiveis[filosofoId] = true;
+        garfosDisponiveis[garfoDireito] = true;
+        tentar((filosofoId - 1 + numFilosofos) % numFilosofos);
+        tentar(garfoDireito);
+    }
+
+    @Override
+    public void verificar(int filosofoId) {
+        tentar(filosofoId);
+    }
+
+    @Override
+    public String getNome() {
+        return "tarefa4-mesa";
+    }
+
+    /**
+     * Uma volta do laço de Mesa.pegarGarfos() para um filósofo que espera.
+     */
+    private void tentar(int filosofoId) {
+        if (!esperando[filosofoId]) {
+            return;
+        }
+        int garfoEsquerdo = filosofoId;
+        int garfoDireito = (filosofoId + 1) % numFilosofos;
+        if (!garfosDisponiveis[garfoEsquerdo] || !garfosDisponiveis[garfoDireito]) {
+            return; // Espera um vizinho soltar
+        }
+        long agora = simulador.agora();
+        long tempoEspera = agora - ultimaVezComeu.getUltimaRefeicao(filosofoId);
+        long menorOutro = ultimaVezComeu.menorExceto(filosofoId);
+        boolean pode = tempoEspera > ESPERA_MAXIMA_NS
+                || menorOutro == Long.MAX_VALUE
+                || agora - menorOutro <= tempoEspera + DIFERENCA_PRIORIDADE_NS;
+        if (!pode) {
+            if (!adiado[filosofoId]) {
+                adiado[filosofoId] = true;
+                long ultima = ultimaVezComeu.getUltimaRefeicao(filosofoId);
+                inserirAdiado(ultima - DIFERENCA_PRIORIDADE_NS, filosofoId);
+                simulador.agendarVerificacao(ultima + ESPERA_MAXIMA_NS + 1, filosofoId);
+            }
+            return;
+        }
+
+        esperando[filosofoId] = false;
+        adiado[filosofoId] = false;
+        garfosDisponiveis[garfoEsquerdo] = false;
+        garfosDisponiveis[garfoDireito] = false;
+        ultimaVezComeu.registrar(filosofoId, agora);
+        // DECISÃO: Como acordarAdiados() da Mesa, mas só para quem o novo menor
+        // instante liberou (ver comentário da classe)
+        long menor = ultimaVezComeu.menor();
+        while (numAdiados > 0 && limites[0] <= menor) {
+            int adiadoId = adiados[0];
+            long limite = limites[0];
+            removerAdiado();
+            // DECISÃO: Entrada velha - o filósofo já comeu (pelo prazo) depois de adiado
+            if (adiado[adiadoId] && limite == ultimaVezComeu.getUltimaRefeicao(adiadoId) - DIFERENCA_PRIORIDADE_NS) {
+                adiado[adiadoId] = false;
+                simulador.agendarVerificacao(agora, adiadoId);
+            }
+        }
+        simulador.comecarRefeicao(filosofoId);
+    }
+
+    private void inserirAdiado(long limite, int filosofoId) {
+        if (numAdiados == adiados.length) {
+            limites = Arrays.copyOf(limites, numAdiados * 2);
+            adiados = Arrays.copyOf(adiados, numAdiados * 2);
+        }
+        int k = numAdiados++;
+        while (k > 0) {
+            int pai = (k - 1) >>> 1;
+            if (limites[pai] <= limite) {
+                break;
+            }
+            limites[k] = limites[pai];
+            adiados[k] = adiados[pai];
+            k = pai;
+        }
+        limites[k] = limite;
+        adiados[k] = filosofoId;
+    }
+
+    private void removerAdiado() {
+        numAdiados--;
+        long limite = limites[numAdiados];
+        int filosofoId = adiados[numAdiados];
+        int k = 0;
+        int metade = numAdiados >>> 1;
+        while (k < metade) {
+            int filho = 2 * k + 1;
+            if (filho + 1 < numAdiados && limites[filho + 1] < limites[filho]) {
+                filho++;
+            }
+            if (limite <= limites[filho]) {
+                break;
+            }
+            limites[k] = limites[filho];
+            adiados[k] = adiados[filho];
+            k = filho;
+        }
+        limites[k] = limite;
+        adiados[k] = filosofoId;
+    }
+}
@@ -0,0 +1,110 @@
+import java.util.Random;
+
+/**
+ * Representa um filósofo no algoritmo de Chandy-Misra - Tarefa 5.
+ *
+ * DECISÃO DE DESIGN: Solução totalmente descentralizada. O filósofo só
+ * conversa com os dois vizinhos, através dos garfos que compartilha com eles.
+ * Não há ordem especial por ID (Tarefa 2), semáforo global (Tarefa 3) nem
+ * monitor central (Tarefa 4).
+ *
+ * FLUXO DE UMA REFEIÇÃO:
+ * 1. Obtém o garfo esquerdo (pedindo ao vizinho se necessário)
+ * 2. Obtém o garfo direito
+ * 3. Confirma que ainda é dono dos dois e começa a comer
+ *    (um garfo sujo pode ter sido cedido enquanto esperava o outro; nesse
+ *    caso volta ao passo 1)
+ * 4. Ao terminar, os garfos ficam sujos e pedidos pendentes são atendidos
+ *
+ * A ordem esquerdo -> direito é a mesma para todos: quem evita o deadlock é
+ * a regra de limpeza dos garfos (ver Garfo), não a ordem de aquisição.
+ */
+public class Filosofo implements Runnable {
+    private final int id;
+    private final Garfo garfoEsquerdo;
+    private final Garfo garfoDireito;
+    private final Random random;
+    private final DistribuicaoTempo tempoPensar;
+    private final DistribuicaoTempo tempoComer;
+    private final EstatisticasFilosofo estatisticas;
+    private final BufferEventos eventos;
+
+    public Filosofo(int id, Garfo garfoEsquerdo, Garfo garfoDireito, DistribuicaoTempo tempoPensar, DistribuicaoTempo tempoComer, RegistroEventos registro) {
+        this.id = id;
+        this.garfoEsquerdo = garfoEsquerdo;
+        this.garfoDireito = garfoDireito;
+        this.random = new Random();
+        this.tempoPensar = tempoPensar;
+        this.tempoComer = tempoComer;
+        this.estatisticas = new EstatisticasFilosofo();
+        this.eventos = registro.criarBuffer(id);
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                pensar();
+                comer();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void pensar() throws InterruptedException {
+        long tempo = tempoPensar.sortear(random);
+        log(Evento.PENSANDO, Evento.SEM_GARFO);
+        DistribuicaoTempo.pausarNanos(tempo);
+    }
+
+    /**
+     * Simula o filósofo comendo.
+     *
+     * DECISÃO: O laço repete a obtenção até iniciarRefeicao() confirmar a
+     * posse dos dois garfos. Cada repetição só acontece porque um vizinho
+     * faminto recebeu um garfo sujo nosso, ou seja, alguém progrediu.
+     */
+    private void comer() throws InterruptedException {
+        // DECISÃO: Fora do laço - uma nova volta depois de iniciarRefeicao() falhar também é espera
+        long inicioEspera = System.nanoTime();
+        do {
+            log(Evento.TENTANDO_ESQUERDO, garfoEsquerdo.getId());
+            garfoEsquerdo.obter(id);
+            log(Evento.PEGOU_ESQUERDO, garfoEsquerdo.getId());
+
+            log(Evento.TENTANDO_DIREITO, garfoDireito.getId());
+            garfoDireito.obter(id);
+            log(Evento.PEGOU_DIREITO, garfoDireito.getId());
+        } while (!Garfo.iniciarRefeicao(garfoEsquerdo, garfoDireito, id));
+
+        long tempo = tempoComer.sortear(random);
+        log(Evento.COMENDO, Evento.SEM_GARFO);
+        estatisticas.registrarRefeicao(System.nanoTime() - inicioEspera, tempo);
+        DistribuicaoTempo.pausarNanos(tempo);
+
+        // DECISÃO: liberar() suja os garfos e entrega os que foram pedidos
+        garfoEsquerdo.liberar(id);
+        garfoDireito.liberar(id);
+        log(Evento.SOLTOU_GARFOS, Evento.SEM_GARFO);
+    }
+
+    /**
+     * Registra um evento no buffer próprio do filósofo.
+     */
+    private void log(int evento, int garfoId) {
+        eventos.registrar(evento, garfoId);
+    }
+
+    public int getFilosofoId() {
+        return id;
+    }
+
+    public int getVezesComeu() {
+        return estatisticas.getRefeicoes();
+    }
+
+    public EstatisticasFilosofo getEstatisticas() {
+        return estatisticas;
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * Representa um garfo no algoritmo "higiênico" de Chandy-Misra - Tarefa 5.
+ *
+ * DECISÃO DE DESIGN: O garfo sempre pertence a um dos seus dois vizinhos,
+ * mesmo quando ninguém está comendo. Além do dono, guarda:
+ * - sujo: o garfo foi usado pelo dono desde que ele o recebeu
+ * - emUso: o dono está comendo com ele agora
+ * - pedido: o outro vizinho pediu o garfo (o "token de requisição" está com o dono)
+ *
+ * REGRAS DE CHANDY-MISRA:
+ * 1. Um filósofo só entrega um garfo quando ele está SUJO e ele não está comendo
+ * 2. O garfo é limpo ao ser entregue; garfo limpo nunca é cedido
+ * 3. Depois de comer, os garfos ficam sujos e pedidos pendentes são atendidos
+ *
+ * Como os garfos limpos ficam com quem acabou de recebê-los e os sujos vão
+ * para quem pediu, o grafo de precedência continua acíclico: não há deadlock
+ * e quem espera é atendido assim que o vizinho terminar a próxima refeição.
+ *
+ * DECISÃO: Cada garfo é um monitor compartilhado apenas pelos dois vizinhos.
+ * Não existe nenhum estado global (nem semáforo, nem Mesa), então a disputa
+ * não cresce com o tamanho da mesa.
+ *
+ * DECISÃO: Quando o dono não está comendo e o garfo está sujo, quem pede
+ * recebe o garfo na hora, dentro do próprio obter(). O dono não precisa estar
+ * acordado para "responder" ao pedido; só precisa agir ao terminar de comer.
+ */
+public class Garfo {
+    private final int id;
+    // DECISÃO: Os dois filósofos que compartilham este garfo
+    private final int vizinhoA;
+    private final int vizinhoB;
+    private int dono;
+    private boolean sujo;
+    private boolean emUso;
+    private boolean pedido;
+
+    /**
+     * Construtor do garfo.
+     *
+     * DECISÃO: Todos os garfos começam SUJOS e com o vizinho de menor ID. Essa
+     * distribuição inicial define um grafo de precedência acíclico, condição
+     * do algoritmo para não haver deadlock.
+     */
+    public Garfo(int id, int vizinhoA, int vizinhoB) {
+        this.id = id;
+        this.vizinhoA = vizinhoA;
+        this.vizinhoB = vizinhoB;
+        this.dono = Math.min(vizinhoA, vizinhoB);
+        this.sujo = true;
+        this.emUso = false;
+        this.pedido = false;
+    }
+
+    /**
+     * Bloqueia até o filósofo ser o dono do garfo.
+     *
+     * COMPORTAMENTO:
+     * - Se já é o dono: retorna imediatamente
+     * - Se o dono não está comendo e o garfo está sujo: recebe o garfo limpo
+     * - Caso contrário: registra o pedido e espera a entrega
+     */
+    public synchronized void obter(int filosofoId) throws InterruptedException {
+        while (dono != filosofoId) {
+            if (sujo && !emUso) {
+                entregar(filosofoId);
+                return;
+            }
+            pedido = true;
+            wait();
+        }
+    }
+
+    /**
+     * Libera o garfo ao fim da refeição.
+     *
+     * DECISÃO: O garfo fica sujo e, se o vizinho pediu enquanto comíamos,
+     * é entregue imediatamente (limpo) a ele.
+     */
+    public synchronized void liberar(int filosofoId) {
+        if (dono != filosofoId) {
+            return;
+        }
+        emUso = false;
+        sujo = true;
+        if (pedido) {
+            entregar(outro(filosofoId));
+        }
+    }
+
+    /**
+     * Começa a refeição se o filósofo for dono dos dois garfos.
+     *
+     * DECISÃO: Um garfo sujo pode ser cedido enquanto o filósofo espera o
+     * outro. Por isso a posse dos dois é verificada de novo, atomicamente,
+     * com os dois monitores tomados sempre na ordem do ID do garfo (a ordem
+     * fixa evita deadlock entre os próprios monitores).
+     *
+     * @return true se os dois garfos foram marcados em uso
+     */
+    public static boolean iniciarRefeicao(Garfo esquerdo, Garfo direito, int filosofoId) {
+        Garfo primeiro = esquerdo.id < direito.id ? esquerdo : direito;
+        Garfo segundo = primeiro == esquerdo ? direito : esquerdo;
+        synchronized (primeiro) {
+            synchronized (segundo) {
+                if (primeiro.dono != filosofoId || segundo.dono != filosofoId) {
+                    return false;
+                }
+                primeiro.emUso = true;
+                segundo.emUso = true;
+                return true;
+            }
+        }
+    }
+
+    private void entregar(int novoDono) {
+        dono = novoDono;
+        sujo = false;
+        pedido = false;
+        // DECISÃO: Só os dois vizinhos esperam neste monitor; notifyAll acorda no máximo um
+        notifyAll();
+    }
+
+    private int outro(int filosofoId) {
+        return filosofoId == vizinhoA ? vizinhoB : vizinhoA;
+    }
+
+    public int getId() {
+        return id;
+    }
+}
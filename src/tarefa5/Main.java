@@ -0,0 +1,71 @@
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Classe principal que implementa o problema dos Filósofos Jantando - Tarefa 5.
+ *
+ * DECISÃO DE DESIGN: Solução de Chandy-Misra ("filósofos higiênicos").
+ * Os garfos são limpos ou sujos e os pedidos circulam apenas entre vizinhos,
+ * através do garfo que eles compartilham.
+ *
+ * DIFERENÇA DAS OUTRAS TAREFAS:
+ * - Tarefa 2: a quebra de simetria depende de um ID especial
+ * - Tarefa 3: todos disputam o mesmo semáforo global
+ * - Tarefa 4: todos disputam o monitor da Mesa
+ * - Tarefa 5: nenhum objeto é compartilhado por mais de dois filósofos, então
+ *   a vazão cresce com o tamanho da mesa em vez de esbarrar em um único lock
+ *
+ * VANTAGENS:
+ * - Sem deadlock (grafo de precedência acíclico)
+ * - Sem starvation: quem pediu um garfo o recebe na próxima liberação
+ * - Totalmente descentralizado
+ */
+public class Main {
+    private static final int NUM_FILOSOFOS = 5;
+    private static final int TEMPO_EXECUCAO_MS = 120000;
+
+    public static void main(String[] args) {
+        Argumentos argumentos = new Argumentos(args);
+        // DECISÃO: Mesmos parâmetros das outras tarefas para resultados comparáveis
+        int numFilosofos = argumentos.getIntMinimo("filosofos", NUM_FILOSOFOS, 2);
+        String execucao = argumentos.getString("execucao", ModoExecucao.PLATAFORMA);
+        long duracaoMs = argumentos.getLong("duracao", TEMPO_EXECUCAO_MS);
+        DistribuicaoTempo tempoPensar = DistribuicaoTempo.parse(argumentos.getString("pensar", "1000-3000ms"));
+        DistribuicaoTempo tempoComer = DistribuicaoTempo.parse(argumentos.getString("comer", "1000-3000ms"));
+        InstrumentacaoMesa instrumentacao = new InstrumentacaoMesa(argumentos, "tarefa5", numFilosofos);
+        RegistroEventos registro = instrumentacao.getRegistro();
+        instrumentacao.descartarPerfil("pelos garfos da Tarefa 5");
+
+        Garfo[] garfos = new Garfo[numFilosofos];
+        Filosofo[] filosofos = new Filosofo[numFilosofos];
+        ExecutorService executor = ModoExecucao.criarExecutor(execucao, numFilosofos, "filosofo-");
+
+        // DECISÃO: O garfo i é compartilhado pelo filósofo i (seu garfo esquerdo)
+        // e pelo filósofo i-1 (seu garfo direito)
+        for (int i = 0; i < numFilosofos; i++) {
+            garfos[i] = new Garfo(i, i, (i - 1 + numFilosofos) % numFilosofos);
+        }
+        instrumentacao.iniciar();
+
+        for (int i = 0; i < numFilosofos; i++) {
+            Garfo garfoEsquerdo = garfos[i];
+            Garfo garfoDireito = garfos[(i + 1) % numFilosofos];
+            filosofos[i] = new Filosofo(i, garfoEsquerdo, garfoDireito, tempoPensar, tempoComer, registro);
+            instrumentacao.acompanhar(filosofos[i].getEstatisticas(), i);
+            executor.execute(filosofos[i]);
+        }
+
+        try {
+            Thread.sleep(duracaoMs);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        instrumentacao.encerrar(executor);
+
+        EstatisticasFilosofo[] estatisticas = new EstatisticasFilosofo[numFilosofos];
+        for (Filosofo filosofo : filosofos) {
+            estatisticas[filosofo.getFilosofoId()] = filosofo.getEstatisticas();
+        }
+        RelatorioEstatisticas.imprimir(estatisticas, duracaoMs);
+    }
+}
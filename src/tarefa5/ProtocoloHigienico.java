@@ -0,0 +1,44 @@
+/**
+ * Adaptador da estratégia da Tarefa 5 (Chandy-Misra) para ProtocoloGarfos.
+ *
+ * DECISÃO DE DESIGN: Mesmo fluxo de Filosofo.comer() - obter esquerdo,
+ * obter direito, confirmar a posse dos dois - sobre os mesmos objetos Garfo.
+ */
+public class ProtocoloHigienico implements ProtocoloGarfos {
+    private final Garfo[] garfos;
+
+    public ProtocoloHigienico(int numFilosofos) {
+        this.garfos = new Garfo[numFilosofos];
+        for (int i = 0; i < numFilosofos; i++) {
+            garfos[i] = new Garfo(i, i, (i - 1 + numFilosofos) % numFilosofos);
+        }
+    }
+
+    @Override
+    public void pegarGarfos(int filosofoId) throws InterruptedException {
+        Garfo esquerdo = garfos[filosofoId];
+        Garfo direito = garfos[(filosofoId + 1) % garfos.length];
+        // DECISÃO: Interrupção durante obter() não exige devolução: garfos que
+        // não estão em uso são cedidos a quem pedir, como em qualquer espera
+        do {
+            esquerdo.obter(filosofoId);
+            direito.obter(filosofoId);
+        } while (!Garfo.iniciarRefeicao(esquerdo, direito, filosofoId));
+    }
+
+    @Override
+    public void soltarGarfos(int filosofoId) {
+        garfos[filosofoId].liberar(filosofoId);
+        garfos[(filosofoId + 1) % garfos.length].liberar(filosofoId);
+    }
+
+    @Override
+    public int getNumFilosofos() {
+        return garfos.length;
+    }
+
+    @Override
+    public String getNome() {
+        return "tarefa5-higienico";
+    }
+}
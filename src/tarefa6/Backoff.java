@@ -0,0 +1,46 @@
+import java.util.Random;
+
+/**
+ * Pausa entre tentativas de um filósofo que desistiu do garfo direito - Tarefa 6.
+ *
+ * DECISÃO DE DESIGN: Backoff exponencial com jitter completo. Depois da
+ * k-ésima desistência seguida, a pausa é sorteada uniformemente em
+ * [0, min(maximo, inicial * 2^k)).
+ * - Exponencial: quanto mais disputado o garfo, mais o filósofo se afasta,
+ *   aliviando o vizinho que está comendo
+ * - Jitter: sem o sorteio, filósofos que desistiram juntos voltariam juntos e
+ *   repetiriam a mesma colisão (livelock); o sorteio quebra essa simetria
+ *
+ * DECISÃO: Imutável e sem estado de tentativa; o contador de desistências
+ * fica com o filósofo, e o Random é o dele (sem disputa entre threads).
+ */
+public class Backoff {
+    // DECISÃO: 2^30 vezes a pausa inicial já passa de qualquer máximo útil
+    private static final int EXPOENTE_MAXIMO = 30;
+
+    private final long inicialNs;
+    private final long maximoNs;
+
+    public Backoff(long inicialNs, long maximoNs) {
+        if (inicialNs <= 0 || maximoNs < inicialNs) {
+            throw new IllegalArgumentException("Backoff invalido: inicial " + inicialNs + " ns, maximo " + maximoNs + " ns");
+        }
+        this.inicialNs = inicialNs;
+        this.maximoNs = maximoNs;
+    }
+
+    /**
+     * Sorteia a pausa (ns) depois de "falhas" desistências seguidas (0 = a primeira).
+     */
+    public long sortear(int falhas, Random random) {
+        long teto = Math.min(maximoNs, inicialNs << Math.min(falhas, EXPOENTE_MAXIMO));
+        return (long) (random.nextDouble() * teto);
+    }
+
+    /**
+     * Sorteia a pausa e a cumpre (espera ativa abaixo de 200 us, ver DistribuicaoTempo).
+     */
+    public void pausar(int falhas, Random random) throws InterruptedException {
+        DistribuicaoTempo.pausarNanos(sortear(falhas, random));
+    }
+}
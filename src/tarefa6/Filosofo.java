@@ -0,0 +1,133 @@
+import java.util.Random;
+
+/**
+ * Representa um filósofo que desiste do segundo garfo - Tarefa 6.
+ *
+ * DECISÃO DE DESIGN: Nas Tarefas 2 e 3 quem já tem o garfo esquerdo espera
+ * o direito sem prazo. Enquanto isso o esquerdo fica preso, o vizinho da
+ * esquerda espera por ele, e assim por diante: uma fila (comboio) atrás de
+ * quem está comendo. Aqui o garfo direito é pedido com tempo limite; se o
+ * prazo acabar, o filósofo devolve o esquerdo, espera um backoff exponencial
+ * com jitter (ver Backoff) e recomeça.
+ *
+ * SEM DEADLOCK: ninguém segura um garfo enquanto espera indefinidamente por
+ * outro, então a espera circular da Tarefa 1 se desfaz quando o primeiro
+ * prazo acaba. O jitter evita que todos desistam e voltem no mesmo instante
+ * (livelock).
+ *
+ * DECISÃO: Todos pegam esquerdo -> direito, sem ID especial (Tarefa 2) nem
+ * semáforo global (Tarefa 3).
+ */
+public class Filosofo implements Runnable {
+    private final int id;
+    private final Garfo garfoEsquerdo;
+    private final Garfo garfoDireito;
+    // DECISÃO: Prazo para o garfo direito, em nanossegundos
+    private final long timeoutNs;
+    private final Backoff backoff;
+    private final Random random;
+    private final DistribuicaoTempo tempoPensar;
+    private final DistribuicaoTempo tempoComer;
+    private final EstatisticasFilosofo estatisticas;
+    private final BufferEventos eventos;
+    // DECISÃO: volatile - escrito pelo filósofo e lido pelo Main no relatório
+    private volatile long desistencias;
+
+    public Filosofo(int id, Garfo garfoEsquerdo, Garfo garfoDireito, long timeoutNs, Backoff backoff, DistribuicaoTempo tempoPensar, DistribuicaoTempo tempoComer, RegistroEventos registro) {
+        this.id = id;
+        this.garfoEsquerdo = garfoEsquerdo;
+        this.garfoDireito = garfoDireito;
+        this.timeoutNs = timeoutNs;
+        this.backoff = backoff;
+        this.random = new Random();
+        this.tempoPensar = tempoPensar;
+        this.tempoComer = tempoComer;
+        this.estatisticas = new EstatisticasFilosofo();
+        this.eventos = registro.criarBuffer(id);
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                pensar();
+                comer();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void pensar() throws InterruptedException {
+        long tempo = tempoPensar.sortear(random);
+        log(Evento.PENSANDO, Evento.SEM_GARFO);
+        DistribuicaoTempo.pausarNanos(tempo);
+    }
+
+    /**
+     * Simula o filósofo comendo.
+     *
+     * DECISÃO: O garfo esquerdo é pedido sem prazo - sem nenhum garfo na mão,
+     * esperar não bloqueia ninguém. Só a espera pelo segundo garfo tem prazo.
+     */
+    private void comer() throws InterruptedException {
+        // DECISÃO: Fora do laço - as desistências e o backoff também são espera
+        long inicioEspera = System.nanoTime();
+        int falhas = 0;
+        while (true) {
+            log(Evento.TENTANDO_ESQUERDO, garfoEsquerdo.getId());
+            garfoEsquerdo.pegar();
+            log(Evento.PEGOU_ESQUERDO, garfoEsquerdo.getId());
+
+            log(Evento.TENTANDO_DIREITO, garfoDireito.getId());
+            boolean pegou;
+            try {
+                pegou = garfoDireito.tryPegar(timeoutNs);
+            } catch (InterruptedException e) {
+                garfoEsquerdo.soltar();
+                throw e;
+            }
+            if (pegou) {
+                break;
+            }
+            // DECISÃO: Prazo esgotado - devolver o esquerdo e se afastar
+            garfoEsquerdo.soltar();
+            log(Evento.DESISTIU_DIREITO, garfoDireito.getId());
+            desistencias++;
+            backoff.pausar(falhas++, random);
+        }
+        log(Evento.PEGOU_DIREITO, garfoDireito.getId());
+
+        long tempo = tempoComer.sortear(random);
+        log(Evento.COMENDO, Evento.SEM_GARFO);
+        estatisticas.registrarRefeicao(System.nanoTime() - inicioEspera, tempo);
+        DistribuicaoTempo.pausarNanos(tempo);
+
+        garfoEsquerdo.soltar();
+        garfoDireito.soltar();
+        log(Evento.SOLTOU_GARFOS, Evento.SEM_GARFO);
+    }
+
+    /**
+     * Registra um evento no buffer próprio do filósofo.
+     */
+    private void log(int evento, int garfoId) {
+        eventos.registrar(evento, garfoId);
+    }
+
+    public int getFilosofoId() {
+        return id;
+    }
+
+    public int getVezesComeu() {
+        return estatisticas.getRefeicoes();
+    }
+
+    public EstatisticasFilosofo getEstatisticas() {
+        return estatisticas;
+    }
+
+    public long getDesistencias() {
+        return desistencias;
+    }
+}
@@ -0,0 +1,111 @@
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Representa um garfo com aquisição por tempo limitado - Tarefa 6.
+ *
+ * DECISÃO DE DESIGN: Além do pegar() bloqueante das outras tarefas, oferece
+ * tryPegar(timeout), que desiste se o garfo não for liberado a tempo. É o
+ * que permite ao filósofo devolver o primeiro garfo em vez de ficar
+ * esperando indefinidamente pelo segundo.
+ *
+ * DECISÃO: ReentrantLock + Condition em vez de synchronized/wait: a espera
+ * com prazo (awaitNanos) tem resolução de nanossegundos e, como na Mesa da
+ * Tarefa 4, não prende o carrier de uma thread virtual.
+ *
+ * DECISÃO: signal() em vez de signalAll(): um garfo só é disputado pelos dois
+ * vizinhos, então com o garfo em uso há no máximo um esperando.
+ *
+ * DECISÃO: Com PerfilGarfos, um tryPegar() que esgota o prazo também soma o
+ * tempo esperado ao garfo (registrarDesistencia), ainda com o lock: é esse
+ * tempo perdido que as desistências e o recuo custam.
+ */
+public class Garfo implements GarfoCompartilhado {
+    private final int id;
+    private final ReentrantLock lock;
+    private final Condition livre;
+    private boolean emUso;
+    private final PerfilGarfos perfil;
+
+    public Garfo(int id) {
+        this(id, null);
+    }
+
+    public Garfo(int id, PerfilGarfos perfil) {
+        this.id = id;
+        this.lock = new ReentrantLock();
+        this.livre = lock.newCondition();
+        this.emUso = false;
+        this.perfil = perfil;
+    }
+
+    /**
+     * Bloqueia até o garfo estar livre e o marca como em uso.
+     */
+    @Override
+    public void pegar() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            boolean disputada = emUso;
+            long inicioEspera = perfil != null && disputada ? System.nanoTime() : 0;
+            while (emUso) {
+                livre.await();
+            }
+            emUso = true;
+            if (perfil != null) {
+                perfil.registrarAquisicao(id, disputada, inicioEspera);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Tenta pegar o garfo esperando no máximo timeoutNs.
+     *
+     * @return true se pegou o garfo; false se o prazo acabou com ele em uso
+     */
+    public boolean tryPegar(long timeoutNs) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            boolean disputada = emUso;
+            long inicioEspera = perfil != null && disputada ? System.nanoTime() : 0;
+            long restanteNs = timeoutNs;
+            while (emUso) {
+                if (restanteNs <= 0) {
+                    if (perfil != null) {
+                        perfil.registrarDesistencia(id, inicioEspera);
+                    }
+                    return false;
+                }
+                restanteNs = livre.awaitNanos(restanteNs);
+            }
+            emUso = true;
+            if (perfil != null) {
+                perfil.registrarAquisicao(id, disputada, inicioEspera);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void soltar() {
+        lock.lock();
+        try {
+            if (perfil != null) {
+                perfil.registrarSoltura(id);
+            }
+            emUso = false;
+            livre.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getId() {
+        return id;
+    }
+}
@@ -0,0 +1,83 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classe principal que implementa o problema dos Filósofos Jantando - Tarefa 6.
+ *
+ * DECISÃO DE DESIGN: Aquisição com tempo limite e backoff exponencial. O
+ * filósofo que não consegue o garfo direito dentro do prazo devolve o
+ * esquerdo e tenta de novo mais tarde (ver Filosofo e Backoff).
+ *
+ * DIFERENÇA DAS OUTRAS TAREFAS:
+ * - Tarefa 2: evita o deadlock pela ordem (um filósofo invertido), mas quem
+ *   tem um garfo espera o outro sem prazo
+ * - Tarefa 3: evita o deadlock limitando a N-1 filósofos, com a mesma espera
+ * - Tarefa 6: ninguém espera indefinidamente segurando um garfo; o deadlock
+ *   não se forma e os comboios atrás de quem come se desfazem
+ *
+ * CUSTO: cada desistência é uma aquisição desperdiçada; com prazo curto
+ * demais o filósofo desiste de garfos que seriam liberados logo em seguida.
+ */
+public class Main {
+    private static final int NUM_FILOSOFOS = 5;
+    private static final int TEMPO_EXECUCAO_MS = 120000;
+    // DECISÃO: Prazo e backoff na escala das refeições de 1 a 3 s
+    private static final long TIMEOUT_MS = 500;
+    private static final long BACKOFF_INICIAL_MS = 100;
+    private static final long BACKOFF_MAXIMO_MS = 2000;
+
+    public static void main(String[] args) {
+        Argumentos argumentos = new Argumentos(args);
+        // DECISÃO: Mesmos parâmetros das outras tarefas para resultados comparáveis,
+        // mais --timeout, --backoff e --backoff-max (ms)
+        int numFilosofos = argumentos.getIntMinimo("filosofos", NUM_FILOSOFOS, 2);
+        String execucao = argumentos.getString("execucao", ModoExecucao.PLATAFORMA);
+        long duracaoMs = argumentos.getLong("duracao", TEMPO_EXECUCAO_MS);
+        DistribuicaoTempo tempoPensar = DistribuicaoTempo.parse(argumentos.getString("pensar", "1000-3000ms"));
+        DistribuicaoTempo tempoComer = DistribuicaoTempo.parse(argumentos.getString("comer", "1000-3000ms"));
+        long timeoutNs = TimeUnit.MILLISECONDS.toNanos(argumentos.getLong("timeout", TIMEOUT_MS));
+        Backoff backoff = new Backoff(TimeUnit.MILLISECONDS.toNanos(argumentos.getLong("backoff", BACKOFF_INICIAL_MS)),
+                TimeUnit.MILLISECONDS.toNanos(argumentos.getLong("backoff-max", BACKOFF_MAXIMO_MS)));
+        InstrumentacaoMesa instrumentacao = new InstrumentacaoMesa(argumentos, "tarefa6", numFilosofos);
+        RegistroEventos registro = instrumentacao.getRegistro();
+        PerfilGarfos perfil = instrumentacao.getPerfil();
+
+        Garfo[] garfos = new Garfo[numFilosofos];
+        Filosofo[] filosofos = new Filosofo[numFilosofos];
+        ExecutorService executor = ModoExecucao.criarExecutor(execucao, numFilosofos, "filosofo-");
+
+        for (int i = 0; i < numFilosofos; i++) {
+            garfos[i] = new Garfo(i, perfil);
+        }
+        instrumentacao.iniciar();
+
+        for (int i = 0; i < numFilosofos; i++) {
+            Garfo garfoEsquerdo = garfos[i];
+            Garfo garfoDireito = garfos[(i + 1) % numFilosofos];
+            filosofos[i] = new Filosofo(i, garfoEsquerdo, garfoDireito, timeoutNs, backoff, tempoPensar, tempoComer, registro);
+            instrumentacao.acompanhar(filosofos[i].getEstatisticas(), i);
+            executor.execute(filosofos[i]);
+        }
+
+        try {
+            Thread.sleep(duracaoMs);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        instrumentacao.encerrar(executor);
+
+        EstatisticasFilosofo[] estatisticas = new EstatisticasFilosofo[numFilosofos];
+        long desistencias = 0;
+        long refeicoes = 0;
+        for (Filosofo filosofo : filosofos) {
+            estatisticas[filosofo.getFilosofoId()] = filosofo.getEstatisticas();
+            desistencias += filosofo.getDesistencias();
+            refeicoes += filosofo.getVezesComeu();
+        }
+        RelatorioEstatisticas.imprimir(estatisticas, duracaoMs);
+        instrumentacao.imprimirPerfil();
+        System.out.println(String.format("Desistencias do garfo direito: %d (%.2f por refeicao)",
+                desistencias, refeicoes == 0 ? 0.0 : (double) desistencias / refeicoes));
+    }
+}
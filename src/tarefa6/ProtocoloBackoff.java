@@ -0,0 +1,80 @@
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptador da estratégia da Tarefa 6 para o contrato ProtocoloGarfos.
+ *
+ * DECISÃO DE DESIGN: Mesmo fluxo de Filosofo.comer(): esquerdo sem prazo,
+ * direito com tryPegar(timeout); ao desistir, devolve o esquerdo e espera um
+ * Backoff antes de recomeçar.
+ *
+ * DECISÃO: O construtor (int) usado pelo Benchmark tem prazos na escala de
+ * microssegundos, pois o benchmark mede refeições curtas (--comer=10us); os
+ * prazos do Main (refeições de 1 a 3 s) seriam longos demais para desistir.
+ *
+ * DECISÃO: Um Random por assento; cada assento é usado por uma thread de
+ * cada vez, então não há disputa.
+ */
+public class ProtocoloBackoff implements ProtocoloGarfos {
+    private static final long TIMEOUT_PADRAO_NS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long BACKOFF_INICIAL_PADRAO_NS = TimeUnit.MICROSECONDS.toNanos(5);
+    private static final long BACKOFF_MAXIMO_PADRAO_NS = TimeUnit.MICROSECONDS.toNanos(500);
+
+    private final Garfo[] garfos;
+    private final long timeoutNs;
+    private final Backoff backoff;
+    private final Random[] randoms;
+
+    public ProtocoloBackoff(int numFilosofos) {
+        this(numFilosofos, TIMEOUT_PADRAO_NS, new Backoff(BACKOFF_INICIAL_PADRAO_NS, BACKOFF_MAXIMO_PADRAO_NS));
+    }
+
+    public ProtocoloBackoff(int numFilosofos, long timeoutNs, Backoff backoff) {
+        this.garfos = new Garfo[numFilosofos];
+        this.randoms = new Random[numFilosofos];
+        for (int i = 0; i < numFilosofos; i++) {
+            garfos[i] = new Garfo(i);
+            randoms[i] = new Random();
+        }
+        this.timeoutNs = timeoutNs;
+        this.backoff = backoff;
+    }
+
+    @Override
+    public void pegarGarfos(int filosofoId) throws InterruptedException {
+        Garfo esquerdo = garfos[filosofoId];
+        Garfo direito = garfos[(filosofoId + 1) % garfos.length];
+        int falhas = 0;
+        while (true) {
+            esquerdo.pegar();
+            boolean pegou;
+            try {
+                pegou = direito.tryPegar(timeoutNs);
+            } catch (InterruptedException e) {
+                esquerdo.soltar();
+                throw e;
+            }
+            if (pegou) {
+                return;
+            }
+            esquerdo.soltar();
+            backoff.pausar(falhas++, randoms[filosofoId]);
+        }
+    }
+
+    @Override
+    public void soltarGarfos(int filosofoId) {
+        garfos[filosofoId].soltar();
+        garfos[(filosofoId + 1) % garfos.length].soltar();
+    }
+
+    @Override
+    public int getNumFilosofos() {
+        return garfos.length;
+    }
+
+    @Override
+    public String getNome() {
+        return "tarefa6-backoff";
+    }
+}